@@ -100,7 +100,7 @@ log "Iniciando aplicação Java..."
 # Encontrar o JAR principal (Spring Boot 3.x)
 MAIN_CLASS="br.gov.md.parla_md_backend.ParlaMdApplication"
 
-exec java $JAVA_OPTS \
+exec java $JAVA_OPTS ${JAVA_HTTPCLIENT_OPTS:--Djdk.httpclient.keepalive.timeout=300} \
     -Djava.security.egd=file:/dev/./urandom \
     -Dspring.profiles.active="${SPRING_PROFILES_ACTIVE}" \
     -Dserver.port="${SERVER_PORT}" \
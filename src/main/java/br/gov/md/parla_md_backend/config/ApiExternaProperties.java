@@ -0,0 +1,83 @@
+package br.gov.md.parla_md_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cliente HTTP compartilhado das APIs legislativas (api-externa), usado pelo
+ * {@link br.gov.md.parla_md_backend.util.ApiClient}.
+ *
+ * <p>Os limites valem por host; hosts fora de {@code hosts} usam os valores de {@code padrao}.</p>
+ */
+@Data
+@ConfigurationProperties(prefix = "api-externa")
+public class ApiExternaProperties {
+
+    private Duration timeoutConexao = Duration.ofSeconds(10);
+
+    // Tentativas por requisição, contando a primeira, em 429, 5xx e falhas de rede
+    private int tentativas = 4;
+
+    private Duration esperaInicial = Duration.ofMillis(500);
+
+    // Teto da espera entre tentativas, inclusive quando o servidor pede mais via Retry-After
+    private Duration esperaMaxima = Duration.ofSeconds(30);
+
+    // URLs cujos validadores (ETag/Last-Modified) são mantidos para GETs condicionais
+    private int validadoresMaximo = 20_000;
+
+    private Host padrao = new Host();
+
+    private List<Host> hosts = new ArrayList<>();
+
+    private Arquivo arquivo = new Arquivo();
+
+    @Data
+    public static class Host {
+
+        // Origem informada nas exceções (API_CAMARA, API_SENADO)
+        private String nome;
+
+        // URL base da API; só o host é considerado
+        private String url;
+
+        private double requisicoesPorSegundo = 10;
+
+        // Requisições que podem sair de uma vez depois de um período ocioso
+        private int rajada = 1;
+
+        private int conexoes = 8;
+
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Arquivo {
+
+        public enum Modo {
+            // Só rede
+            DESLIGADO,
+            // Rede, guardando cada resposta 2xx no arquivo
+            GRAVAR,
+            // Só arquivo: nenhuma requisição sai, respostas não arquivadas falham
+            REPRODUZIR
+        }
+
+        private Modo modo = Modo.DESLIGADO;
+
+        private String diretorio = "./dados/arquivo-respostas";
+
+        // Um segmento é fechado e outro aberto quando passa deste tamanho comprimido
+        private DataSize tamanhoSegmento = DataSize.ofMegabytes(256);
+
+        // Na reprodução, usa a captura mais recente até este instante; nulo usa a última
+        private Instant reproduzirAte;
+    }
+}
@@ -0,0 +1,32 @@
+package br.gov.md.parla_md_backend.config;
+
+import br.gov.md.parla_md_backend.domain.dto.ResumoMetricasLlamaDTO;
+import br.gov.md.parla_md_backend.service.MetricasLlamaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint /actuator/llama com o resumo das chamadas ao Llama nos últimos minutos.
+ */
+@Component
+@Endpoint(id = "llama")
+@RequiredArgsConstructor
+public class LlamaMetricasEndpoint {
+
+    private static final int PERIODO_PADRAO_MINUTOS = 15;
+
+    private final MetricasLlamaService metricasLlama;
+
+    @ReadOperation
+    public ResumoMetricasLlamaDTO resumo() {
+        return metricasLlama.resumir(PERIODO_PADRAO_MINUTOS);
+    }
+
+    @ReadOperation
+    public ResumoMetricasLlamaDTO resumoPorPeriodo(@Selector int minutos) {
+        return metricasLlama.resumir(minutos);
+    }
+}
@@ -1,15 +1,29 @@
 package br.gov.md.parla_md_backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
 
+/**
+ * Transporte HTTP dedicado ao Ollama.
+ *
+ * Um único {@link HttpClient} é compartilhado por todas as instâncias e mantém o pool
+ * de conexões persistentes; cada uso (geração, streaming, sondagem) recebe sua própria
+ * fábrica de requisições com o timeout de leitura adequado.
+ *
+ * O tempo de vida das conexões ociosas e o tamanho do pool são propriedades de sistema
+ * do JDK ({@code jdk.httpclient.keepalive.timeout} e {@code jdk.httpclient.connectionPoolSize}),
+ * lidas uma única vez por toda a JVM; por isso são definidas na linha de comando com
+ * {@code -D}, e não aqui.
+ */
 @Configuration
+@EnableConfigurationProperties(OllamaInstanciasProperties.class)
 public class OllamaConfig {
 
     @Value("${ollama.url:http://localhost:11434}")
@@ -18,19 +32,36 @@ public class OllamaConfig {
     @Value("${ollama.timeout:60000}")
     private int timeout;
 
-    @Bean(name = "ollamaRestTemplate")
-    public RestTemplate ollamaRestTemplate() {
-        return new RestTemplate(clientHttpRequestFactory());
+    @Value("${ollama.stream-timeout:300000}")
+    private int streamTimeout;
+
+    @Value("${ollama.http.connect-timeout-ms:5000}")
+    private int connectTimeout;
+
+    @Bean(name = "ollamaHttpClient")
+    public HttpClient ollamaHttpClient() {
+        // O Ollama fala HTTP/1.1; evita a tentativa de upgrade para HTTP/2 a cada conexão
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .build();
     }
 
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(Duration.ofMillis(timeout));
-        factory.setReadTimeout(Duration.ofMillis(timeout));
-        return factory;
+    public static ClientHttpRequestFactory criarFabricaRequisicoes(HttpClient httpClient, Duration timeoutLeitura) {
+        JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(httpClient);
+        fabrica.setReadTimeout(timeoutLeitura);
+        return fabrica;
     }
 
     public String getOllamaUrl() {
         return ollamaUrl;
     }
-}
\ No newline at end of file
+
+    public Duration getTimeout() {
+        return Duration.ofMillis(timeout);
+    }
+
+    public Duration getStreamTimeout() {
+        return Duration.ofMillis(streamTimeout);
+    }
+}
@@ -0,0 +1,31 @@
+package br.gov.md.parla_md_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instâncias do Ollama entre as quais as gerações são distribuídas (ollama.instancias).
+ *
+ * Quando a lista está vazia, é usada apenas a instância de {@code ollama.url}.
+ */
+@Data
+@ConfigurationProperties(prefix = "ollama")
+public class OllamaInstanciasProperties {
+
+    private List<Instancia> instancias = new ArrayList<>();
+
+    @Data
+    public static class Instancia {
+
+        private String url;
+
+        // Participação relativa na carga; uma máquina com peso 2 recebe o dobro de requisições
+        private int peso = 1;
+
+        // Modelos servidos pela instância; vazio atende a qualquer modelo
+        private List<String> modelos = new ArrayList<>();
+    }
+}
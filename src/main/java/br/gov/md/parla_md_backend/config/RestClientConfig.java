@@ -1,5 +1,6 @@
 package br.gov.md.parla_md_backend.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestClient;
@@ -8,6 +9,7 @@ import org.springframework.web.client.RestClient;
  * Configuração do RestClient para comunicação com APIs externas
  */
 @Configuration
+@EnableConfigurationProperties(ApiExternaProperties.class)
 public class RestClientConfig {
 
     @Bean
@@ -5,11 +5,15 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuração do workflow institucional e processamento assíncrono
  *
@@ -39,9 +43,12 @@ public class WorkflowConfig {
     public static final String NOTIFICACAO_EXCHANGE = "parlamd.notificacao.exchange";
     public static final String NOTIFICACAO_ROUTING_KEY = "notificacao.enviar";
 
-    public static final String ANALISE_LLM_QUEUE = "parlamd.analise.llm.queue";
+    public static final String ANALISE_LLM_QUEUE = "parlamd.analise.llm.jobs.queue";
+    public static final String ANALISE_LLM_LEGACY_QUEUE = "parlamd.analise.llm.queue";
     public static final String ANALISE_LLM_EXCHANGE = "parlamd.analise.llm.exchange";
     public static final String ANALISE_LLM_ROUTING_KEY = "analise.llm.processar";
+    public static final String ANALISE_LLM_RETRY_QUEUE_PREFIX = "parlamd.analise.llm.retry.";
+    public static final String ANALISE_LLM_DLQ = "parlamd.analise.llm.queue.dlq";
 
     public static final String ATUALIZACAO_API_QUEUE = "parlamd.atualizacao.api.queue";
     public static final String ATUALIZACAO_API_EXCHANGE = "parlamd.atualizacao.api.exchange";
@@ -171,18 +178,76 @@ public class WorkflowConfig {
     // ANÁLISE LLM - FILAS E EXCHANGES
     // =========================================================================
 
+    /**
+     * Fila dos jobs de IA. Sem TTL: um job na fila aguarda um worker pelo tempo que for
+     * preciso, pois expirar significaria descartar uma solicitação válida do usuário.
+     */
     @Bean
     public Queue analiseLlmQueue() {
         return QueueBuilder.durable(ANALISE_LLM_QUEUE)
+                .withArgument("x-dead-letter-exchange", ANALISE_LLM_EXCHANGE + DLX_SUFFIX)
+                .withArgument("x-dead-letter-routing-key", ANALISE_LLM_ROUTING_KEY + DLQ_SUFFIX)
+                .build();
+    }
+
+    /**
+     * Fila anterior, declarada com TTL de 10 minutos. Os argumentos de uma fila existente
+     * não podem ser alterados, por isso os jobs passaram para {@link #ANALISE_LLM_QUEUE}.
+     * Ela continua declarada, sem binding, apenas para que os workers consumam o que foi
+     * publicado antes da troca; pode ser removida do broker depois de vazia.
+     */
+    @Bean
+    public Queue analiseLlmLegacyQueue() {
+        return QueueBuilder.durable(ANALISE_LLM_LEGACY_QUEUE)
                 .withArgument("x-dead-letter-exchange", ANALISE_LLM_EXCHANGE + DLX_SUFFIX)
                 .withArgument("x-dead-letter-routing-key", ANALISE_LLM_ROUTING_KEY + DLQ_SUFFIX)
                 .withArgument("x-message-ttl", 600000)
                 .build();
     }
 
+    /**
+     * Recebe os jobs rejeitados depois de esgotadas as tentativas; consumida por
+     * {@code JobAnaliseIAService}, que marca como FALHA os jobs ainda não finalizados.
+     */
     @Bean
     public Queue analiseLlmDLQ() {
-        return QueueBuilder.durable(ANALISE_LLM_QUEUE + DLQ_SUFFIX).build();
+        return QueueBuilder.durable(ANALISE_LLM_DLQ).build();
+    }
+
+    /**
+     * Filas de espera das retentativas, uma por nível de backoff: sem consumidor, cada
+     * mensagem expira pelo TTL da própria fila e retorna à fila principal via dead-letter.
+     * Com um TTL único por fila, nenhuma mensagem espera atrás de outra de backoff maior.
+     */
+    @Bean
+    public Declarables analiseLlmRetryQueues(
+            @Value("${ai.jobs.backoff-inicial-ms:30000}") long backoffInicialMs,
+            @Value("${ai.jobs.backoff-maximo-ms:600000}") long backoffMaximoMs) {
+
+        return new Declarables(niveisRetentativa(backoffInicialMs, backoffMaximoMs).stream()
+                .map(atrasoMs -> QueueBuilder.durable(filaRetentativa(atrasoMs))
+                        .withArgument("x-message-ttl", atrasoMs)
+                        .withArgument("x-dead-letter-exchange", ANALISE_LLM_EXCHANGE)
+                        .withArgument("x-dead-letter-routing-key", ANALISE_LLM_ROUTING_KEY)
+                        .build())
+                .toArray(Declarable[]::new));
+    }
+
+    /**
+     * Atrasos possíveis do backoff exponencial: o inicial dobrado a cada tentativa,
+     * limitado ao máximo.
+     */
+    public static List<Long> niveisRetentativa(long backoffInicialMs, long backoffMaximoMs) {
+        List<Long> niveis = new ArrayList<>();
+        for (long atrasoMs = Math.max(1, backoffInicialMs); atrasoMs < backoffMaximoMs; atrasoMs *= 2) {
+            niveis.add(atrasoMs);
+        }
+        niveis.add(Math.max(1, backoffMaximoMs));
+        return niveis;
+    }
+
+    public static String filaRetentativa(long atrasoMs) {
+        return ANALISE_LLM_RETRY_QUEUE_PREFIX + atrasoMs + "ms";
     }
 
     @Bean
@@ -2,8 +2,13 @@ package br.gov.md.parla_md_backend.controller;
 
 import br.gov.md.parla_md_backend.domain.dto.AnaliseImpactoDTO;
 import br.gov.md.parla_md_backend.domain.dto.EstatisticasImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.JobAnaliseIADTO;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoAnalisesImpactoDTO;
 import br.gov.md.parla_md_backend.domain.dto.SolicitarAnaliseImpactoDTO;
+import br.gov.md.parla_md_backend.domain.enums.TipoJobIA;
 import br.gov.md.parla_md_backend.service.AnaliseImpactoService;
+import br.gov.md.parla_md_backend.service.AutenticacaoService;
+import br.gov.md.parla_md_backend.service.JobAnaliseIAService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,20 +17,29 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Slf4j
 @RestController
@@ -36,6 +50,13 @@ import java.util.List;
 public class AnaliseImpactoController {
 
     private final AnaliseImpactoService analiseImpactoService;
+    private final JobAnaliseIAService jobAnaliseIAService;
+    private final AutenticacaoService autenticacaoService;
+
+    private final ExecutorService executorStream = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${ai.impacto.stream-timeout:600000}")
+    private long streamTimeoutMs;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
@@ -44,20 +65,84 @@ public class AnaliseImpactoController {
             description = "Solicita análise de impacto de um item legislativo em uma ou mais áreas"
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Análises realizadas com sucesso"),
+            @ApiResponse(responseCode = "200", description = "Análises realizadas; falhas por área são listadas na resposta"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
-            @ApiResponse(responseCode = "404", description = "Item legislativo não encontrado", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Item legislativo não encontrado", content = @Content),
+            @ApiResponse(responseCode = "503", description = "LLM sobrecarregado ou indisponível; ver Retry-After", content = @Content)
     })
-    public ResponseEntity<List<AnaliseImpactoDTO>> analisar(
+    public ResponseEntity<ResultadoAnalisesImpactoDTO> analisar(
             @Valid @RequestBody SolicitarAnaliseImpactoDTO request) {
 
         log.info("Solicitando análise de impacto para item: {}", request.getItemLegislativoId());
 
-        List<AnaliseImpactoDTO> analises = analiseImpactoService.analisar(request);
+        ResultadoAnalisesImpactoDTO resultado = analiseImpactoService.analisar(request);
 
-        log.info("Geradas {} análises para item: {}", analises.size(), request.getItemLegislativoId());
+        log.info("Geradas {} análises para item: {} ({} falhas)",
+                resultado.getAnalises().size(), request.getItemLegislativoId(), resultado.getFalhas().size());
 
-        return ResponseEntity.ok(analises);
+        return ResponseEntity.ok(resultado);
+    }
+
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(
+            summary = "Analisar impacto com resultados parciais",
+            description = "Emite um evento 'analise' ou 'falha' por área assim que ela termina e um evento 'fim' com o consolidado"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream iniciado"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content)
+    })
+    public SseEmitter analisarStream(@Valid @RequestBody SolicitarAnaliseImpactoDTO request) {
+
+        log.info("Solicitando análise de impacto em streaming para item: {}", request.getItemLegislativoId());
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        executorStream.execute(() -> {
+            try {
+                ResultadoAnalisesImpactoDTO resultado = analiseImpactoService.analisar(
+                        request,
+                        analise -> enviarEvento(emitter, "analise", analise),
+                        falha -> enviarEvento(emitter, "falha", falha)
+                );
+
+                enviarEvento(emitter, "fim", resultado);
+                emitter.complete();
+
+            } catch (Exception e) {
+                log.warn("Falha no stream de análise de impacto: {}", e.getMessage());
+                try {
+                    emitter.send(SseEmitter.event().name("erro").data(e.getMessage()));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException ignorada) {
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+
+        return emitter;
+    }
+
+    @PostMapping("/assincrono")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(
+            summary = "Enfileirar análise de impacto",
+            description = "Registra a análise como job assíncrono; o resultado é consultado em /api/ia/jobs/{jobId}"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job aceito"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content)
+    })
+    public ResponseEntity<JobAnaliseIADTO> analisarAssincrono(
+            @Valid @RequestBody SolicitarAnaliseImpactoDTO request) {
+
+        log.info("Enfileirando análise de impacto para item: {}", request.getItemLegislativoId());
+
+        JobAnaliseIADTO job = jobAnaliseIAService.enfileirar(
+                TipoJobIA.ANALISE_IMPACTO, request, autenticacaoService.obterIdUsuario());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
     }
 
     @GetMapping("/item/{itemId}/area/{areaId}")
@@ -625,4 +710,17 @@ public class AnaliseImpactoController {
 
         return ResponseEntity.ok(existe);
     }
-}
\ No newline at end of file
+
+    private void enviarEvento(SseEmitter emitter, String nome, Object dados) {
+        try {
+            emitter.send(SseEmitter.event().name(nome).data(dados));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorStream.shutdownNow();
+    }
+}
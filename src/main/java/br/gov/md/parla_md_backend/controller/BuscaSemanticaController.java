@@ -0,0 +1,103 @@
+package br.gov.md.parla_md_backend.controller;
+
+import br.gov.md.parla_md_backend.domain.dto.ResultadoBuscaSemanticaDTO;
+import br.gov.md.parla_md_backend.domain.dto.StatusIndiceSemanticoDTO;
+import br.gov.md.parla_md_backend.domain.enums.Casa;
+import br.gov.md.parla_md_backend.service.BuscaSemanticaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/busca-semantica")
+@RequiredArgsConstructor
+@Tag(name = "Busca Semântica", description = "Busca por similaridade de proposições e matérias via embeddings")
+@SecurityRequirement(name = "bearer-jwt")
+public class BuscaSemanticaController {
+
+    private static final int LIMITE_MAXIMO = 100;
+
+    private final BuscaSemanticaService buscaSemanticaService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA', 'EXTERNO')")
+    @Operation(
+            summary = "Buscar por significado",
+            description = "Retorna as proposições e matérias semanticamente mais próximas do texto informado"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resultados ordenados por similaridade"),
+            @ApiResponse(responseCode = "400", description = "Consulta vazia", content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "Ollama indisponível, busca desabilitada ou índice em carregamento (ver Retry-After)",
+                    content = @Content)
+    })
+    public ResponseEntity<List<ResultadoBuscaSemanticaDTO>> buscar(
+            @Parameter(description = "Texto da consulta") @RequestParam String consulta,
+            @Parameter(description = "Quantidade de resultados") @RequestParam(defaultValue = "10") int limite) {
+
+        return ResponseEntity.ok(buscaSemanticaService.buscar(consulta, limitar(limite)));
+    }
+
+    @GetMapping("/similares/{casa}/{itemId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA', 'EXTERNO')")
+    @Operation(
+            summary = "Buscar itens similares",
+            description = "Retorna as proposições e matérias mais parecidas com o item informado"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resultados ordenados por similaridade"),
+            @ApiResponse(responseCode = "404", description = "Item não encontrado", content = @Content),
+            @ApiResponse(responseCode = "503",
+                    description = "Busca desabilitada ou índice em carregamento (ver Retry-After)",
+                    content = @Content)
+    })
+    public ResponseEntity<List<ResultadoBuscaSemanticaDTO>> buscarSimilares(
+            @Parameter(description = "Casa legislativa do item") @PathVariable Casa casa,
+            @Parameter(description = "ID do item legislativo") @PathVariable String itemId,
+            @Parameter(description = "Quantidade de resultados") @RequestParam(defaultValue = "10") int limite) {
+
+        return ResponseEntity.ok(buscaSemanticaService.buscarSimilares(casa, itemId, limitar(limite)));
+    }
+
+    @GetMapping("/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
+    @Operation(summary = "Estado do índice semântico")
+    public ResponseEntity<StatusIndiceSemanticoDTO> obterStatus() {
+        return ResponseEntity.ok(buscaSemanticaService.obterStatus());
+    }
+
+    @PostMapping("/reindexar")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Reindexar itens legislativos",
+            description = "Recalcula em segundo plano os embeddings de itens novos ou alterados"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Reindexação iniciada"),
+            @ApiResponse(responseCode = "409", description = "Reindexação já em andamento", content = @Content)
+    })
+    public ResponseEntity<StatusIndiceSemanticoDTO> reindexar() {
+        log.info("Solicitação de reindexação semântica");
+
+        HttpStatus status = buscaSemanticaService.reindexar() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(buscaSemanticaService.obterStatus());
+    }
+
+    private static int limitar(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+    }
+}
@@ -3,11 +3,18 @@ package br.gov.md.parla_md_backend.controller;
 import br.gov.md.parla_md_backend.domain.Materia;
 import br.gov.md.parla_md_backend.domain.ProcedimentoProposicao;
 import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.domain.dto.EstadoSincronizacaoDTO;
+import br.gov.md.parla_md_backend.domain.dto.JobAnaliseIADTO;
 import br.gov.md.parla_md_backend.domain.dto.MateriaDTO;
 import br.gov.md.parla_md_backend.domain.dto.PrevisaoDTO;
 import br.gov.md.parla_md_backend.domain.dto.ProcedimentoProposicaoDTO;
+import br.gov.md.parla_md_backend.domain.dto.ResumoArquivoRespostasDTO;
 import br.gov.md.parla_md_backend.domain.dto.SolicitarPrevisaoDTO;
+import br.gov.md.parla_md_backend.domain.dto.StatusAtualizacaoTramitacoesDTO;
+import br.gov.md.parla_md_backend.domain.enums.TipoJobIA;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
 import br.gov.md.parla_md_backend.service.*;
+import br.gov.md.parla_md_backend.util.ArquivoRespostas;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -23,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Year;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -41,7 +49,11 @@ public class DadosLegislativosController {
     private final ProposicaoService proposicaoService;
     private final PrevisaoService previsaoService;
     private final ProcedimentoProposicaoService procedimentoProposicaoService;
-    private final ProcedimentoMateriaService procedimentoMateriaService;
+    private final JobAnaliseIAService jobAnaliseIAService;
+    private final AutenticacaoService autenticacaoService;
+    private final EstadoSincronizacaoService estadoSincronizacaoService;
+    private final AtualizacaoTramitacoesService atualizacaoTramitacoesService;
+    private final ArquivoRespostas arquivoRespostas;
 
     private final ConcurrentHashMap<String, String> updateStatuses = new ConcurrentHashMap<>();
 
@@ -53,7 +65,7 @@ public class DadosLegislativosController {
     )
     public ResponseEntity<String> sincronizarProposicoesCamara() {
         try {
-            camaraService.sincronizarProposicoes();
+            camaraService.iniciarSincronizacaoProposicoes(Year.now().getValue());
 
             return ResponseEntity.ok("Sincronização de proposições iniciada");
 
@@ -219,22 +231,44 @@ public class DadosLegislativosController {
 
             return ResponseEntity.ok(previsao);
 
+        } catch (LlamaIndisponivelException e) {
+            throw e;
+
         } catch (Exception e) {
             log.error("Erro ao prever aprovação: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @PostMapping("/proposicoes/{id}/prever/assincrono")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(
+            summary = "Enfileirar previsão de aprovação",
+            description = "Registra a previsão como job assíncrono; o resultado é consultado em /api/ia/jobs/{jobId}"
+    )
+    public ResponseEntity<JobAnaliseIADTO> preverAprovacaoAssincrono(@PathVariable String id) {
+        SolicitarPrevisaoDTO solicitacao = SolicitarPrevisaoDTO.builder()
+                .itemLegislativoId(id)
+                .tipoPrevisao("APROVACAO")
+                .forcarNovaPrevisao(false)
+                .build();
+
+        JobAnaliseIADTO job = jobAnaliseIAService.enfileirar(
+                TipoJobIA.PREVISAO, solicitacao, autenticacaoService.obterIdUsuario());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
     @PostMapping("/materias/atualizar-procedimentos")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Atualizar procedimentos de todas as matérias (async)")
+    @Operation(summary = "Atualizar procedimentos das matérias em tramitação (async)")
     public ResponseEntity<String> atualizarProcedimentosMaterias() {
         String updateId = "update-" + System.currentTimeMillis();
         updateStatuses.put(updateId, "Em andamento");
 
         CompletableFuture.runAsync(() -> {
             try {
-                procedimentoMateriaService.atualizarTodasTramitacoesAgendadas();
+                atualizacaoTramitacoesService.executar();
                 updateStatuses.put(updateId, "Concluído");
 
             } catch (Exception e) {
@@ -246,6 +280,16 @@ public class DadosLegislativosController {
         return ResponseEntity.ok("Atualização iniciada. ID: " + updateId);
     }
 
+    @GetMapping("/materias/atualizar-procedimentos/progresso")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
+    @Operation(
+            summary = "Progresso da atualização de tramitações",
+            description = "Checkpoint da atualização de tramitações, com vazão e tempo estimado da execução em andamento"
+    )
+    public ResponseEntity<StatusAtualizacaoTramitacoesDTO> progressoAtualizacaoProcedimentos() {
+        return ResponseEntity.ok(atualizacaoTramitacoesService.obterStatus());
+    }
+
     @GetMapping("/status-atualizacao/{updateId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
     @Operation(summary = "Consultar status de atualização em lote")
@@ -259,6 +303,26 @@ public class DadosLegislativosController {
         return ResponseEntity.ok(status);
     }
 
+    @GetMapping("/sincronizacao/defasagem")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(
+            summary = "Defasagem da sincronização por fonte",
+            description = "Retorna a marca d'água de cada recurso sincronizado, o tempo desde ela e a última falha"
+    )
+    public ResponseEntity<List<EstadoSincronizacaoDTO>> consultarDefasagem() {
+        return ResponseEntity.ok(estadoSincronizacaoService.listarDefasagem());
+    }
+
+    @GetMapping("/arquivo-respostas")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
+    @Operation(
+            summary = "Resumo do arquivo local de respostas das APIs",
+            description = "Retorna o modo do arquivo (desligado, gravação ou reprodução), os segmentos e o volume arquivado"
+    )
+    public ResponseEntity<ResumoArquivoRespostasDTO> consultarArquivoRespostas() {
+        return ResponseEntity.ok(arquivoRespostas.resumo());
+    }
+
     @GetMapping("/teste")
     @Operation(summary = "Testar disponibilidade da API")
     public ResponseEntity<String> testar() {
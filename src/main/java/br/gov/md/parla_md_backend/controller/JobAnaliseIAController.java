@@ -0,0 +1,104 @@
+package br.gov.md.parla_md_backend.controller;
+
+import br.gov.md.parla_md_backend.domain.dto.JobAnaliseIADTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarAnaliseParlamentarDTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarSumarioDTO;
+import br.gov.md.parla_md_backend.domain.enums.TipoJobIA;
+import br.gov.md.parla_md_backend.service.AutenticacaoService;
+import br.gov.md.parla_md_backend.service.JobAnaliseIAService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/ia/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs de IA", description = "Processamento assíncrono de análises de IA")
+@SecurityRequirement(name = "bearer-jwt")
+public class JobAnaliseIAController {
+
+    private final JobAnaliseIAService jobService;
+    private final AutenticacaoService autenticacaoService;
+
+    @PostMapping("/sumarizacao")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(
+            summary = "Enfileirar sumarização",
+            description = "Registra um job de sumarização e retorna seu id para consulta posterior"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job aceito"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content)
+    })
+    public ResponseEntity<JobAnaliseIADTO> enfileirarSumarizacao(
+            @Valid @RequestBody SolicitarSumarioDTO request) {
+
+        log.info("Enfileirando sumarização para item: {}", request.getItemLegislativoId());
+
+        JobAnaliseIADTO job = jobService.enfileirar(
+                TipoJobIA.SUMARIZACAO, request, autenticacaoService.obterIdUsuario());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @PostMapping("/analise-parlamentar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(
+            summary = "Enfileirar análise parlamentar",
+            description = "Registra um job de análise de comportamento parlamentar"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job aceito"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content)
+    })
+    public ResponseEntity<JobAnaliseIADTO> enfileirarAnaliseParlamentar(
+            @Valid @RequestBody SolicitarAnaliseParlamentarDTO request) {
+
+        log.info("Enfileirando análise parlamentar: {}", request.getParlamentarId());
+
+        JobAnaliseIADTO job = jobService.enfileirar(
+                TipoJobIA.ANALISE_PARLAMENTAR, request, autenticacaoService.obterIdUsuario());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(
+            summary = "Consultar job",
+            description = "Retorna status, tentativas e, quando concluído, o resultado do job"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job encontrado"),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado", content = @Content)
+    })
+    public ResponseEntity<JobAnaliseIADTO> buscarPorId(
+            @Parameter(description = "ID do job") @PathVariable String jobId) {
+
+        return ResponseEntity.ok(jobService.buscarPorId(jobId));
+    }
+
+    @GetMapping("/meus")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(summary = "Listar jobs do usuário autenticado")
+    public ResponseEntity<Page<JobAnaliseIADTO>> listarMeus(
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        return ResponseEntity.ok(jobService.buscarPorSolicitante(autenticacaoService.obterIdUsuario(), pageable));
+    }
+}
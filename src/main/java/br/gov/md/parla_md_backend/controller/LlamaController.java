@@ -11,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -18,12 +19,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Slf4j
 @RestController
@@ -35,6 +43,11 @@ public class LlamaController {
 
     private final LlamaService llamaService;
 
+    private final ExecutorService executorStream = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${ollama.stream-timeout:300000}")
+    private long streamTimeoutMs;
+
     @PostMapping("/prompt")
     @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
     @Operation(
@@ -56,6 +69,50 @@ public class LlamaController {
         return ResponseEntity.ok(resposta);
     }
 
+    @PostMapping(value = "/prompt/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
+    @Operation(
+            summary = "Enviar prompt ao Llama com resposta em streaming",
+            description = "Envia um prompt e recebe os tokens via Server-Sent Events à medida que são gerados. "
+                    + "Eventos: 'token' (fragmento de texto), 'fim' (resposta agregada) e 'erro'."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream iniciado"),
+            @ApiResponse(responseCode = "400", description = "Prompt inválido", content = @Content)
+    })
+    public SseEmitter enviarPromptStream(
+            @Valid @RequestBody PromptAvancadoRequest request) {
+
+        log.info("Recebendo prompt em streaming");
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        executorStream.execute(() -> {
+            try {
+                RespostaLlamaDTO resposta = llamaService.enviarRequisicaoStream(
+                        request.getPrompt(),
+                        request.getPromptSistema(),
+                        request.isRespostaJson(),
+                        fragmento -> enviarEvento(emitter, "token", fragmento)
+                );
+
+                enviarEvento(emitter, "fim", resposta);
+                emitter.complete();
+
+            } catch (Exception e) {
+                log.warn("Falha no stream Llama: {}", e.getMessage());
+                try {
+                    emitter.send(SseEmitter.event().name("erro").data(e.getMessage()));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException ignorada) {
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+
+        return emitter;
+    }
+
     @PostMapping("/prompt-avancado")
     @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR', 'ANALISTA')")
     @Operation(
@@ -188,6 +245,19 @@ public class LlamaController {
         return ResponseEntity.noContent().build();
     }
 
+    private void enviarEvento(SseEmitter emitter, String nome, Object dados) {
+        try {
+            emitter.send(SseEmitter.event().name(nome).data(dados));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorStream.shutdownNow();
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -223,4 +293,4 @@ public class LlamaController {
         private boolean disponivel;
         private String mensagem;
     }
-}
\ No newline at end of file
+}
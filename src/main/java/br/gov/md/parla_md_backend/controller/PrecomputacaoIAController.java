@@ -0,0 +1,54 @@
+package br.gov.md.parla_md_backend.controller;
+
+import br.gov.md.parla_md_backend.domain.dto.StatusPrecomputacaoIADTO;
+import br.gov.md.parla_md_backend.service.PrecomputacaoIAService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/ia/precomputacao")
+@RequiredArgsConstructor
+@Tag(name = "Pré-computação de IA", description = "Geração antecipada de sumários e análises de impacto")
+@SecurityRequirement(name = "bearer-jwt")
+public class PrecomputacaoIAController {
+
+    private final PrecomputacaoIAService precomputacaoService;
+
+    @GetMapping("/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
+    @Operation(
+            summary = "Estado da pré-computação",
+            description = "Progresso da execução atual ou da última execução e o consumo do orçamento de tokens"
+    )
+    public ResponseEntity<StatusPrecomputacaoIADTO> obterStatus() {
+        return ResponseEntity.ok(precomputacaoService.obterStatus());
+    }
+
+    @PostMapping("/executar")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Executar pré-computação",
+            description = "Inicia imediatamente uma execução em segundo plano, com a mesma janela e orçamento da agendada"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Execução iniciada"),
+            @ApiResponse(responseCode = "409", description = "Execução já em andamento", content = @Content)
+    })
+    public ResponseEntity<StatusPrecomputacaoIADTO> executar() {
+        log.info("Solicitação de pré-computação de análises");
+
+        HttpStatus status = precomputacaoService.iniciar() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(precomputacaoService.obterStatus());
+    }
+}
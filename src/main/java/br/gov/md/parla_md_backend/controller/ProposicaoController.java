@@ -1,6 +1,7 @@
 package br.gov.md.parla_md_backend.controller;
 
 import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.domain.dto.ProgressoSincronizacaoDTO;
 import br.gov.md.parla_md_backend.domain.dto.ProposicaoDTO;
 import br.gov.md.parla_md_backend.domain.dto.ProposicaoResumoDTO;
 import br.gov.md.parla_md_backend.domain.dto.ProcedimentoProposicaoDTO;
@@ -28,6 +29,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.Year;
 import java.util.List;
 
 @Slf4j
@@ -45,16 +47,31 @@ public class ProposicaoController {
     @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
     @Operation(
             summary = "Sincronizar proposições com API da Câmara",
-            description = "Busca e sincroniza proposições do ano atual da API da Câmara dos Deputados"
+            description = "Inicia em segundo plano a sincronização de todas as proposições do ano "
+                    + "(padrão: ano atual), retomando das páginas que faltaram numa execução anterior"
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Sincronização realizada com sucesso"),
+            @ApiResponse(responseCode = "202", description = "Sincronização iniciada ou já em execução"),
             @ApiResponse(responseCode = "500", description = "Erro ao sincronizar", content = @Content)
     })
-    public ResponseEntity<List<ProposicaoDTO>> sincronizar() {
-        log.info("Solicitação de sincronização de proposições");
-        List<ProposicaoDTO> proposicoes = camaraService.sincronizarProposicoes();
-        return ResponseEntity.ok(proposicoes);
+    public ResponseEntity<ProgressoSincronizacaoDTO> sincronizar(
+            @Parameter(description = "Ano das proposições") @RequestParam(required = false) Integer ano) {
+        int anoSincronizacao = ano != null ? ano : Year.now().getValue();
+        log.info("Solicitação de sincronização de proposições de {}", anoSincronizacao);
+        ProgressoSincronizacaoDTO progresso = camaraService.iniciarSincronizacaoProposicoes(anoSincronizacao);
+        return ResponseEntity.accepted().body(progresso);
+    }
+
+    @GetMapping("/sincronizar/progresso")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
+    @Operation(
+            summary = "Progresso da sincronização de proposições",
+            description = "Páginas concluídas, itens gravados e situação da sincronização do ano"
+    )
+    public ResponseEntity<ProgressoSincronizacaoDTO> progressoSincronizacao(
+            @Parameter(description = "Ano das proposições") @RequestParam(required = false) Integer ano) {
+        int anoSincronizacao = ano != null ? ano : Year.now().getValue();
+        return ResponseEntity.ok(camaraService.obterProgressoSincronizacao(anoSincronizacao));
     }
 
     @PostMapping("/sincronizar/{ano}/{itens}")
@@ -22,7 +22,7 @@ import java.util.List;
         @CompoundIndex(name = "idx_nivel_data", def = "{'nivelImpacto': 1, 'dataAnalise': -1}")
 })
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AnaliseImpacto implements AnaliseIAEntity {
@@ -59,6 +59,10 @@ public class AnaliseImpacto implements AnaliseIAEntity {
     private String mensagemErro;
     private LocalDateTime dataExpiracao;
 
+    // Reaproveitamento de análise de item quase idêntico (ai.reaproveitamento)
+    private String derivadaDe;
+    private Double similaridadeOrigem;
+
     public boolean isImpactoAlto() {
         return "ALTO".equalsIgnoreCase(nivelImpacto);
     }
@@ -0,0 +1,45 @@
+package br.gov.md.parla_md_backend.domain;
+
+import br.gov.md.parla_md_backend.domain.enums.Casa;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Embedding da ementa e indexação de uma proposição ou matéria.
+ *
+ * O vetor é gravado como binário (float32 big-endian) para ocupar 4 bytes por dimensão.
+ * O hash do texto evita recalcular o embedding quando o item é sincronizado sem mudanças.
+ */
+@Document(collection = "embeddings_itens_legislativos")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbeddingItemLegislativo {
+
+    // Formato "<CASA>:<id do item>", a mesma chave usada no índice vetorial
+    @Id
+    private String chave;
+
+    private String itemId;
+
+    private Casa casa;
+
+    private String modelo;
+
+    private String hashTexto;
+
+    private int dimensao;
+
+    private byte[] vetor;
+
+    @Indexed
+    private LocalDateTime dataAtualizacao;
+}
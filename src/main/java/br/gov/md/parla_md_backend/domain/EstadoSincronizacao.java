@@ -0,0 +1,44 @@
+package br.gov.md.parla_md_backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca d'água da sincronização incremental de um recurso de uma fonte (por exemplo
+ * proposições da Câmara). Tudo o que mudou na fonte antes da marca já está no banco; a
+ * próxima execução pede à API apenas o que mudou a partir dela.
+ */
+@Document(collection = "estado_sincronizacao")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoSincronizacao {
+
+    @Id
+    private String id;
+
+    private String fonte;
+
+    private String recurso;
+
+    private LocalDateTime marcaDagua;
+
+    private LocalDateTime ultimoSucessoEm;
+
+    private LocalDateTime ultimaFalhaEm;
+
+    private long itensUltimaExecucao;
+
+    private String erro;
+
+    public static String chave(String fonte, String recurso) {
+        return fonte + ":" + recurso;
+    }
+}
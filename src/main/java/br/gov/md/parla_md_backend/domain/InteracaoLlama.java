@@ -23,6 +23,11 @@ public class InteracaoLlama {
     @Indexed
     private String modelo;
 
+    @Indexed
+    private String chaveConteudo;
+
+    private String tipoAnalise;
+
     private String promptUsuario;
 
     private String promptSistema;
@@ -42,6 +47,8 @@ public class InteracaoLlama {
 
     private Long duracaoCarregamentoMs;
 
+    private Long tempoPrimeiroTokenMs;
+
     private Integer tokensPrompt;
 
     private Integer tokensResposta;
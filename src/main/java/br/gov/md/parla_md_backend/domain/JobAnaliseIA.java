@@ -0,0 +1,57 @@
+package br.gov.md.parla_md_backend.domain;
+
+import br.gov.md.parla_md_backend.domain.enums.StatusJobIA;
+import br.gov.md.parla_md_backend.domain.enums.TipoJobIA;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Document(collection = "jobs_analise_ia")
+@CompoundIndex(name = "idx_status_criacao", def = "{'status': 1, 'dataCriacao': -1}")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobAnaliseIA {
+
+    @Id
+    private String id;
+
+    private TipoJobIA tipo;
+
+    private StatusJobIA status;
+
+    private Map<String, Object> parametros;
+
+    private Object resultado;
+
+    private String mensagemErro;
+
+    @Indexed
+    private String solicitanteId;
+
+    private int tentativas;
+
+    private int maxTentativas;
+
+    private long backoffInicialMs;
+
+    private LocalDateTime dataCriacao;
+
+    private LocalDateTime dataInicio;
+
+    private LocalDateTime dataConclusao;
+
+    private LocalDateTime proximaTentativa;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime dataExpiracao;
+}
@@ -0,0 +1,33 @@
+package br.gov.md.parla_md_backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease distribuído que garante uma única geração por chave de análise
+ * entre as instâncias do backend.
+ */
+@Document(collection = "leases_analise_ia")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaseAnaliseIA {
+
+    @Id
+    private String chave;
+
+    private String dono;
+
+    private LocalDateTime adquiridoEm;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiraEm;
+}
@@ -4,11 +4,13 @@ import br.gov.md.parla_md_backend.domain.enums.Casa;
 import br.gov.md.parla_md_backend.domain.enums.TipoMateria;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Document(collection = "materias")
+@CompoundIndex(name = "idx_tramitando_codigo", def = "{'indicadorTramitando': 1, 'codigoMateria': 1}")
 public class Materia extends ItemLegislativo {
 
     private Long codigoMateria;
@@ -20,7 +20,7 @@ import java.time.LocalDateTime;
         @CompoundIndex(name = "idx_tipo_data", def = "{'tipoPrevisao': 1, 'dataPrevisao': -1}")
 })
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Previsao implements AnaliseIAEntity {
@@ -50,6 +50,10 @@ public class Previsao implements AnaliseIAEntity {
     private String mensagemErro;
     private LocalDateTime dataExpiracao;
 
+    // Reaproveitamento de análise de item quase idêntico (ai.reaproveitamento)
+    private String derivadaDe;
+    private Double similaridadeOrigem;
+
     @Override
     public LocalDateTime getDataAnalise() {
         return dataPrevisao;
@@ -0,0 +1,79 @@
+package br.gov.md.parla_md_backend.domain;
+
+import br.gov.md.parla_md_backend.domain.enums.StatusSincronizacao;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.TreeSet;
+
+/**
+ * Checkpoint de uma sincronização paginada com API externa. As páginas concluídas são
+ * gravadas à medida que terminam, para que uma execução interrompida seja retomada
+ * sem buscar de novo o que já foi salvo.
+ */
+@Document(collection = "progresso_sincronizacao")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressoSincronizacao {
+
+    @Id
+    private String id;
+
+    private String fonte;
+
+    private String recurso;
+
+    private String parametro;
+
+    private StatusSincronizacao status;
+
+    private int itensPorPagina;
+
+    private int totalPaginas;
+
+    @Builder.Default
+    private TreeSet<Integer> paginasConcluidas = new TreeSet<>();
+
+    private long itensRecebidos;
+
+    private long itensNovos;
+
+    private long itensAtualizados;
+
+    private long itensInalterados;
+
+    private long itensComFalha;
+
+    /**
+     * Nas sincronizações percorridas por cursor, a última chave até a qual todos os itens
+     * foram processados; a retomada continua a partir dela.
+     */
+    private Long cursor;
+
+    private LocalDateTime iniciadaEm;
+
+    private LocalDateTime atualizadaEm;
+
+    private LocalDateTime concluidaEm;
+
+    private String erro;
+
+    public static String chave(String fonte, String recurso, String parametro) {
+        return fonte + ":" + recurso + ":" + parametro;
+    }
+
+    /**
+     * Chave dos checkpoints de uma reprodução do arquivo de respostas, separada da
+     * sincronização real: nenhuma retoma páginas que a outra processou.
+     */
+    public static String chaveReproducao(String fonte, String recurso, String parametro) {
+        return "reproducao:" + chave(fonte, recurso, parametro);
+    }
+}
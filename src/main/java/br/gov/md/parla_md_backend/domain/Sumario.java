@@ -21,7 +21,7 @@ import java.util.List;
         @CompoundIndex(name = "idx_tipo_data", def = "{'tipoSumario': 1, 'dataCriacao': -1}")
 })
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Sumario implements AnaliseIAEntity {
@@ -57,6 +57,10 @@ public class Sumario implements AnaliseIAEntity {
     private String mensagemErro;
     private LocalDateTime dataExpiracao;
 
+    // Reaproveitamento de análise de item quase idêntico (ai.reaproveitamento)
+    private String derivadaDe;
+    private Double similaridadeOrigem;
+
     @Override
     public LocalDateTime getDataAnalise() {
         return dataCriacao;
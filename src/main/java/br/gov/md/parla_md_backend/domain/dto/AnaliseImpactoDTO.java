@@ -29,7 +29,9 @@ public record AnaliseImpactoDTO(
         String modeloVersao,
         Long tempoProcessamentoMs,
         Boolean sucesso,
-        String mensagemErro
+        String mensagemErro,
+        String derivadaDe,
+        Double similaridadeOrigem
 ) {
         public static AnaliseImpactoDTO from(AnaliseImpacto analise) {
                 if (analise == null) {
@@ -56,7 +58,9 @@ public record AnaliseImpactoDTO(
                         analise.getModeloVersao(),
                         analise.getTempoProcessamentoMs(),
                         analise.getSucesso(),
-                        analise.getMensagemErro()
+                        analise.getMensagemErro(),
+                        analise.getDerivadaDe(),
+                        analise.getSimilaridadeOrigem()
                 );
         }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import br.gov.md.parla_md_backend.domain.EstadoSincronizacao;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * @param defasagemMinutos tempo desde a marca d'água; nulo se o recurso nunca foi sincronizado
+ * @param atrasada         verdadeiro se a defasagem passou do limite ou se não há marca
+ */
+public record EstadoSincronizacaoDTO(
+        String fonte,
+        String recurso,
+        LocalDateTime marcaDagua,
+        Long defasagemMinutos,
+        boolean atrasada,
+        LocalDateTime ultimoSucessoEm,
+        LocalDateTime ultimaFalhaEm,
+        long itensUltimaExecucao,
+        String erro
+) {
+
+    public static EstadoSincronizacaoDTO from(EstadoSincronizacao estado, LocalDateTime agora, Duration limite) {
+        Duration defasagem = estado.getMarcaDagua() != null
+                ? Duration.between(estado.getMarcaDagua(), agora)
+                : null;
+
+        return new EstadoSincronizacaoDTO(
+                estado.getFonte(),
+                estado.getRecurso(),
+                estado.getMarcaDagua(),
+                defasagem != null ? defasagem.toMinutes() : null,
+                defasagem == null || defasagem.compareTo(limite) > 0,
+                estado.getUltimoSucessoEm(),
+                estado.getUltimaFalhaEm(),
+                estado.getItensUltimaExecucao(),
+                estado.getErro()
+        );
+    }
+}
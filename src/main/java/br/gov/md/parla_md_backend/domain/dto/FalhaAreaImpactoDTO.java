@@ -0,0 +1,14 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+public record FalhaAreaImpactoDTO(
+        String areaImpactoId,
+        String areaImpactoNome,
+        String motivo,
+        String mensagem,
+        Long tempoProcessamentoMs
+) {
+        public static final String MOTIVO_TIMEOUT = "TIMEOUT";
+        public static final String MOTIVO_ERRO = "ERRO";
+        public static final String MOTIVO_INTERROMPIDA = "INTERROMPIDA";
+        public static final String MOTIVO_INDISPONIVEL = "INDISPONIVEL";
+}
@@ -0,0 +1,56 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import br.gov.md.parla_md_backend.domain.JobAnaliseIA;
+import br.gov.md.parla_md_backend.domain.enums.StatusJobIA;
+import br.gov.md.parla_md_backend.domain.enums.TipoJobIA;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobAnaliseIADTO {
+
+    private String id;
+
+    private TipoJobIA tipo;
+
+    private StatusJobIA status;
+
+    private Object resultado;
+
+    private String mensagemErro;
+
+    private int tentativas;
+
+    private int maxTentativas;
+
+    private LocalDateTime dataCriacao;
+
+    private LocalDateTime dataInicio;
+
+    private LocalDateTime dataConclusao;
+
+    private LocalDateTime proximaTentativa;
+
+    public static JobAnaliseIADTO from(JobAnaliseIA job) {
+        return JobAnaliseIADTO.builder()
+                .id(job.getId())
+                .tipo(job.getTipo())
+                .status(job.getStatus())
+                .resultado(job.getResultado())
+                .mensagemErro(job.getMensagemErro())
+                .tentativas(job.getTentativas())
+                .maxTentativas(job.getMaxTentativas())
+                .dataCriacao(job.getDataCriacao())
+                .dataInicio(job.getDataInicio())
+                .dataConclusao(job.getDataConclusao())
+                .proximaTentativa(job.getProximaTentativa())
+                .build();
+    }
+}
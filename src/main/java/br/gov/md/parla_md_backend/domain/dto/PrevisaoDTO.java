@@ -42,6 +42,10 @@ public class PrevisaoDTO {
 
     private Boolean sucesso;
 
+    private String derivadaDe;
+
+    private Double similaridadeOrigem;
+
     public static PrevisaoDTO from(Previsao previsao) {
         return PrevisaoDTO.builder()
                 .id(previsao.getId())
@@ -59,6 +63,8 @@ public class PrevisaoDTO {
                 .modeloVersao(previsao.getModeloVersao())
                 .tempoProcessamentoMs(previsao.getTempoProcessamentoMs())
                 .sucesso(previsao.getSucesso())
+                .derivadaDe(previsao.getDerivadaDe())
+                .similaridadeOrigem(previsao.getSimilaridadeOrigem())
                 .build();
     }
 
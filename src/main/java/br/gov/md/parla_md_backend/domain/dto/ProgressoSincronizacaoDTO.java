@@ -0,0 +1,52 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import br.gov.md.parla_md_backend.domain.ProgressoSincronizacao;
+import br.gov.md.parla_md_backend.domain.enums.StatusSincronizacao;
+
+import java.time.LocalDateTime;
+
+public record ProgressoSincronizacaoDTO(
+        String fonte,
+        String recurso,
+        String parametro,
+        StatusSincronizacao status,
+        boolean emExecucao,
+        int totalPaginas,
+        int paginasConcluidas,
+        double percentual,
+        long itensRecebidos,
+        long itensNovos,
+        long itensAtualizados,
+        long itensInalterados,
+        LocalDateTime iniciadaEm,
+        LocalDateTime atualizadaEm,
+        LocalDateTime concluidaEm,
+        String erro
+) {
+
+    public static ProgressoSincronizacaoDTO from(ProgressoSincronizacao progresso, boolean emExecucao) {
+        int concluidas = progresso.getPaginasConcluidas().size();
+        double percentual = progresso.getTotalPaginas() > 0
+                ? Math.min(100.0, 100.0 * concluidas / progresso.getTotalPaginas())
+                : 0.0;
+
+        return new ProgressoSincronizacaoDTO(
+                progresso.getFonte(),
+                progresso.getRecurso(),
+                progresso.getParametro(),
+                progresso.getStatus(),
+                emExecucao,
+                progresso.getTotalPaginas(),
+                concluidas,
+                percentual,
+                progresso.getItensRecebidos(),
+                progresso.getItensNovos(),
+                progresso.getItensAtualizados(),
+                progresso.getItensInalterados(),
+                progresso.getIniciadaEm(),
+                progresso.getAtualizadaEm(),
+                progresso.getConcluidaEm(),
+                progresso.getErro()
+        );
+    }
+}
@@ -20,11 +20,16 @@ public class RequisicaoLlamaDTO {
 
     private Boolean stream;
 
+    // "json" ou o JSON Schema da resposta esperada (saída estruturada)
     @JsonProperty("format")
-    private String format;
+    private Object format;
 
     private Options options;
 
+    // Tempo que o Ollama mantém o modelo carregado após a requisição (ex.: "30m")
+    @JsonProperty("keep_alive")
+    private String keepAlive;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -1,5 +1,6 @@
 package br.gov.md.parla_md_backend.domain.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,14 +13,29 @@ import lombok.NoArgsConstructor;
 public class RespostaLlamaDTO {
 
     private String model;
+
+    @JsonAlias("created_at")
     private String createdAt;
+
     private Message message;
     private Boolean done;
+
+    @JsonAlias("total_duration")
     private Long totalDuration;
+
+    @JsonAlias("load_duration")
     private Long loadDuration;
+
+    @JsonAlias("prompt_eval_count")
     private Integer promptEvalCount;
+
+    @JsonAlias("prompt_eval_duration")
     private Long promptEvalDuration;
+
+    @JsonAlias("eval_count")
     private Integer evalCount;
+
+    @JsonAlias("eval_duration")
     private Long evalDuration;
 
     @Data
@@ -30,4 +46,4 @@ public class RespostaLlamaDTO {
         private String role;
         private String content;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import java.util.List;
+
+public record ResultadoAnaliseImpactoLoteIA(
+        List<AreaAnalisada> analises
+) {
+    public record AreaAnalisada(
+            String codigoArea,
+            String nivelImpacto,
+            String tipoImpacto,
+            Double percentualImpacto,
+            String analiseDetalhada,
+            List<String> consequencias,
+            List<String> gruposAfetados,
+            List<String> riscos,
+            List<String> oportunidades,
+            String recomendacoes
+    ) {
+        public boolean isCompleta() {
+            return codigoArea != null && nivelImpacto != null && tipoImpacto != null;
+        }
+
+        public ResultadoAnaliseImpactoIA toResultado() {
+            return new ResultadoAnaliseImpactoIA(
+                    nivelImpacto,
+                    tipoImpacto,
+                    percentualImpacto,
+                    analiseDetalhada,
+                    consequencias,
+                    gruposAfetados,
+                    riscos,
+                    oportunidades,
+                    recomendacoes
+            );
+        }
+    }
+}
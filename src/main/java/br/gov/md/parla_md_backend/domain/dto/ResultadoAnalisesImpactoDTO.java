@@ -0,0 +1,29 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoAnalisesImpactoDTO {
+
+    private String itemLegislativoId;
+
+    private Integer totalAreas;
+
+    private List<AnaliseImpactoDTO> analises;
+
+    private List<FalhaAreaImpactoDTO> falhas;
+
+    private Long tempoTotalMs;
+
+    public boolean isCompleto() {
+        return falhas == null || falhas.isEmpty();
+    }
+}
@@ -0,0 +1,16 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import br.gov.md.parla_md_backend.domain.enums.Casa;
+
+import java.time.LocalDate;
+
+public record ResultadoBuscaSemanticaDTO(
+        String itemId,
+        Casa casa,
+        String tipo,
+        String identificador,
+        String ementa,
+        LocalDate dataApresentacao,
+        double similaridade
+) {
+}
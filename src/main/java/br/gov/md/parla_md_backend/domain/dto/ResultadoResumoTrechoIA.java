@@ -0,0 +1,5 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+public record ResultadoResumoTrechoIA(
+        String resumo
+) {}
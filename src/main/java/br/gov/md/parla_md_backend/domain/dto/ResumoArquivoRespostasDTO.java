@@ -0,0 +1,23 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param segmentos        segmentos existentes no diretório
+ * @param urls             URLs distintas com ao menos uma captura
+ * @param respostas        capturas arquivadas, contando repetições da mesma URL
+ * @param bytesComprimidos tamanho das capturas nos segmentos
+ * @param bytesOriginais   tamanho das respostas descomprimidas
+ */
+public record ResumoArquivoRespostasDTO(
+        String modo,
+        String diretorio,
+        int segmentos,
+        int urls,
+        long respostas,
+        long bytesComprimidos,
+        long bytesOriginais,
+        LocalDateTime primeiraCaptura,
+        LocalDateTime ultimaCaptura
+) {
+}
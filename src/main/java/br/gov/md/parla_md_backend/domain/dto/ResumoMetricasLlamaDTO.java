@@ -0,0 +1,53 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMetricasLlamaDTO {
+
+    private Integer periodoMinutos;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime geradoEm;
+
+    private long totalChamadas;
+
+    private long sucessos;
+
+    private long acertosCache;
+
+    private long duracaoP50Ms;
+
+    private long duracaoP95Ms;
+
+    private long duracaoP99Ms;
+
+    private long tokensPrompt;
+
+    private long tokensResposta;
+
+    private double tokensPorSegundo;
+
+    // Ordenado pelo tempo total consumido, do maior para o menor
+    private Map<String, PorTipo> porTipo;
+
+    public record PorTipo(
+            String tipo,
+            long chamadas,
+            long acertosCache,
+            long falhas,
+            long tempoTotalMs,
+            long tokensPrompt,
+            long tokensResposta
+    ) {}
+}
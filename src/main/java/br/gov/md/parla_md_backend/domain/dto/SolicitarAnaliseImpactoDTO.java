@@ -23,6 +23,9 @@ public class SolicitarAnaliseImpactoDTO {
 
     private Boolean forcarNovaAnalise;
 
+    // Avalia todas as áreas em uma única chamada ao LLM, com fallback por área
+    private Boolean analiseAgrupada;
+
     public boolean isAnalisarTodasAreas() {
         return analisarTodasAreas != null && analisarTodasAreas;
     }
@@ -30,4 +33,8 @@ public class SolicitarAnaliseImpactoDTO {
     public boolean isForcarNovaAnalise() {
         return forcarNovaAnalise != null && forcarNovaAnalise;
     }
+
+    public boolean isAnaliseAgrupada() {
+        return analiseAgrupada != null && analiseAgrupada;
+    }
 }
\ No newline at end of file
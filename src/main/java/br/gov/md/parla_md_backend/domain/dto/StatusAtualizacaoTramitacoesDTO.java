@@ -0,0 +1,22 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progresso da atualização de tramitações com as métricas da execução em andamento.
+ *
+ * @param itensProcessados matérias processadas no ciclo, inclusive nas partições ainda não
+ *                         registradas no checkpoint
+ * @param itensPorMinuto   vazão desde o início (ou retomada) desta execução
+ * @param etaSegundos      estimativa do tempo restante; nulo sem execução ou sem vazão medida
+ */
+public record StatusAtualizacaoTramitacoesDTO(
+        ProgressoSincronizacaoDTO progresso,
+        long itensProcessados,
+        long itensComFalha,
+        long itensRestantes,
+        double itensPorMinuto,
+        Long etaSegundos,
+        LocalDateTime previsaoTermino
+) {
+}
@@ -0,0 +1,14 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import java.time.LocalDateTime;
+
+public record StatusIndiceSemanticoDTO(
+        boolean pronto,
+        boolean reindexando,
+        String modelo,
+        int itensIndexados,
+        int itensNaFila,
+        LocalDateTime indexadoAte,
+        LocalDateTime ultimaPersistencia
+) {
+}
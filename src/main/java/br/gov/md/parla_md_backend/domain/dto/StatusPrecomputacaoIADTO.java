@@ -0,0 +1,19 @@
+package br.gov.md.parla_md_backend.domain.dto;
+
+import br.gov.md.parla_md_backend.domain.enums.MotivoFimPrecomputacao;
+
+import java.time.LocalDateTime;
+
+public record StatusPrecomputacaoIADTO(
+        boolean emExecucao,
+        LocalDateTime inicio,
+        LocalDateTime prazo,
+        LocalDateTime fim,
+        int itensPlanejados,
+        int itensProcessados,
+        int falhas,
+        long tokensConsumidos,
+        long orcamentoTokens,
+        MotivoFimPrecomputacao motivoFim
+) {
+}
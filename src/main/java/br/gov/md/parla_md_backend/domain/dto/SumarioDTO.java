@@ -49,6 +49,10 @@ public class SumarioDTO {
 
     private Boolean sucesso;
 
+    private String derivadaDe;
+
+    private Double similaridadeOrigem;
+
     public static SumarioDTO from(Sumario sumario) {
         return SumarioDTO.builder()
                 .id(sumario.getId())
@@ -69,6 +73,8 @@ public class SumarioDTO {
                 .tamanhoSumario(sumario.getTamanhoSumario())
                 .taxaCompressao(sumario.getTaxaCompressao())
                 .sucesso(sumario.getSucesso())
+                .derivadaDe(sumario.getDerivadaDe())
+                .similaridadeOrigem(sumario.getSimilaridadeOrigem())
                 .build();
     }
 }
\ No newline at end of file
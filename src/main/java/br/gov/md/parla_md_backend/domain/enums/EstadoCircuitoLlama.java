@@ -0,0 +1,30 @@
+package br.gov.md.parla_md_backend.domain.enums;
+
+public enum EstadoCircuitoLlama {
+
+    FECHADO(0, "Fechado", "Chamadas ao Ollama liberadas normalmente"),
+    SEMI_ABERTO(1, "Semiaberto", "Algumas chamadas de teste liberadas para avaliar a recuperação"),
+    ABERTO(2, "Aberto", "Chamadas rejeitadas imediatamente até a recuperação do Ollama");
+
+    private final int codigo;
+    private final String descricao;
+    private final String detalhe;
+
+    EstadoCircuitoLlama(int codigo, String descricao, String detalhe) {
+        this.codigo = codigo;
+        this.descricao = descricao;
+        this.detalhe = detalhe;
+    }
+
+    public int getCodigo() {
+        return codigo;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public String getDetalhe() {
+        return detalhe;
+    }
+}
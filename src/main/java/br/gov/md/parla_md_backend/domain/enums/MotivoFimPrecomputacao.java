@@ -0,0 +1,26 @@
+package br.gov.md.parla_md_backend.domain.enums;
+
+public enum MotivoFimPrecomputacao {
+
+    CONCLUIDA("Concluída", "Todos os itens planejados foram processados"),
+    PRAZO_ESGOTADO("Prazo esgotado", "A janela de execução terminou antes do fim da fila"),
+    ORCAMENTO_ESGOTADO("Orçamento esgotado", "O orçamento de tokens da execução foi consumido"),
+    LLAMA_INDISPONIVEL("Llama indisponível", "O Ollama ficou indisponível durante a execução"),
+    INTERROMPIDA("Interrompida", "A aplicação foi encerrada durante a execução");
+
+    private final String descricao;
+    private final String detalhe;
+
+    MotivoFimPrecomputacao(String descricao, String detalhe) {
+        this.descricao = descricao;
+        this.detalhe = detalhe;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public String getDetalhe() {
+        return detalhe;
+    }
+}
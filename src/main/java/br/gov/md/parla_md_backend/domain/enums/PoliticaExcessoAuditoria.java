@@ -0,0 +1,24 @@
+package br.gov.md.parla_md_backend.domain.enums;
+
+public enum PoliticaExcessoAuditoria {
+
+    DESCARTAR_MAIS_ANTIGO("Descartar mais antigo", "Remove o registro mais antigo da fila para aceitar o novo"),
+    DESCARTAR_NOVO("Descartar novo", "Mantém a fila e descarta o registro recebido"),
+    GRAVAR_SINCRONO("Gravar síncrono", "Grava o registro diretamente na thread chamadora");
+
+    private final String descricao;
+    private final String detalhe;
+
+    PoliticaExcessoAuditoria(String descricao, String detalhe) {
+        this.descricao = descricao;
+        this.detalhe = detalhe;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public String getDetalhe() {
+        return detalhe;
+    }
+}
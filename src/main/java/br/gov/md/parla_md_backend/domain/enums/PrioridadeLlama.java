@@ -0,0 +1,23 @@
+package br.gov.md.parla_md_backend.domain.enums;
+
+public enum PrioridadeLlama {
+
+    INTERATIVA("Interativa", "Requisições de usuários aguardando resposta"),
+    LOTE("Lote", "Processamento agendado ou em segundo plano");
+
+    private final String descricao;
+    private final String detalhe;
+
+    PrioridadeLlama(String descricao, String detalhe) {
+        this.descricao = descricao;
+        this.detalhe = detalhe;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public String getDetalhe() {
+        return detalhe;
+    }
+}
@@ -0,0 +1,10 @@
+package br.gov.md.parla_md_backend.domain.enums;
+
+public enum StatusJobIA {
+
+    PENDENTE, EM_PROCESSAMENTO, AGUARDANDO_RETENTATIVA, CONCLUIDO, FALHA;
+
+    public boolean isFinalizado() {
+        return this == CONCLUIDO || this == FALHA;
+    }
+}
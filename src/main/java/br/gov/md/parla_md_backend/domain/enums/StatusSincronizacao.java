@@ -0,0 +1,10 @@
+package br.gov.md.parla_md_backend.domain.enums;
+
+public enum StatusSincronizacao {
+
+    EM_ANDAMENTO, CONCLUIDA, FALHA;
+
+    public boolean isRetomavel() {
+        return this == EM_ANDAMENTO || this == FALHA;
+    }
+}
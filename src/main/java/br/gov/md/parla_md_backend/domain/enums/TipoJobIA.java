@@ -0,0 +1,6 @@
+package br.gov.md.parla_md_backend.domain.enums;
+
+public enum TipoJobIA {
+
+    SUMARIZACAO, PREVISAO, ANALISE_IMPACTO, ANALISE_PARLAMENTAR
+}
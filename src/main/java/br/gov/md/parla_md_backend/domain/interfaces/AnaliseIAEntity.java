@@ -22,4 +22,12 @@ public interface AnaliseIAEntity {
 
     LocalDateTime getDataExpiracao();
 
+    /**
+     * Id da análise de um item similar da qual esta foi copiada, ou nulo se foi gerada
+     * pelo modelo para o próprio item.
+     */
+    default String getDerivadaDe() {
+        return null;
+    }
+
 }
@@ -0,0 +1,37 @@
+package br.gov.md.parla_md_backend.exception;
+
+public class BuscaSemanticaException extends IAException {
+
+    private static final long serialVersionUID = 1L;
+    private static final String CODIGO_ERRO = "BSE001";
+
+    // Carregar o índice do disco leva poucos segundos mesmo com centenas de milhares de vetores
+    private static final long RETRY_AFTER_CARREGAMENTO_SEGUNDOS = 30;
+
+    public BuscaSemanticaException(String mensagem) {
+        super(String.format("[%s] %s", CODIGO_ERRO, mensagem));
+    }
+
+    public BuscaSemanticaException(String mensagem, Throwable causa) {
+        super(String.format("[%s] %s", CODIGO_ERRO, mensagem), causa);
+    }
+
+    public static BuscaSemanticaIndisponivelException desabilitada() {
+        return new BuscaSemanticaIndisponivelException(
+                "Busca semântica desabilitada (ai.embeddings.habilitado)", null);
+    }
+
+    public static BuscaSemanticaIndisponivelException indiceEmCarregamento() {
+        return new BuscaSemanticaIndisponivelException(
+                "Índice semântico em carregamento. Tente novamente em instantes",
+                RETRY_AFTER_CARREGAMENTO_SEGUNDOS);
+    }
+
+    public static BuscaSemanticaException consultaVazia() {
+        return new BuscaSemanticaException("Consulta para busca semântica não pode ser vazia");
+    }
+
+    public static BuscaSemanticaException embeddingInvalido(String detalhes) {
+        return new BuscaSemanticaException("Embedding inválido retornado pelo Ollama: " + detalhes);
+    }
+}
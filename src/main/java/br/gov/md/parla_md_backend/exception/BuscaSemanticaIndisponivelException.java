@@ -0,0 +1,23 @@
+package br.gov.md.parla_md_backend.exception;
+
+import java.util.Optional;
+
+/**
+ * Busca semântica temporária ou permanentemente fora de serviço. Não é erro do cliente:
+ * o handler responde 503, com Retry-After quando há previsão de retorno.
+ */
+public class BuscaSemanticaIndisponivelException extends BuscaSemanticaException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long retryAfterSegundos;
+
+    public BuscaSemanticaIndisponivelException(String mensagem, Long retryAfterSegundos) {
+        super(mensagem);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public Optional<Long> getRetryAfterSegundos() {
+        return Optional.ofNullable(retryAfterSegundos);
+    }
+}
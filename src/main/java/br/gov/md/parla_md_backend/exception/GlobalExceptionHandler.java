@@ -1,5 +1,6 @@
 package br.gov.md.parla_md_backend.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
@@ -53,6 +54,51 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(erro, org.springframework.http.HttpStatus.FORBIDDEN);
     }
-}
 
+    @ExceptionHandler(LlamaIndisponivelException.class)
+    public ResponseEntity<RespostaErro> handleLlamaIndisponivelException(
+            LlamaIndisponivelException ex, WebRequest request) {
+
+        RespostaErro erro = new RespostaErro(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(erro);
+    }
+
+    @ExceptionHandler(LlamaSobrecarregadoException.class)
+    public ResponseEntity<RespostaErro> handleLlamaSobrecarregadoException(
+            LlamaSobrecarregadoException ex, WebRequest request) {
+
+        RespostaErro erro = new RespostaErro(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+                .body(erro);
+    }
 
+    @ExceptionHandler(BuscaSemanticaIndisponivelException.class)
+    public ResponseEntity<RespostaErro> handleBuscaSemanticaIndisponivelException(
+            BuscaSemanticaIndisponivelException ex, WebRequest request) {
+
+        RespostaErro erro = new RespostaErro(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        ex.getRetryAfterSegundos()
+                .ifPresent(segundos -> resposta.header(HttpHeaders.RETRY_AFTER, String.valueOf(segundos)));
+        return resposta.body(erro);
+    }
+}
@@ -25,4 +25,17 @@ public class LlamaIndisponivelException extends IAException {
                 causa
         );
     }
+
+    public static LlamaIndisponivelException circuitoAberto(long segundosRestantes) {
+        return new LlamaIndisponivelException(
+                String.format("Circuito do Ollama aberto por falhas ou lentidão recentes. Nova tentativa em %ds",
+                        segundosRestantes)
+        );
+    }
+
+    public static LlamaIndisponivelException semInstanciaDisponivel(String modelo) {
+        return new LlamaIndisponivelException(
+                String.format("Nenhuma instância do Ollama disponível para o modelo %s", modelo)
+        );
+    }
 }
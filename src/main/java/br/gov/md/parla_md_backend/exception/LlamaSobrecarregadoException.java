@@ -0,0 +1,33 @@
+package br.gov.md.parla_md_backend.exception;
+
+public class LlamaSobrecarregadoException extends LlamaIndisponivelException {
+
+    private static final long serialVersionUID = 1L;
+    private static final String CODIGO_ERRO = "IA004";
+
+    private final long retryAfterSegundos;
+
+    public LlamaSobrecarregadoException(String mensagem, long retryAfterSegundos) {
+        super(String.format("[%s] %s", CODIGO_ERRO, mensagem));
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public static LlamaSobrecarregadoException filaCheia(int capacidade, long retryAfterSegundos) {
+        return new LlamaSobrecarregadoException(
+                String.format("Fila do LLM cheia (%d requisições). Tente novamente em %ds",
+                        capacidade, retryAfterSegundos),
+                retryAfterSegundos
+        );
+    }
+
+    public static LlamaSobrecarregadoException tempoFilaExcedido(long esperaMs, long retryAfterSegundos) {
+        return new LlamaSobrecarregadoException(
+                String.format("Requisição aguardou %dms na fila do LLM sem ser atendida", esperaMs),
+                retryAfterSegundos
+        );
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
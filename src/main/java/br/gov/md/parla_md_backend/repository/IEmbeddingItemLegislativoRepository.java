@@ -0,0 +1,16 @@
+package br.gov.md.parla_md_backend.repository;
+
+import br.gov.md.parla_md_backend.domain.EmbeddingItemLegislativo;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface IEmbeddingItemLegislativoRepository extends MongoRepository<EmbeddingItemLegislativo, String> {
+
+    Stream<EmbeddingItemLegislativo> findByDataAtualizacaoAfterOrderByDataAtualizacao(LocalDateTime data);
+
+    Stream<EmbeddingItemLegislativo> streamAllBy();
+}
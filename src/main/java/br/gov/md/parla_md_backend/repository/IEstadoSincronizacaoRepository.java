@@ -0,0 +1,13 @@
+package br.gov.md.parla_md_backend.repository;
+
+import br.gov.md.parla_md_backend.domain.EstadoSincronizacao;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IEstadoSincronizacaoRepository extends MongoRepository<EstadoSincronizacao, String> {
+
+    List<EstadoSincronizacao> findAllByOrderByFonteAscRecursoAsc();
+}
@@ -26,6 +26,11 @@ public interface IInteracaoLlamaRepository extends MongoRepository<InteracaoLlam
 
     List<InteracaoLlama> findByContexto(String contexto);
 
+    Optional<InteracaoLlama> findFirstByChaveConteudoAndSucessoTrueAndDataExpiracaoAfterOrderByDataHoraRequisicaoDesc(
+            String chaveConteudo,
+            LocalDateTime agora
+    );
+
     List<InteracaoLlama> findByDataHoraRequisicaoAfter(LocalDateTime dataHora);
 
     List<InteracaoLlama> findByDataHoraRequisicaoBetween(
@@ -0,0 +1,16 @@
+package br.gov.md.parla_md_backend.repository;
+
+import br.gov.md.parla_md_backend.domain.JobAnaliseIA;
+import br.gov.md.parla_md_backend.domain.enums.StatusJobIA;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IJobAnaliseIARepository extends MongoRepository<JobAnaliseIA, String> {
+
+    Page<JobAnaliseIA> findBySolicitanteIdOrderByDataCriacaoDesc(String solicitanteId, Pageable pageable);
+
+    long countByStatus(StatusJobIA status);
+}
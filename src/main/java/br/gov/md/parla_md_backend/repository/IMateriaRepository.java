@@ -151,4 +151,8 @@ public interface IMateriaRepository extends MongoRepository<Materia, String> {
 
     Page<Materia> findByTipoMateriaIn(List<TipoMateria> tipos, Pageable pageable);
 
-}
\ No newline at end of file
+    // Itens capturados no período ou marcados como de interesse e atualizados nele, exceto descartados
+    @Query("{ $or: [ { 'dataCaptura': { $gte: ?0 } }, { 'statusTriagem': 'INTERESSE', 'dataUltimaAtualizacao': { $gte: ?0 } } ], " +
+            "'statusTriagem': { $ne: 'DESCARTADO' } }")
+    List<Materia> buscarCandidatosPrecomputacao(LocalDateTime desde);
+}
@@ -0,0 +1,11 @@
+package br.gov.md.parla_md_backend.repository;
+
+import br.gov.md.parla_md_backend.domain.ProgressoSincronizacao;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IProgressoSincronizacaoRepository extends MongoRepository<ProgressoSincronizacao, String> {
+
+    void deleteByIdRegex(String regex);
+}
@@ -143,4 +143,9 @@ public interface IProposicaoRepository extends MongoRepository<Proposicao, Strin
             LocalDate dataInicio,
             LocalDate dataFim
     );
-}
\ No newline at end of file
+
+    // Itens capturados no período ou marcados como de interesse e atualizados nele, exceto descartados
+    @Query("{ $or: [ { 'dataCaptura': { $gte: ?0 } }, { 'statusTriagem': 'INTERESSE', 'dataUltimaAtualizacao': { $gte: ?0 } } ], " +
+            "'statusTriagem': { $ne: 'DESCARTADO' } }")
+    List<Proposicao> buscarCandidatosPrecomputacao(LocalDateTime desde);
+}
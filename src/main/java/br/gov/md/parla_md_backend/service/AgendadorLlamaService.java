@@ -0,0 +1,207 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.enums.PrioridadeLlama;
+import br.gov.md.parla_md_backend.exception.LlamaSobrecarregadoException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Agendador de chamadas ao Ollama com limite de concorrência e filas por prioridade.
+ *
+ * Requisições interativas são sempre atendidas antes das de lote. Quando a fila está
+ * cheia, ou o tempo máximo de espera é excedido, a requisição é rejeitada com
+ * {@link LlamaSobrecarregadoException} e uma estimativa de retry-after.
+ */
+@Slf4j
+@Service
+public class AgendadorLlamaService {
+
+    private static final ThreadLocal<PrioridadeLlama> PRIORIDADE_ATUAL =
+            ThreadLocal.withInitial(() -> PrioridadeLlama.INTERATIVA);
+
+    private final MeterRegistry meterRegistry;
+    private final int concorrenciaMaxima;
+    private final int capacidadeFila;
+    private final long tempoMaximoFilaMs;
+
+    private final Map<PrioridadeLlama, Deque<Pedido>> filas = new EnumMap<>(PrioridadeLlama.class);
+    private int emExecucao;
+
+    // Média móvel exponencial da duração das chamadas, usada para estimar o retry-after
+    private volatile double duracaoMediaMs = 10_000;
+
+    public AgendadorLlamaService(MeterRegistry meterRegistry,
+                                 @Value("${ollama.agendador.concorrencia-maxima:2}") int concorrenciaMaxima,
+                                 @Value("${ollama.agendador.capacidade-fila:50}") int capacidadeFila,
+                                 @Value("${ollama.agendador.tempo-maximo-fila-ms:60000}") long tempoMaximoFilaMs) {
+        this.meterRegistry = meterRegistry;
+        this.concorrenciaMaxima = concorrenciaMaxima;
+        this.capacidadeFila = capacidadeFila;
+        this.tempoMaximoFilaMs = tempoMaximoFilaMs;
+
+        for (PrioridadeLlama prioridade : PrioridadeLlama.values()) {
+            filas.put(prioridade, new ArrayDeque<>());
+            Gauge.builder("llama.agendador.fila", this, a -> a.tamanhoFila(prioridade))
+                    .tag("prioridade", prioridade.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("llama.agendador.em.execucao", this, AgendadorLlamaService::getEmExecucao)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a tarefa com a prioridade do contexto atual (interativa por padrão).
+     */
+    public <T> T executar(Supplier<T> tarefa) {
+        return executar(PRIORIDADE_ATUAL.get(), tarefa);
+    }
+
+    public <T> T executar(PrioridadeLlama prioridade, Supplier<T> tarefa) {
+        long inicioNs = System.nanoTime();
+
+        adquirir(prioridade);
+
+        meterRegistry.timer("llama.agendador.espera", "prioridade", prioridade.name())
+                .record(System.nanoTime() - inicioNs, TimeUnit.NANOSECONDS);
+
+        long inicioExecucaoNs = System.nanoTime();
+        try {
+            return tarefa.get();
+        } finally {
+            atualizarDuracaoMedia(Duration.ofNanos(System.nanoTime() - inicioExecucaoNs).toMillis());
+            liberar();
+        }
+    }
+
+    /**
+     * Executa o trecho marcando as chamadas ao LLM feitas na thread atual como de lote.
+     */
+    public static <T> T comoLote(Supplier<T> trecho) {
+        return comPrioridade(PrioridadeLlama.LOTE, trecho);
+    }
+
+    /**
+     * Executa o trecho com a prioridade informada; usado para propagar a prioridade
+     * do chamador para threads auxiliares.
+     */
+    public static <T> T comPrioridade(PrioridadeLlama prioridade, Supplier<T> trecho) {
+        PrioridadeLlama anterior = PRIORIDADE_ATUAL.get();
+        PRIORIDADE_ATUAL.set(prioridade);
+        try {
+            return trecho.get();
+        } finally {
+            PRIORIDADE_ATUAL.set(anterior);
+        }
+    }
+
+    public static PrioridadeLlama prioridadeAtual() {
+        return PRIORIDADE_ATUAL.get();
+    }
+
+    public int getConcorrenciaMaxima() {
+        return concorrenciaMaxima;
+    }
+
+    public synchronized int getEmExecucao() {
+        return emExecucao;
+    }
+
+    public synchronized int tamanhoFila(PrioridadeLlama prioridade) {
+        return filas.get(prioridade).size();
+    }
+
+    private void adquirir(PrioridadeLlama prioridade) {
+        Pedido pedido;
+
+        synchronized (this) {
+            if (emExecucao < concorrenciaMaxima && filasVazias()) {
+                emExecucao++;
+                return;
+            }
+
+            if (tamanhoTotalFilas() >= capacidadeFila) {
+                registrarRejeicao("fila_cheia");
+                throw LlamaSobrecarregadoException.filaCheia(capacidadeFila, estimarRetryAfterSegundos());
+            }
+
+            pedido = new Pedido();
+            filas.get(prioridade).addLast(pedido);
+        }
+
+        boolean concedido;
+        try {
+            concedido = pedido.liberacao.await(tempoMaximoFilaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            concedido = false;
+        }
+
+        if (concedido) {
+            return;
+        }
+
+        synchronized (this) {
+            // A permissão pode ter sido concedida entre o timeout e a aquisição do monitor
+            if (!filas.get(prioridade).remove(pedido)) {
+                return;
+            }
+        }
+
+        registrarRejeicao("tempo_fila");
+        throw LlamaSobrecarregadoException.tempoFilaExcedido(tempoMaximoFilaMs, estimarRetryAfterSegundos());
+    }
+
+    private synchronized void liberar() {
+        for (PrioridadeLlama prioridade : PrioridadeLlama.values()) {
+            Pedido proximo = filas.get(prioridade).pollFirst();
+            if (proximo != null) {
+                // A permissão passa diretamente ao próximo pedido
+                proximo.liberacao.countDown();
+                return;
+            }
+        }
+        emExecucao--;
+    }
+
+    private boolean filasVazias() {
+        return tamanhoTotalFilas() == 0;
+    }
+
+    private int tamanhoTotalFilas() {
+        return filas.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private long estimarRetryAfterSegundos() {
+        int aguardando;
+        synchronized (this) {
+            aguardando = tamanhoTotalFilas();
+        }
+        double estimativaMs = duracaoMediaMs * (aguardando + 1) / Math.max(concorrenciaMaxima, 1);
+        return Math.max(1, (long) Math.ceil(estimativaMs / 1000));
+    }
+
+    private void atualizarDuracaoMedia(long duracaoMs) {
+        duracaoMediaMs = 0.8 * duracaoMediaMs + 0.2 * duracaoMs;
+    }
+
+    private void registrarRejeicao(String motivo) {
+        meterRegistry.counter("llama.agendador.rejeicoes", "motivo", motivo).increment();
+        log.warn("Requisição ao LLM rejeitada: {}", motivo);
+    }
+
+    private static final class Pedido {
+        private final CountDownLatch liberacao = new CountDownLatch(1);
+    }
+}
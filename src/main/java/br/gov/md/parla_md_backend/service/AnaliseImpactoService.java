@@ -4,12 +4,16 @@ import br.gov.md.parla_md_backend.domain.AnaliseImpacto;
 import br.gov.md.parla_md_backend.domain.AreaImpacto;
 import br.gov.md.parla_md_backend.domain.ItemLegislativo;
 import br.gov.md.parla_md_backend.domain.dto.*;
+import br.gov.md.parla_md_backend.domain.enums.PrioridadeLlama;
 import br.gov.md.parla_md_backend.exception.AnaliseImpactoException;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
 import br.gov.md.parla_md_backend.exception.RecursoNaoEncontradoException;
 import br.gov.md.parla_md_backend.repository.IAnaliseImpactoRepository;
 import br.gov.md.parla_md_backend.repository.IAreaImpactoRepository;
 import br.gov.md.parla_md_backend.repository.IItemLegislativoRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
@@ -19,6 +23,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,15 +41,30 @@ public class AnaliseImpactoService extends BaseIAService<AnaliseImpacto, Analise
 
     private final IAreaImpactoRepository areaRepository;
     private final IItemLegislativoRepository itemLegislativoRepository;
+    private final AgendadorLlamaService agendador;
+
+    // Cada área roda em uma virtual thread; o paralelismo efetivo é limitado por semáforo
+    private final ExecutorService executorAreas = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${ai.impacto.paralelismo-maximo:4}")
+    private int paralelismoMaximo;
+
+    @Value("${ai.impacto.timeout-area-ms:120000}")
+    private long timeoutAreaMs;
+
+    @Value("${ai.impacto.lote.maximo-areas:8}")
+    private int maximoAreasPorLote;
 
     public AnaliseImpactoService(
             LlamaService llamaService,
             IAnaliseImpactoRepository analiseRepository,
             IAreaImpactoRepository areaRepository,
-            IItemLegislativoRepository itemLegislativoRepository) {
+            IItemLegislativoRepository itemLegislativoRepository,
+            AgendadorLlamaService agendador) {
         super(llamaService, analiseRepository);
         this.areaRepository = areaRepository;
         this.itemLegislativoRepository = itemLegislativoRepository;
+        this.agendador = agendador;
     }
 
     @Override
@@ -173,8 +202,47 @@ public class AnaliseImpactoService extends BaseIAService<AnaliseImpacto, Analise
                 .filter(this::isCacheValido);
     }
 
+    @Override
+    protected String construirChaveCoalescencia(Object... parametros) {
+        ItemLegislativo item = (ItemLegislativo) parametros[0];
+        AreaImpacto area = (AreaImpacto) parametros[1];
+
+        return item.getId() + ":" + area.getId();
+    }
+
+    @Override
+    protected Optional<Reaproveitamento<AnaliseImpacto>> getReaproveitamento(Object... parametros) {
+        return Optional.of(new Reaproveitamento<>(0, this::derivar));
+    }
+
+    private Optional<AnaliseImpacto> derivar(AnaliseImpacto origem, ItemLegislativo destino, double similaridade) {
+        return Optional.of(origem.toBuilder()
+                .id(null)
+                .itemLegislativo(destino)
+                .dataAnalise(LocalDateTime.now())
+                .tempoProcessamentoMs(0L)
+                .dataExpiracao(calcularDataExpiracaoDerivada(origem))
+                .derivadaDe(origem.getId())
+                .similaridadeOrigem(similaridade)
+                .build());
+    }
+
     @Transactional
-    public List<AnaliseImpactoDTO> analisar(SolicitarAnaliseImpactoDTO request) {
+    public ResultadoAnalisesImpactoDTO analisar(SolicitarAnaliseImpactoDTO request) {
+        return analisar(request, analise -> {}, falha -> {});
+    }
+
+    /**
+     * Analisa as áreas em paralelo, notificando cada resultado assim que a área termina.
+     * Os callbacks são sempre invocados na thread chamadora, em ordem de conclusão.
+     * Se nenhuma área foi concluída e todas falharam por indisponibilidade do LLM, a
+     * exceção de indisponibilidade é propagada em vez de um resultado só com falhas.
+     */
+    public ResultadoAnalisesImpactoDTO analisar(SolicitarAnaliseImpactoDTO request,
+                                                Consumer<AnaliseImpactoDTO> aoConcluirArea,
+                                                Consumer<FalhaAreaImpactoDTO> aoFalharArea) {
+        long inicioMs = System.currentTimeMillis();
+
         ItemLegislativo item = buscarItemLegislativo(request.getItemLegislativoId());
         List<AreaImpacto> areasParaAnalisar = determinarAreas(request);
 
@@ -183,21 +251,282 @@ public class AnaliseImpactoService extends BaseIAService<AnaliseImpacto, Analise
         }
 
         List<AnaliseImpactoDTO> analises = new ArrayList<>();
+        List<FalhaAreaImpactoDTO> falhas = new ArrayList<>();
+        List<LlamaIndisponivelException> indisponibilidades = new ArrayList<>();
+
+        Consumer<AnaliseImpactoDTO> registrarAnalise = analise -> {
+            analises.add(analise);
+            aoConcluirArea.accept(analise);
+        };
+
+        List<AreaImpacto> pendentes = areasParaAnalisar;
+
+        if (request.isAnaliseAgrupada() && areasParaAnalisar.size() > 1) {
+            pendentes = analisarAgrupado(item, areasParaAnalisar, request.isForcarNovaAnalise(), registrarAnalise);
+        }
+
+        if (!pendentes.isEmpty()) {
+            analisarEmParalelo(item, pendentes, request.isForcarNovaAnalise(), resultado -> {
+                if (resultado.analise() != null) {
+                    registrarAnalise.accept(resultado.analise());
+                } else {
+                    falhas.add(resultado.falha());
+                    if (resultado.indisponibilidade() != null) {
+                        indisponibilidades.add(resultado.indisponibilidade());
+                    }
+                    aoFalharArea.accept(resultado.falha());
+                }
+            });
+        }
+
+        if (analises.isEmpty() && !falhas.isEmpty() && indisponibilidades.size() == falhas.size()) {
+            throw indisponibilidades.get(0);
+        }
+
+        long duracaoMs = System.currentTimeMillis() - inicioMs;
+        log.info("Análise de impacto do item {} concluída em {}ms: {} área(s) com sucesso, {} falha(s)",
+                item.getId(), duracaoMs, analises.size(), falhas.size());
 
-        for (AreaImpacto area : areasParaAnalisar) {
-            try {
-                AnaliseImpacto analise = processarComCache(
-                        request.isForcarNovaAnalise(),
-                        item,
-                        area
-                );
-                analises.add(toDTO(analise));
-            } catch (Exception e) {
-                log.error("Erro ao analisar impacto na área {}: {}", area.getNome(), e.getMessage());
+        return ResultadoAnalisesImpactoDTO.builder()
+                .itemLegislativoId(item.getId())
+                .totalAreas(areasParaAnalisar.size())
+                .analises(analises)
+                .falhas(falhas)
+                .tempoTotalMs(duracaoMs)
+                .build();
+    }
+
+    private void analisarEmParalelo(ItemLegislativo item, List<AreaImpacto> areas, boolean forcarNova,
+                                    Consumer<ResultadoArea> aoConcluir) {
+        // Acima da concorrência do agendador as áreas só ocupariam a fila global do LLM
+        int paralelismo = Math.max(1, Math.min(
+                Math.min(paralelismoMaximo, agendador.getConcorrenciaMaxima()),
+                areas.size()));
+
+        Semaphore permissoes = new Semaphore(paralelismo);
+        PrioridadeLlama prioridade = AgendadorLlamaService.prioridadeAtual();
+        CompletionService<ResultadoArea> conclusoes = new ExecutorCompletionService<>(executorAreas);
+
+        for (AreaImpacto area : areas) {
+            conclusoes.submit(() -> analisarArea(item, area, forcarNova, permissoes, prioridade));
+        }
+
+        log.debug("Analisando {} área(s) do item {} com paralelismo {}", areas.size(), item.getId(), paralelismo);
+
+        try {
+            for (int i = 0; i < areas.size(); i++) {
+                aoConcluir.accept(conclusoes.take().get());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AnaliseImpactoException.erroProcessamento("análise interrompida", e);
+        } catch (ExecutionException e) {
+            throw AnaliseImpactoException.erroProcessamento(e.getCause().getMessage(), e.getCause());
         }
+    }
+
+    /**
+     * Avalia as áreas sem cache válido com um único prompt por grupo, enviando o texto da
+     * proposição uma só vez. Retorna as áreas que ficaram sem resultado e devem seguir
+     * pelo fluxo individual.
+     */
+    private List<AreaImpacto> analisarAgrupado(ItemLegislativo item, List<AreaImpacto> areas, boolean forcarNova,
+                                               Consumer<AnaliseImpactoDTO> aoConcluirArea) {
+        List<AreaImpacto> semCache = new ArrayList<>();
+
+        for (AreaImpacto area : areas) {
+            Optional<AnaliseImpacto> cache = forcarNova
+                    ? Optional.empty()
+                    : buscarCacheRecente(item, area).or(() -> buscarAnaliseDerivada(item, area));
+            if (cache.isPresent()) {
+                aoConcluirArea.accept(toDTO(cache.get()));
+            } else {
+                semCache.add(area);
+            }
+        }
+
+        List<AreaImpacto> pendentes = new ArrayList<>();
+
+        for (int inicio = 0; inicio < semCache.size(); inicio += maximoAreasPorLote) {
+            List<AreaImpacto> grupo = semCache.subList(inicio, Math.min(inicio + maximoAreasPorLote, semCache.size()));
+
+            if (grupo.size() == 1) {
+                pendentes.addAll(grupo);
+                continue;
+            }
+
+            pendentes.addAll(processarGrupo(item, grupo, forcarNova, aoConcluirArea));
+        }
+
+        if (!pendentes.isEmpty()) {
+            log.info("{} de {} área(s) do item {} seguem para análise individual",
+                    pendentes.size(), areas.size(), item.getId());
+        }
+
+        return pendentes;
+    }
+
+    private List<AreaImpacto> processarGrupo(ItemLegislativo item, List<AreaImpacto> grupo, boolean forcarNova,
+                                             Consumer<AnaliseImpactoDTO> aoConcluirArea) {
+        long inicioMs = System.currentTimeMillis();
+
+        Map<String, AreaImpacto> porCodigo = new LinkedHashMap<>();
+        for (int i = 0; i < grupo.size(); i++) {
+            porCodigo.put("A" + (i + 1), grupo.get(i));
+        }
+
+        ResultadoAnaliseImpactoLoteIA lote;
+        RespostaLlamaDTO resposta;
+
+        try {
+            resposta = llamaService.enviarRequisicao(
+                    construirPromptAgrupado(item, porCodigo), construirPromptSistema(),
+                    ResultadoAnaliseImpactoLoteIA.class, getNomeCacheEvict(), forcarNova);
+            lote = llamaService.extrairJson(resposta, ResultadoAnaliseImpactoLoteIA.class);
+
+        } catch (Exception e) {
+            log.warn("Falha na análise agrupada do item {} ({} áreas): {}", item.getId(), grupo.size(), e.getMessage());
+            return new ArrayList<>(grupo);
+        }
+
+        // O tempo da chamada é rateado entre as áreas do grupo
+        long duracaoPorAreaMs = (System.currentTimeMillis() - inicioMs) / grupo.size();
+
+        if (lote.analises() != null) {
+            for (ResultadoAnaliseImpactoLoteIA.AreaAnalisada resultado : lote.analises()) {
+                if (resultado == null || !resultado.isCompleta()) {
+                    continue;
+                }
+
+                AreaImpacto area = porCodigo.remove(resultado.codigoArea().trim().toUpperCase());
+                if (area == null) {
+                    continue;
+                }
+
+                AnaliseImpacto analise = repository.save(
+                        construirEntidade(resultado.toResultado(), resposta, duracaoPorAreaMs, item, area));
+                aoConcluirArea.accept(toDTO(analise));
+            }
+        }
+
+        return new ArrayList<>(porCodigo.values());
+    }
+
+    private String construirPromptAgrupado(ItemLegislativo item, Map<String, AreaImpacto> porCodigo) {
+        StringBuilder areas = new StringBuilder();
+
+        porCodigo.forEach((codigo, area) -> areas.append(String.format("""
+            [%s] %s
+            - Descrição: %s
+            - Grupos potencialmente afetados: %s
+            """,
+                codigo,
+                area.getNome(),
+                area.getDescricao() != null ? area.getDescricao() : "Não especificada",
+                area.getGruposAfetados() != null ? String.join(", ", area.getGruposAfetados()) : "Não especificados"
+        )));
+
+        return String.format("""
+            Analise o impacto desta proposição legislativa em cada uma das áreas listadas:
+            
+            PROPOSIÇÃO:
+            - Tipo: %s
+            - Ementa: %s
+            - Tema: %s
+            
+            ÁREAS DE IMPACTO:
+            %s
+            TAREFA:
+            Avalie cada área de forma independente e responda APENAS com um JSON no formato,
+            contendo exatamente um elemento por área, identificado pelo código entre colchetes:
+            
+            {
+              "analises": [
+                {
+                  "codigoArea": "<código da área, ex.: A1>",
+                  "nivelImpacto": "<ALTO|MEDIO|BAIXO|NENHUM>",
+                  "tipoImpacto": "<POSITIVO|NEGATIVO|MISTO|NEUTRO>",
+                  "percentualImpacto": <número entre 0.0 e 1.0>,
+                  "analiseDetalhada": "<análise em 3-5 frases>",
+                  "consequencias": ["<consequência 1>", "<consequência 2>"],
+                  "gruposAfetados": ["<grupo 1>", "<grupo 2>"],
+                  "riscos": ["<risco 1>", "<risco 2>"],
+                  "oportunidades": ["<oportunidade 1>", "<oportunidade 2>"],
+                  "recomendacoes": "<recomendações em 2-3 frases>"
+                }
+              ]
+            }
+            """,
+                item.getTipo(),
+                item.getEmenta(),
+                item.getTema(),
+                areas
+        );
+    }
+
+    private ResultadoArea analisarArea(ItemLegislativo item, AreaImpacto area, boolean forcarNova,
+                                       Semaphore permissoes, PrioridadeLlama prioridade) {
+        try {
+            permissoes.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResultadoArea.falha(area, FalhaAreaImpactoDTO.MOTIVO_INTERROMPIDA, "Análise interrompida", 0);
+        }
+
+        long inicioMs = System.currentTimeMillis();
+        Future<AnaliseImpacto> execucao = executorAreas.submit(() ->
+                AgendadorLlamaService.comPrioridade(prioridade, () -> processarComCache(forcarNova, item, area)));
+
+        try {
+            return ResultadoArea.sucesso(toDTO(execucao.get(timeoutAreaMs, TimeUnit.MILLISECONDS)));
+
+        } catch (TimeoutException e) {
+            execucao.cancel(true);
+            log.warn("Tempo limite de {}ms excedido na análise da área {}", timeoutAreaMs, area.getNome());
+            return ResultadoArea.falha(area, FalhaAreaImpactoDTO.MOTIVO_TIMEOUT,
+                    "Tempo limite de " + timeoutAreaMs + "ms excedido", System.currentTimeMillis() - inicioMs);
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LlamaIndisponivelException indisponivel) {
+                log.warn("LLM indisponível na análise da área {}: {}", area.getNome(), indisponivel.getMessage());
+                return ResultadoArea.indisponivel(area, indisponivel, System.currentTimeMillis() - inicioMs);
+            }
+            log.error("Erro ao analisar impacto na área {}: {}", area.getNome(), e.getCause().getMessage());
+            return ResultadoArea.falha(area, FalhaAreaImpactoDTO.MOTIVO_ERRO,
+                    e.getCause().getMessage(), System.currentTimeMillis() - inicioMs);
+
+        } catch (InterruptedException e) {
+            execucao.cancel(true);
+            Thread.currentThread().interrupt();
+            return ResultadoArea.falha(area, FalhaAreaImpactoDTO.MOTIVO_INTERROMPIDA,
+                    "Análise interrompida", System.currentTimeMillis() - inicioMs);
+
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    private record ResultadoArea(AnaliseImpactoDTO analise, FalhaAreaImpactoDTO falha,
+                                 LlamaIndisponivelException indisponibilidade) {
+
+        static ResultadoArea sucesso(AnaliseImpactoDTO analise) {
+            return new ResultadoArea(analise, null, null);
+        }
+
+        static ResultadoArea falha(AreaImpacto area, String motivo, String mensagem, long duracaoMs) {
+            return new ResultadoArea(null,
+                    new FalhaAreaImpactoDTO(area.getId(), area.getNome(), motivo, mensagem, duracaoMs), null);
+        }
+
+        static ResultadoArea indisponivel(AreaImpacto area, LlamaIndisponivelException causa, long duracaoMs) {
+            return new ResultadoArea(null, new FalhaAreaImpactoDTO(area.getId(), area.getNome(),
+                    FalhaAreaImpactoDTO.MOTIVO_INDISPONIVEL, causa.getMessage(), duracaoMs), causa);
+        }
+    }
 
-        return analises;
+    @PreDestroy
+    public void encerrar() {
+        executorAreas.shutdownNow();
     }
 
     @Transactional(readOnly = true)
@@ -203,6 +203,14 @@ public class AnaliseParlamentarService extends BaseIAService<AnaliseParlamentar,
                 .filter(this::isCacheValido);
     }
 
+    @Override
+    protected String construirChaveCoalescencia(Object... parametros) {
+        Parlamentar parlamentar = (Parlamentar) parametros[0];
+        String tema = (String) parametros[1];
+
+        return parlamentar.getId() + ":" + tema;
+    }
+
     @Transactional
     public AnaliseParlamentarDTO analisar(SolicitarAnaliseParlamentarDTO request) {
         Parlamentar parlamentar = buscarParlamentar(request.getParlamentarId());
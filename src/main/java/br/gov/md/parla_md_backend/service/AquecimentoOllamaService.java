@@ -0,0 +1,89 @@
+package br.gov.md.parla_md_backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém o modelo padrão carregado nas instâncias do Ollama.
+ *
+ * Na subida da aplicação e periodicamente, envia a cada instância uma requisição
+ * sem prompt com {@code keep_alive}, que apenas carrega o modelo na memória. Assim a
+ * primeira requisição de usuário após um deploy ou um período ocioso não paga o
+ * {@code load_duration} do modelo. O intervalo deve ser menor que {@code ollama.keep-alive}.
+ */
+@Slf4j
+@Service
+public class AquecimentoOllamaService {
+
+    private final RoteadorOllamaService roteador;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ollama.aquecimento.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${ollama.model:llama3.2:3b}")
+    private String modelo;
+
+    @Value("${ollama.keep-alive:30m}")
+    private String keepAlive;
+
+    public AquecimentoOllamaService(RoteadorOllamaService roteador, MeterRegistry meterRegistry) {
+        this.roteador = roteador;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecerNaInicializacao() {
+        if (habilitado) {
+            // Não atrasa a subida: o carregamento do modelo pode levar vários segundos
+            Thread.ofVirtual().name("aquecimento-ollama").start(this::aquecer);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${ollama.aquecimento.intervalo-ms:600000}",
+            initialDelayString = "${ollama.aquecimento.intervalo-ms:600000}"
+    )
+    public void aquecerPeriodicamente() {
+        if (habilitado) {
+            aquecer();
+        }
+    }
+
+    public void aquecer() {
+        for (String instancia : roteador.instanciasDisponiveis(modelo)) {
+            aquecer(instancia);
+        }
+    }
+
+    private void aquecer(String instancia) {
+        long inicioMs = System.currentTimeMillis();
+        String resultado = "sucesso";
+
+        try {
+            roteador.executarEm(instancia, cliente -> cliente.post()
+                    .uri("/api/generate")
+                    .body(Map.of("model", modelo, "keep_alive", keepAlive))
+                    .retrieve()
+                    .toBodilessEntity());
+
+            log.debug("Modelo {} aquecido em {} ({}ms)", modelo, instancia, System.currentTimeMillis() - inicioMs);
+
+        } catch (Exception e) {
+            resultado = "erro";
+            log.warn("Falha ao aquecer o modelo {} em {}: {}", modelo, instancia, e.getMessage());
+
+        } finally {
+            meterRegistry.timer("llama.aquecimento", "instancia", instancia, "resultado", resultado)
+                    .record(System.currentTimeMillis() - inicioMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
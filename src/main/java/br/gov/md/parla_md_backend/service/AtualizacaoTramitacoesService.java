@@ -0,0 +1,473 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.config.WorkflowConfig;
+import br.gov.md.parla_md_backend.domain.Materia;
+import br.gov.md.parla_md_backend.domain.ProcedimentoMateria;
+import br.gov.md.parla_md_backend.domain.ProgressoSincronizacao;
+import br.gov.md.parla_md_backend.domain.dto.ProgressoSincronizacaoDTO;
+import br.gov.md.parla_md_backend.domain.dto.StatusAtualizacaoTramitacoesDTO;
+import br.gov.md.parla_md_backend.domain.enums.StatusSincronizacao;
+import br.gov.md.parla_md_backend.exception.ApiExternaException;
+import br.gov.md.parla_md_backend.messaging.RabbitMQProducer;
+import br.gov.md.parla_md_backend.repository.IProgressoSincronizacaoRepository;
+import br.gov.md.parla_md_backend.util.ArquivoRespostas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Atualiza as tramitações das matérias do Senado em andamento
+ * ({@code indicadorTramitando = "Sim"}).
+ *
+ * <p>As matérias são lidas por um cursor ordenado pelo código, apoiado no índice
+ * {@code idx_tramitando_codigo}, e divididas em partições que um número limitado de
+ * workers processa em paralelo, sob o limite de requisições por segundo da API do Senado.
+ * O checkpoint só avança quando todas as partições anteriores terminaram: ele guarda o
+ * último código do trecho contínuo concluído, e uma execução interrompida é retomada a
+ * partir dele, refazendo no máximo as partições que estavam em andamento.</p>
+ *
+ * <p>As tramitações são lidas por GET condicional: matérias cuja resposta não mudou desde
+ * a última leitura (304) contam como inalteradas e não geram gravação nem aviso na fila.</p>
+ */
+@Slf4j
+@Service
+public class AtualizacaoTramitacoesService {
+
+    private static final String INDICADOR_TRAMITANDO = "Sim";
+    private static final String FONTE = "senado";
+    private static final String RECURSO = "tramitacoes";
+    private static final String PARAMETRO = "tramitando";
+    private static final String CAMPO_CODIGO = "codigoMateria";
+
+    private final MongoTemplate mongoTemplate;
+    private final IProgressoSincronizacaoRepository progressoRepository;
+    private final ProcedimentoMateriaService procedimentoMateriaService;
+    private final RabbitMQProducer rabbitMQProducer;
+    private final ArquivoRespostas arquivoRespostas;
+    private final int tamanhoParticao;
+    private final int paralelismo;
+
+    private final Counter materiasAtualizadas;
+    private final Counter materiasInalteradas;
+    private final Counter materiasComFalha;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    private volatile Execucao execucaoAtual;
+
+    public AtualizacaoTramitacoesService(MongoTemplate mongoTemplate,
+                                         IProgressoSincronizacaoRepository progressoRepository,
+                                         ProcedimentoMateriaService procedimentoMateriaService,
+                                         RabbitMQProducer rabbitMQProducer,
+                                         ArquivoRespostas arquivoRespostas,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${senado.tramitacoes.tamanho-particao:200}") int tamanhoParticao,
+                                         @Value("${senado.tramitacoes.paralelismo:4}") int paralelismo) {
+        this.mongoTemplate = mongoTemplate;
+        this.progressoRepository = progressoRepository;
+        this.procedimentoMateriaService = procedimentoMateriaService;
+        this.rabbitMQProducer = rabbitMQProducer;
+        this.arquivoRespostas = arquivoRespostas;
+        this.tamanhoParticao = Math.max(1, tamanhoParticao);
+        this.paralelismo = Math.max(1, paralelismo);
+
+        this.materiasAtualizadas = meterRegistry.counter("senado.tramitacoes.materias", "resultado", "atualizada");
+        this.materiasInalteradas = meterRegistry.counter("senado.tramitacoes.materias", "resultado", "inalterada");
+        this.materiasComFalha = meterRegistry.counter("senado.tramitacoes.materias", "resultado", "falha");
+        Gauge.builder("senado.tramitacoes.vazao", this, s -> s.execucaoAtual != null ? s.execucaoAtual.itensPorMinuto() : 0)
+                .description("Matérias por minuto na execução em andamento")
+                .register(meterRegistry);
+        Gauge.builder("senado.tramitacoes.eta", this, s -> s.execucaoAtual != null ? s.execucaoAtual.etaSegundos() : 0)
+                .description("Segundos estimados até o fim da execução em andamento")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Atualização agendada das tramitações, diariamente às 02:00.
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void atualizacaoAgendada() {
+        log.info("Iniciando atualização agendada de tramitações de matérias às {}", LocalDateTime.now());
+        try {
+            executar();
+        } catch (Exception e) {
+            log.error("Erro na atualização agendada de tramitações: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Executa a atualização (ou retoma a última interrompida) e aguarda o fim.
+     */
+    public StatusAtualizacaoTramitacoesDTO executar() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.warn("Atualização de tramitações já está em execução");
+            return obterStatus();
+        }
+        try {
+            return executarReservado();
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    /**
+     * Inicia a atualização em segundo plano e retorna o status atual.
+     */
+    public StatusAtualizacaoTramitacoesDTO iniciar() {
+        if (emExecucao.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("atualizacao-tramitacoes").start(() -> {
+                try {
+                    executarReservado();
+                } catch (Exception e) {
+                    log.error("Erro na atualização de tramitações: {}", e.getMessage());
+                } finally {
+                    emExecucao.set(false);
+                }
+            });
+        }
+        return obterStatus();
+    }
+
+    public StatusAtualizacaoTramitacoesDTO obterStatus() {
+        Execucao execucao = execucaoAtual;
+        ProgressoSincronizacao progresso = execucao != null
+                ? execucao.progresso
+                : progressoRepository.findById(chave()).orElseGet(this::novoProgresso);
+
+        ProgressoSincronizacaoDTO dto;
+        long processados;
+        long falhas;
+        if (execucao != null) {
+            execucao.trava.lock();
+            try {
+                dto = ProgressoSincronizacaoDTO.from(progresso, true);
+                processados = execucao.processadosNoInicio + execucao.processados.get();
+                falhas = execucao.falhasNoInicio + execucao.falhas.get();
+            } finally {
+                execucao.trava.unlock();
+            }
+        } else {
+            dto = ProgressoSincronizacaoDTO.from(progresso, false);
+            processados = progresso.getItensRecebidos();
+            falhas = progresso.getItensComFalha();
+        }
+
+        long restantes = execucao != null ? execucao.restantes() : 0;
+        double vazao = execucao != null ? execucao.itensPorMinuto() : 0;
+        Long eta = execucao != null && vazao > 0 ? Math.round(execucao.etaSegundos()) : null;
+        return new StatusAtualizacaoTramitacoesDTO(dto, processados, falhas, restantes, vazao, eta,
+                eta != null ? LocalDateTime.now().plusSeconds(eta) : null);
+    }
+
+    // ==================== EXECUÇÃO ====================
+
+    private StatusAtualizacaoTramitacoesDTO executarReservado() {
+        ProgressoSincronizacao progresso = carregarProgresso();
+        Long cursor = progresso.getCursor();
+        long restantes = mongoTemplate.count(consultaTramitando(cursor), Materia.class);
+        int concluidas = progresso.getPaginasConcluidas().size();
+
+        progresso.setTotalPaginas(concluidas + (int) Math.ceil((double) restantes / tamanhoParticao));
+        progressoRepository.save(progresso);
+
+        Execucao execucao = new Execucao(progresso, concluidas, restantes);
+        execucaoAtual = execucao;
+        log.info("Atualizando tramitações de {} matéria(s) em andamento a partir do código {}: "
+                        + "partições de {}, paralelismo {}",
+                restantes, cursor, tamanhoParticao, paralelismo);
+
+        try {
+            processarParticoes(execucao, cursor);
+            finalizar(execucao, null);
+            log.info("Atualização de tramitações concluída em {} s: {} processada(s), {} atualizada(s), "
+                            + "{} com falha",
+                    Duration.ofNanos(System.nanoTime() - execucao.inicioNanos).toSeconds(),
+                    progresso.getItensRecebidos(), progresso.getItensAtualizados(), progresso.getItensComFalha());
+
+        } catch (Exception e) {
+            finalizar(execucao, e.getMessage());
+            log.error("Atualização de tramitações interrompida no código {}: {}",
+                    progresso.getCursor(), e.getMessage(), e);
+            throw ApiExternaException.erroApiSenado("Falha ao atualizar tramitações: " + e.getMessage(), e);
+        } finally {
+            execucaoAtual = null;
+        }
+        return obterStatus();
+    }
+
+    private void processarParticoes(Execucao execucao, Long cursor) {
+        Query consulta = consultaTramitando(cursor)
+                .with(Sort.by(Sort.Direction.ASC, CAMPO_CODIGO))
+                .cursorBatchSize(tamanhoParticao);
+        Semaphore permissoes = new Semaphore(paralelismo);
+        List<Integer> falhas = Collections.synchronizedList(new ArrayList<>());
+
+        // O cursor só avança quando há worker livre: no máximo `paralelismo` partições em memória
+        try (Stream<Materia> materias = mongoTemplate.stream(consulta, Materia.class);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Iterator<Materia> iterador = materias.iterator();
+            int numero = execucao.proximaParticao;
+
+            while (iterador.hasNext()) {
+                List<Materia> particao = new ArrayList<>(tamanhoParticao);
+                while (iterador.hasNext() && particao.size() < tamanhoParticao) {
+                    particao.add(iterador.next());
+                }
+
+                permissoes.acquire();
+                int numeroParticao = numero++;
+                executor.submit(() -> {
+                    try {
+                        registrarParticao(execucao, numeroParticao, processarParticao(execucao, particao));
+                    } catch (Exception e) {
+                        falhas.add(numeroParticao);
+                        log.warn("Falha na partição {} de tramitações: {}", numeroParticao, e.getMessage());
+                    } finally {
+                        permissoes.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ApiExternaException.erroApiSenado("Atualização de tramitações interrompida", e);
+        }
+
+        if (!falhas.isEmpty()) {
+            Collections.sort(falhas);
+            throw ApiExternaException.erroApiSenado("Partições com falha: " + falhas);
+        }
+    }
+
+    private ResultadoParticao processarParticao(Execucao execucao, List<Materia> materias)
+            throws InterruptedException {
+        int atualizadas = 0;
+        int falhas = 0;
+
+        for (Materia materia : materias) {
+            // O ApiClient converte a interrupção em exceção e restaura o indicador da thread
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Atualização de tramitações interrompida");
+            }
+            try {
+                if (atualizarMateria(materia)) {
+                    atualizadas++;
+                    materiasAtualizadas.increment();
+                } else {
+                    materiasInalteradas.increment();
+                }
+            } catch (Exception e) {
+                falhas++;
+                execucao.falhas.incrementAndGet();
+                materiasComFalha.increment();
+                log.error("Erro ao atualizar procedimentos para a matéria {}: {}",
+                        materia.getCodigoMateria(), e.getMessage());
+            }
+            execucao.processados.incrementAndGet();
+        }
+
+        Long ultimoCodigo = materias.get(materias.size() - 1).getCodigoMateria();
+        return new ResultadoParticao(materias.size(), atualizadas, falhas, ultimoCodigo);
+    }
+
+    /**
+     * @return verdadeiro se algum procedimento foi gravado ou a situação atual da matéria mudou
+     */
+    private boolean atualizarMateria(Materia materia) {
+        Optional<List<ProcedimentoMateria>> alterados =
+                procedimentoMateriaService.buscarESalvarTramitacoesAlteradas(materia.getCodigoMateria());
+        if (alterados.isEmpty()) {
+            // 304: tramitações iguais às da última leitura, nada a gravar nem a avisar
+            return false;
+        }
+        List<ProcedimentoMateria> procedimentos = alterados.get();
+
+        boolean situacaoMudou = false;
+        if (!procedimentos.isEmpty()) {
+            String situacao = procedimentos.get(procedimentos.size() - 1).getSituacaoDescricao();
+            situacaoMudou = !Objects.equals(situacao, materia.getSituacaoAtual());
+
+            materia.setSituacaoAtual(situacao);
+            materia.setDataUltimaAtualizacao(LocalDateTime.now());
+            // Grava só os campos da tramitação: a matéria lida pelo cursor pode estar desatualizada
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(materia.getId())),
+                    new Update()
+                            .set("situacaoAtual", situacao)
+                            .set("dataUltimaAtualizacao", materia.getDataUltimaAtualizacao()),
+                    Materia.class);
+        }
+
+        rabbitMQProducer.sendMessage(
+                WorkflowConfig.ATUALIZACAO_API_EXCHANGE,
+                WorkflowConfig.ATUALIZACAO_API_ROUTING_KEY,
+                materia
+        );
+        // Novos procedimentos na mesma situação (despachos, distribuições) também são atualização
+        return !procedimentos.isEmpty() || situacaoMudou;
+    }
+
+    /**
+     * Guarda o resultado da partição e, se ela fecha o trecho contínuo a partir do último
+     * checkpoint, grava o novo checkpoint com todas as partições que ele passou a cobrir.
+     */
+    private void registrarParticao(Execucao execucao, int numero, ResultadoParticao resultado) {
+        execucao.trava.lock();
+        try {
+            execucao.pendentes.put(numero, resultado);
+
+            ProgressoSincronizacao progresso = execucao.progresso;
+            boolean avancou = false;
+            ResultadoParticao proxima;
+            while ((proxima = execucao.pendentes.remove(execucao.proximaParticao)) != null) {
+                progresso.getPaginasConcluidas().add(execucao.proximaParticao);
+                progresso.setItensRecebidos(progresso.getItensRecebidos() + proxima.processadas());
+                progresso.setItensAtualizados(progresso.getItensAtualizados() + proxima.atualizadas());
+                progresso.setItensInalterados(progresso.getItensInalterados()
+                        + proxima.processadas() - proxima.atualizadas() - proxima.falhas());
+                progresso.setItensComFalha(progresso.getItensComFalha() + proxima.falhas());
+                progresso.setCursor(proxima.ultimoCodigo());
+                execucao.proximaParticao++;
+                avancou = true;
+            }
+
+            if (avancou) {
+                progresso.setAtualizadaEm(LocalDateTime.now());
+                progressoRepository.save(progresso);
+            }
+        } finally {
+            execucao.trava.unlock();
+        }
+
+        log.debug("Partição {} de tramitações concluída: {} matéria(s), {} atualizada(s), {} falha(s)",
+                numero, resultado.processadas(), resultado.atualizadas(), resultado.falhas());
+    }
+
+    // ==================== CHECKPOINT ====================
+
+    private ProgressoSincronizacao carregarProgresso() {
+        ProgressoSincronizacao progresso = progressoRepository.findById(chave())
+                .filter(anterior -> anterior.getStatus() != null && anterior.getStatus().isRetomavel())
+                .orElse(null);
+
+        if (progresso != null) {
+            log.info("Retomando atualização de tramitações após o código {}: {} partição(ões) já concluída(s)",
+                    progresso.getCursor(), progresso.getPaginasConcluidas().size());
+            progresso.setErro(null);
+        } else {
+            progresso = novoProgresso();
+            progresso.setIniciadaEm(LocalDateTime.now());
+        }
+
+        progresso.setStatus(StatusSincronizacao.EM_ANDAMENTO);
+        progresso.setItensPorPagina(tamanhoParticao);
+        progresso.setAtualizadaEm(LocalDateTime.now());
+        return progressoRepository.save(progresso);
+    }
+
+    private ProgressoSincronizacao novoProgresso() {
+        return ProgressoSincronizacao.builder()
+                .id(chave())
+                .fonte(FONTE)
+                .recurso(RECURSO)
+                .parametro(PARAMETRO)
+                .itensPorPagina(tamanhoParticao)
+                .build();
+    }
+
+    private void finalizar(Execucao execucao, String erro) {
+        ProgressoSincronizacao progresso = execucao.progresso;
+        execucao.trava.lock();
+        try {
+            progresso.setStatus(erro == null ? StatusSincronizacao.CONCLUIDA : StatusSincronizacao.FALHA);
+            progresso.setErro(erro);
+            progresso.setAtualizadaEm(LocalDateTime.now());
+            progresso.setConcluidaEm(erro == null ? LocalDateTime.now() : null);
+            progressoRepository.save(progresso);
+        } finally {
+            execucao.trava.unlock();
+        }
+    }
+
+    private Query consultaTramitando(Long aposCodigo) {
+        Criteria criterio = Criteria.where("indicadorTramitando").is(INDICADOR_TRAMITANDO);
+        criterio = aposCodigo != null
+                ? criterio.and(CAMPO_CODIGO).gt(aposCodigo)
+                : criterio.and(CAMPO_CODIGO).ne(null);
+        return Query.query(criterio);
+    }
+
+    private String chave() {
+        return arquivoRespostas.reproduzindo()
+                ? ProgressoSincronizacao.chaveReproducao(FONTE, RECURSO, PARAMETRO)
+                : ProgressoSincronizacao.chave(FONTE, RECURSO, PARAMETRO);
+    }
+
+    private record ResultadoParticao(int processadas, int atualizadas, int falhas, Long ultimoCodigo) {
+    }
+
+    /**
+     * Estado em memória da execução em andamento: partições concluídas fora de ordem e
+     * contadores para vazão e ETA.
+     */
+    private static final class Execucao {
+
+        private final ProgressoSincronizacao progresso;
+        private final Map<Integer, ResultadoParticao> pendentes = new TreeMap<>();
+        private final ReentrantLock trava = new ReentrantLock();
+        private final AtomicLong processados = new AtomicLong();
+        private final AtomicLong falhas = new AtomicLong();
+        private final long processadosNoInicio;
+        private final long falhasNoInicio;
+        private final long totalNestaExecucao;
+        private final long inicioNanos = System.nanoTime();
+        private int proximaParticao;
+
+        private Execucao(ProgressoSincronizacao progresso, int particoesConcluidas, long totalNestaExecucao) {
+            this.progresso = progresso;
+            this.processadosNoInicio = progresso.getItensRecebidos();
+            this.falhasNoInicio = progresso.getItensComFalha();
+            this.totalNestaExecucao = totalNestaExecucao;
+            this.proximaParticao = particoesConcluidas + 1;
+        }
+
+        private long restantes() {
+            return Math.max(0, totalNestaExecucao - processados.get());
+        }
+
+        private double itensPorMinuto() {
+            double minutos = (System.nanoTime() - inicioNanos) / 60e9;
+            return minutos > 0 ? processados.get() / minutos : 0;
+        }
+
+        private double etaSegundos() {
+            double porMinuto = itensPorMinuto();
+            return porMinuto > 0 ? restantes() * 60.0 / porMinuto : 0;
+        }
+    }
+}
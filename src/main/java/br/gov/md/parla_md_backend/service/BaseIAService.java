@@ -1,10 +1,14 @@
 package br.gov.md.parla_md_backend.service;
 
+import br.gov.md.parla_md_backend.domain.ItemLegislativo;
 import br.gov.md.parla_md_backend.domain.interfaces.AnaliseIAEntity;
 import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
 import br.gov.md.parla_md_backend.exception.IAException;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
 import br.gov.md.parla_md_backend.repository.IAnaliseIARepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
@@ -12,9 +16,16 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extends IAnaliseIARepository<E>> {
@@ -28,6 +39,42 @@ public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extend
     @Value("${ai.modelo.versao:1.0.0}")
     protected String modeloVersao;
 
+    @Value("${ai.coalescencia.espera-maxima-ms:180000}")
+    protected long esperaMaximaCoalescenciaMs;
+
+    @Value("${ai.coalescencia.cluster.habilitado:false}")
+    protected boolean coalescenciaClusterHabilitada;
+
+    @Value("${ai.coalescencia.cluster.lease-segundos:300}")
+    protected int leaseSegundos;
+
+    @Value("${ai.coalescencia.cluster.intervalo-verificacao-ms:1000}")
+    protected long intervaloVerificacaoLeaseMs;
+
+    @Value("${ai.reaproveitamento.habilitado:false}")
+    protected boolean reaproveitamentoHabilitado;
+
+    @Value("${ai.reaproveitamento.similaridade-minima:0.97}")
+    protected double similaridadeMinimaReaproveitamento;
+
+    @Value("${ai.reaproveitamento.maximo-candidatos:5}")
+    protected int maximoCandidatosReaproveitamento;
+
+    @Value("${ai.reaproveitamento.ttl:21600}")
+    protected int ttlDerivadaSegundos;
+
+    @Autowired(required = false)
+    protected LeaseAnaliseIAService leaseService;
+
+    @Autowired(required = false)
+    protected BuscaSemanticaService buscaSemanticaService;
+
+    @Autowired(required = false)
+    protected MeterRegistry meterRegistry;
+
+    // Análises em andamento nesta instância, por chave de coalescência
+    private final ConcurrentMap<String, CompletableFuture<E>> emAndamento = new ConcurrentHashMap<>();
+
     protected BaseIAService(LlamaService llamaService, REPO repository) {
         this.llamaService = llamaService;
         this.repository = repository;
@@ -51,18 +98,51 @@ public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extend
 
     protected abstract Optional<E> buscarCacheRecente(Object... parametros);
 
-    protected E processarAnaliseIA(Object... parametros) {
+    /**
+     * Identifica requisições equivalentes para fins de coalescência: requisições
+     * com a mesma chave produzem o mesmo resultado e compartilham uma única geração.
+     */
+    protected abstract String construirChaveCoalescencia(Object... parametros);
+
+    /**
+     * Como reaproveitar a análise de um item similar, ou vazio quando o resultado depende
+     * de algo além do texto do item. A posição do item e a derivação vêm juntas, de modo
+     * que não há como indicar um item sem dizer como derivar a análise dele.
+     */
+    protected Optional<Reaproveitamento<E>> getReaproveitamento(Object... parametros) {
+        return Optional.empty();
+    }
+
+    /**
+     * @param indiceItem posição do item legislativo nos parâmetros
+     * @param derivacao  cópia da análise de origem para o item de destino
+     */
+    protected record Reaproveitamento<E>(int indiceItem, Derivacao<E> derivacao) {
+    }
+
+    @FunctionalInterface
+    protected interface Derivacao<E> {
+
+        /**
+         * Análise de origem copiada para o destino e marcada como derivada, ou vazio se a
+         * origem não serve para este destino apesar da similaridade do texto.
+         */
+        Optional<E> derivar(E origem, ItemLegislativo destino, double similaridade);
+    }
+
+    protected E processarAnaliseIA(boolean forcarNova, Object... parametros) {
         long inicioMs = System.currentTimeMillis();
 
         try {
-            String prompt = construirPrompt(parametros);
+            String prompt = construirPrompt(prepararParametros(parametros));
             String promptSistema = construirPromptSistema();
 
             log.debug("Enviando requisição ao Llama para {}", getNomeAnalise());
 
-            RespostaLlamaDTO resposta = llamaService.enviarRequisicao(prompt, promptSistema, true);
+            RespostaLlamaDTO resposta = llamaService.enviarRequisicao(
+                    prompt, promptSistema, getResultadoClass(), getNomeCacheEvict(), forcarNova);
 
-            R resultado = parsearResposta(resposta);
+            R resultado = parsearResposta(resposta, prompt, promptSistema);
 
             long duracaoMs = System.currentTimeMillis() - inicioMs;
 
@@ -72,6 +152,10 @@ public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extend
 
             return entidade;
 
+        } catch (LlamaIndisponivelException e) {
+            // Rejeição por sobrecarga ou indisponibilidade não é falha da análise: sem registro, sem embrulho
+            throw e;
+
         } catch (Exception e) {
             long duracaoMs = System.currentTimeMillis() - inicioMs;
 
@@ -84,9 +168,19 @@ public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extend
         }
     }
 
-    protected R parsearResposta(RespostaLlamaDTO resposta) {
+    /**
+     * Etapa anterior ao prompt, executada somente quando a análise de fato vai ao modelo,
+     * depois do cache e da coalescência. O resultado alimenta apenas {@link #construirPrompt};
+     * as entidades continuam construídas com os parâmetros originais.
+     */
+    protected Object[] prepararParametros(Object... parametros) {
+        return parametros;
+    }
+
+    protected R parsearResposta(RespostaLlamaDTO resposta, String prompt, String promptSistema) {
         try {
-            return llamaService.extrairJson(resposta, getResultadoClass());
+            return llamaService.extrairJsonCompletando(
+                    resposta, getResultadoClass(), prompt, promptSistema, getNomeCacheEvict());
         } catch (Exception e) {
             log.error("Erro ao parsear resposta do Llama para {}: {}", getNomeAnalise(), e.getMessage());
             throw new IAException("Resposta em formato inválido: " + e.getMessage());
@@ -100,10 +194,157 @@ public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extend
                 log.info("Retornando {} do cache: {}", getNomeAnalise(), cache.get().getId());
                 return cache.get();
             }
+
+            Optional<E> derivada = buscarAnaliseDerivada(parametros);
+            if (derivada.isPresent()) {
+                return derivada.get();
+            }
+        }
+
+        String chave = getNomeCacheEvict() + ":" + construirChaveCoalescencia(parametros);
+
+        CompletableFuture<E> futuro = new CompletableFuture<>();
+        CompletableFuture<E> existente = emAndamento.putIfAbsent(chave, futuro);
+
+        if (existente != null) {
+            log.info("Aguardando {} já em andamento: {}", getNomeAnalise(), chave);
+            return aguardarEmAndamento(existente, chave);
+        }
+
+        try {
+            // Uma geração pode ter terminado entre a consulta ao cache e o registro do futuro
+            Optional<E> concluida = forcarNova ? Optional.empty() : buscarCacheRecente(parametros);
+            if (concluida.isPresent()) {
+                log.info("{} concluído enquanto a requisição era registrada: {}", getNomeAnalise(), chave);
+                futuro.complete(concluida.get());
+                return concluida.get();
+            }
+
+            E entidade = coalescenciaClusterHabilitada && leaseService != null
+                    ? processarComLease(chave, forcarNova, parametros)
+                    : repository.save(processarAnaliseIA(forcarNova, parametros));
+
+            futuro.complete(entidade);
+            return entidade;
+
+        } catch (RuntimeException e) {
+            futuro.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            emAndamento.remove(chave, futuro);
+        }
+    }
+
+    /**
+     * Procura, entre os itens de texto quase idêntico, uma análise bem-sucedida e ainda
+     * válida gerada pelo modelo, e a grava como análise derivada do item solicitado.
+     * Derivadas nunca servem de origem, para que as cópias não se afastem do original.
+     */
+    protected Optional<E> buscarAnaliseDerivada(Object... parametros) {
+        if (!reaproveitamentoHabilitado || buscaSemanticaService == null) {
+            return Optional.empty();
+        }
+        Optional<Reaproveitamento<E>> reaproveitamento = getReaproveitamento(parametros);
+        if (reaproveitamento.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int indice = reaproveitamento.get().indiceItem();
+        ItemLegislativo item = (ItemLegislativo) parametros[indice];
+        List<BuscaSemanticaService.ItemSimilar> similares = buscaSemanticaService.buscarItensSimilares(
+                item, similaridadeMinimaReaproveitamento, maximoCandidatosReaproveitamento);
+
+        for (BuscaSemanticaService.ItemSimilar similar : similares) {
+            Object[] parametrosSimilar = parametros.clone();
+            parametrosSimilar[indice] = similar.item();
+
+            Optional<E> origem = buscarCacheRecente(parametrosSimilar)
+                    .filter(e -> e.getDerivadaDe() == null);
+
+            Optional<E> copia = origem.flatMap(o ->
+                    reaproveitamento.get().derivacao().derivar(o, item, similar.similaridade()));
+
+            if (copia.isPresent()) {
+                E derivada = repository.save(copia.get());
+                log.info("{} do item {} derivado de {} (similaridade {})", getNomeAnalise(),
+                        item.getId(), origem.get().getId(), String.format("%.4f", similar.similaridade()));
+                contarReaproveitamento("derivada");
+                return Optional.of(derivada);
+            }
+        }
+
+        if (!similares.isEmpty()) {
+            contarReaproveitamento("sem_origem");
+        }
+        return Optional.empty();
+    }
+
+    private void contarReaproveitamento(String resultado) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("ia.reaproveitamento", "analise", getNomeCacheEvict(), "resultado", resultado)
+                    .increment();
+        }
+    }
+
+    private E aguardarEmAndamento(CompletableFuture<E> futuro, String chave) {
+        try {
+            return futuro.get(esperaMaximaCoalescenciaMs, TimeUnit.MILLISECONDS);
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw criarExcecaoProcessamento(e);
+
+        } catch (TimeoutException e) {
+            throw new IAException(String.format(
+                    "Tempo esgotado aguardando %s em andamento: %s", getNomeAnalise(), chave));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw criarExcecaoProcessamento(e);
+        }
+    }
+
+    private E processarComLease(String chave, boolean forcarNova, Object... parametros) {
+        LocalDateTime inicioEspera = LocalDateTime.now();
+        long limiteMs = System.currentTimeMillis() + esperaMaximaCoalescenciaMs;
+
+        while (!leaseService.adquirir(chave, Duration.ofSeconds(leaseSegundos))) {
+            Optional<E> concluida = buscarCacheRecente(parametros)
+                    .filter(e -> !forcarNova || !e.getDataAnalise().isBefore(inicioEspera));
+
+            if (concluida.isPresent()) {
+                log.info("{} concluído por outra instância: {}", getNomeAnalise(), chave);
+                return concluida.get();
+            }
+
+            if (System.currentTimeMillis() > limiteMs) {
+                throw new IAException(String.format(
+                        "Tempo esgotado aguardando %s em outra instância: %s", getNomeAnalise(), chave));
+            }
+
+            try {
+                Thread.sleep(intervaloVerificacaoLeaseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw criarExcecaoProcessamento(e);
+            }
         }
 
-        E entidade = processarAnaliseIA(parametros);
-        return repository.save(entidade);
+        try {
+            if (!forcarNova) {
+                Optional<E> cache = buscarCacheRecente(parametros);
+                if (cache.isPresent()) {
+                    return cache.get();
+                }
+            }
+            return repository.save(processarAnaliseIA(forcarNova, parametros));
+
+        } finally {
+            leaseService.liberar(chave);
+        }
     }
 
     protected boolean isCacheValido(E entidade) {
@@ -115,6 +356,7 @@ public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extend
 
         return entidade.getDataAnalise() != null
                 && entidade.getDataAnalise().isAfter(limite)
+                && (entidade.getDataExpiracao() == null || entidade.getDataExpiracao().isAfter(LocalDateTime.now()))
                 && Boolean.TRUE.equals(entidade.getSucesso());
     }
 
@@ -188,6 +430,17 @@ public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extend
         return LocalDateTime.now().plusSeconds(cacheTtlSegundos);
     }
 
+    /**
+     * Expiração de uma análise derivada: o menor entre o TTL de derivadas e a expiração
+     * da análise de origem.
+     */
+    protected LocalDateTime calcularDataExpiracaoDerivada(E origem) {
+        LocalDateTime limite = LocalDateTime.now().plusSeconds(ttlDerivadaSegundos);
+        return origem.getDataExpiracao() != null && origem.getDataExpiracao().isBefore(limite)
+                ? origem.getDataExpiracao()
+                : limite;
+    }
+
     protected Page<D> converterParaPage(List<E> lista, Pageable pageable) {
         int start = (int) pageable.getOffset();
         int end = Math.min((start + pageable.getPageSize()), lista.size());
@@ -202,6 +455,10 @@ public abstract class BaseIAService<E extends AnaliseIAEntity, D, R, REPO extend
     }
 
     protected IAException criarExcecaoProcessamento(Exception causa) {
+        // Circuito aberto ou fila cheia seguem como estão, para o handler responder 503
+        if (causa instanceof LlamaIndisponivelException indisponivel) {
+            return indisponivel;
+        }
         return new IAException(
                 String.format("Erro ao processar %s: %s", getNomeAnalise(), causa.getMessage()),
                 causa
@@ -0,0 +1,598 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.EmbeddingItemLegislativo;
+import br.gov.md.parla_md_backend.domain.ItemLegislativo;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoBuscaSemanticaDTO;
+import br.gov.md.parla_md_backend.domain.dto.StatusIndiceSemanticoDTO;
+import br.gov.md.parla_md_backend.domain.enums.Casa;
+import br.gov.md.parla_md_backend.exception.BuscaSemanticaException;
+import br.gov.md.parla_md_backend.exception.RecursoNaoEncontradoException;
+import br.gov.md.parla_md_backend.repository.IEmbeddingItemLegislativoRepository;
+import br.gov.md.parla_md_backend.repository.IMateriaRepository;
+import br.gov.md.parla_md_backend.repository.IProposicaoRepository;
+import br.gov.md.parla_md_backend.util.IndiceHnsw;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Busca semântica sobre proposições e matérias.
+ *
+ * <p>Os itens sincronizados são enfileirados para indexação: o embedding da ementa e da
+ * indexação é calculado em lote pelo Ollama, gravado no MongoDB e incluído num índice
+ * HNSW em memória, que responde às buscas por similaridade sem consultar o banco.</p>
+ *
+ * <p>O índice é persistido periodicamente em disco com a data do último embedding
+ * incorporado. Na inicialização ele é carregado do arquivo e completado apenas com os
+ * embeddings gravados depois dessa data.</p>
+ */
+@Slf4j
+@Service
+public class BuscaSemanticaService {
+
+    private static final String ARQUIVO_INDICE = "indice-itens-legislativos.hnsw";
+    private static final int TAMANHO_PAGINA_REINDEXACAO = 500;
+
+    private final EmbeddingService embeddingService;
+    private final IEmbeddingItemLegislativoRepository embeddingRepository;
+    private final IProposicaoRepository proposicaoRepository;
+    private final IMateriaRepository materiaRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean habilitado;
+    private final Path diretorio;
+    private final int m;
+    private final int efConstrucao;
+    private final int efBusca;
+    private final int tamanhoLote;
+    private final double limiteRemovidos;
+    private final String prefixoDocumento;
+    private final String prefixoConsulta;
+
+    private final BlockingQueue<ItemLegislativo> fila;
+    private final AtomicBoolean reindexando = new AtomicBoolean();
+    private final AtomicBoolean alterado = new AtomicBoolean();
+
+    private volatile IndiceHnsw indice;
+    private volatile boolean pronto;
+    private volatile boolean ativo;
+    private volatile LocalDateTime indexadoAte;
+    private volatile LocalDateTime ultimaPersistencia;
+    private Thread indexador;
+
+    public BuscaSemanticaService(
+            EmbeddingService embeddingService,
+            IEmbeddingItemLegislativoRepository embeddingRepository,
+            IProposicaoRepository proposicaoRepository,
+            IMateriaRepository materiaRepository,
+            MeterRegistry meterRegistry,
+            @Value("${ai.embeddings.habilitado:true}") boolean habilitado,
+            @Value("${ai.embeddings.indice.diretorio:./data/embeddings}") String diretorio,
+            @Value("${ai.embeddings.indice.m:16}") int m,
+            @Value("${ai.embeddings.indice.ef-construcao:100}") int efConstrucao,
+            @Value("${ai.embeddings.indice.ef-busca:64}") int efBusca,
+            @Value("${ai.embeddings.indice.limite-removidos:0.2}") double limiteRemovidos,
+            @Value("${ai.embeddings.tamanho-lote:32}") int tamanhoLote,
+            @Value("${ai.embeddings.capacidade-fila:10000}") int capacidadeFila,
+            @Value("${ai.embeddings.prefixo-documento:search_document: }") String prefixoDocumento,
+            @Value("${ai.embeddings.prefixo-consulta:search_query: }") String prefixoConsulta) {
+        this.embeddingService = embeddingService;
+        this.embeddingRepository = embeddingRepository;
+        this.proposicaoRepository = proposicaoRepository;
+        this.materiaRepository = materiaRepository;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.diretorio = Path.of(diretorio);
+        this.m = m;
+        this.efConstrucao = efConstrucao;
+        this.efBusca = efBusca;
+        this.limiteRemovidos = limiteRemovidos;
+        this.tamanhoLote = tamanhoLote;
+        this.prefixoDocumento = prefixoDocumento;
+        this.prefixoConsulta = prefixoConsulta;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+
+        Gauge.builder("busca.semantica.indice.tamanho", this, s -> s.indice != null ? s.indice.tamanho() : 0)
+                .register(meterRegistry);
+        Gauge.builder("busca.semantica.fila", fila, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            log.info("Busca semântica desabilitada");
+            return;
+        }
+
+        ativo = true;
+        indexador = Thread.ofPlatform()
+                .name("indexador-semantico")
+                .daemon(true)
+                .start(() -> {
+                    carregarIndice();
+                    processarFila();
+                });
+    }
+
+    /**
+     * Enfileira itens recém-sincronizados para indexação em segundo plano. Itens cujo
+     * texto não mudou desde o último embedding são ignorados no processamento.
+     */
+    public void enfileirar(Collection<? extends ItemLegislativo> itens) {
+        if (!habilitado) {
+            return;
+        }
+        for (ItemLegislativo item : itens) {
+            if (item.getId() != null && !fila.offer(item)) {
+                // A próxima sincronização ou reindexação recupera o item
+                meterRegistry.counter("busca.semantica.descartes").increment();
+            }
+        }
+    }
+
+    public List<ResultadoBuscaSemanticaDTO> buscar(String consulta, int limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw BuscaSemanticaException.consultaVazia();
+        }
+        Optional<IndiceHnsw> atual = obterIndice();
+        if (atual.isEmpty()) {
+            return List.of();
+        }
+
+        float[] vetor = embeddingService.gerar(prefixoConsulta + consulta.strip());
+        return montarResultados(atual.get().buscar(vetor, limite, efBusca));
+    }
+
+    public List<ResultadoBuscaSemanticaDTO> buscarSimilares(Casa casa, String itemId, int limite) {
+        Optional<IndiceHnsw> atual = obterIndice();
+        String chave = chave(casa, itemId);
+
+        float[] vetor = atual.flatMap(i -> i.vetor(chave)).orElseGet(() -> {
+            // Item ainda não indexado: indexa agora para responder à consulta
+            indexarLote(List.of(buscarItem(casa, itemId)));
+            return obterIndice().flatMap(i -> i.vetor(chave)).orElseThrow(() ->
+                    new RecursoNaoEncontradoException("Item sem texto para busca semântica: " + itemId));
+        });
+
+        List<IndiceHnsw.Vizinho> vizinhos = obterIndice().orElseThrow().buscar(vetor, limite + 1, efBusca).stream()
+                .filter(v -> !v.chave().equals(chave))
+                .limit(limite)
+                .toList();
+
+        return montarResultados(vizinhos);
+    }
+
+    /**
+     * Itens cujo texto tem similaridade de cosseno com o do item informado igual ou
+     * superior ao mínimo, do mais ao menos similar. Usado no reaproveitamento de análises
+     * de IA, por isso nunca falha: com o índice indisponível a lista vem vazia.
+     */
+    public List<ItemSimilar> buscarItensSimilares(ItemLegislativo item, double similaridadeMinima, int limite) {
+        if (!habilitado || !pronto || item.getId() == null || item.getCasa() == null) {
+            return List.of();
+        }
+
+        String chave = chave(item.getCasa(), item.getId());
+        try {
+            // Garante que o vetor do item corresponde ao texto atual antes de comparar
+            indexarLote(List.of(item));
+            List<IndiceHnsw.Vizinho> vizinhos = obterIndice()
+                    .flatMap(atual -> atual.vetor(chave).map(vetor -> atual.buscar(vetor, limite + 1, efBusca)))
+                    .orElse(List.of())
+                    .stream()
+                    .filter(v -> !v.chave().equals(chave) && v.similaridade() >= similaridadeMinima)
+                    .limit(limite)
+                    .toList();
+
+            if (vizinhos.isEmpty()) {
+                return List.of();
+            }
+
+            Map<String, ItemLegislativo> itens = carregarItens(vizinhos);
+            return vizinhos.stream()
+                    .filter(v -> itens.containsKey(v.chave()))
+                    .map(v -> new ItemSimilar(itens.get(v.chave()), v.similaridade()))
+                    .toList();
+
+        } catch (RuntimeException e) {
+            log.warn("Busca de itens similares a {} indisponível: {}", chave, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Recalcula em segundo plano os embeddings de todas as proposições e matérias cujo
+     * texto mudou ou que ainda não foram indexadas.
+     *
+     * @return falso se já houver uma reindexação em andamento
+     */
+    public boolean reindexar() {
+        if (!habilitado) {
+            throw BuscaSemanticaException.desabilitada();
+        }
+        if (!reindexando.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Thread.ofVirtual().name("reindexacao-semantica").start(() -> {
+            try {
+                AgendadorLlamaService.comoLote(() -> {
+                    reindexarColecao(proposicaoRepository);
+                    reindexarColecao(materiaRepository);
+                    return null;
+                });
+                log.info("Reindexação semântica concluída: {} itens no índice",
+                        obterIndice().map(IndiceHnsw::tamanho).orElse(0));
+            } catch (Exception e) {
+                log.error("Falha na reindexação semântica: {}", e.getMessage(), e);
+            } finally {
+                reindexando.set(false);
+            }
+        });
+        return true;
+    }
+
+    public StatusIndiceSemanticoDTO obterStatus() {
+        IndiceHnsw atual = indice;
+        return new StatusIndiceSemanticoDTO(
+                pronto,
+                reindexando.get(),
+                embeddingService.getModelo(),
+                atual != null ? atual.tamanho() : 0,
+                fila.size(),
+                indexadoAte,
+                ultimaPersistencia
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${ai.embeddings.indice.intervalo-persistencia-ms:300000}")
+    public void persistirPeriodicamente() {
+        if (pronto && alterado.get()) {
+            persistir();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (!ativo) {
+            return;
+        }
+        ativo = false;
+
+        try {
+            indexador.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (pronto && alterado.get()) {
+            persistir();
+        }
+    }
+
+    void indexarLote(List<? extends ItemLegislativo> itens) {
+        Map<String, ItemLegislativo> porChave = new LinkedHashMap<>();
+        for (ItemLegislativo item : itens) {
+            if (item.getId() != null && !montarTexto(item).isBlank()) {
+                porChave.put(chave(item.getCasa(), item.getId()), item);
+            }
+        }
+        if (porChave.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> hashes = porChave.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> hash(montarTexto(e.getValue()))));
+
+        String modelo = embeddingService.getModelo();
+        for (EmbeddingItemLegislativo existente : embeddingRepository.findAllById(porChave.keySet())) {
+            boolean atualizado = modelo.equals(existente.getModelo())
+                    && Objects.equals(hashes.get(existente.getChave()), existente.getHashTexto());
+            if (atualizado) {
+                porChave.remove(existente.getChave());
+                IndiceHnsw atual = indice;
+                if (atual == null || !atual.contem(existente.getChave())) {
+                    incorporar(existente);
+                }
+            }
+        }
+        if (porChave.isEmpty()) {
+            return;
+        }
+
+        List<String> textos = porChave.values().stream()
+                .map(item -> prefixoDocumento + montarTexto(item))
+                .toList();
+        List<float[]> vetores = embeddingService.gerar(textos);
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<EmbeddingItemLegislativo> documentos = new ArrayList<>(porChave.size());
+        int i = 0;
+        for (Map.Entry<String, ItemLegislativo> entrada : porChave.entrySet()) {
+            float[] vetor = IndiceHnsw.normalizar(vetores.get(i++));
+            documentos.add(EmbeddingItemLegislativo.builder()
+                    .chave(entrada.getKey())
+                    .itemId(entrada.getValue().getId())
+                    .casa(entrada.getValue().getCasa())
+                    .modelo(modelo)
+                    .hashTexto(hashes.get(entrada.getKey()))
+                    .dimensao(vetor.length)
+                    .vetor(paraBytes(vetor))
+                    .dataAtualizacao(agora)
+                    .build());
+        }
+
+        embeddingRepository.saveAll(documentos);
+        documentos.forEach(this::incorporar);
+        meterRegistry.counter("busca.semantica.indexados").increment(documentos.size());
+    }
+
+    private void carregarIndice() {
+        Path arquivo = diretorio.resolve(ARQUIVO_INDICE);
+
+        if (Files.exists(arquivo)) {
+            long inicioMs = System.currentTimeMillis();
+            try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+                indexadoAte = LocalDateTime.ofInstant(Instant.ofEpochMilli(entrada.readLong()), ZoneId.systemDefault());
+                indice = IndiceHnsw.carregar(entrada);
+                ultimaPersistencia = indexadoAte;
+                log.info("Índice semântico carregado de {}: {} itens em {}ms",
+                        arquivo, indice.tamanho(), System.currentTimeMillis() - inicioMs);
+            } catch (IOException e) {
+                log.warn("Índice semântico em {} ilegível, será reconstruído: {}", arquivo, e.getMessage());
+                indice = null;
+                indexadoAte = null;
+            }
+        }
+
+        // Completa com os embeddings gravados depois do último snapshot
+        LocalDateTime desde = indexadoAte != null ? indexadoAte : LocalDateTime.of(1970, 1, 1, 0, 0);
+        try (Stream<EmbeddingItemLegislativo> novos =
+                     embeddingRepository.findByDataAtualizacaoAfterOrderByDataAtualizacao(desde)) {
+            novos.forEach(this::incorporar);
+        } catch (Exception e) {
+            log.error("Falha ao completar o índice semântico a partir do MongoDB: {}", e.getMessage(), e);
+        }
+
+        pronto = true;
+        log.info("Índice semântico pronto com {} itens", obterIndice().map(IndiceHnsw::tamanho).orElse(0));
+    }
+
+    private void processarFila() {
+        List<ItemLegislativo> lote = new ArrayList<>(tamanhoLote);
+
+        while (ativo) {
+            try {
+                ItemLegislativo primeiro = fila.poll(1, TimeUnit.SECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoLote - 1);
+
+                AgendadorLlamaService.comoLote(() -> {
+                    indexarLote(lote);
+                    return null;
+                });
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+
+            } catch (Exception e) {
+                meterRegistry.counter("busca.semantica.falhas").increment(lote.size());
+                log.warn("Falha ao indexar lote de {} item(ns): {}", lote.size(), e.getMessage());
+
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private <T extends ItemLegislativo> void reindexarColecao(MongoRepository<T, String> repositorio) {
+        Pageable pagina = PageRequest.of(0, TAMANHO_PAGINA_REINDEXACAO);
+        Page<T> itens;
+        do {
+            itens = repositorio.findAll(pagina);
+            List<T> conteudo = itens.getContent();
+            for (int inicio = 0; inicio < conteudo.size(); inicio += tamanhoLote) {
+                indexarLote(conteudo.subList(inicio, Math.min(inicio + tamanhoLote, conteudo.size())));
+            }
+            pagina = itens.nextPageable();
+        } while (itens.hasNext());
+    }
+
+    // Sincronizado com a persistência para que o snapshot e a data de corte sejam consistentes
+    private synchronized void incorporar(EmbeddingItemLegislativo embedding) {
+        if (!embeddingService.getModelo().equals(embedding.getModelo())) {
+            return;
+        }
+
+        float[] vetor = deBytes(embedding.getVetor());
+        if (indice == null) {
+            indice = new IndiceHnsw(vetor.length, m, efConstrucao);
+        } else if (indice.getDimensao() != vetor.length) {
+            log.warn("Embedding {} com dimensão {} incompatível com o índice ({})",
+                    embedding.getChave(), vetor.length, indice.getDimensao());
+            return;
+        }
+
+        indice.adicionar(embedding.getChave(), vetor);
+        if (indexadoAte == null || embedding.getDataAtualizacao().isAfter(indexadoAte)) {
+            indexadoAte = embedding.getDataAtualizacao();
+        }
+        alterado.set(true);
+    }
+
+    private synchronized void persistir() {
+        if (indice == null) {
+            return;
+        }
+
+        try {
+            if (indice.fracaoRemovidos() > limiteRemovidos) {
+                indice = indice.compactar();
+            }
+
+            Files.createDirectories(diretorio);
+            Path temporario = diretorio.resolve(ARQUIVO_INDICE + ".tmp");
+            try (DataOutputStream saida = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporario), 1 << 16))) {
+                saida.writeLong(indexadoAte.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                indice.salvar(saida);
+            }
+            Files.move(temporario, diretorio.resolve(ARQUIVO_INDICE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            alterado.set(false);
+            ultimaPersistencia = LocalDateTime.now();
+            log.debug("Índice semântico persistido: {} itens", indice.tamanho());
+
+        } catch (IOException e) {
+            log.error("Falha ao persistir o índice semântico em {}: {}", diretorio, e.getMessage());
+        }
+    }
+
+    /**
+     * Vazio enquanto nenhum embedding foi gerado: o índice só é criado com o primeiro
+     * vetor, que define sua dimensão.
+     */
+    private Optional<IndiceHnsw> obterIndice() {
+        if (!habilitado) {
+            throw BuscaSemanticaException.desabilitada();
+        }
+        if (!pronto) {
+            throw BuscaSemanticaException.indiceEmCarregamento();
+        }
+        return Optional.ofNullable(indice);
+    }
+
+    private ItemLegislativo buscarItem(Casa casa, String itemId) {
+        return (casa == Casa.CAMARA
+                ? proposicaoRepository.findById(itemId).map(ItemLegislativo.class::cast)
+                : materiaRepository.findById(itemId).map(ItemLegislativo.class::cast))
+                .orElseThrow(() -> new RecursoNaoEncontradoException(
+                        "Item legislativo não encontrado: " + itemId));
+    }
+
+    private Map<String, ItemLegislativo> carregarItens(List<IndiceHnsw.Vizinho> vizinhos) {
+        Map<Casa, List<String>> idsPorCasa = vizinhos.stream()
+                .collect(Collectors.groupingBy(v -> casaDaChave(v.chave()),
+                        Collectors.mapping(v -> idDaChave(v.chave()), Collectors.toList())));
+
+        Map<String, ItemLegislativo> itens = new LinkedHashMap<>();
+        proposicaoRepository.findAllById(idsPorCasa.getOrDefault(Casa.CAMARA, List.of()))
+                .forEach(p -> itens.put(chave(Casa.CAMARA, p.getId()), p));
+        materiaRepository.findAllById(idsPorCasa.getOrDefault(Casa.SENADO, List.of()))
+                .forEach(materia -> itens.put(chave(Casa.SENADO, materia.getId()), materia));
+        return itens;
+    }
+
+    private List<ResultadoBuscaSemanticaDTO> montarResultados(List<IndiceHnsw.Vizinho> vizinhos) {
+        Map<String, ItemLegislativo> itens = carregarItens(vizinhos);
+
+        return vizinhos.stream()
+                .filter(v -> itens.containsKey(v.chave()))
+                .map(v -> {
+                    ItemLegislativo item = itens.get(v.chave());
+                    return new ResultadoBuscaSemanticaDTO(
+                            item.getId(),
+                            item.getCasa(),
+                            item.getTipo(),
+                            item.getIdentificadorCompleto(),
+                            item.getEmenta(),
+                            item.getDataApresentacao(),
+                            v.similaridade()
+                    );
+                })
+                .toList();
+    }
+
+    static String montarTexto(ItemLegislativo item) {
+        StringJoiner texto = new StringJoiner("\n");
+        Stream.of(item.getEmenta(), item.getEmentaDetalhada(), item.getKeywords(), item.getTema())
+                .filter(Objects::nonNull)
+                .map(String::strip)
+                .filter(parte -> !parte.isEmpty())
+                .forEach(texto::add);
+        return texto.toString();
+    }
+
+    static String chave(Casa casa, String itemId) {
+        return casa.name() + ":" + itemId;
+    }
+
+    private static Casa casaDaChave(String chave) {
+        return Casa.valueOf(chave.substring(0, chave.indexOf(':')));
+    }
+
+    private static String idDaChave(String chave) {
+        return chave.substring(chave.indexOf(':') + 1);
+    }
+
+    private static String hash(String texto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static byte[] paraBytes(float[] vetor) {
+        ByteBuffer buffer = ByteBuffer.allocate(vetor.length * Float.BYTES);
+        buffer.asFloatBuffer().put(vetor);
+        return buffer.array();
+    }
+
+    private static float[] deBytes(byte[] bytes) {
+        float[] vetor = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).asFloatBuffer().get(vetor);
+        return vetor;
+    }
+
+    public record ItemSimilar(ItemLegislativo item, double similaridade) {
+    }
+}
@@ -0,0 +1,179 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.InteracaoLlama;
+import br.gov.md.parla_md_backend.domain.dto.RequisicaoLlamaDTO;
+import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
+import br.gov.md.parla_md_backend.repository.IInteracaoLlamaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de respostas do LLM endereçado por conteúdo.
+ *
+ * A chave é o SHA-256 de modelo, opções, formato, prompt de sistema e prompt do usuário.
+ * A camada quente é um Caffeine em memória; a camada morna é a coleção
+ * interacoes_llama, consultada pelo índice de chaveConteudo.
+ */
+@Slf4j
+@Service
+public class CacheRespostaLlamaService {
+
+    private static final String SEPARADOR = "\u0000";
+
+    private final IInteracaoLlamaRepository interacaoRepository;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, EntradaCache> cacheMemoria;
+
+    @Value("${cache.llm.ttl:3600}")
+    private int ttlPadraoSegundos;
+
+    @Value("${cache.llm.enabled:true}")
+    private boolean habilitado;
+
+    public CacheRespostaLlamaService(IInteracaoLlamaRepository interacaoRepository,
+                                     Environment environment,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${cache.llm.max-entries:1000}") long maxEntradas) {
+        this.interacaoRepository = interacaoRepository;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.cacheMemoria = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new ExpiracaoPorEntrada())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cacheMemoria, "llama-respostas");
+    }
+
+    public String calcularChave(RequisicaoLlamaDTO requisicao) {
+        StringBuilder conteudo = new StringBuilder()
+                .append(requisicao.getModel()).append(SEPARADOR)
+                .append(requisicao.getFormat()).append(SEPARADOR);
+
+        RequisicaoLlamaDTO.Options opcoes = requisicao.getOptions();
+        if (opcoes != null) {
+            conteudo.append(opcoes.getTemperature()).append(SEPARADOR)
+                    .append(opcoes.getTopP()).append(SEPARADOR)
+                    .append(opcoes.getTopK()).append(SEPARADOR)
+                    .append(opcoes.getNumPredict()).append(SEPARADOR);
+        }
+
+        for (RequisicaoLlamaDTO.Mensagem mensagem : requisicao.getMessages()) {
+            conteudo.append(mensagem.getRole()).append(SEPARADOR)
+                    .append(mensagem.getContent()).append(SEPARADOR);
+        }
+
+        return hash(conteudo.toString());
+    }
+
+    public Optional<RespostaLlamaDTO> buscar(String chave) {
+        if (!habilitado) {
+            return Optional.empty();
+        }
+
+        EntradaCache entrada = cacheMemoria.getIfPresent(chave);
+        if (entrada != null) {
+            registrarAcerto("memoria");
+            return Optional.of(entrada.resposta());
+        }
+
+        Optional<InteracaoLlama> interacao = interacaoRepository
+                .findFirstByChaveConteudoAndSucessoTrueAndDataExpiracaoAfterOrderByDataHoraRequisicaoDesc(
+                        chave, LocalDateTime.now());
+
+        if (interacao.isPresent()) {
+            RespostaLlamaDTO resposta = converterInteracao(interacao.get());
+            long ttlRestante = Duration.between(LocalDateTime.now(), interacao.get().getDataExpiracao()).toSeconds();
+            cacheMemoria.put(chave, new EntradaCache(resposta, Math.max(ttlRestante, 1)));
+            registrarAcerto("mongo");
+            return Optional.of(resposta);
+        }
+
+        meterRegistry.counter("llama.cache.falha").increment();
+        return Optional.empty();
+    }
+
+    public void armazenar(String chave, RespostaLlamaDTO resposta, String tipoAnalise) {
+        if (!habilitado) {
+            return;
+        }
+        cacheMemoria.put(chave, new EntradaCache(resposta, obterTtlSegundos(tipoAnalise)));
+    }
+
+    public int obterTtlSegundos(String tipoAnalise) {
+        if (tipoAnalise == null) {
+            return ttlPadraoSegundos;
+        }
+        return environment.getProperty("cache.llm.ttl-por-tipo." + tipoAnalise, Integer.class, ttlPadraoSegundos);
+    }
+
+    public void invalidarTudo() {
+        cacheMemoria.invalidateAll();
+        log.info("Cache em memória de respostas do LLM invalidado");
+    }
+
+    private void registrarAcerto(String camada) {
+        meterRegistry.counter("llama.cache.acerto", "camada", camada).increment();
+    }
+
+    private RespostaLlamaDTO converterInteracao(InteracaoLlama interacao) {
+        return RespostaLlamaDTO.builder()
+                .model(interacao.getModelo())
+                .message(RespostaLlamaDTO.Message.builder()
+                        .role("assistant")
+                        .content(interacao.getRespostaConteudo())
+                        .build())
+                .done(true)
+                .promptEvalCount(interacao.getTokensPrompt())
+                .evalCount(interacao.getTokensResposta())
+                .build();
+    }
+
+    private String hash(String conteudo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(conteudo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private record EntradaCache(RespostaLlamaDTO resposta, long ttlSegundos) {
+    }
+
+    private static class ExpiracaoPorEntrada implements Expiry<String, EntradaCache> {
+
+        @Override
+        public long expireAfterCreate(String chave, EntradaCache entrada, long tempoAtual) {
+            return TimeUnit.SECONDS.toNanos(entrada.ttlSegundos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, EntradaCache entrada, long tempoAtual, long duracaoAtual) {
+            return TimeUnit.SECONDS.toNanos(entrada.ttlSegundos());
+        }
+
+        @Override
+        public long expireAfterRead(String chave, EntradaCache entrada, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
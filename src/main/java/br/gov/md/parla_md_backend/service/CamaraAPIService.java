@@ -1,20 +1,22 @@
 package br.gov.md.parla_md_backend.service;
 
 import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.util.ApiClient;
+import br.gov.md.parla_md_backend.util.LeitorJsonStreaming;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CamaraAPIService {
 
-    private final RestTemplate restTemplate;
+    private final ApiClient apiClient;
 
     @Value("${camara.api.url:https://dadosabertos.camara.leg.br/api/v2}")
     private String apiUrl;
@@ -25,11 +27,12 @@ public class CamaraAPIService {
 
             log.info("Buscando proposição {} na API da Câmara", id);
 
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            AtomicReference<Proposicao> proposicao = new AtomicReference<>();
+            apiClient.lerStream(url, corpo ->
+                    LeitorJsonStreaming.lerDados(corpo, dados -> proposicao.set(mapearProposicao(dados))));
 
-            if (response != null && response.containsKey("dados")) {
-                Map<String, Object> dados = (Map<String, Object>) response.get("dados");
-                return mapearProposicao(dados);
+            if (proposicao.get() != null) {
+                return proposicao.get();
             }
 
             log.warn("Proposição {} não encontrada", id);
@@ -41,33 +44,38 @@ public class CamaraAPIService {
         }
     }
 
-    private Proposicao mapearProposicao(Map<String, Object> dados) {
+    private Proposicao mapearProposicao(JsonNode dados) {
         Proposicao proposicao = new Proposicao();
 
-        if (dados.get("id") != null) {
-            proposicao.setIdCamara(((Number) dados.get("id")).longValue());
+        if (dados.hasNonNull("id")) {
+            proposicao.setIdCamara(dados.get("id").asLong());
         }
 
-        proposicao.setSiglaTipo((String) dados.get("siglaTipo"));
+        proposicao.setSiglaTipo(textoOuNulo(dados, "siglaTipo"));
 
-        if (dados.get("numero") != null) {
-            proposicao.setNumero(String.valueOf(((Number) dados.get("numero")).intValue()));
+        if (dados.hasNonNull("numero")) {
+            proposicao.setNumero(String.valueOf(dados.get("numero").asInt()));
         }
 
-        if (dados.get("ano") != null) {
-            proposicao.setAno(((Number) dados.get("ano")).intValue());
+        if (dados.hasNonNull("ano")) {
+            proposicao.setAno(dados.get("ano").asInt());
         }
 
-        proposicao.setEmenta((String) dados.get("ementa"));
-        proposicao.setEmentaDetalhada((String) dados.get("keywords"));
+        proposicao.setEmenta(textoOuNulo(dados, "ementa"));
+        proposicao.setEmentaDetalhada(textoOuNulo(dados, "keywords"));
 
         return proposicao;
     }
 
+    private String textoOuNulo(JsonNode dados, String campo) {
+        return dados.hasNonNull(campo) ? dados.get(campo).asText() : null;
+    }
+
     public boolean verificarDisponibilidade() {
         try {
             String url = apiUrl + "/proposicoes?itens=1";
-            restTemplate.getForObject(url, Map.class);
+            apiClient.lerStream(url, corpo -> LeitorJsonStreaming.lerDados(corpo, dados -> {
+            }));
             return true;
         } catch (Exception e) {
             log.error("API da Câmara indisponível", e);
@@ -1,21 +1,29 @@
 package br.gov.md.parla_md_backend.service;
 
+import br.gov.md.parla_md_backend.domain.dto.ProgressoSincronizacaoDTO;
 import br.gov.md.parla_md_backend.domain.dto.ProposicaoDTO;
 import br.gov.md.parla_md_backend.domain.dto.ProposicaoResumoDTO;
 import br.gov.md.parla_md_backend.domain.dto.ProcedimentoProposicaoDTO;
 import br.gov.md.parla_md_backend.domain.Proposicao;
 import br.gov.md.parla_md_backend.domain.ProcedimentoProposicao;
+import br.gov.md.parla_md_backend.domain.ProgressoSincronizacao;
+import br.gov.md.parla_md_backend.domain.enums.StatusSincronizacao;
 import br.gov.md.parla_md_backend.domain.enums.StatusTriagem;
 import br.gov.md.parla_md_backend.domain.enums.StatusTramitacao;
 import br.gov.md.parla_md_backend.exception.ApiExternaException;
 import br.gov.md.parla_md_backend.exception.RecursoNaoEncontradoException;
 import br.gov.md.parla_md_backend.repository.IProposicaoRepository;
 import br.gov.md.parla_md_backend.repository.IProcedimentoProposicaoRepository;
+import br.gov.md.parla_md_backend.repository.IProgressoSincronizacaoRepository;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.GravadorEmLote;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.RegraUpsert;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.ResultadoUpsert;
 import br.gov.md.parla_md_backend.util.ApiClient;
-import lombok.RequiredArgsConstructor;
+import br.gov.md.parla_md_backend.util.ArquivoRespostas;
+import br.gov.md.parla_md_backend.util.LeitorJsonStreaming;
+import br.gov.md.parla_md_backend.util.LeitorJsonStreaming.Pagina;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -27,72 +35,196 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static br.gov.md.parla_md_backend.util.LeitorJsonStreaming.texto;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CamaraService {
 
-    private static final int ITENS_PADRAO = 20;
-    private static final int ANO_PADRAO = LocalDateTime.now().getYear();
+    private static final String FONTE = "camara";
+    private static final String RECURSO_PROPOSICOES = "proposicoes";
+    private static final int ITENS_MAXIMOS_POR_PAGINA = 100;
+    private static final Pattern PARAMETRO_PAGINA = Pattern.compile("[?&]pagina=(\\d+)");
+
+    // Checkpoint único das sincronizações por janela de datas, sobrescrito a cada janela nova
+    private static final String PARAMETRO_ALTERACOES = "alteracoes";
+    private static final String REGEX_CHECKPOINT_JANELA_ANTIGO =
+            "^(reproducao:)?camara:proposicoes:\\d{4}-\\d{2}-\\d{2}_\\d{4}-\\d{2}-\\d{2}$";
 
-    @Value("${camara.api.base-url}")
-    private String camaraApiBaseUrl;
+    // Triagem e estado inicial pertencem à aplicação: a listagem da API não os sobrescreve
+    private static final RegraUpsert<Proposicao> REGRA_UPSERT = RegraUpsert.de(Proposicao.class,
+            "idCamara", "dataUltimaAtualizacao",
+            "statusTriagem", "statusTramitacao", "dataCaptura", "aprovada", "apreciacao");
 
     private final ApiClient apiClient;
     private final IProposicaoRepository proposicaoRepository;
     private final IProcedimentoProposicaoRepository procedimentoRepository;
+    private final IProgressoSincronizacaoRepository progressoRepository;
+    private final BuscaSemanticaService buscaSemanticaService;
+    private final UpsertEmLoteService upsertEmLoteService;
+    private final EstadoSincronizacaoService estadoSincronizacaoService;
+    private final ArquivoRespostas arquivoRespostas;
+    private final String camaraApiBaseUrl;
+    private final int itensPorPagina;
+    private final int paralelismo;
+    private final int tentativasPorPagina;
+
+    private final Set<String> sincronizacoesEmExecucao = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock travaProgresso = new ReentrantLock();
+
+    public CamaraService(ApiClient apiClient,
+                         IProposicaoRepository proposicaoRepository,
+                         IProcedimentoProposicaoRepository procedimentoRepository,
+                         IProgressoSincronizacaoRepository progressoRepository,
+                         BuscaSemanticaService buscaSemanticaService,
+                         UpsertEmLoteService upsertEmLoteService,
+                         EstadoSincronizacaoService estadoSincronizacaoService,
+                         ArquivoRespostas arquivoRespostas,
+                         @Value("${camara.api.base-url}") String camaraApiBaseUrl,
+                         @Value("${camara.api.paginacao.itens-por-pagina:100}") int itensPorPagina,
+                         @Value("${camara.api.paginacao.paralelismo:4}") int paralelismo,
+                         @Value("${camara.api.paginacao.tentativas:3}") int tentativasPorPagina) {
+        this.apiClient = apiClient;
+        this.proposicaoRepository = proposicaoRepository;
+        this.procedimentoRepository = procedimentoRepository;
+        this.progressoRepository = progressoRepository;
+        this.buscaSemanticaService = buscaSemanticaService;
+        this.upsertEmLoteService = upsertEmLoteService;
+        this.estadoSincronizacaoService = estadoSincronizacaoService;
+        this.arquivoRespostas = arquivoRespostas;
+        this.camaraApiBaseUrl = camaraApiBaseUrl;
+        this.itensPorPagina = Math.max(1, Math.min(itensPorPagina, ITENS_MAXIMOS_POR_PAGINA));
+        this.paralelismo = Math.max(1, paralelismo);
+        this.tentativasPorPagina = Math.max(1, tentativasPorPagina);
+    }
 
     // ==================== SINCRONIZAÇÃO COM API ====================
 
     @Scheduled(cron = "0 0 1 * * ?")
-    @Transactional
     @CacheEvict(value = "proposicoes", allEntries = true)
     public void sincronizacaoAgendada() {
         log.info("Iniciando sincronização agendada de proposições da Câmara");
-        sincronizarProposicoes();
-    }
-
-    @Transactional
-    @CacheEvict(value = "proposicoes", allEntries = true)
-    public List<ProposicaoDTO> sincronizarProposicoes() {
-        return sincronizarProposicoes(ANO_PADRAO, ITENS_PADRAO);
+        sincronizarAlteracoes();
     }
 
-    @Transactional
+    /**
+     * Sincroniza as proposições que tramitaram desde a marca d'água, pelo filtro
+     * {@code dataInicio}/{@code dataFim} da API. Sem marca (primeira execução), carrega o
+     * ano corrente inteiro. A marca só avança para o início desta execução quando todas
+     * as páginas foram gravadas; em caso de falha, a próxima execução repete a janela.
+     *
+     * <p>As janelas compartilham um único checkpoint. A listagem filtrada por data muda
+     * enquanto é lida (proposições que tramitam no dia entram no meio da ordem por id), então
+     * a retomada não confia no número das páginas: continua depois do último id gravado em
+     * sequência e relê todas as páginas seguintes.</p>
+     */
     @CacheEvict(value = "proposicoes", allEntries = true)
-    public List<ProposicaoDTO> sincronizarProposicoes(Integer ano, Integer itens) {
+    public ProgressoSincronizacaoDTO sincronizarAlteracoes() {
+        LocalDateTime inicio = LocalDateTime.now();
+        ConsultaProposicoes consulta = estadoSincronizacaoService.obterMarcaDagua(FONTE, RECURSO_PROPOSICOES)
+                .map(marca -> ConsultaProposicoes.alteradasEntre(marca.toLocalDate(), inicio.toLocalDate()))
+                .orElseGet(() -> ConsultaProposicoes.doAno(inicio.getYear()));
+
+        log.info("Sincronizando proposições da Câmara: {}", consulta.parametro());
+        ProgressoSincronizacaoDTO progresso;
         try {
-            String endpoint = construirEndpointProposicoes(ano, itens);
-            log.info("Sincronizando proposições do endpoint: {}", endpoint);
+            progresso = sincronizar(consulta);
+        } catch (RuntimeException e) {
+            estadoSincronizacaoService.registrarFalha(FONTE, RECURSO_PROPOSICOES, e.getMessage());
+            throw e;
+        }
 
-            String jsonData = buscarDadosApi(endpoint);
-            JSONObject json = new JSONObject(jsonData);
-            JSONArray dados = json.getJSONArray("dados");
+        if (progresso.status() == StatusSincronizacao.CONCLUIDA && !progresso.emExecucao()) {
+            estadoSincronizacaoService.avancarMarcaDagua(FONTE, RECURSO_PROPOSICOES, inicio,
+                    progresso.itensRecebidos());
+        } else if (!progresso.emExecucao()) {
+            estadoSincronizacaoService.registrarFalha(FONTE, RECURSO_PROPOSICOES, progresso.erro());
+        }
+        return progresso;
+    }
 
-            log.info("Recebidas {} proposições da API", dados.length());
+    /**
+     * Sincroniza todas as proposições do ano corrente, página a página.
+     */
+    @CacheEvict(value = "proposicoes", allEntries = true)
+    public ProgressoSincronizacaoDTO sincronizarProposicoes() {
+        return sincronizarProposicoesDoAno(Year.now().getValue());
+    }
 
-            List<ProposicaoDTO> proposicoesSalvas = new ArrayList<>();
+    /**
+     * Percorre todas as páginas de proposições do ano, buscando-as em paralelo dentro do
+     * limite de requisições da API. Cada página concluída é registrada no checkpoint; se a
+     * execução anterior não terminou, só as páginas que faltaram são buscadas.
+     */
+    @CacheEvict(value = "proposicoes", allEntries = true)
+    public ProgressoSincronizacaoDTO sincronizarProposicoesDoAno(int ano) {
+        return sincronizar(ConsultaProposicoes.doAno(ano));
+    }
 
-            for (int i = 0; i < dados.length(); i++) {
+    /**
+     * Inicia a sincronização do ano em segundo plano e retorna o progresso atual.
+     */
+    @CacheEvict(value = "proposicoes", allEntries = true)
+    public ProgressoSincronizacaoDTO iniciarSincronizacaoProposicoes(int ano) {
+        ConsultaProposicoes consulta = ConsultaProposicoes.doAno(ano);
+        String chave = chaveProposicoes(consulta);
+        if (sincronizacoesEmExecucao.add(chave)) {
+            Thread.ofVirtual().name("sincronizacao-camara-" + ano).start(() -> {
                 try {
-                    JSONObject propJson = dados.getJSONObject(i);
-                    Proposicao proposicao = parsearProposicao(propJson);
-
-                    Proposicao salva = proposicaoRepository.save(proposicao);
-                    proposicoesSalvas.add(ProposicaoDTO.fromEntity(salva));
-
-                    log.debug("Proposição salva: {}", salva.getIdentificadorCompleto());
-
+                    executarSincronizacao(consulta);
                 } catch (Exception e) {
-                    log.error("Erro ao processar proposição no índice {}: {}",
-                            i, e.getMessage(), e);
+                    log.error("Erro na sincronização de proposições de {}: {}", ano, e.getMessage());
+                } finally {
+                    sincronizacoesEmExecucao.remove(chave);
                 }
+            });
+        }
+        return obterProgressoSincronizacao(ano);
+    }
+
+    public ProgressoSincronizacaoDTO obterProgressoSincronizacao(int ano) {
+        return obterProgresso(ConsultaProposicoes.doAno(ano));
+    }
+
+    /**
+     * Importação avulsa de até {@code itens} proposições do ano, sem checkpoint.
+     */
+    @CacheEvict(value = "proposicoes", allEntries = true)
+    public List<ProposicaoDTO> sincronizarProposicoes(Integer ano, Integer itens) {
+        try {
+            List<ProposicaoDTO> proposicoesSalvas = new ArrayList<>();
+            int tamanhoPagina = Math.max(1, Math.min(itens, ITENS_MAXIMOS_POR_PAGINA));
+            String endpoint = construirEndpointProposicoes(ConsultaProposicoes.doAno(ano), tamanhoPagina, 1);
+
+            while (endpoint != null && proposicoesSalvas.size() < itens) {
+                log.info("Sincronizando proposições do endpoint: {}", endpoint);
+                PaginaGravada pagina = sincronizarPagina(endpoint, true);
+                pagina.gravacao().itens().stream()
+                        .limit(itens - proposicoesSalvas.size())
+                        .map(ProposicaoDTO::fromEntity)
+                        .forEach(proposicoesSalvas::add);
+
+                endpoint = pagina.leitura().link("next");
             }
 
             log.info("Total de proposições sincronizadas: {}", proposicoesSalvas.size());
@@ -193,38 +325,28 @@ public class CamaraService {
     @Transactional
     public List<ProcedimentoProposicaoDTO> sincronizarProcedimentos(Long idProposicao) {
         try {
-            String endpoint = construirEndpointProcedimentos(idProposicao);
-            log.info("Sincronizando procedimentos do endpoint: {}", endpoint);
-
-            String jsonData = buscarDadosApi(endpoint);
-            JSONObject json = new JSONObject(jsonData);
-            JSONArray dados = json.getJSONArray("dados");
-
-            List<ProcedimentoProposicaoDTO> procedimentosSalvos = new ArrayList<>();
-
             Proposicao proposicao = proposicaoRepository.findByIdCamara(idProposicao)
                     .orElseThrow(() -> new RecursoNaoEncontradoException(
                             "Proposição não encontrada com ID Câmara: " + idProposicao));
 
-            for (int i = 0; i < dados.length(); i++) {
-                try {
-                    JSONObject procJson = dados.getJSONObject(i);
+            String endpoint = construirEndpointProcedimentos(idProposicao);
+            log.info("Sincronizando procedimentos do endpoint: {}", endpoint);
 
+            List<ProcedimentoProposicao> procedimentos = new ArrayList<>();
+            apiClient.lerStream(endpoint, corpo -> LeitorJsonStreaming.lerDados(corpo, procJson -> {
+                try {
                     ProcedimentoProposicao procedimento = parsearProcedimento(procJson);
                     procedimento.setProposicao(proposicao);
-
-                    ProcedimentoProposicao salvo = procedimentoRepository.save(procedimento);
-
-                    ProcedimentoProposicaoDTO dto = ProcedimentoProposicaoDTO.from(salvo);
-                    procedimentosSalvos.add(dto);
-
-                    log.debug("Procedimento salvo - Seq: {}", salvo.getSequencia());
-
+                    procedimentos.add(procedimento);
                 } catch (Exception e) {
-                    log.error("Erro ao processar procedimento no índice {}: {}",
-                            i, e.getMessage(), e);
+                    log.error("Erro ao processar procedimento {}: {}",
+                            procJson.path("sequencia").asInt(), e.getMessage(), e);
                 }
-            }
+            }));
+
+            List<ProcedimentoProposicaoDTO> procedimentosSalvos = procedimentoRepository.saveAll(procedimentos).stream()
+                    .map(ProcedimentoProposicaoDTO::from)
+                    .collect(Collectors.toList());
 
             log.info("Total de procedimentos sincronizados: {}", procedimentosSalvos.size());
             return procedimentosSalvos;
@@ -260,81 +382,446 @@ public class CamaraService {
 
 
     // ==================== MÉTODOS PRIVADOS ====================
-    private String construirEndpointProposicoes(Integer ano, Integer itens) {
-        return String.format("%sproposicoes?ano=%d&itens=%d&ordem=ASC&ordenarPor=id",
-                camaraApiBaseUrl, ano, itens);
+
+    private ProgressoSincronizacaoDTO sincronizar(ConsultaProposicoes consulta) {
+        String chave = chaveProposicoes(consulta);
+        if (!sincronizacoesEmExecucao.add(chave)) {
+            log.warn("Sincronização de proposições de {} já está em execução", consulta.parametro());
+            return obterProgresso(consulta);
+        }
+
+        try {
+            return executarSincronizacao(consulta);
+        } finally {
+            sincronizacoesEmExecucao.remove(chave);
+        }
     }
 
-    private String construirEndpointProcedimentos(Long idProposicao) {
-        return String.format("%sproposicoes/%d/tramitacoes",
-                camaraApiBaseUrl, idProposicao);
+    private ProgressoSincronizacaoDTO obterProgresso(ConsultaProposicoes consulta) {
+        String chave = chaveProposicoes(consulta);
+        ProgressoSincronizacao progresso = progressoRepository.findById(chave)
+                .orElseGet(() -> novoProgresso(consulta));
+        return ProgressoSincronizacaoDTO.from(progresso, sincronizacoesEmExecucao.contains(chave));
     }
 
-    private String buscarDadosApi(String endpoint) {
+    private ProgressoSincronizacaoDTO executarSincronizacao(ConsultaProposicoes consulta) {
+        ProgressoSincronizacao progresso = carregarProgresso(consulta);
+        Execucao execucao = new Execucao(consulta, progresso, progresso.getCursor(), new ConcurrentHashMap<>());
+        long inicio = System.currentTimeMillis();
+
         try {
-            return apiClient.get(endpoint);
+            // A primeira página informa o total; se já foi concluída, é lida sem ser regravada
+            boolean primeiraPendente = !progresso.getPaginasConcluidas().contains(1);
+            PaginaGravada primeira = sincronizarPagina(
+                    construirEndpointProposicoes(consulta, itensPorPagina, 1), primeiraPendente,
+                    execucao.cursorInicial());
+            if (primeiraPendente) {
+                registrarPagina(execucao, 1, primeira);
+            }
+
+            OptionalInt ultimaPagina = extrairNumeroPagina(primeira.leitura().link("last"));
+            List<Integer> falhas;
+
+            if (ultimaPagina.isPresent()) {
+                atualizarTotalPaginas(progresso, ultimaPagina.getAsInt());
+                List<Integer> pendentes = IntStream.rangeClosed(2, ultimaPagina.getAsInt())
+                        .filter(pagina -> !progresso.getPaginasConcluidas().contains(pagina))
+                        .boxed()
+                        .toList();
+
+                log.info("Sincronizando proposições de {}: {} página(s), {} pendente(s), paralelismo {}",
+                        consulta.parametro(), ultimaPagina.getAsInt(), pendentes.size(), paralelismo);
+                falhas = buscarPaginasEmParalelo(execucao, pendentes);
+            } else {
+                // Sem o link "last" não há como distribuir as páginas: segue os links "next"
+                falhas = seguirProximasPaginas(primeira.leitura().link("next"), execucao);
+            }
+
+            finalizarProgresso(progresso, falhas);
+            log.info("Sincronização de proposições de {} finalizada em {} ms: {} novas, {} atualizadas, "
+                            + "{} página(s) com falha",
+                    consulta.parametro(), System.currentTimeMillis() - inicio, progresso.getItensNovos(),
+                    progresso.getItensAtualizados(), falhas.size());
+
+            return ProgressoSincronizacaoDTO.from(progresso, false);
+
         } catch (Exception e) {
-            log.error("Erro ao buscar dados da API: {}", e.getMessage(), e);
-            throw new ApiExternaException(
-                    "Erro ao buscar dados da API da Câmara: " + e.getMessage(), e);
+            finalizarProgresso(progresso, List.of(), e.getMessage());
+            log.error("Erro durante sincronização de proposições de {}: {}", consulta.parametro(), e.getMessage(), e);
+            throw ApiExternaException.erroApiCamara(
+                    "Erro ao sincronizar proposições da Câmara: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Integer> buscarPaginasEmParalelo(Execucao execucao, List<Integer> paginas) {
+        ConsultaProposicoes consulta = execucao.consulta();
+        List<Integer> falhas = Collections.synchronizedList(new ArrayList<>());
+        Semaphore permissoes = new Semaphore(paralelismo);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int pagina : paginas) {
+                try {
+                    permissoes.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Sincronização de proposições de {} interrompida antes da página {}",
+                            consulta.parametro(), pagina);
+                    break;
+                }
+
+                executor.submit(() -> {
+                    try {
+                        registrarPagina(execucao, pagina, sincronizarPagina(
+                                construirEndpointProposicoes(consulta, itensPorPagina, pagina), true,
+                                execucao.cursorInicial()));
+                    } catch (Exception e) {
+                        falhas.add(pagina);
+                        log.warn("Falha ao sincronizar página {} de proposições de {}: {}",
+                                pagina, consulta.parametro(), e.getMessage());
+                    } finally {
+                        permissoes.release();
+                    }
+                });
+            }
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            throw ApiExternaException.erroApiCamara("Sincronização interrompida");
+        }
+
+        Collections.sort(falhas);
+        return falhas;
+    }
+
+    private List<Integer> seguirProximasPaginas(String proxima, Execucao execucao) {
+        int pagina = 1;
+
+        while (proxima != null) {
+            pagina = extrairNumeroPagina(proxima).orElse(pagina + 1);
+            boolean pendente = !execucao.progresso().getPaginasConcluidas().contains(pagina);
+            PaginaGravada lida = sincronizarPagina(proxima, pendente, execucao.cursorInicial());
+            if (pendente) {
+                registrarPagina(execucao, pagina, lida);
+            }
+            proxima = lida.leitura().link("next");
+        }
+
+        atualizarTotalPaginas(execucao.progresso(), pagina);
+        return List.of();
+    }
+
+    /**
+     * Lê uma página em fluxo e grava suas proposições em lote à medida que são lidas,
+     * atualizando pelo id da Câmara as que já existem. O limite de requisições por segundo
+     * e as tentativas em 429/5xx ficam com o {@link ApiClient}; aqui se repetem as leituras
+     * interrompidas no meio do corpo, e como a gravação é idempotente a página é relida inteira.
+     */
+    private PaginaGravada sincronizarPagina(String endpoint, boolean gravar) {
+        return sincronizarPagina(endpoint, gravar, null);
+    }
+
+    /**
+     * @param gravadosAte id até o qual a execução retomada já gravou tudo; esses itens são
+     *                    lidos, mas não gravados nem contados de novo
+     */
+    private PaginaGravada sincronizarPagina(String endpoint, boolean gravar, Long gravadosAte) {
+        ApiExternaException ultimaFalha = null;
+
+        for (int tentativa = 1; tentativa <= tentativasPorPagina; tentativa++) {
+            try {
+                if (tentativa > 1) {
+                    Thread.sleep(500L * (tentativa - 1));
+                }
+
+                GravadorEmLote<Proposicao> gravador = upsertEmLoteService.abrirGravador(
+                        REGRA_UPSERT, buscaSemanticaService::enfileirar);
+                long[] ultimoId = {0L};
+                int[] jaGravados = {0};
+                Pagina leitura = apiClient.lerStream(endpoint, corpo -> LeitorJsonStreaming.lerDados(corpo, propJson -> {
+                    long id = propJson.path("id").asLong(0L);
+                    ultimoId[0] = Math.max(ultimoId[0], id);
+                    if (gravadosAte != null && id != 0L && id <= gravadosAte) {
+                        jaGravados[0]++;
+                    } else if (gravar) {
+                        adicionarProposicao(gravador, propJson);
+                    }
+                }));
+                return new PaginaGravada(leitura, gravador.concluir(),
+                        ultimoId[0] > 0 ? ultimoId[0] : null, leitura.registros() - jaGravados[0]);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw ApiExternaException.erroApiCamara("Sincronização interrompida", e);
+            } catch (Exception e) {
+                ultimaFalha = ApiExternaException.erroApiCamara(
+                        "Erro ao buscar dados da API da Câmara: " + e.getMessage(), e);
+                log.debug("Tentativa {} de {} falhou para {}: {}",
+                        tentativa, tentativasPorPagina, endpoint, e.getMessage());
+            }
         }
+
+        throw ultimaFalha;
     }
 
-    private Proposicao parsearProposicao(JSONObject propJson) {
+    /**
+     * @param ultimoId  maior id lido na página, ou nulo se ela veio vazia
+     * @param recebidos registros da página, sem os já gravados antes da retomada
+     */
+    private record PaginaGravada(Pagina leitura, ResultadoUpsert<Proposicao> gravacao, Long ultimoId,
+                                 int recebidos) {
+    }
+
+    /**
+     * Estado em memória da execução: o cursor com que ela começou e o último id de cada
+     * página concluída, para avançar o cursor quando as páginas fecham uma sequência.
+     */
+    private record Execucao(ConsultaProposicoes consulta, ProgressoSincronizacao progresso, Long cursorInicial,
+                            Map<Integer, Long> ultimosIds) {
+    }
+
+    private void adicionarProposicao(GravadorEmLote<Proposicao> gravador, JsonNode propJson) {
+        try {
+            if (propJson.path("id").asLong(0L) == 0L) {
+                log.warn("Proposição sem id ignorada: {}", texto(propJson, "uri"));
+                return;
+            }
+            Proposicao proposicao = novaProposicao();
+            preencherDadosApi(proposicao, propJson);
+            gravador.adicionar(proposicao);
+        } catch (RuntimeException e) {
+            log.error("Erro ao processar proposição {}: {}", propJson.path("id").asLong(), e.getMessage(), e);
+        }
+    }
+
+    private void registrarPagina(Execucao execucao, int pagina, PaginaGravada lida) {
+        ProgressoSincronizacao progresso = execucao.progresso();
+        ResultadoUpsert<Proposicao> gravacao = lida.gravacao();
+
+        travaProgresso.lock();
+        try {
+            progresso.getPaginasConcluidas().add(pagina);
+            if (execucao.consulta().porCursor()) {
+                avancarCursor(execucao, pagina, lida.ultimoId());
+            }
+            progresso.setItensRecebidos(progresso.getItensRecebidos() + lida.recebidos());
+            progresso.setItensNovos(progresso.getItensNovos() + gravacao.inseridos());
+            progresso.setItensAtualizados(progresso.getItensAtualizados() + gravacao.atualizados());
+            progresso.setItensInalterados(progresso.getItensInalterados() + gravacao.inalterados());
+            progresso.setAtualizadaEm(LocalDateTime.now());
+            progressoRepository.save(progresso);
+        } finally {
+            travaProgresso.unlock();
+        }
+
+        log.debug("Página {} de proposições gravada: {} nova(s), {} atualizada(s), {} inalterada(s)",
+                pagina, gravacao.inseridos(), gravacao.atualizados(), gravacao.inalterados());
+    }
+
+    /**
+     * Com o último id da página registrado, leva o cursor ao fim da sequência de páginas
+     * concluídas a partir da primeira. Chamado com a trava do progresso.
+     */
+    private void avancarCursor(Execucao execucao, int pagina, Long ultimoId) {
+        if (ultimoId != null) {
+            execucao.ultimosIds().put(pagina, ultimoId);
+        }
+
+        ProgressoSincronizacao progresso = execucao.progresso();
+        int sequencia = 0;
+        while (progresso.getPaginasConcluidas().contains(sequencia + 1)) {
+            sequencia++;
+        }
+        for (int atual = sequencia; atual >= pagina; atual--) {
+            Long id = execucao.ultimosIds().get(atual);
+            if (id != null) {
+                progresso.setCursor(id);
+                break;
+            }
+        }
+    }
+
+    private ProgressoSincronizacao carregarProgresso(ConsultaProposicoes consulta) {
+        if (consulta.porCursor() && !arquivoRespostas.reproduzindo()) {
+            // Checkpoints de uma por janela, anteriores ao checkpoint único
+            progressoRepository.deleteByIdRegex(REGEX_CHECKPOINT_JANELA_ANTIGO);
+        }
+
+        ProgressoSincronizacao progresso = progressoRepository.findById(chaveProposicoes(consulta))
+                .filter(anterior -> anterior.getStatus() != null && anterior.getStatus().isRetomavel())
+                .filter(anterior -> anterior.getItensPorPagina() == itensPorPagina)
+                // O checkpoint das janelas é único: só a mesma janela é retomada, as outras são sobrescritas
+                .filter(anterior -> !consulta.porCursor() || consulta.parametro().equals(anterior.getParametro()))
+                .orElse(null);
+
+        if (progresso != null && consulta.porCursor()) {
+            // Só a sequência inicial está coberta pelo cursor; as páginas depois dela são relidas
+            int sequencia = 0;
+            while (progresso.getPaginasConcluidas().contains(sequencia + 1)) {
+                sequencia++;
+            }
+            progresso.setPaginasConcluidas(new TreeSet<>(progresso.getPaginasConcluidas().headSet(sequencia, true)));
+            if (sequencia == 0) {
+                progresso.setCursor(null);
+            }
+            log.info("Retomando sincronização de proposições de {} após o id {} ({} página(s) em sequência)",
+                    consulta.parametro(), progresso.getCursor(), sequencia);
+            progresso.setStatus(StatusSincronizacao.EM_ANDAMENTO);
+            progresso.setErro(null);
+        } else if (progresso != null) {
+            log.info("Retomando sincronização de proposições de {}: {} página(s) já concluída(s)",
+                    consulta.parametro(), progresso.getPaginasConcluidas().size());
+            progresso.setStatus(StatusSincronizacao.EM_ANDAMENTO);
+            progresso.setErro(null);
+        } else {
+            progresso = novoProgresso(consulta);
+            progresso.setStatus(StatusSincronizacao.EM_ANDAMENTO);
+            progresso.setIniciadaEm(LocalDateTime.now());
+        }
+
+        progresso.setAtualizadaEm(LocalDateTime.now());
+        return progressoRepository.save(progresso);
+    }
+
+    private ProgressoSincronizacao novoProgresso(ConsultaProposicoes consulta) {
+        return ProgressoSincronizacao.builder()
+                .id(chaveProposicoes(consulta))
+                .fonte(FONTE)
+                .recurso(RECURSO_PROPOSICOES)
+                .parametro(consulta.parametro())
+                .itensPorPagina(itensPorPagina)
+                .build();
+    }
+
+    private void atualizarTotalPaginas(ProgressoSincronizacao progresso, int totalPaginas) {
+        travaProgresso.lock();
+        try {
+            progresso.setTotalPaginas(totalPaginas);
+            progressoRepository.save(progresso);
+        } finally {
+            travaProgresso.unlock();
+        }
+    }
+
+    private void finalizarProgresso(ProgressoSincronizacao progresso, List<Integer> falhas) {
+        finalizarProgresso(progresso, falhas,
+                falhas.isEmpty() ? null : "Páginas com falha: " + falhas);
+    }
+
+    private void finalizarProgresso(ProgressoSincronizacao progresso, List<Integer> falhas, String erro) {
+        travaProgresso.lock();
+        try {
+            boolean concluida = erro == null && falhas.isEmpty();
+            progresso.setStatus(concluida ? StatusSincronizacao.CONCLUIDA : StatusSincronizacao.FALHA);
+            progresso.setErro(erro);
+            progresso.setAtualizadaEm(LocalDateTime.now());
+            progresso.setConcluidaEm(concluida ? LocalDateTime.now() : null);
+            progressoRepository.save(progresso);
+        } finally {
+            travaProgresso.unlock();
+        }
+    }
+
+    private String chaveProposicoes(ConsultaProposicoes consulta) {
+        String parametro = consulta.porCursor() ? PARAMETRO_ALTERACOES : consulta.parametro();
+        return arquivoRespostas.reproduzindo()
+                ? ProgressoSincronizacao.chaveReproducao(FONTE, RECURSO_PROPOSICOES, parametro)
+                : ProgressoSincronizacao.chave(FONTE, RECURSO_PROPOSICOES, parametro);
+    }
+
+    private String construirEndpointProposicoes(ConsultaProposicoes consulta, Integer itens, int pagina) {
+        return String.format("%sproposicoes?%s&itens=%d&pagina=%d&ordem=ASC&ordenarPor=id",
+                camaraApiBaseUrl, consulta.filtro(), itens, pagina);
+    }
+
+    /**
+     * Recorte da listagem de proposições: um ano inteiro ou as que tramitaram num período.
+     *
+     * @param parametro identifica o recorte no checkpoint ("2024", "2024-10-01_2024-10-02")
+     * @param filtro    parâmetros de consulta da API
+     * @param porCursor a listagem muda durante a leitura e a retomada segue o último id gravado
+     */
+    private record ConsultaProposicoes(String parametro, String filtro, boolean porCursor) {
+
+        static ConsultaProposicoes doAno(int ano) {
+            return new ConsultaProposicoes(String.valueOf(ano), "ano=" + ano, false);
+        }
+
+        static ConsultaProposicoes alteradasEntre(LocalDate inicio, LocalDate fim) {
+            return new ConsultaProposicoes(inicio + "_" + fim, "dataInicio=" + inicio + "&dataFim=" + fim, true);
+        }
+    }
+
+    private OptionalInt extrairNumeroPagina(String href) {
+        if (href == null) {
+            return OptionalInt.empty();
+        }
+        Matcher matcher = PARAMETRO_PAGINA.matcher(href);
+        return matcher.find() ? OptionalInt.of(Integer.parseInt(matcher.group(1))) : OptionalInt.empty();
+    }
+
+    private String construirEndpointProcedimentos(Long idProposicao) {
+        return String.format("%sproposicoes/%d/tramitacoes",
+                camaraApiBaseUrl, idProposicao);
+    }
+
+    private Proposicao novaProposicao() {
         Proposicao proposicao = new Proposicao();
+        proposicao.setStatusTriagem(StatusTriagem.NAO_AVALIADO);
+        proposicao.setStatusTramitacao(StatusTramitacao.EM_ANDAMENTO);
+        proposicao.setDataCaptura(LocalDateTime.now());
+        return proposicao;
+    }
 
-        proposicao.setIdCamara(propJson.optLong("id", 0L));
-        proposicao.setUriProposicao(propJson.optString("uri"));
-        proposicao.setSiglaTipo(propJson.optString("siglaTipo"));
+    /**
+     * Copia os campos fornecidos pela listagem da API, preservando os dados de triagem e
+     * enriquecimento de uma proposição já gravada.
+     */
+    private void preencherDadosApi(Proposicao proposicao, JsonNode propJson) {
+        proposicao.setIdCamara(propJson.path("id").asLong(0L));
+        proposicao.setUriProposicao(texto(propJson, "uri"));
+        proposicao.setSiglaTipo(texto(propJson, "siglaTipo"));
 
-        // ✅ CORREÇÃO LINHA 292 - Converter int para String
-        int numeroInt = propJson.optInt("numero", 0);
+        int numeroInt = propJson.path("numero").asInt(0);
         proposicao.setNumero(String.valueOf(numeroInt));
 
-        proposicao.setAno(propJson.optInt("ano", 0));
-        proposicao.setEmenta(propJson.optString("ementa"));
+        proposicao.setAno(propJson.path("ano").asInt(0));
+        proposicao.setEmenta(texto(propJson, "ementa"));
 
-        // ✅ CORREÇÃO LINHA 297 - Converter LocalDateTime para LocalDate
-        String dataApresentacaoStr = propJson.optString("dataApresentacao");
+        String dataApresentacaoStr = texto(propJson, "dataApresentacao");
         LocalDateTime dataHoraApresentacao = parsearDataHora(dataApresentacaoStr);
         if (dataHoraApresentacao != null) {
             proposicao.setDataApresentacao(dataHoraApresentacao.toLocalDate());
         }
 
-        JSONObject statusProposicao = propJson.optJSONObject("statusProposicao");
-        if (statusProposicao != null) {
+        JsonNode statusProposicao = propJson.get("statusProposicao");
+        if (statusProposicao != null && statusProposicao.isObject()) {
             parsearStatusProposicao(proposicao, statusProposicao);
         }
 
-        proposicao.setStatusTriagem(StatusTriagem.NAO_AVALIADO);
-        proposicao.setStatusTramitacao(StatusTramitacao.EM_ANDAMENTO);
-        proposicao.setDataCaptura(LocalDateTime.now());
         proposicao.setDataUltimaAtualizacao(LocalDateTime.now());
-
-        return proposicao;
     }
 
-    private void parsearStatusProposicao(Proposicao proposicao, JSONObject statusObj) {
-        proposicao.setStatusProposicao(statusObj.optString("descricaoSituacao"));
-        proposicao.setDescricaoTramitacao(statusObj.optString("descricaoTramitacao"));
-        proposicao.setDespacho(statusObj.optString("despacho"));
-        proposicao.setSiglaOrgao(statusObj.optString("siglaOrgao"));
-        proposicao.setRegime(statusObj.optString("regime"));
-        proposicao.setSituacaoAtual(statusObj.optString("descricaoSituacao"));
+    private void parsearStatusProposicao(Proposicao proposicao, JsonNode statusObj) {
+        proposicao.setStatusProposicao(texto(statusObj, "descricaoSituacao"));
+        proposicao.setDescricaoTramitacao(texto(statusObj, "descricaoTramitacao"));
+        proposicao.setDespacho(texto(statusObj, "despacho"));
+        proposicao.setSiglaOrgao(texto(statusObj, "siglaOrgao"));
+        proposicao.setRegime(texto(statusObj, "regime"));
+        proposicao.setSituacaoAtual(texto(statusObj, "descricaoSituacao"));
     }
 
-    private ProcedimentoProposicao parsearProcedimento(JSONObject procJson) {
+    private ProcedimentoProposicao parsearProcedimento(JsonNode procJson) {
         ProcedimentoProposicao procedimento = new ProcedimentoProposicao();
 
-        String dataHoraStr = procJson.getString("dataHora");
+        String dataHoraStr = texto(procJson, "dataHora");
         procedimento.setDataHora(parsearDataHora(dataHoraStr));
 
-        procedimento.setSequencia(procJson.optInt("sequencia", 0));
-        procedimento.setSiglaOrgao(procJson.optString("siglaOrgao"));
-        procedimento.setDescricaoTramitacao(procJson.optString("descricaoTramitacao"));
-        procedimento.setDespacho(procJson.optString("despacho"));
-        procedimento.setRegime(procJson.optString("regime"));
-        procedimento.setIdTipoTramitacao(procJson.optString("idTipoTramitacao"));
+        procedimento.setSequencia(procJson.path("sequencia").asInt(0));
+        procedimento.setSiglaOrgao(texto(procJson, "siglaOrgao"));
+        procedimento.setDescricaoTramitacao(texto(procJson, "descricaoTramitacao"));
+        procedimento.setDespacho(texto(procJson, "despacho"));
+        procedimento.setRegime(texto(procJson, "regime"));
+        procedimento.setIdTipoTramitacao(texto(procJson, "idTipoTramitacao"));
 
         return procedimento;
     }
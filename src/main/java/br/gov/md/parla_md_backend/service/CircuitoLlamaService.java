@@ -0,0 +1,336 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.enums.EstadoCircuitoLlama;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker das chamadas ao Ollama.
+ *
+ * Avalia as últimas chamadas numa janela deslizante: quando a taxa de falhas ou de
+ * chamadas lentas ultrapassa o limite, o circuito abre e as chamadas seguintes são
+ * rejeitadas imediatamente com {@link LlamaIndisponivelException}, sem ocupar a fila
+ * do agendador. Após o período de abertura, algumas chamadas de teste decidem se o
+ * circuito fecha ou volta a abrir.
+ *
+ * Uma sondagem periódica de {@code /api/tags} nas instâncias mantém o estado de
+ * disponibilidade consultado pelo endpoint de saúde, abre o circuito quando nenhuma
+ * instância responde e antecipa o teste de recuperação quando alguma volta. A sondagem
+ * roda numa thread própria para não disputar o agendador do Spring com as
+ * sincronizações noturnas e o aquecimento dos modelos.
+ */
+@Slf4j
+@Service
+public class CircuitoLlamaService {
+
+    private final MeterRegistry meterRegistry;
+    private final RoteadorOllamaService roteador;
+
+    private final boolean habilitado;
+    private final int tamanhoJanela;
+    private final int minimoChamadas;
+    private final double limiteTaxaFalha;
+    private final double limiteTaxaLenta;
+    private final long limiteChamadaLentaMs;
+    private final long duracaoAbertoMs;
+    private final int chamadasSemiAberto;
+    private final int falhasSondagemParaAbrir;
+
+    // Janela circular com o resultado das últimas chamadas
+    private final boolean[] falhas;
+    private final boolean[] lentas;
+    private int posicao;
+    private int registradas;
+    private int totalFalhas;
+    private int totalLentas;
+
+    private volatile EstadoCircuitoLlama estado = EstadoCircuitoLlama.FECHADO;
+    private volatile long abertoAteMs;
+    private int testesEmAndamento;
+    private int testesBemSucedidos;
+
+    private volatile boolean disponivel = true;
+    private int falhasSondagemConsecutivas;
+
+    @Value("${ollama.circuito.intervalo-sondagem-ms:15000}")
+    private long intervaloSondagemMs;
+
+    private ScheduledExecutorService agendadorSondagem;
+
+    public CircuitoLlamaService(MeterRegistry meterRegistry,
+                                RoteadorOllamaService roteador,
+                                @Value("${ollama.circuito.habilitado:true}") boolean habilitado,
+                                @Value("${ollama.circuito.tamanho-janela:20}") int tamanhoJanela,
+                                @Value("${ollama.circuito.minimo-chamadas:10}") int minimoChamadas,
+                                @Value("${ollama.circuito.limite-taxa-falha:50}") double limiteTaxaFalha,
+                                @Value("${ollama.circuito.limite-taxa-lenta:80}") double limiteTaxaLenta,
+                                @Value("${ollama.circuito.limite-chamada-lenta-ms:45000}") long limiteChamadaLentaMs,
+                                @Value("${ollama.circuito.duracao-aberto-ms:30000}") long duracaoAbertoMs,
+                                @Value("${ollama.circuito.chamadas-semi-aberto:2}") int chamadasSemiAberto,
+                                @Value("${ollama.circuito.falhas-sondagem-para-abrir:2}") int falhasSondagemParaAbrir) {
+        this.meterRegistry = meterRegistry;
+        this.roteador = roteador;
+        this.habilitado = habilitado;
+        this.tamanhoJanela = tamanhoJanela;
+        this.minimoChamadas = Math.min(minimoChamadas, tamanhoJanela);
+        this.limiteTaxaFalha = limiteTaxaFalha;
+        this.limiteTaxaLenta = limiteTaxaLenta;
+        this.limiteChamadaLentaMs = limiteChamadaLentaMs;
+        this.duracaoAbertoMs = duracaoAbertoMs;
+        this.chamadasSemiAberto = chamadasSemiAberto;
+        this.falhasSondagemParaAbrir = falhasSondagemParaAbrir;
+        this.falhas = new boolean[tamanhoJanela];
+        this.lentas = new boolean[tamanhoJanela];
+
+        Gauge.builder("llama.circuito.estado", this, c -> c.getEstado().getCodigo())
+                .description("Estado do circuito do Ollama (0 fechado, 1 semiaberto, 2 aberto)")
+                .register(meterRegistry);
+        Gauge.builder("llama.circuito.taxa.falha", this, CircuitoLlamaService::getTaxaFalha)
+                .baseUnit("percent")
+                .register(meterRegistry);
+        Gauge.builder("llama.circuito.taxa.lenta", this, CircuitoLlamaService::getTaxaLenta)
+                .baseUnit("percent")
+                .register(meterRegistry);
+        Gauge.builder("llama.disponivel", this, c -> c.isDisponivel() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejeita de imediato enquanto o circuito estiver aberto. Feita antes da fila do
+     * agendador, para que a requisição não aguarde uma vaga só para ser recusada.
+     */
+    public void verificarPermissao() {
+        if (!habilitado || estado != EstadoCircuitoLlama.ABERTO) {
+            return;
+        }
+        long restanteMs = abertoAteMs - System.currentTimeMillis();
+        if (restanteMs > 0) {
+            throw rejeitar(restanteMs);
+        }
+    }
+
+    public <T> T executar(Supplier<T> chamada) {
+        return executar(chamada, true);
+    }
+
+    /**
+     * @param avaliarLentidao falso para chamadas cuja duração depende do tamanho da
+     *                        resposta, como o streaming, que não devem contar como lentas
+     */
+    public <T> T executar(Supplier<T> chamada, boolean avaliarLentidao) {
+        if (!habilitado) {
+            return chamada.get();
+        }
+
+        boolean teste = adquirirPermissao();
+        long inicioMs = System.currentTimeMillis();
+
+        try {
+            T resultado = chamada.get();
+            long duracaoMs = System.currentTimeMillis() - inicioMs;
+            registrarResultado(teste, false, avaliarLentidao && duracaoMs >= limiteChamadaLentaMs);
+            return resultado;
+
+        } catch (RuntimeException e) {
+            if (indicaFalhaDoOllama(e)) {
+                registrarResultado(teste, true, false);
+            } else {
+                liberarTeste(teste);
+            }
+            throw e;
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        agendadorSondagem = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("sondagem-ollama")
+                .daemon(true)
+                .factory());
+        agendadorSondagem.scheduleWithFixedDelay(this::sondarComSeguranca,
+                intervaloSondagemMs, intervaloSondagemMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (agendadorSondagem != null) {
+            agendadorSondagem.shutdownNow();
+        }
+    }
+
+    public void sondar() {
+        registrarSondagem(roteador.sondarInstancias());
+    }
+
+    private void sondarComSeguranca() {
+        // Uma exceção não tratada cancelaria as execuções seguintes
+        try {
+            sondar();
+        } catch (RuntimeException e) {
+            log.warn("Falha na sondagem das instâncias Ollama: {}", e.getMessage());
+        }
+    }
+
+    public boolean isDisponivel() {
+        return disponivel && estado != EstadoCircuitoLlama.ABERTO;
+    }
+
+    public EstadoCircuitoLlama getEstado() {
+        return estado;
+    }
+
+    public synchronized double getTaxaFalha() {
+        return registradas == 0 ? 0.0 : totalFalhas * 100.0 / registradas;
+    }
+
+    public synchronized double getTaxaLenta() {
+        return registradas == 0 ? 0.0 : totalLentas * 100.0 / registradas;
+    }
+
+    synchronized void registrarSondagem(boolean sucesso) {
+        disponivel = sucesso;
+
+        if (sucesso) {
+            falhasSondagemConsecutivas = 0;
+            if (habilitado && estado == EstadoCircuitoLlama.ABERTO) {
+                // Ollama voltou: libera as chamadas de teste sem esperar o fim do período
+                transicionar(EstadoCircuitoLlama.SEMI_ABERTO);
+            }
+            return;
+        }
+
+        meterRegistry.counter("llama.disponibilidade.erro").increment();
+        falhasSondagemConsecutivas++;
+
+        if (!habilitado) {
+            return;
+        }
+        if (estado == EstadoCircuitoLlama.ABERTO) {
+            // Mantém aberto enquanto a sondagem falhar, poupando chamadas de teste inúteis
+            abertoAteMs = Math.max(abertoAteMs, System.currentTimeMillis() + duracaoAbertoMs);
+        } else if (falhasSondagemConsecutivas >= falhasSondagemParaAbrir) {
+            abrir();
+        }
+    }
+
+    private synchronized boolean adquirirPermissao() {
+        if (estado == EstadoCircuitoLlama.ABERTO) {
+            long restanteMs = abertoAteMs - System.currentTimeMillis();
+            if (restanteMs > 0) {
+                throw rejeitar(restanteMs);
+            }
+            transicionar(EstadoCircuitoLlama.SEMI_ABERTO);
+        }
+
+        if (estado == EstadoCircuitoLlama.SEMI_ABERTO) {
+            if (testesEmAndamento + testesBemSucedidos >= chamadasSemiAberto) {
+                throw rejeitar(0);
+            }
+            testesEmAndamento++;
+            return true;
+        }
+
+        return false;
+    }
+
+    private synchronized void registrarResultado(boolean teste, boolean falha, boolean lenta) {
+        if (teste) {
+            testesEmAndamento = Math.max(0, testesEmAndamento - 1);
+            if (estado != EstadoCircuitoLlama.SEMI_ABERTO) {
+                return;
+            }
+            if (falha || lenta) {
+                abrir();
+            } else if (++testesBemSucedidos >= chamadasSemiAberto) {
+                fechar();
+            }
+            return;
+        }
+
+        // Resultados de chamadas iniciadas antes da abertura não alteram o circuito
+        if (estado != EstadoCircuitoLlama.FECHADO) {
+            return;
+        }
+
+        if (registradas == tamanhoJanela) {
+            totalFalhas -= falhas[posicao] ? 1 : 0;
+            totalLentas -= lentas[posicao] ? 1 : 0;
+        } else {
+            registradas++;
+        }
+        falhas[posicao] = falha;
+        lentas[posicao] = lenta;
+        totalFalhas += falha ? 1 : 0;
+        totalLentas += lenta ? 1 : 0;
+        posicao = (posicao + 1) % tamanhoJanela;
+
+        if (registradas >= minimoChamadas
+                && (getTaxaFalha() >= limiteTaxaFalha || getTaxaLenta() >= limiteTaxaLenta)) {
+            log.warn("Abrindo circuito do Ollama: {}% de falhas e {}% de chamadas lentas nas últimas {} chamadas",
+                    Math.round(getTaxaFalha()), Math.round(getTaxaLenta()), registradas);
+            abrir();
+        }
+    }
+
+    private synchronized void liberarTeste(boolean teste) {
+        if (teste) {
+            testesEmAndamento = Math.max(0, testesEmAndamento - 1);
+        }
+    }
+
+    private void abrir() {
+        abertoAteMs = System.currentTimeMillis() + duracaoAbertoMs;
+        transicionar(EstadoCircuitoLlama.ABERTO);
+    }
+
+    private void fechar() {
+        registradas = 0;
+        posicao = 0;
+        totalFalhas = 0;
+        totalLentas = 0;
+        transicionar(EstadoCircuitoLlama.FECHADO);
+    }
+
+    private void transicionar(EstadoCircuitoLlama novo) {
+        EstadoCircuitoLlama anterior = estado;
+        if (anterior == novo) {
+            return;
+        }
+
+        testesEmAndamento = 0;
+        testesBemSucedidos = 0;
+        estado = novo;
+
+        meterRegistry.counter("llama.circuito.transicoes", "de", anterior.name(), "para", novo.name()).increment();
+        log.info("Circuito do Ollama: {} -> {}", anterior.getDescricao(), novo.getDescricao());
+    }
+
+    private LlamaIndisponivelException rejeitar(long restanteMs) {
+        meterRegistry.counter("llama.circuito.rejeicoes").increment();
+        return LlamaIndisponivelException.circuitoAberto(Math.max(1, (restanteMs + 999) / 1000));
+    }
+
+    /**
+     * Erros de conexão e respostas 5xx indicam problema no Ollama; erros 4xx e falhas
+     * do próprio chamador (cliente SSE desconectado, por exemplo) não contam.
+     */
+    private static boolean indicaFalhaDoOllama(RuntimeException e) {
+        if (e instanceof RestClientResponseException resposta) {
+            return resposta.getStatusCode().is5xxServerError();
+        }
+        return e instanceof RestClientException;
+    }
+}
@@ -0,0 +1,105 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.exception.BuscaSemanticaException;
+import br.gov.md.parla_md_backend.exception.IAException;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gera embeddings pelo endpoint {@code /api/embed} do Ollama.
+ *
+ * As chamadas passam pelo mesmo agendador, circuito e roteamento das gerações, de modo
+ * que a indexação em lote não disputa o Ollama com as requisições interativas.
+ */
+@Slf4j
+@Service
+public class EmbeddingService {
+
+    private final RoteadorOllamaService roteador;
+    private final AgendadorLlamaService agendador;
+    private final CircuitoLlamaService circuito;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.embeddings.modelo:nomic-embed-text}")
+    private String modelo;
+
+    public EmbeddingService(RoteadorOllamaService roteador,
+                            AgendadorLlamaService agendador,
+                            CircuitoLlamaService circuito,
+                            MeterRegistry meterRegistry) {
+        this.roteador = roteador;
+        this.agendador = agendador;
+        this.circuito = circuito;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public String getModelo() {
+        return modelo;
+    }
+
+    public float[] gerar(String texto) {
+        return gerar(List.of(texto)).get(0);
+    }
+
+    /**
+     * Gera os embeddings dos textos numa única chamada, na mesma ordem.
+     */
+    public List<float[]> gerar(List<String> textos) {
+        if (textos.isEmpty()) {
+            return List.of();
+        }
+
+        long inicioMs = System.currentTimeMillis();
+        String resultado = MetricasLlamaService.RESULTADO_SUCESSO;
+
+        try {
+            circuito.verificarPermissao();
+
+            RespostaEmbedding resposta = agendador.executar(() -> circuito.executar(() ->
+                    roteador.executar(modelo, cliente -> cliente.post()
+                            .uri("/api/embed")
+                            .body(Map.of("model", modelo, "input", textos))
+                            .retrieve()
+                            .body(RespostaEmbedding.class))));
+
+            if (resposta == null || resposta.embeddings() == null || resposta.embeddings().length != textos.size()) {
+                resultado = MetricasLlamaService.RESULTADO_ERRO;
+                throw BuscaSemanticaException.embeddingInvalido(
+                        "esperados " + textos.size() + " vetores");
+            }
+
+            meterRegistry.counter("llama.embeddings.textos", "modelo", modelo).increment(textos.size());
+            return List.of(resposta.embeddings());
+
+        } catch (LlamaIndisponivelException e) {
+            resultado = MetricasLlamaService.RESULTADO_INDISPONIVEL;
+            throw e;
+
+        } catch (ResourceAccessException e) {
+            resultado = MetricasLlamaService.RESULTADO_INDISPONIVEL;
+            log.error("Ollama indisponível para embeddings: {}", e.getMessage());
+            throw LlamaIndisponivelException.erroConexao(e);
+
+        } catch (RestClientException e) {
+            resultado = MetricasLlamaService.RESULTADO_ERRO;
+            log.error("Erro ao gerar embeddings", e);
+            throw IAException.processingError(e.getMessage(), e);
+
+        } finally {
+            meterRegistry.timer("llama.embeddings.duracao", "modelo", modelo, "resultado", resultado)
+                    .record(System.currentTimeMillis() - inicioMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private record RespostaEmbedding(float[][] embeddings) {
+    }
+}
@@ -0,0 +1,112 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.EstadoSincronizacao;
+import br.gov.md.parla_md_backend.domain.dto.EstadoSincronizacaoDTO;
+import br.gov.md.parla_md_backend.repository.IEstadoSincronizacaoRepository;
+import br.gov.md.parla_md_backend.util.ArquivoRespostas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mantém as marcas d'água da sincronização incremental com as APIs legislativas.
+ *
+ * <p>Quem sincroniza lê a marca antes de buscar, guarda o instante em que começou e, só
+ * depois que tudo foi gravado, avança a marca para esse instante. O avanço é uma única
+ * atualização atômica com {@code $max}: execuções concorrentes ou atrasadas nunca fazem
+ * a marca voltar, e uma falha no meio da execução a deixa onde estava.</p>
+ *
+ * <p>Durante a reprodução do arquivo de respostas o estado não é alterado: as marcas
+ * continuam refletindo a última sincronização com a API de verdade.</p>
+ */
+@Slf4j
+@Service
+public class EstadoSincronizacaoService {
+
+    private final IEstadoSincronizacaoRepository estadoRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ArquivoRespostas arquivoRespostas;
+    private final Duration defasagemMaxima;
+
+    public EstadoSincronizacaoService(IEstadoSincronizacaoRepository estadoRepository,
+                                      MongoTemplate mongoTemplate,
+                                      ArquivoRespostas arquivoRespostas,
+                                      @Value("${sincronizacao.defasagem-maxima-horas:36}") long defasagemMaximaHoras) {
+        this.estadoRepository = estadoRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.arquivoRespostas = arquivoRespostas;
+        this.defasagemMaxima = Duration.ofHours(Math.max(1, defasagemMaximaHoras));
+    }
+
+    public Optional<LocalDateTime> obterMarcaDagua(String fonte, String recurso) {
+        return estadoRepository.findById(EstadoSincronizacao.chave(fonte, recurso))
+                .map(EstadoSincronizacao::getMarcaDagua);
+    }
+
+    /**
+     * @param marca instante em que a execução começou a buscar; tudo o que mudou antes
+     *              dele foi gravado
+     */
+    public EstadoSincronizacao avancarMarcaDagua(String fonte, String recurso, LocalDateTime marca, long itens) {
+        if (arquivoRespostas.reproduzindo()) {
+            // Dados reproduzidos do arquivo local não dizem nada sobre o estado atual da API
+            log.info("Reprodução do arquivo de respostas: marca d'água de {}:{} mantida", fonte, recurso);
+            return estadoRepository.findById(EstadoSincronizacao.chave(fonte, recurso)).orElse(null);
+        }
+
+        Update update = new Update()
+                .max("marcaDagua", marca)
+                .set("fonte", fonte)
+                .set("recurso", recurso)
+                .set("ultimoSucessoEm", LocalDateTime.now())
+                .set("itensUltimaExecucao", itens)
+                .unset("erro");
+
+        EstadoSincronizacao estado = atualizar(fonte, recurso, update);
+        log.info("Marca d'água de {}:{} em {} ({} item(ns) na última execução)",
+                fonte, recurso, estado.getMarcaDagua(), itens);
+        return estado;
+    }
+
+    /**
+     * Registra a falha sem mexer na marca, de modo que a próxima execução repita a janela.
+     */
+    public void registrarFalha(String fonte, String recurso, String erro) {
+        if (arquivoRespostas.reproduzindo()) {
+            log.warn("Reprodução de {}:{} falhou: {}", fonte, recurso, erro);
+            return;
+        }
+
+        Update update = new Update()
+                .set("fonte", fonte)
+                .set("recurso", recurso)
+                .set("ultimaFalhaEm", LocalDateTime.now())
+                .set("erro", erro);
+
+        atualizar(fonte, recurso, update);
+        log.warn("Sincronização de {}:{} falhou; marca d'água mantida: {}", fonte, recurso, erro);
+    }
+
+    public List<EstadoSincronizacaoDTO> listarDefasagem() {
+        LocalDateTime agora = LocalDateTime.now();
+        return estadoRepository.findAllByOrderByFonteAscRecursoAsc().stream()
+                .map(estado -> EstadoSincronizacaoDTO.from(estado, agora, defasagemMaxima))
+                .toList();
+    }
+
+    private EstadoSincronizacao atualizar(String fonte, String recurso, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(EstadoSincronizacao.chave(fonte, recurso)));
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), EstadoSincronizacao.class);
+    }
+}
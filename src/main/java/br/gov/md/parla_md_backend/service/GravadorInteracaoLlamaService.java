@@ -0,0 +1,187 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.InteracaoLlama;
+import br.gov.md.parla_md_backend.domain.enums.PoliticaExcessoAuditoria;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação assíncrona (write-behind) dos registros de auditoria das chamadas ao Llama.
+ *
+ * Os registros são acumulados em uma fila limitada e gravados em lote com insertMany,
+ * quando o lote enche ou o intervalo de flush expira. No encerramento da aplicação a
+ * fila é esvaziada antes da conexão com o MongoDB ser fechada.
+ */
+@Slf4j
+@Service
+public class GravadorInteracaoLlamaService {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final int tamanhoLote;
+    private final long intervaloFlushMs;
+    private final long timeoutEncerramentoMs;
+    private final PoliticaExcessoAuditoria politicaExcesso;
+
+    private final BlockingQueue<InteracaoLlama> fila;
+
+    private volatile boolean ativo;
+    private Thread gravador;
+
+    public GravadorInteracaoLlamaService(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${ai.auditoria.write-behind.habilitado:true}") boolean habilitado,
+            @Value("${ai.auditoria.write-behind.capacidade-fila:5000}") int capacidadeFila,
+            @Value("${ai.auditoria.write-behind.tamanho-lote:100}") int tamanhoLote,
+            @Value("${ai.auditoria.write-behind.intervalo-flush-ms:2000}") long intervaloFlushMs,
+            @Value("${ai.auditoria.write-behind.timeout-encerramento-ms:10000}") long timeoutEncerramentoMs,
+            @Value("${ai.auditoria.write-behind.politica-excesso:DESCARTAR_MAIS_ANTIGO}") PoliticaExcessoAuditoria politicaExcesso) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloFlushMs = intervaloFlushMs;
+        this.timeoutEncerramentoMs = timeoutEncerramentoMs;
+        this.politicaExcesso = politicaExcesso;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+
+        Gauge.builder("llama.auditoria.fila", fila, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado) {
+            log.info("Gravação write-behind de interações Llama desabilitada");
+            return;
+        }
+
+        ativo = true;
+        gravador = Thread.ofPlatform()
+                .name("gravador-interacoes-llama")
+                .daemon(true)
+                .start(this::executar);
+    }
+
+    public void registrar(InteracaoLlama interacao) {
+        if (!ativo) {
+            gravarLote(List.of(interacao));
+            return;
+        }
+
+        if (fila.offer(interacao)) {
+            return;
+        }
+
+        switch (politicaExcesso) {
+            case DESCARTAR_MAIS_ANTIGO -> {
+                // Outro produtor pode ocupar a vaga liberada; nesse caso o novo registro é descartado
+                if (fila.poll() != null) {
+                    registrarDescarte();
+                }
+                if (!fila.offer(interacao)) {
+                    registrarDescarte();
+                }
+            }
+            case DESCARTAR_NOVO -> registrarDescarte();
+            case GRAVAR_SINCRONO -> gravarLote(List.of(interacao));
+        }
+    }
+
+    public int getTamanhoFila() {
+        return fila.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (!ativo) {
+            return;
+        }
+
+        // Sem interrupção: o gravador percebe o encerramento no próximo poll e esvazia a fila,
+        // evitando abortar um insertMany em andamento
+        ativo = false;
+
+        try {
+            gravador.join(timeoutEncerramentoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!fila.isEmpty()) {
+            log.warn("{} interação(ões) Llama não gravada(s) no encerramento", fila.size());
+        }
+    }
+
+    private void executar() {
+        List<InteracaoLlama> lote = new ArrayList<>(tamanhoLote);
+
+        try {
+            while (ativo) {
+                InteracaoLlama primeira = fila.poll(intervaloFlushMs, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+
+                lote.add(primeira);
+                long limiteNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloFlushMs);
+
+                while (lote.size() < tamanhoLote) {
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                    long restanteNs = limiteNs - System.nanoTime();
+                    if (lote.size() >= tamanhoLote || restanteNs <= 0) {
+                        break;
+                    }
+
+                    InteracaoLlama proxima = fila.poll(restanteNs, TimeUnit.NANOSECONDS);
+                    if (proxima == null) {
+                        break;
+                    }
+                    lote.add(proxima);
+                }
+
+                gravarLote(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        fila.drainTo(lote);
+        for (int inicio = 0; inicio < lote.size(); inicio += tamanhoLote) {
+            gravarLote(lote.subList(inicio, Math.min(inicio + tamanhoLote, lote.size())));
+        }
+    }
+
+    private void gravarLote(List<InteracaoLlama> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        try {
+            mongoTemplate.insert(new ArrayList<>(lote), InteracaoLlama.class);
+            meterRegistry.counter("llama.auditoria.gravados").increment(lote.size());
+        } catch (Exception e) {
+            meterRegistry.counter("llama.auditoria.falhas").increment(lote.size());
+            log.error("Falha ao gravar lote de {} interação(ões) Llama: {}", lote.size(), e.getMessage());
+        }
+    }
+
+    private void registrarDescarte() {
+        meterRegistry.counter("llama.auditoria.descartes", "politica", politicaExcesso.name()).increment();
+    }
+}
@@ -0,0 +1,247 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.config.WorkflowConfig;
+import br.gov.md.parla_md_backend.domain.JobAnaliseIA;
+import br.gov.md.parla_md_backend.domain.dto.JobAnaliseIADTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarAnaliseImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarAnaliseParlamentarDTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarPrevisaoDTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarSumarioDTO;
+import br.gov.md.parla_md_backend.domain.enums.StatusJobIA;
+import br.gov.md.parla_md_backend.domain.enums.TipoJobIA;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import br.gov.md.parla_md_backend.exception.RecursoNaoEncontradoException;
+import br.gov.md.parla_md_backend.messaging.RabbitMQProducer;
+import br.gov.md.parla_md_backend.repository.IJobAnaliseIARepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pipeline assíncrono de análises de IA.
+ *
+ * Os controllers registram um {@link JobAnaliseIA} e publicam seu id na fila
+ * parlamd.analise.llm.jobs.queue; os workers executam o pipeline do serviço correspondente
+ * e gravam o resultado no próprio job, consultado por polling.
+ * Falhas de disponibilidade do LLM são reagendadas com backoff exponencial pelas filas de
+ * retentativa, uma por nível de atraso; esgotadas as tentativas, a mensagem segue para a
+ * DLQ, onde o job é marcado como falha para que o polling não o veja pendente.
+ * A execução ocorre com prioridade de lote no agendador do LLM, abaixo das
+ * requisições interativas.
+ */
+@Slf4j
+@Service
+public class JobAnaliseIAService {
+
+    private final IJobAnaliseIARepository jobRepository;
+    private final RabbitMQProducer rabbitMQProducer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final SumarizacaoService sumarizacaoService;
+    private final PrevisaoService previsaoService;
+    private final AnaliseImpactoService analiseImpactoService;
+    private final AnaliseParlamentarService analiseParlamentarService;
+
+    @Value("${ai.jobs.max-tentativas:3}")
+    private int maxTentativas;
+
+    @Value("${ai.jobs.backoff-inicial-ms:30000}")
+    private long backoffInicialMs;
+
+    @Value("${ai.jobs.backoff-maximo-ms:600000}")
+    private long backoffMaximoMs;
+
+    @Value("${ai.jobs.retencao-dias:7}")
+    private int retencaoDias;
+
+    public JobAnaliseIAService(IJobAnaliseIARepository jobRepository,
+                               RabbitMQProducer rabbitMQProducer,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               SumarizacaoService sumarizacaoService,
+                               PrevisaoService previsaoService,
+                               AnaliseImpactoService analiseImpactoService,
+                               AnaliseParlamentarService analiseParlamentarService) {
+        this.jobRepository = jobRepository;
+        this.rabbitMQProducer = rabbitMQProducer;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.sumarizacaoService = sumarizacaoService;
+        this.previsaoService = previsaoService;
+        this.analiseImpactoService = analiseImpactoService;
+        this.analiseParlamentarService = analiseParlamentarService;
+    }
+
+    public JobAnaliseIADTO enfileirar(TipoJobIA tipo, Object solicitacao, String solicitanteId) {
+        LocalDateTime agora = LocalDateTime.now();
+
+        JobAnaliseIA job = jobRepository.save(JobAnaliseIA.builder()
+                .tipo(tipo)
+                .status(StatusJobIA.PENDENTE)
+                .parametros(objectMapper.convertValue(solicitacao, new TypeReference<Map<String, Object>>() {}))
+                .solicitanteId(solicitanteId)
+                .maxTentativas(maxTentativas)
+                .backoffInicialMs(backoffInicialMs)
+                .dataCriacao(agora)
+                .dataExpiracao(agora.plusDays(retencaoDias))
+                .build());
+
+        rabbitMQProducer.sendMessage(
+                WorkflowConfig.ANALISE_LLM_EXCHANGE,
+                WorkflowConfig.ANALISE_LLM_ROUTING_KEY,
+                job.getId()
+        );
+
+        meterRegistry.counter("ia.jobs.enfileirados", "tipo", tipo.name()).increment();
+        log.info("Job de {} enfileirado: {}", tipo, job.getId());
+
+        return JobAnaliseIADTO.from(job);
+    }
+
+    public JobAnaliseIADTO buscarPorId(String jobId) {
+        return jobRepository.findById(jobId)
+                .map(JobAnaliseIADTO::from)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Job de análise não encontrado: " + jobId));
+    }
+
+    public Page<JobAnaliseIADTO> buscarPorSolicitante(String solicitanteId, Pageable pageable) {
+        return jobRepository.findBySolicitanteIdOrderByDataCriacaoDesc(solicitanteId, pageable)
+                .map(JobAnaliseIADTO::from);
+    }
+
+    @RabbitListener(queues = {WorkflowConfig.ANALISE_LLM_QUEUE, WorkflowConfig.ANALISE_LLM_LEGACY_QUEUE},
+            concurrency = "${ai.jobs.workers:2}")
+    public void processarJob(String jobId) {
+        JobAnaliseIA job = jobRepository.findById(jobId).orElse(null);
+
+        if (job == null) {
+            log.warn("Job de análise inexistente recebido da fila: {}", jobId);
+            return;
+        }
+
+        if (job.getStatus().isFinalizado()) {
+            log.debug("Job {} já finalizado com status {}", jobId, job.getStatus());
+            return;
+        }
+
+        job.setStatus(StatusJobIA.EM_PROCESSAMENTO);
+        job.setTentativas(job.getTentativas() + 1);
+        job.setDataInicio(LocalDateTime.now());
+        job.setProximaTentativa(null);
+        jobRepository.save(job);
+
+        try {
+            Object resultado = AgendadorLlamaService.comoLote(() -> executar(job));
+
+            job.setResultado(objectMapper.convertValue(resultado, Object.class));
+            job.setStatus(StatusJobIA.CONCLUIDO);
+            job.setMensagemErro(null);
+            job.setDataConclusao(LocalDateTime.now());
+            jobRepository.save(job);
+
+            meterRegistry.counter("ia.jobs.concluidos", "tipo", job.getTipo().name()).increment();
+            log.info("Job {} ({}) concluído na tentativa {}", jobId, job.getTipo(), job.getTentativas());
+
+        } catch (Exception e) {
+            tratarFalha(job, e);
+        }
+    }
+
+    @RabbitListener(queues = WorkflowConfig.ANALISE_LLM_DLQ)
+    public void processarJobDescartado(String jobId) {
+        JobAnaliseIA job = jobRepository.findById(jobId).orElse(null);
+
+        if (job == null || job.getStatus().isFinalizado()) {
+            return;
+        }
+
+        StatusJobIA statusAnterior = job.getStatus();
+        job.setStatus(StatusJobIA.FALHA);
+        if (job.getMensagemErro() == null) {
+            job.setMensagemErro("Job descartado da fila antes de ser processado");
+        }
+        job.setDataConclusao(LocalDateTime.now());
+        jobRepository.save(job);
+
+        meterRegistry.counter("ia.jobs.falhas", "tipo", job.getTipo().name()).increment();
+        log.error("Job {} ({}) descartado da fila com status {}", jobId, job.getTipo(), statusAnterior);
+    }
+
+    private Object executar(JobAnaliseIA job) {
+        Map<String, Object> parametros = job.getParametros();
+
+        return switch (job.getTipo()) {
+            case SUMARIZACAO -> sumarizacaoService.sumarizar(
+                    objectMapper.convertValue(parametros, SolicitarSumarioDTO.class));
+            case PREVISAO -> previsaoService.prever(
+                    objectMapper.convertValue(parametros, SolicitarPrevisaoDTO.class));
+            case ANALISE_IMPACTO -> analiseImpactoService.analisar(
+                    objectMapper.convertValue(parametros, SolicitarAnaliseImpactoDTO.class));
+            case ANALISE_PARLAMENTAR -> analiseParlamentarService.analisar(
+                    objectMapper.convertValue(parametros, SolicitarAnaliseParlamentarDTO.class));
+        };
+    }
+
+    private void tratarFalha(JobAnaliseIA job, Exception erro) {
+        job.setMensagemErro(erro.getMessage());
+
+        if (isRecuperavel(erro) && job.getTentativas() < job.getMaxTentativas()) {
+            long atrasoMs = nivelRetentativa(Math.min(
+                    job.getBackoffInicialMs() * (1L << (job.getTentativas() - 1)),
+                    backoffMaximoMs));
+
+            job.setStatus(StatusJobIA.AGUARDANDO_RETENTATIVA);
+            job.setProximaTentativa(LocalDateTime.now().plusNanos(atrasoMs * 1_000_000));
+            jobRepository.save(job);
+
+            rabbitMQProducer.sendMessage("", WorkflowConfig.filaRetentativa(atrasoMs), job.getId());
+
+            meterRegistry.counter("ia.jobs.retentativas", "tipo", job.getTipo().name()).increment();
+            log.warn("Job {} falhou (tentativa {}/{}), nova tentativa em {}ms: {}",
+                    job.getId(), job.getTentativas(), job.getMaxTentativas(), atrasoMs, erro.getMessage());
+            return;
+        }
+
+        job.setStatus(StatusJobIA.FALHA);
+        job.setDataConclusao(LocalDateTime.now());
+        jobRepository.save(job);
+
+        meterRegistry.counter("ia.jobs.falhas", "tipo", job.getTipo().name()).increment();
+        log.error("Job {} falhou definitivamente após {} tentativa(s): {}",
+                job.getId(), job.getTentativas(), erro.getMessage());
+
+        throw new AmqpRejectAndDontRequeueException("Job " + job.getId() + " encaminhado à DLQ", erro);
+    }
+
+    /**
+     * Menor nível de fila de retentativa que cobre o atraso. Jobs criados com outro
+     * backoff inicial, antes de uma mudança de configuração, esperam um pouco mais.
+     */
+    private long nivelRetentativa(long atrasoMs) {
+        List<Long> niveis = WorkflowConfig.niveisRetentativa(backoffInicialMs, backoffMaximoMs);
+        return niveis.stream()
+                .filter(nivel -> nivel >= atrasoMs)
+                .findFirst()
+                .orElse(niveis.get(niveis.size() - 1));
+    }
+
+    private boolean isRecuperavel(Throwable erro) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (atual instanceof LlamaIndisponivelException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
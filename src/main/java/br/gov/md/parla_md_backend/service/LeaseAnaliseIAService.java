@@ -0,0 +1,67 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.LeaseAnaliseIA;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Leases em MongoDB para coalescer análises de IA entre instâncias.
+ *
+ * A aquisição é um upsert condicionado a lease inexistente, expirado ou do próprio dono;
+ * se outra instância detém um lease válido, o upsert colide na chave e a aquisição falha.
+ */
+@Slf4j
+@Service
+public class LeaseAnaliseIAService {
+
+    private final MongoTemplate mongoTemplate;
+    private final String idInstancia;
+
+    public LeaseAnaliseIAService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.idInstancia = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    public boolean adquirir(String chave, Duration duracao) {
+        LocalDateTime agora = LocalDateTime.now();
+
+        Query query = Query.query(Criteria.where("_id").is(chave)
+                .orOperator(
+                        Criteria.where("expiraEm").lt(agora),
+                        Criteria.where("dono").is(idInstancia)));
+
+        Update update = new Update()
+                .set("dono", idInstancia)
+                .set("adquiridoEm", agora)
+                .set("expiraEm", agora.plus(duracao));
+
+        try {
+            mongoTemplate.upsert(query, update, LeaseAnaliseIA.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("Lease {} detido por outra instância", chave);
+            return false;
+        }
+    }
+
+    public boolean existeLeaseValido(String chave) {
+        Query query = Query.query(Criteria.where("_id").is(chave)
+                .and("expiraEm").gte(LocalDateTime.now()));
+        return mongoTemplate.exists(query, LeaseAnaliseIA.class);
+    }
+
+    public void liberar(String chave) {
+        Query query = Query.query(Criteria.where("_id").is(chave).and("dono").is(idInstancia));
+        mongoTemplate.remove(query, LeaseAnaliseIA.class);
+    }
+}
@@ -1,82 +1,139 @@
 package br.gov.md.parla_md_backend.service;
 
-import br.gov.md.parla_md_backend.config.OllamaConfig;
 import br.gov.md.parla_md_backend.domain.InteracaoLlama;
 import br.gov.md.parla_md_backend.domain.dto.RequisicaoLlamaDTO;
 import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
 import br.gov.md.parla_md_backend.exception.IAException;
 import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import br.gov.md.parla_md_backend.exception.LlamaSobrecarregadoException;
 import br.gov.md.parla_md_backend.repository.IInteracaoLlamaRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import br.gov.md.parla_md_backend.util.GeradorEsquemaJson;
+import br.gov.md.parla_md_backend.util.LeitorJsonTolerante;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.micrometer.core.instrument.MeterRegistry;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
-
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 public class LlamaService {
 
-    private final RestClient restClient;
+    private static final String FORMATO_JSON = "json";
+
+    private final RoteadorOllamaService roteador;
     private final ObjectMapper objectMapper;
     private final IInteracaoLlamaRepository interacaoRepository;
-    private final MeterRegistry meterRegistry;
+    private final CacheRespostaLlamaService cacheRespostas;
+    private final AgendadorLlamaService agendador;
+    private final GravadorInteracaoLlamaService gravadorInteracoes;
+    private final MetricasLlamaService metricasLlama;
+    private final CircuitoLlamaService circuito;
+    private final GeradorEsquemaJson esquemas;
 
     @Value("${ollama.model:llama3.2:3b}")
     private String modeloPadrao;
 
+    @Value("${ollama.keep-alive:30m}")
+    private String keepAlive;
+
     @Value("${ollama.temperature:0.7}")
     private Double temperaturePadrao;
 
     @Value("${cache.llm.ttl:3600}")
     private int cacheTtlSegundos;
 
-    // Injeção via construtor com configuração do RestClient
-    public LlamaService(RestClient.Builder restClientBuilder,
-                        OllamaConfig ollamaConfig,
+    @Value("${ai.saida-estruturada.habilitado:true}")
+    private boolean saidaEstruturadaHabilitada;
+
+    @Value("${ai.saida-estruturada.reparo-habilitado:true}")
+    private boolean reparoHabilitado;
+
+    public LlamaService(RoteadorOllamaService roteador,
                         ObjectMapper objectMapper,
                         IInteracaoLlamaRepository interacaoRepository,
-                        MeterRegistry meterRegistry) {
-
-        this.restClient = restClientBuilder
-                .baseUrl(ollamaConfig.getOllamaUrl())
-                .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
-                .build();
+                        CacheRespostaLlamaService cacheRespostas,
+                        AgendadorLlamaService agendador,
+                        GravadorInteracaoLlamaService gravadorInteracoes,
+                        MetricasLlamaService metricasLlama,
+                        CircuitoLlamaService circuito) {
 
+        this.roteador = roteador;
         this.objectMapper = objectMapper;
         this.interacaoRepository = interacaoRepository;
-        this.meterRegistry = meterRegistry;
+        this.cacheRespostas = cacheRespostas;
+        this.agendador = agendador;
+        this.gravadorInteracoes = gravadorInteracoes;
+        this.metricasLlama = metricasLlama;
+        this.circuito = circuito;
+        this.esquemas = new GeradorEsquemaJson(objectMapper);
     }
 
     public RespostaLlamaDTO enviarRequisicao(String promptUsuario) {
         return enviarRequisicao(promptUsuario, null, false);
     }
 
-    @Retryable(
-            value = {ResourceAccessException.class, RestClientException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    @Transactional
     public RespostaLlamaDTO enviarRequisicao(
             String promptUsuario,
             String promptSistema,
             boolean respostaJson) {
+        return enviarRequisicao(promptUsuario, promptSistema, respostaJson, null, false);
+    }
+
+    /**
+     * @param tipoAnalise identifica o tipo de análise para o TTL do cache (cache.llm.ttl-por-tipo)
+     * @param ignorarCache quando verdadeiro, não consulta o cache, mas armazena a nova resposta
+     */
+    @Transactional
+    public RespostaLlamaDTO enviarRequisicao(
+            String promptUsuario,
+            String promptSistema,
+            boolean respostaJson,
+            String tipoAnalise,
+            boolean ignorarCache) {
+        return enviar(promptUsuario, promptSistema, respostaJson ? FORMATO_JSON : null, tipoAnalise, ignorarCache);
+    }
+
+    /**
+     * Requisição com saída estruturada: o JSON Schema da classe de resposta é enviado no
+     * campo {@code format}, e o Ollama restringe a geração a essa estrutura.
+     */
+    @Transactional
+    public RespostaLlamaDTO enviarRequisicao(
+            String promptUsuario,
+            String promptSistema,
+            Class<?> classeResposta,
+            String tipoAnalise,
+            boolean ignorarCache) {
+        Object formato = saidaEstruturadaHabilitada ? esquemas.gerar(classeResposta) : FORMATO_JSON;
+        return enviar(promptUsuario, promptSistema, formato, tipoAnalise, ignorarCache);
+    }
+
+    private RespostaLlamaDTO enviar(
+            String promptUsuario,
+            String promptSistema,
+            Object formato,
+            String tipoAnalise,
+            boolean ignorarCache) {
 
         long inicioMs = System.currentTimeMillis();
 
@@ -86,28 +143,56 @@ public class LlamaService {
             RequisicaoLlamaDTO requisicao = construirRequisicao(
                     promptUsuario,
                     promptSistema,
-                    respostaJson
+                    formato,
+                    false
             );
 
+            String chaveCache = cacheRespostas.calcularChave(requisicao);
+
+            if (!ignorarCache) {
+                Optional<RespostaLlamaDTO> emCache = cacheRespostas.buscar(chaveCache);
+                if (emCache.isPresent()) {
+                    log.debug("Resposta Llama obtida do cache: {}", chaveCache);
+                    metricasLlama.registrarChamada(modeloPadrao, tipoAnalise, MetricasLlamaService.CACHE_ACERTO,
+                            MetricasLlamaService.RESULTADO_SUCESSO, System.currentTimeMillis() - inicioMs, emCache.get());
+                    return emCache.get();
+                }
+            }
+
+            circuito.verificarPermissao();
+
             log.info("Enviando requisição Llama: {} caracteres", promptUsuario.length());
 
-            RespostaLlamaDTO resposta = executarRequisicao(requisicao);
+            RespostaLlamaDTO resposta = agendador.executar(() -> circuito.executar(() -> executarRequisicao(requisicao)));
 
             validarResposta(resposta);
 
             long duracaoMs = System.currentTimeMillis() - inicioMs;
 
-            registrarSucesso(requisicao, resposta, duracaoMs);
-            registrarMetrica("llama.requisicao.sucesso", duracaoMs);
+            registrarSucesso(requisicao, resposta, duracaoMs, null, chaveCache, tipoAnalise);
+            cacheRespostas.armazenar(chaveCache, resposta, tipoAnalise);
+            metricasLlama.registrarChamada(modeloPadrao, tipoAnalise, MetricasLlamaService.CACHE_FALHA,
+                    MetricasLlamaService.RESULTADO_SUCESSO, duracaoMs, resposta);
 
             log.info("Resposta Llama recebida: {} tokens", resposta.getEvalCount());
 
             return resposta;
 
+        } catch (LlamaSobrecarregadoException e) {
+            registrarFalhaMetrica(tipoAnalise, MetricasLlamaService.RESULTADO_REJEITADO,
+                    System.currentTimeMillis() - inicioMs);
+            throw e;
+
+        } catch (LlamaIndisponivelException e) {
+            // Circuito aberto: rejeitada sem chegar ao Ollama
+            registrarFalhaMetrica(tipoAnalise, MetricasLlamaService.RESULTADO_INDISPONIVEL,
+                    System.currentTimeMillis() - inicioMs);
+            throw e;
+
         } catch (ResourceAccessException e) {
             long duracaoMs = System.currentTimeMillis() - inicioMs;
             registrarFalha(promptUsuario, promptSistema, e.getMessage(), duracaoMs);
-            registrarMetrica("llama.requisicao.indisponivel", duracaoMs);
+            registrarFalhaMetrica(tipoAnalise, MetricasLlamaService.RESULTADO_INDISPONIVEL, duracaoMs);
 
             log.error("Ollama indisponível: {}", e.getMessage());
             throw LlamaIndisponivelException.erroConexao(e);
@@ -115,56 +200,216 @@ public class LlamaService {
         } catch (RestClientException e) {
             long duracaoMs = System.currentTimeMillis() - inicioMs;
             registrarFalha(promptUsuario, promptSistema, e.getMessage(), duracaoMs);
-            registrarMetrica("llama.requisicao.erro", duracaoMs);
+            registrarFalhaMetrica(tipoAnalise, MetricasLlamaService.RESULTADO_ERRO, duracaoMs);
 
             log.error("Erro ao comunicar com Llama", e);
             throw IAException.processingError(e.getMessage(), e);
         }
     }
 
-    // Sobrecarga para tipos simples (compatibilidade)
+    /**
+     * Envia a requisição em modo streaming: os fragmentos NDJSON do Ollama são
+     * repassados ao consumidor à medida que chegam. Ao final do stream a interação
+     * é persistida e a resposta agregada é retornada.
+     *
+     * Não há retentativa automática, pois fragmentos já entregues não podem ser desfeitos.
+     */
+    public RespostaLlamaDTO enviarRequisicaoStream(
+            String promptUsuario,
+            String promptSistema,
+            boolean respostaJson,
+            Consumer<String> consumidorFragmentos) {
+
+        long inicioMs = System.currentTimeMillis();
+
+        try {
+            validarPrompt(promptUsuario);
+
+            RequisicaoLlamaDTO requisicao = construirRequisicao(
+                    promptUsuario,
+                    promptSistema,
+                    respostaJson ? FORMATO_JSON : null,
+                    true
+            );
+
+            circuito.verificarPermissao();
+
+            log.info("Enviando requisição Llama em streaming: {} caracteres", promptUsuario.length());
+
+            ResultadoStream resultado = agendador.executar(() -> circuito.executar(() ->
+                    roteador.executarStream(requisicao.getModel(), cliente -> cliente.post()
+                            .uri("/api/chat")
+                            .body(requisicao)
+                            .exchange((req, response) -> {
+                                if (response.getStatusCode().isError()) {
+                                    // Com o status na exceção, erros 4xx não contam como falha do Ollama no circuito
+                                    throw new RestClientResponseException(
+                                            "Ollama retornou status " + response.getStatusCode().value(),
+                                            response.getStatusCode(), response.getStatusText(),
+                                            response.getHeaders(), null, null);
+                                }
+                                return lerStream(response.getBody(), inicioMs, consumidorFragmentos);
+                            })), false));
+
+            RespostaLlamaDTO resposta = resultado.resposta();
+            validarResposta(resposta);
+
+            long duracaoMs = System.currentTimeMillis() - inicioMs;
+
+            String chaveCache = cacheRespostas.calcularChave(requisicao);
+            registrarSucesso(requisicao, resposta, duracaoMs, resultado.tempoPrimeiroTokenMs(), chaveCache, null);
+            cacheRespostas.armazenar(chaveCache, resposta, null);
+            metricasLlama.registrarPrimeiroToken(modeloPadrao, resultado.tempoPrimeiroTokenMs());
+            metricasLlama.registrarChamada(modeloPadrao, null, MetricasLlamaService.CACHE_FALHA,
+                    MetricasLlamaService.RESULTADO_SUCESSO, duracaoMs, resposta);
+
+            log.info("Stream Llama concluído: {} tokens, primeiro token em {}ms, total {}ms",
+                    resposta.getEvalCount(), resultado.tempoPrimeiroTokenMs(), duracaoMs);
+
+            return resposta;
+
+        } catch (LlamaSobrecarregadoException e) {
+            registrarFalhaMetrica(null, MetricasLlamaService.RESULTADO_REJEITADO,
+                    System.currentTimeMillis() - inicioMs);
+            throw e;
+
+        } catch (LlamaIndisponivelException e) {
+            // Circuito aberto: rejeitada sem chegar ao Ollama
+            registrarFalhaMetrica(null, MetricasLlamaService.RESULTADO_INDISPONIVEL,
+                    System.currentTimeMillis() - inicioMs);
+            throw e;
+
+        } catch (UncheckedIOException e) {
+            long duracaoMs = System.currentTimeMillis() - inicioMs;
+            registrarFalha(promptUsuario, promptSistema, "Stream interrompido: " + e.getMessage(), duracaoMs);
+            registrarFalhaMetrica(null, MetricasLlamaService.RESULTADO_INTERROMPIDO, duracaoMs);
+
+            log.warn("Stream Llama interrompido: {}", e.getMessage());
+            throw IAException.processingError("Stream interrompido", e);
+
+        } catch (ResourceAccessException e) {
+            long duracaoMs = System.currentTimeMillis() - inicioMs;
+            registrarFalha(promptUsuario, promptSistema, e.getMessage(), duracaoMs);
+            registrarFalhaMetrica(null, MetricasLlamaService.RESULTADO_INDISPONIVEL, duracaoMs);
+
+            log.error("Ollama indisponível: {}", e.getMessage());
+            throw LlamaIndisponivelException.erroConexao(e);
+
+        } catch (RestClientException e) {
+            long duracaoMs = System.currentTimeMillis() - inicioMs;
+            registrarFalha(promptUsuario, promptSistema, e.getMessage(), duracaoMs);
+            registrarFalhaMetrica(null, MetricasLlamaService.RESULTADO_ERRO, duracaoMs);
+
+            log.error("Erro ao comunicar com Llama em streaming", e);
+            throw IAException.processingError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Converte a resposta na classe informada. A leitura tolera cercas de markdown e JSON
+     * truncado; listas ausentes viram listas vazias e os demais campos ausentes, nulos.
+     */
     public <T> T extrairJson(RespostaLlamaDTO resposta, Class<T> classe) {
-        return processarExtracaoJson(resposta, conteudo -> objectMapper.readValue(conteudo, classe));
+        ObjectNode objeto = lerObjeto(resposta);
+        esquemas.preencherPadroes(classe, objeto);
+        return converter(objeto, no -> objectMapper.treeToValue(no, classe));
     }
 
-    // Nova sobrecarga segura para Generics (List, Map, etc)
     public <T> T extrairJson(RespostaLlamaDTO resposta, TypeReference<T> typeReference) {
-        return processarExtracaoJson(resposta, conteudo -> objectMapper.readValue(conteudo, typeReference));
+        JsonNode no = ler(resposta).no();
+        return converter(no, n -> objectMapper.readerFor(typeReference).readValue(n));
     }
 
-    @FunctionalInterface
-    private interface JsonParser<T> {
-        T parse(String content) throws JsonProcessingException;
+    /**
+     * Como {@link #extrairJson(RespostaLlamaDTO, Class)}, mas quando a resposta chegou sem
+     * alguns campos, por ter sido truncada, pede ao modelo somente esses campos, com o
+     * esquema restrito a eles, em vez de repetir a geração inteira.
+     */
+    public <T> T extrairJsonCompletando(RespostaLlamaDTO resposta, Class<T> classe,
+                                        String promptUsuario, String promptSistema, String tipoAnalise) {
+        ObjectNode objeto = lerObjeto(resposta);
+        List<String> ausentes = esquemas.camposAusentes(classe, objeto);
+
+        if (!ausentes.isEmpty() && reparoHabilitado) {
+            completarCampos(objeto, ausentes, classe, promptUsuario, promptSistema, tipoAnalise);
+        }
+
+        esquemas.preencherPadroes(classe, objeto);
+        return converter(objeto, no -> objectMapper.treeToValue(no, classe));
     }
 
-    private <T> T processarExtracaoJson(RespostaLlamaDTO resposta, JsonParser<T> parser) {
+    private void completarCampos(ObjectNode objeto, List<String> ausentes, Class<?> classe,
+                                 String promptUsuario, String promptSistema, String tipoAnalise) {
+        log.info("Resposta JSON sem os campos {}; solicitando apenas esses campos", ausentes);
+
+        String prompt = promptUsuario + "\n\n"
+                + "Uma resposta anterior a esta solicitação foi interrompida. Campos já obtidos:\n"
+                + objeto + "\n\n"
+                + "Responda APENAS com um JSON contendo os campos que faltaram: " + String.join(", ", ausentes);
+
         try {
-            String conteudo = extrairConteudo(resposta);
-            String conteudoLimpo = limparMarkdown(conteudo);
-            return parser.parse(conteudoLimpo);
-        } catch (JsonProcessingException e) {
-            log.error("Erro ao parsear JSON: {}", resposta.getMessage().getContent(), e);
-            throw IAException.respostaInvalida("JSON malformado ou incompatível com o tipo esperado");
+            RespostaLlamaDTO complemento = enviar(prompt, promptSistema, esquemas.gerarParcial(classe, ausentes),
+                    tipoAnalise, false);
+            ObjectNode campos = lerObjeto(complemento);
+
+            int obtidos = 0;
+            for (String campo : ausentes) {
+                JsonNode valor = campos.get(campo);
+                if (valor != null && !valor.isNull()) {
+                    objeto.set(campo, valor);
+                    obtidos++;
+                }
+            }
+            metricasLlama.registrarReparoJson(tipoAnalise, obtidos == ausentes.size()
+                    ? MetricasLlamaService.RESULTADO_SUCESSO : MetricasLlamaService.RESULTADO_ERRO);
+
+        } catch (RuntimeException e) {
+            // Segue com os valores padrão: um resultado parcial vale mais que uma falha
+            log.warn("Não foi possível completar os campos {}: {}", ausentes, e.getMessage());
+            metricasLlama.registrarReparoJson(tipoAnalise, MetricasLlamaService.RESULTADO_ERRO);
         }
     }
 
-    @Cacheable(value = "llama-disponibilidade", key = "'status'")
-    public boolean verificarDisponibilidade() {
+    private LeitorJsonTolerante.Leitura ler(RespostaLlamaDTO resposta) {
+        LeitorJsonTolerante.Leitura leitura = LeitorJsonTolerante.ler(extrairConteudo(resposta));
+        if (leitura.no() == null) {
+            log.error("Resposta sem JSON: {}", extrairConteudo(resposta));
+            throw IAException.respostaInvalida("Resposta não contém JSON");
+        }
+        if (!leitura.completa()) {
+            log.warn("JSON truncado na resposta do Llama; estruturas abertas foram fechadas");
+        }
+        return leitura;
+    }
+
+    private ObjectNode lerObjeto(RespostaLlamaDTO resposta) {
+        if (ler(resposta).no() instanceof ObjectNode objeto && !objeto.isEmpty()) {
+            return objeto;
+        }
+        throw IAException.respostaInvalida("JSON sem nenhum campo do objeto esperado");
+    }
+
+    @FunctionalInterface
+    private interface ConversorJson<T> {
+        T converter(JsonNode no) throws IOException;
+    }
+
+    private <T> T converter(JsonNode no, ConversorJson<T> conversor) {
         try {
-            return restClient.get()
-                    .uri("/api/tags")
-                    .retrieve()
-                    .toBodilessEntity()
-                    .getStatusCode()
-                    .is2xxSuccessful();
-
-        } catch (Exception e) {
-            log.warn("Ollama indisponível: {}", e.getMessage());
-            registrarMetrica("llama.disponibilidade.erro", 1);
-            return false;
+            return conversor.converter(no);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Erro ao converter JSON: {}", no, e);
+            throw IAException.respostaInvalida("JSON incompatível com o tipo esperado");
         }
     }
 
+    /**
+     * Estado mantido pela sondagem periódica do circuito; não faz chamada ao Ollama.
+     */
+    public boolean verificarDisponibilidade() {
+        return circuito.isDisponivel();
+    }
+
     public List<InteracaoLlama> buscarHistorico(String usuarioId) {
         return interacaoRepository.findByUsuarioId(usuarioId);
     }
@@ -195,16 +440,63 @@ public class LlamaService {
     }
 
     private RespostaLlamaDTO executarRequisicao(RequisicaoLlamaDTO requisicao) {
-        // A URL base já está configurada no RestClient
-        ResponseEntity<RespostaLlamaDTO> response = restClient.post()
+        // A URL base é a da instância escolhida pelo roteador
+        ResponseEntity<RespostaLlamaDTO> response = roteador.executar(requisicao.getModel(), cliente -> cliente.post()
                 .uri("/api/chat")
                 .body(requisicao)
                 .retrieve()
-                .toEntity(RespostaLlamaDTO.class);
+                .toEntity(RespostaLlamaDTO.class));
 
         return response.getBody();
     }
 
+    private ResultadoStream lerStream(InputStream corpo, long inicioMs, Consumer<String> consumidorFragmentos)
+            throws IOException {
+
+        StringBuilder conteudo = new StringBuilder();
+        RespostaLlamaDTO ultimoFragmento = null;
+        Long tempoPrimeiroTokenMs = null;
+
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+
+                RespostaLlamaDTO fragmento = objectMapper.readValue(linha, RespostaLlamaDTO.class);
+                ultimoFragmento = fragmento;
+
+                String texto = fragmento.getMessage() != null ? fragmento.getMessage().getContent() : null;
+                if (texto != null && !texto.isEmpty()) {
+                    if (tempoPrimeiroTokenMs == null) {
+                        tempoPrimeiroTokenMs = System.currentTimeMillis() - inicioMs;
+                    }
+                    conteudo.append(texto);
+                    consumidorFragmentos.accept(texto);
+                }
+
+                if (Boolean.TRUE.equals(fragmento.getDone())) {
+                    break;
+                }
+            }
+        }
+
+        if (ultimoFragmento == null) {
+            return new ResultadoStream(null, tempoPrimeiroTokenMs);
+        }
+
+        ultimoFragmento.setMessage(RespostaLlamaDTO.Message.builder()
+                .role("assistant")
+                .content(conteudo.toString())
+                .build());
+
+        return new ResultadoStream(ultimoFragmento, tempoPrimeiroTokenMs);
+    }
+
+    private record ResultadoStream(RespostaLlamaDTO resposta, Long tempoPrimeiroTokenMs) {
+    }
+
     private void validarResposta(RespostaLlamaDTO resposta) {
         if (resposta == null || resposta.getDone() == null || !resposta.getDone()) {
             throw IAException.respostaIncompleta();
@@ -214,17 +506,16 @@ public class LlamaService {
         }
     }
 
-    private RequisicaoLlamaDTO construirRequisicao(String promptUsuario, String promptSistema, boolean respostaJson) {
+    private RequisicaoLlamaDTO construirRequisicao(String promptUsuario, String promptSistema,
+                                                   Object formato, boolean stream) {
         RequisicaoLlamaDTO.RequisicaoLlamaDTOBuilder builder = RequisicaoLlamaDTO.builder()
                 .model(modeloPadrao)
-                .stream(false)
+                .stream(stream)
+                .keepAlive(keepAlive)
                 .options(construirOpcoes());
 
         builder.messages(construirMensagens(promptUsuario, promptSistema));
-
-        if (respostaJson) {
-            builder.format("json");
-        }
+        builder.format(formato);
 
         return builder.build();
     }
@@ -258,16 +549,13 @@ public class LlamaService {
         return resposta.getMessage().getContent();
     }
 
-    private String limparMarkdown(String conteudo) {
-        return conteudo
-                .replaceAll("```json\\s*", "")
-                .replaceAll("```\\s*", "")
-                .trim();
-    }
-
-    private void registrarSucesso(RequisicaoLlamaDTO requisicao, RespostaLlamaDTO resposta, long duracaoMs) {
+    private void registrarSucesso(RequisicaoLlamaDTO requisicao, RespostaLlamaDTO resposta,
+                                  long duracaoMs, Long tempoPrimeiroTokenMs,
+                                  String chaveCache, String tipoAnalise) {
         InteracaoLlama interacao = InteracaoLlama.builder()
                 .modelo(requisicao.getModel())
+                .chaveConteudo(chaveCache)
+                .tipoAnalise(tipoAnalise)
                 .promptUsuario(extrairPromptUsuario(requisicao))
                 .promptSistema(extrairPromptSistema(requisicao))
                 .respostaConteudo(resposta.getMessage().getContent())
@@ -276,13 +564,14 @@ public class LlamaService {
                 .dataHoraRequisicao(LocalDateTime.now())
                 .duracaoTotalMs(resposta.getTotalDuration() != null ? resposta.getTotalDuration() / 1_000_000 : duracaoMs)
                 .duracaoCarregamentoMs(resposta.getLoadDuration() != null ? resposta.getLoadDuration() / 1_000_000 : null)
+                .tempoPrimeiroTokenMs(tempoPrimeiroTokenMs)
                 .tokensPrompt(resposta.getPromptEvalCount())
                 .tokensResposta(resposta.getEvalCount())
                 .temperature(requisicao.getOptions().getTemperature())
-                .dataExpiracao(LocalDateTime.now().plusSeconds(cacheTtlSegundos))
+                .dataExpiracao(LocalDateTime.now().plusSeconds(cacheRespostas.obterTtlSegundos(tipoAnalise)))
                 .build();
 
-        interacaoRepository.save(interacao);
+        gravadorInteracoes.registrar(interacao);
     }
 
     private void registrarFalha(String promptUsuario, String promptSistema, String mensagemErro, long duracaoMs) {
@@ -298,12 +587,12 @@ public class LlamaService {
                 .dataExpiracao(LocalDateTime.now().plusSeconds(cacheTtlSegundos))
                 .build();
 
-        interacaoRepository.save(interacao);
+        gravadorInteracoes.registrar(interacao);
     }
 
-    private void registrarMetrica(String nomeMetrica, long valor) {
-        // Uso direto da API do Micrometer, evitando métodos depreciados se houver
-        meterRegistry.counter(nomeMetrica).increment(valor);
+    private void registrarFalhaMetrica(String tipoAnalise, String resultado, long duracaoMs) {
+        metricasLlama.registrarChamada(modeloPadrao, tipoAnalise, MetricasLlamaService.CACHE_FALHA,
+                resultado, duracaoMs, null);
     }
 
     private String extrairPromptUsuario(RequisicaoLlamaDTO requisicao) {
@@ -170,7 +170,8 @@ public class MetricasDesempenhoService {
         try {
             Map<String, Object> dadosContexto = coletarDadosParaTendencias();
 
-            TendenciasIADTO resultado = tendenciasIAService.analisarTendencias(dadosContexto);
+            TendenciasIADTO resultado = AgendadorLlamaService.comoLote(
+                    () -> tendenciasIAService.analisarTendencias(dadosContexto));
 
             return TendenciasDTO.builder()
                     .temasEmAlta(resultado.temasEmergentes())
@@ -0,0 +1,241 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.dto.ResumoMetricasLlamaDTO;
+import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Instrumentação das chamadas ao Llama.
+ *
+ * Publica timers com histograma para as durações reportadas pelo Ollama (total,
+ * carregamento, avaliação do prompt e geração), contadores de tokens e a taxa de
+ * geração, com tags de modelo, tipo de análise, cache e resultado. Mantém também
+ * uma janela recente de chamadas para o endpoint de resumo do actuator.
+ */
+@Service
+public class MetricasLlamaService {
+
+    public static final String CACHE_ACERTO = "acerto";
+    public static final String CACHE_FALHA = "falha";
+
+    public static final String RESULTADO_SUCESSO = "sucesso";
+    public static final String RESULTADO_INDISPONIVEL = "indisponivel";
+    public static final String RESULTADO_ERRO = "erro";
+    public static final String RESULTADO_INTERROMPIDO = "interrompido";
+    public static final String RESULTADO_REJEITADO = "rejeitado";
+
+    private static final String TIPO_AVULSO = "avulsa";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration janela;
+    private final int maximoRegistros;
+
+    private final Deque<RegistroChamada> recentes = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger totalRecentes = new AtomicInteger();
+    private final AtomicLong totalTokens = new AtomicLong();
+
+    public MetricasLlamaService(MeterRegistry meterRegistry,
+                                @Value("${ai.metricas.janela-minutos:60}") int janelaMinutos,
+                                @Value("${ai.metricas.maximo-registros:20000}") int maximoRegistros) {
+        this.meterRegistry = meterRegistry;
+        this.janela = Duration.ofMinutes(janelaMinutos);
+        this.maximoRegistros = maximoRegistros;
+
+        Gauge.builder("llama.tokens.por.segundo", this, m -> m.resumir(5).getTokensPorSegundo())
+                .description("Taxa de geração de tokens nos últimos 5 minutos")
+                .register(meterRegistry);
+    }
+
+    public void registrarChamada(String modelo, String tipoAnalise, String cache, String resultado,
+                                 long duracaoMs, RespostaLlamaDTO resposta) {
+        String tipo = tipoAnalise != null ? tipoAnalise : TIPO_AVULSO;
+        Tags tags = Tags.of("modelo", modelo, "tipo", tipo, "cache", cache, "resultado", resultado);
+
+        timer("llama.requisicao.duracao", "Duração total percebida pelo chamador", tags)
+                .record(duracaoMs, TimeUnit.MILLISECONDS);
+
+        // Respostas do cache repetem os tempos da geração original e não devem ser recontadas
+        boolean gerada = resposta != null && CACHE_FALHA.equals(cache);
+
+        Tags tagsOllama = Tags.of("modelo", modelo, "tipo", tipo);
+        if (gerada) {
+            registrarNanos("llama.ollama.duracao.total", "Duração total reportada pelo Ollama", tagsOllama, resposta.getTotalDuration());
+            registrarNanos("llama.ollama.duracao.carregamento", "Carregamento do modelo", tagsOllama, resposta.getLoadDuration());
+            registrarNanos("llama.ollama.duracao.prompt", "Avaliação do prompt", tagsOllama, resposta.getPromptEvalDuration());
+            registrarNanos("llama.ollama.duracao.geracao", "Geração da resposta", tagsOllama, resposta.getEvalDuration());
+
+            contarTokens("llama.tokens.prompt", tagsOllama, resposta.getPromptEvalCount());
+            contarTokens("llama.tokens.resposta", tagsOllama, resposta.getEvalCount());
+            totalTokens.addAndGet(valor(resposta.getPromptEvalCount()) + valor(resposta.getEvalCount()));
+        }
+
+        adicionarRecente(new RegistroChamada(
+                Instant.now(),
+                tipo,
+                CACHE_ACERTO.equals(cache),
+                RESULTADO_SUCESSO.equals(resultado),
+                duracaoMs,
+                gerada ? valor(resposta.getPromptEvalCount()) : 0,
+                gerada ? valor(resposta.getEvalCount()) : 0,
+                gerada && resposta.getEvalDuration() != null ? resposta.getEvalDuration() : 0
+        ));
+    }
+
+    public void registrarPrimeiroToken(String modelo, Long tempoPrimeiroTokenMs) {
+        if (tempoPrimeiroTokenMs != null) {
+            timer("llama.stream.primeiro.token", "Tempo até o primeiro token em streaming", Tags.of("modelo", modelo))
+                    .record(tempoPrimeiroTokenMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Conta as requisições feitas para completar campos ausentes de respostas JSON truncadas.
+     */
+    public void registrarReparoJson(String tipoAnalise, String resultado) {
+        Counter.builder("llama.json.reparos")
+                .tags("tipo", tipoAnalise != null ? tipoAnalise : TIPO_AVULSO, "resultado", resultado)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Tokens de prompt e de resposta gerados desde a subida da aplicação, em todos os tipos.
+     */
+    public long getTotalTokens() {
+        return totalTokens.get();
+    }
+
+    /**
+     * Resume as chamadas dos últimos minutos, com a distribuição de custo por tipo de análise.
+     */
+    public ResumoMetricasLlamaDTO resumir(int minutos) {
+        Instant limite = Instant.now().minus(Duration.ofMinutes(Math.max(1, minutos)));
+
+        List<RegistroChamada> registros = recentes.stream()
+                .filter(r -> r.instante().isAfter(limite))
+                .toList();
+
+        List<Long> duracoes = registros.stream()
+                .map(RegistroChamada::duracaoMs)
+                .sorted()
+                .toList();
+
+        long tokensResposta = registros.stream().mapToLong(RegistroChamada::tokensResposta).sum();
+        long geracaoNanos = registros.stream().mapToLong(RegistroChamada::geracaoNanos).sum();
+
+        Map<String, ResumoMetricasLlamaDTO.PorTipo> porTipo = registros.stream()
+                .collect(Collectors.groupingBy(RegistroChamada::tipo))
+                .entrySet().stream()
+                .map(e -> resumirTipo(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(ResumoMetricasLlamaDTO.PorTipo::tempoTotalMs).reversed())
+                .collect(Collectors.toMap(ResumoMetricasLlamaDTO.PorTipo::tipo, p -> p, (a, b) -> a, LinkedHashMap::new));
+
+        return ResumoMetricasLlamaDTO.builder()
+                .periodoMinutos(minutos)
+                .geradoEm(LocalDateTime.now())
+                .totalChamadas(registros.size())
+                .sucessos(registros.stream().filter(RegistroChamada::sucesso).count())
+                .acertosCache(registros.stream().filter(RegistroChamada::acertoCache).count())
+                .duracaoP50Ms(percentil(duracoes, 0.50))
+                .duracaoP95Ms(percentil(duracoes, 0.95))
+                .duracaoP99Ms(percentil(duracoes, 0.99))
+                .tokensPrompt(registros.stream().mapToLong(RegistroChamada::tokensPrompt).sum())
+                .tokensResposta(tokensResposta)
+                .tokensPorSegundo(geracaoNanos > 0 ? tokensResposta / (geracaoNanos / 1e9) : 0.0)
+                .porTipo(porTipo)
+                .build();
+    }
+
+    private ResumoMetricasLlamaDTO.PorTipo resumirTipo(String tipo, List<RegistroChamada> registros) {
+        return new ResumoMetricasLlamaDTO.PorTipo(
+                tipo,
+                registros.size(),
+                registros.stream().filter(RegistroChamada::acertoCache).count(),
+                registros.stream().filter(r -> !r.sucesso()).count(),
+                registros.stream().mapToLong(RegistroChamada::duracaoMs).sum(),
+                registros.stream().mapToLong(RegistroChamada::tokensPrompt).sum(),
+                registros.stream().mapToLong(RegistroChamada::tokensResposta).sum()
+        );
+    }
+
+    private void adicionarRecente(RegistroChamada registro) {
+        recentes.addLast(registro);
+        int total = totalRecentes.incrementAndGet();
+
+        Instant limite = Instant.now().minus(janela);
+        RegistroChamada maisAntigo;
+        while ((maisAntigo = recentes.peekFirst()) != null
+                && (total > maximoRegistros || maisAntigo.instante().isBefore(limite))) {
+            if (recentes.pollFirst() == null) {
+                break;
+            }
+            total = totalRecentes.decrementAndGet();
+        }
+    }
+
+    private Timer timer(String nome, String descricao, Tags tags) {
+        return Timer.builder(nome)
+                .description(descricao)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry);
+    }
+
+    private void registrarNanos(String nome, String descricao, Tags tags, Long nanos) {
+        if (nanos != null && nanos > 0) {
+            timer(nome, descricao, tags).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void contarTokens(String nome, Tags tags, Integer quantidade) {
+        if (quantidade != null && quantidade > 0) {
+            Counter.builder(nome).tags(tags).baseUnit("tokens").register(meterRegistry).increment(quantidade);
+        }
+    }
+
+    private static long percentil(List<Long> ordenados, double percentil) {
+        if (ordenados.isEmpty()) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenados.size()) - 1;
+        return ordenados.get(Math.max(0, Math.min(indice, ordenados.size() - 1)));
+    }
+
+    private static long valor(Integer quantidade) {
+        return quantidade != null ? quantidade : 0;
+    }
+
+    private record RegistroChamada(
+            Instant instante,
+            String tipo,
+            boolean acertoCache,
+            boolean sucesso,
+            long duracaoMs,
+            long tokensPrompt,
+            long tokensResposta,
+            long geracaoNanos
+    ) {}
+}
@@ -3,14 +3,13 @@ package br.gov.md.parla_md_backend.service;
 import br.gov.md.parla_md_backend.domain.*;
 import br.gov.md.parla_md_backend.domain.enums.Casa;
 import br.gov.md.parla_md_backend.repository.*;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.GravadorEmLote;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.RegraUpsert;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.ResultadoUpsert;
 import jakarta.annotation.PostConstruct;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.Transactional;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,25 +17,31 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.json.JSONObject;
-import org.json.JSONArray;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import br.gov.md.parla_md_backend.util.ApiClient;
+import br.gov.md.parla_md_backend.util.LeitorJsonStreaming;
+import br.gov.md.parla_md_backend.util.LeitorXmlStreaming;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class ParlamentarService {
 
     private static final Logger logger = LoggerFactory.getLogger(ParlamentarService.class);
-    private RestTemplate restTemplate;
+
+    // Redes sociais e gabinetes não vêm nas listagens e não devem ser apagados a cada sincronização
+    private static final RegraUpsert<Parlamentar> REGRA_UPSERT = RegraUpsert.de(Parlamentar.class,
+            "id", null, "redeSocial", "gabinetes");
+    private static final String RECURSO_PARLAMENTARES = "parlamentares";
+    private ApiClient apiClient;
     private IParlamentarRepository parlamentarRepository;
     private IProposicaoRepository proposicaoRepository;
     private IVotacaoRepository votingRepository;
@@ -45,6 +50,8 @@ public class ParlamentarService {
     private List<String> searchTerms;
     private final ISenadorRepository senadorRepository;
     private final IDeputadoRepository deputadoRepository;
+    private final UpsertEmLoteService upsertEmLoteService;
+    private final EstadoSincronizacaoService estadoSincronizacaoService;
 
     @Value("${search.terms.file:classpath:search_terms.txt}")
     private String specificTermsFile;
@@ -59,17 +66,21 @@ public class ParlamentarService {
     public ParlamentarService(IParlamentarRepository parlamentarRepository,
                               IProposicaoRepository proposicaoRepository,
                               IVotacaoRepository votacaoRepository,
-                              RestTemplate restTemplate,
+                              ApiClient apiClient,
                               CamaraService camaraService,
-                              SenadoService senadoService, ISenadorRepository senadorRepository, IDeputadoRepository deputadoRepository) {
+                              SenadoService senadoService, ISenadorRepository senadorRepository, IDeputadoRepository deputadoRepository,
+                              UpsertEmLoteService upsertEmLoteService,
+                              EstadoSincronizacaoService estadoSincronizacaoService) {
         this.parlamentarRepository = parlamentarRepository;
         this.proposicaoRepository = proposicaoRepository;
         this.votingRepository = votacaoRepository;
-        this.restTemplate = restTemplate;
+        this.apiClient = apiClient;
         this.camaraService = camaraService;
         this.senadoService = senadoService;
         this.senadorRepository = senadorRepository;
         this.deputadoRepository = deputadoRepository;
+        this.upsertEmLoteService = upsertEmLoteService;
+        this.estadoSincronizacaoService = estadoSincronizacaoService;
     }
 
     @PostConstruct
@@ -93,15 +104,20 @@ public class ParlamentarService {
         }
     }
 
+    // As listagens de parlamentares em exercício não têm filtro por data de alteração: a lista
+    // é sempre relida inteira e o upsert só grava quem mudou. A marca d'água registra a defasagem.
     @Transactional
     public void syncDeputados() {
         logger.info("Iniciando sincronização de deputados");
+        LocalDateTime inicio = LocalDateTime.now();
         try {
             List<Parlamentar> deputados = fetchAndSaveDeputados();
+            registrarSincronizacao("camara", inicio, deputados);
 
             logger.info("Sincronização de deputados concluída: {} deputados", deputados.size());
 
         } catch (Exception e) {
+            estadoSincronizacaoService.registrarFalha("camara", RECURSO_PARLAMENTARES, e.getMessage());
             logger.error("Erro durante a sincronização de deputados", e);
         }
     }
@@ -109,46 +125,31 @@ public class ParlamentarService {
     @Transactional
     public void syncSenadores() {
         logger.info("Iniciando sincronização de senadores");
+        LocalDateTime inicio = LocalDateTime.now();
         try {
             List<Parlamentar> senadores = fetchAndSaveSenadores();
+            registrarSincronizacao("senado", inicio, senadores);
 
             logger.info("Sincronização de senadores concluída: {} senadores", senadores.size());
 
         } catch (Exception e) {
+            estadoSincronizacaoService.registrarFalha("senado", RECURSO_PARLAMENTARES, e.getMessage());
             logger.error("Erro durante a sincronização de senadores", e);
         }
     }
 
-    private void updateDeputadoIfNeeded(Parlamentar existing, Parlamentar updated) {
-        boolean needsUpdate = !existing.getNome().equals(updated.getNome()) ||
-                !existing.getSiglaPartido().equals(updated.getSiglaPartido()) ||
-                !existing.getSiglaUF().equals(updated.getSiglaUF()) ||
-                !existing.getUrlFoto().equals(updated.getUrlFoto());
-
-        if (needsUpdate) {
-            existing.setNome(updated.getNome());
-            existing.setSiglaPartido(updated.getSiglaPartido());
-            existing.setSiglaUF(updated.getSiglaUF());
-            existing.setUrlFoto(updated.getUrlFoto());
-            parlamentarRepository.save(existing);
-            logger.info("Deputado atualizado: {}", existing.getId());
+    private void registrarSincronizacao(String fonte, LocalDateTime inicio, List<Parlamentar> parlamentares) {
+        // A leitura de senadores absorve falhas da API; uma lista vazia não é um estado válido
+        if (parlamentares.isEmpty()) {
+            estadoSincronizacaoService.registrarFalha(fonte, RECURSO_PARLAMENTARES, "Nenhum parlamentar lido da API");
+            return;
         }
+        estadoSincronizacaoService.avancarMarcaDagua(fonte, RECURSO_PARLAMENTARES, inicio, parlamentares.size());
     }
 
-    private void updateSenadorIfNeeded(Parlamentar existing, Parlamentar updated) {
-        boolean needsUpdate = !existing.getNome().equals(updated.getNome()) ||
-                !existing.getSiglaPartido().equals(updated.getSiglaPartido()) ||
-                !existing.getSiglaUF().equals(updated.getSiglaUF()) ||
-                !existing.getUrlFoto().equals(updated.getUrlFoto());
-
-        if (needsUpdate) {
-            existing.setNome(updated.getNome());
-            existing.setSiglaPartido(updated.getSiglaPartido());
-            existing.setSiglaUF(updated.getSiglaUF());
-            existing.setUrlFoto(updated.getUrlFoto());
-            parlamentarRepository.save(existing);
-            logger.info("Senador atualizado: {}", existing.getId());
-        }
+    private void registrarGravacao(String tipo, ResultadoUpsert<Parlamentar> gravacao) {
+        logger.info("Gravação de {}: {} novo(s), {} atualizado(s), {} inalterado(s), {} falha(s)",
+                tipo, gravacao.inseridos(), gravacao.atualizados(), gravacao.inalterados(), gravacao.falhas());
     }
 
     @Transactional
@@ -156,31 +157,24 @@ public class ParlamentarService {
         logger.info("Buscando deputados da API da Câmara");
 
         String endpoint = camaraApiBaseUrl + "deputados?ordem=ASC&ordenarPor=nome";
-        String response = restTemplate.getForObject(endpoint, String.class);
-
-        JSONObject json = new JSONObject(response);
-        JSONArray dados = json.getJSONArray("dados");
-
         List<Parlamentar> deputados = new ArrayList<>();
-
-        for (int i = 0; i < dados.length(); i++) {
-            try {
-                JSONObject deputadoJson = dados.getJSONObject(i);
-                Parlamentar deputado = mapJsonToDeputado(deputadoJson);
-
-                parlamentarRepository.findById(deputado.getId())
-                        .ifPresentOrElse(
-                                existing -> updateDeputadoIfNeeded(existing, deputado),
-                                () -> parlamentarRepository.save(deputado)
-                        );
-
-                deputados.add(deputado);
-
-            } catch (Exception e) {
-                logger.error("Erro ao processar deputado no índice {}: {}", i, e.getMessage());
-            }
-        }
-
+        GravadorEmLote<Parlamentar> gravador = upsertEmLoteService.abrirGravador(REGRA_UPSERT, alterados -> {
+        });
+
+        // Lê a resposta em fluxo: cada deputado vai ao gravador assim que é lido
+        apiClient.lerStream(endpoint, corpo ->
+                LeitorJsonStreaming.lerDados(corpo, deputadoJson -> {
+                    try {
+                        Parlamentar deputado = mapJsonToDeputado(deputadoJson);
+                        gravador.adicionar(deputado);
+                        deputados.add(deputado);
+                    } catch (Exception e) {
+                        logger.error("Erro ao processar deputado {}: {}", deputadoJson.path("id").asText(),
+                                e.getMessage());
+                    }
+                }));
+
+        registrarGravacao("deputados", gravador.concluir());
         logger.info("Total de {} deputados processados", deputados.size());
         return deputados;
     }
@@ -190,80 +184,65 @@ public class ParlamentarService {
         logger.info("Buscando senadores da API do Senado");
 
         String endpoint = senadoApiBaseUrl + "senador/lista/atual";
-        String response = restTemplate.getForObject(endpoint, String.class);
-
         List<Parlamentar> senadores = new ArrayList<>();
 
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(new InputSource(new StringReader(response)));
-
-            NodeList parlamentarList = document.getElementsByTagName("Parlamentar");
-
-            for (int i = 0; i < parlamentarList.getLength(); i++) {
-                try {
-                    Element parlamentarElement = (Element) parlamentarList.item(i);
-                    Parlamentar senador = mapXmlToSenador(parlamentarElement);
-
-                    parlamentarRepository.findById(senador.getId())
-                            .ifPresentOrElse(
-                                    existing -> updateSenadorIfNeeded(existing, senador),
-                                    () -> parlamentarRepository.save(senador)
-                            );
-
-                    senadores.add(senador);
-
-                } catch (Exception e) {
-                    logger.error("Erro ao processar senador no índice {}: {}", i, e.getMessage());
-                }
-            }
+            GravadorEmLote<Parlamentar> gravador = upsertEmLoteService.abrirGravador(REGRA_UPSERT, alterados -> {
+            });
+
+            // Lê a resposta em fluxo: cada senador vai ao gravador assim que seu elemento se fecha
+            apiClient.lerStream(endpoint, corpo ->
+                    LeitorXmlStreaming.lerRegistros(corpo, "Parlamentar", campos -> {
+                        try {
+                            Parlamentar senador = mapXmlToSenador(campos);
+                            gravador.adicionar(senador);
+                            senadores.add(senador);
+                        } catch (Exception e) {
+                            logger.error("Erro ao processar senador {}: {}", campos.get("CodigoParlamentar"),
+                                    e.getMessage());
+                        }
+                    }));
+
+            registrarGravacao("senadores", gravador.concluir());
 
         } catch (Exception e) {
-            logger.error("Erro ao parsear XML de senadores", e);
+            logger.error("Erro ao ler XML de senadores", e);
         }
 
         logger.info("Total de {} senadores processados", senadores.size());
         return senadores;
     }
 
-    private Parlamentar mapJsonToDeputado(JSONObject deputadoJson) {
+    private Parlamentar mapJsonToDeputado(JsonNode deputadoJson) {
+        if (!deputadoJson.path("id").canConvertToInt()) {
+            throw new IllegalArgumentException("Deputado sem id numérico");
+        }
+
         Parlamentar deputado = new Deputado();
-        deputado.setId(String.valueOf(deputadoJson.getInt("id")));
-        deputado.setNome(deputadoJson.getString("nome"));
-        deputado.setSiglaPartido(deputadoJson.getString("siglaPartido"));
-        deputado.setSiglaUF(deputadoJson.getString("siglaUf"));
-        deputado.setUrlFoto(deputadoJson.getString("urlFoto"));
+        deputado.setId(String.valueOf(deputadoJson.get("id").asInt()));
+        deputado.setNome(LeitorJsonStreaming.texto(deputadoJson, "nome"));
+        deputado.setSiglaPartido(LeitorJsonStreaming.texto(deputadoJson, "siglaPartido"));
+        deputado.setSiglaUF(LeitorJsonStreaming.texto(deputadoJson, "siglaUf"));
+        deputado.setUrlFoto(LeitorJsonStreaming.texto(deputadoJson, "urlFoto"));
         deputado.setCasa(Casa.CAMARA);
         deputado.setEmExercicio(true);
         return deputado;
     }
 
-    private Parlamentar mapXmlToSenador(Element parlamentarElement) {
+    private Parlamentar mapXmlToSenador(Map<String, String> campos) {
         Parlamentar senador = new Senador();
 
-        Element identificacao = (Element) parlamentarElement
-                .getElementsByTagName("IdentificacaoParlamentar").item(0);
-
-        senador.setId(getElementTextContent(identificacao, "CodigoParlamentar"));
-        senador.setNome(getElementTextContent(identificacao, "NomeParlamentar"));
-        senador.setSiglaPartido(getElementTextContent(identificacao, "SiglaPartidoParlamentar"));
-        senador.setSiglaUF(getElementTextContent(identificacao, "UfParlamentar"));
-        senador.setUrlFoto(getElementTextContent(identificacao, "UrlFotoParlamentar"));
+        senador.setId(campos.getOrDefault("CodigoParlamentar", ""));
+        senador.setNome(campos.getOrDefault("NomeParlamentar", ""));
+        senador.setSiglaPartido(campos.getOrDefault("SiglaPartidoParlamentar", ""));
+        senador.setSiglaUF(campos.getOrDefault("UfParlamentar", ""));
+        senador.setUrlFoto(campos.getOrDefault("UrlFotoParlamentar", ""));
         senador.setCasa(Casa.SENADO);
         senador.setEmExercicio(true);
 
         return senador;
     }
 
-    private String getElementTextContent(Element parent, String tagName) {
-        NodeList nodeList = parent.getElementsByTagName(tagName);
-        if (nodeList != null && nodeList.getLength() > 0) {
-            return nodeList.item(0).getTextContent();
-        }
-        return "";
-    }
-
     @Cacheable("searchTerms")
     public List<String> getSearchTerms() {
         if (searchTerms == null) {
@@ -0,0 +1,352 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.ItemLegislativo;
+import br.gov.md.parla_md_backend.domain.dto.FalhaAreaImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoAnalisesImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarAnaliseImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarSumarioDTO;
+import br.gov.md.parla_md_backend.domain.dto.StatusPrecomputacaoIADTO;
+import br.gov.md.parla_md_backend.domain.enums.MotivoFimPrecomputacao;
+import br.gov.md.parla_md_backend.domain.enums.StatusTriagem;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import br.gov.md.parla_md_backend.repository.IMateriaRepository;
+import br.gov.md.parla_md_backend.repository.IProposicaoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Pré-computação noturna de sumários e análises de impacto.
+ *
+ * <p>Fora do horário de uso, seleciona os itens capturados nos últimos dias e os marcados
+ * como de interesse, ordena-os por relevância (triagem e termos de {@code search_terms.txt})
+ * e executa a sumarização e a análise de impacto de cada um com prioridade de lote, de modo
+ * que os resultados já estejam no cache quando os analistas chegarem.</p>
+ *
+ * <p>A execução para ao fim da janela configurada ou ao consumir o orçamento de tokens. O
+ * orçamento conta todos os tokens gerados pelo Llama no período, inclusive por usuários,
+ * pois mede a capacidade compartilhada do Ollama.</p>
+ */
+@Slf4j
+@Service
+public class PrecomputacaoIAService {
+
+    static final int PESO_INTERESSE = 100;
+    static final int PESO_TERMO = 10;
+
+    private final IProposicaoRepository proposicaoRepository;
+    private final IMateriaRepository materiaRepository;
+    private final ParlamentarService parlamentarService;
+    private final SumarizacaoService sumarizacaoService;
+    private final AnaliseImpactoService analiseImpactoService;
+    private final MetricasLlamaService metricasLlama;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean habilitado;
+    private final int janelaDias;
+    private final int duracaoMaximaMinutos;
+    private final long orcamentoTokens;
+    private final int paralelismo;
+    private final int maximoItens;
+    private final boolean analisarImpacto;
+    private final boolean analiseAgrupada;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    private final AtomicReference<Execucao> ultima = new AtomicReference<>();
+    private volatile boolean encerrando;
+
+    public PrecomputacaoIAService(
+            IProposicaoRepository proposicaoRepository,
+            IMateriaRepository materiaRepository,
+            ParlamentarService parlamentarService,
+            SumarizacaoService sumarizacaoService,
+            AnaliseImpactoService analiseImpactoService,
+            MetricasLlamaService metricasLlama,
+            MeterRegistry meterRegistry,
+            @Value("${ai.precomputacao.habilitado:true}") boolean habilitado,
+            @Value("${ai.precomputacao.janela-dias:2}") int janelaDias,
+            @Value("${ai.precomputacao.duracao-maxima-minutos:240}") int duracaoMaximaMinutos,
+            @Value("${ai.precomputacao.orcamento-tokens:2000000}") long orcamentoTokens,
+            @Value("${ai.precomputacao.paralelismo:2}") int paralelismo,
+            @Value("${ai.precomputacao.maximo-itens:500}") int maximoItens,
+            @Value("${ai.precomputacao.analise-impacto:true}") boolean analisarImpacto,
+            @Value("${ai.precomputacao.analise-agrupada:true}") boolean analiseAgrupada) {
+        this.proposicaoRepository = proposicaoRepository;
+        this.materiaRepository = materiaRepository;
+        this.parlamentarService = parlamentarService;
+        this.sumarizacaoService = sumarizacaoService;
+        this.analiseImpactoService = analiseImpactoService;
+        this.metricasLlama = metricasLlama;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.janelaDias = janelaDias;
+        this.duracaoMaximaMinutos = duracaoMaximaMinutos;
+        this.orcamentoTokens = orcamentoTokens;
+        this.paralelismo = Math.max(1, paralelismo);
+        this.maximoItens = maximoItens;
+        this.analisarImpacto = analisarImpacto;
+        this.analiseAgrupada = analiseAgrupada;
+
+        Gauge.builder("ia.precomputacao.em.execucao", emExecucao, e -> e.get() ? 1 : 0)
+                .register(meterRegistry);
+        Gauge.builder("ia.precomputacao.itens.pendentes", ultima,
+                        u -> u.get() != null ? u.get().fila.size() : 0)
+                .register(meterRegistry);
+        Gauge.builder("ia.precomputacao.tokens.consumidos", this, s -> s.tokensConsumidos(s.ultima.get()))
+                .baseUnit("tokens")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${ai.precomputacao.cron:0 30 2 * * *}")
+    public void executarAgendado() {
+        if (habilitado && !iniciar()) {
+            log.warn("Pré-computação agendada ignorada: execução anterior ainda em andamento");
+        }
+    }
+
+    /**
+     * Inicia uma execução em segundo plano.
+     *
+     * @return falso se já houver uma execução em andamento
+     */
+    public boolean iniciar() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Thread.ofVirtual().name("precomputacao-ia").start(() -> {
+            try {
+                executar();
+            } catch (RuntimeException e) {
+                log.error("Falha na pré-computação de análises: {}", e.getMessage(), e);
+            } finally {
+                emExecucao.set(false);
+            }
+        });
+        return true;
+    }
+
+    public StatusPrecomputacaoIADTO obterStatus() {
+        Execucao execucao = ultima.get();
+        if (execucao == null) {
+            return new StatusPrecomputacaoIADTO(emExecucao.get(), null, null, null, 0, 0, 0, 0, orcamentoTokens, null);
+        }
+        return new StatusPrecomputacaoIADTO(
+                emExecucao.get(),
+                execucao.inicio,
+                execucao.prazo,
+                execucao.fim,
+                execucao.planejados,
+                execucao.processados.get(),
+                execucao.falhas.get(),
+                tokensConsumidos(execucao),
+                orcamentoTokens,
+                execucao.motivo.get()
+        );
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        encerrando = true;
+    }
+
+    void executar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        List<ItemLegislativo> itens = selecionarItens(inicio.minusDays(janelaDias));
+
+        Execucao execucao = new Execucao(inicio, inicio.plusMinutes(duracaoMaximaMinutos),
+                metricasLlama.getTotalTokens(), itens);
+        ultima.set(execucao);
+
+        log.info("Pré-computação iniciada: {} itens, prazo {}, orçamento de {} tokens",
+                itens.size(), execucao.prazo, orcamentoTokens);
+
+        List<Thread> trabalhadores = new ArrayList<>(paralelismo);
+        for (int i = 0; i < paralelismo; i++) {
+            trabalhadores.add(Thread.ofVirtual().name("precomputacao-ia-" + i).start(() -> processar(execucao)));
+        }
+        for (Thread trabalhador : trabalhadores) {
+            try {
+                trabalhador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                execucao.motivo.compareAndSet(null, MotivoFimPrecomputacao.INTERROMPIDA);
+                break;
+            }
+        }
+
+        execucao.motivo.compareAndSet(null, MotivoFimPrecomputacao.CONCLUIDA);
+        execucao.fim = LocalDateTime.now();
+        execucao.tokensFinais = metricasLlama.getTotalTokens();
+
+        MotivoFimPrecomputacao motivo = execucao.motivo.get();
+        meterRegistry.counter("ia.precomputacao.execucoes", "motivo", motivo.name()).increment();
+        log.info("Pré-computação encerrada ({}): {} de {} itens processados, {} falhas, {} tokens",
+                motivo.getDescricao(), execucao.processados.get(), execucao.planejados,
+                execucao.falhas.get(), tokensConsumidos(execucao));
+    }
+
+    List<ItemLegislativo> selecionarItens(LocalDateTime desde) {
+        List<String> termos = parlamentarService.getSearchTerms().stream()
+                .filter(Objects::nonNull)
+                .map(String::strip)
+                .filter(termo -> !termo.isEmpty())
+                .map(String::toLowerCase)
+                .toList();
+
+        return Stream.concat(
+                        proposicaoRepository.buscarCandidatosPrecomputacao(desde).stream(),
+                        materiaRepository.buscarCandidatosPrecomputacao(desde).stream())
+                .map(item -> new Candidato(item, relevancia(item, termos)))
+                .sorted(Comparator.comparingInt(Candidato::relevancia).reversed()
+                        .thenComparing(c -> c.item().getDataCaptura(),
+                                Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(maximoItens)
+                .map(Candidato::item)
+                .toList();
+    }
+
+    static int relevancia(ItemLegislativo item, List<String> termos) {
+        int pontos = item.getStatusTriagem() == StatusTriagem.INTERESSE ? PESO_INTERESSE : 0;
+
+        String texto = Stream.of(item.getEmenta(), item.getEmentaDetalhada(), item.getKeywords(), item.getTema())
+                .filter(Objects::nonNull)
+                .reduce("", (a, b) -> a + "\n" + b)
+                .toLowerCase();
+
+        for (String termo : termos) {
+            if (texto.contains(termo)) {
+                pontos += PESO_TERMO;
+            }
+        }
+        return pontos;
+    }
+
+    private void processar(Execucao execucao) {
+        ItemLegislativo item;
+        while (podeContinuar(execucao) && (item = execucao.fila.poll()) != null) {
+            try {
+                precomputar(item);
+                execucao.processados.incrementAndGet();
+                meterRegistry.counter("ia.precomputacao.itens", "resultado", "sucesso").increment();
+
+            } catch (RuntimeException e) {
+                if (indicaIndisponibilidade(e)) {
+                    // Com o circuito aberto ou a fila cheia, as demais chamadas também seriam rejeitadas
+                    execucao.motivo.compareAndSet(null, MotivoFimPrecomputacao.LLAMA_INDISPONIVEL);
+                    meterRegistry.counter("ia.precomputacao.itens", "resultado", "indisponivel").increment();
+                    log.warn("Pré-computação interrompida no item {}: {}", item.getId(), e.getMessage());
+                } else {
+                    execucao.falhas.incrementAndGet();
+                    meterRegistry.counter("ia.precomputacao.itens", "resultado", "erro").increment();
+                    log.warn("Falha na pré-computação do item {}: {}", item.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void precomputar(ItemLegislativo item) {
+        AgendadorLlamaService.comoLote(() -> {
+            sumarizacaoService.sumarizar(SolicitarSumarioDTO.builder()
+                    .itemLegislativoId(item.getId())
+                    .build());
+
+            if (analisarImpacto) {
+                ResultadoAnalisesImpactoDTO resultado = analiseImpactoService.analisar(
+                        SolicitarAnaliseImpactoDTO.builder()
+                                .itemLegislativoId(item.getId())
+                                .analisarTodasAreas(true)
+                                .analiseAgrupada(analiseAgrupada)
+                                .build());
+
+                // Falhas por área não são lançadas; uma área rejeitada pelo LLM indica o mesmo que a exceção
+                resultado.getFalhas().stream()
+                        .filter(falha -> FalhaAreaImpactoDTO.MOTIVO_INDISPONIVEL.equals(falha.motivo()))
+                        .findFirst()
+                        .ifPresent(falha -> {
+                            throw new LlamaIndisponivelException(String.format(
+                                    "Análise de impacto da área %s rejeitada: %s",
+                                    falha.areaImpactoNome(), falha.mensagem()));
+                        });
+            }
+            return null;
+        });
+    }
+
+    private static boolean indicaIndisponibilidade(Throwable erro) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (atual instanceof LlamaIndisponivelException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean podeContinuar(Execucao execucao) {
+        if (execucao.motivo.get() != null) {
+            return false;
+        }
+        if (encerrando) {
+            execucao.motivo.compareAndSet(null, MotivoFimPrecomputacao.INTERROMPIDA);
+            return false;
+        }
+        if (LocalDateTime.now().isAfter(execucao.prazo)) {
+            execucao.motivo.compareAndSet(null, MotivoFimPrecomputacao.PRAZO_ESGOTADO);
+            return false;
+        }
+        if (tokensConsumidos(execucao) >= orcamentoTokens) {
+            execucao.motivo.compareAndSet(null, MotivoFimPrecomputacao.ORCAMENTO_ESGOTADO);
+            return false;
+        }
+        return true;
+    }
+
+    private long tokensConsumidos(Execucao execucao) {
+        if (execucao == null) {
+            return 0;
+        }
+        Long finais = execucao.tokensFinais;
+        return (finais != null ? finais : metricasLlama.getTotalTokens()) - execucao.tokensIniciais;
+    }
+
+    private record Candidato(ItemLegislativo item, int relevancia) {
+    }
+
+    private static final class Execucao {
+
+        private final LocalDateTime inicio;
+        private final LocalDateTime prazo;
+        private final long tokensIniciais;
+        private final int planejados;
+        private final Queue<ItemLegislativo> fila;
+        private final AtomicInteger processados = new AtomicInteger();
+        private final AtomicInteger falhas = new AtomicInteger();
+        private final AtomicReference<MotivoFimPrecomputacao> motivo = new AtomicReference<>();
+        private volatile LocalDateTime fim;
+        private volatile Long tokensFinais;
+
+        private Execucao(LocalDateTime inicio, LocalDateTime prazo, long tokensIniciais, List<ItemLegislativo> itens) {
+            this.inicio = inicio;
+            this.prazo = prazo;
+            this.tokensIniciais = tokensIniciais;
+            this.planejados = itens.size();
+            this.fila = new ConcurrentLinkedQueue<>(itens);
+        }
+    }
+}
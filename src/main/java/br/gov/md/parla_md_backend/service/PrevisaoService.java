@@ -19,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -151,6 +152,41 @@ public class PrevisaoService extends BaseIAService<Previsao, PrevisaoDTO, Result
                 .findFirst();
     }
 
+    @Override
+    protected String construirChaveCoalescencia(Object... parametros) {
+        ItemLegislativo item = (ItemLegislativo) parametros[0];
+        String tipoPrevisao = (String) parametros[1];
+
+        return item.getId() + ":" + tipoPrevisao;
+    }
+
+    @Override
+    protected Optional<Reaproveitamento<Previsao>> getReaproveitamento(Object... parametros) {
+        return Optional.of(new Reaproveitamento<>(0, this::derivar));
+    }
+
+    /**
+     * O prompt inclui tipo e ano do item, que o embedding não cobre: só deriva de uma
+     * previsão feita para um item do mesmo tipo e ano.
+     */
+    private Optional<Previsao> derivar(Previsao origem, ItemLegislativo destino, double similaridade) {
+        ItemLegislativo itemOrigem = origem.getItemLegislativo();
+        if (itemOrigem == null || !Objects.equals(itemOrigem.getTipo(), destino.getTipo())
+                || !Objects.equals(itemOrigem.getAno(), destino.getAno())) {
+            return Optional.empty();
+        }
+
+        return Optional.of(origem.toBuilder()
+                .id(null)
+                .itemLegislativo(destino)
+                .dataPrevisao(LocalDateTime.now())
+                .tempoProcessamentoMs(0L)
+                .dataExpiracao(calcularDataExpiracaoDerivada(origem))
+                .derivadaDe(origem.getId())
+                .similaridadeOrigem(similaridade)
+                .build());
+    }
+
     @Transactional
     public PrevisaoDTO prever(SolicitarPrevisaoDTO request) {
         ItemLegislativo item = buscarItemLegislativo(request.getItemLegislativoId());
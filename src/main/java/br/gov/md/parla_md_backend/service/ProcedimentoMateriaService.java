@@ -11,7 +11,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,7 +20,6 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
@@ -41,67 +39,6 @@ public class ProcedimentoMateriaService {
     private final RabbitMQProducer rabbitMQProducer;
     private final SenadoService senadoService;
 
-    /**
-     * Atualização agendada de todas as matérias.
-     * Executa diariamente às 02:00 AM.
-     */
-    @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
-    public void atualizarTodasTramitacoesAgendadas() {
-        log.info("Iniciando atualização agendada de procedimentos de matérias às {}",
-                LocalDateTime.now());
-
-        AtomicInteger totalMaterias = new AtomicInteger(0);
-        AtomicInteger atualizadas = new AtomicInteger(0);
-        AtomicInteger erros = new AtomicInteger(0);
-
-        try {
-            List<Materia> todasMaterias = materiaRepository.findAll();
-            totalMaterias.set(todasMaterias.size());
-
-            log.info("Total de matérias a atualizar: {}", totalMaterias.get());
-
-            todasMaterias.forEach(materia -> {
-                try {
-                    if (materia.getCodigoMateria() != null) {
-                        List<ProcedimentoMateria> procedimentos =
-                                buscarESalvarTramitacoes(materia.getCodigoMateria());
-
-                        log.debug("Atualizados {} procedimentos para a matéria {}",
-                                procedimentos.size(), materia.getCodigoMateria());
-
-                        atualizadas.incrementAndGet();
-
-                        if (!procedimentos.isEmpty()) {
-                            ProcedimentoMateria ultimo = procedimentos.get(procedimentos.size() - 1);
-
-                            materia.setSituacaoAtual(ultimo.getSituacaoDescricao());
-                            materia.setDataUltimaAtualizacao(LocalDateTime.now());
-                            materiaRepository.save(materia);
-                        }
-
-                        rabbitMQProducer.sendMessage(
-                                WorkflowConfig.ATUALIZACAO_API_EXCHANGE,
-                                WorkflowConfig.ATUALIZACAO_API_ROUTING_KEY,
-                                materia
-                        );
-                    }
-
-                } catch (Exception e) {
-                    log.error("Erro ao atualizar procedimentos para a matéria {}: {}",
-                            materia.getCodigoMateria(), e.getMessage());
-                    erros.incrementAndGet();
-                }
-            });
-
-        } catch (Exception e) {
-            log.error("Erro ao buscar matérias: {}", e.getMessage(), e);
-        } finally {
-            log.info("Atualização concluída - Total: {}, Atualizadas: {}, Erros: {}",
-                    totalMaterias.get(), atualizadas.get(), erros.get());
-        }
-    }
-
     /**
      * Processa mensagens de solicitação de atualização vindas da fila.
      * Escuta a fila definida em WorkflowConfig.ATUALIZACAO_API_QUEUE.
@@ -151,6 +88,30 @@ public class ProcedimentoMateriaService {
         }
     }
 
+    /**
+     * Como {@link #buscarESalvarTramitacoes}, mas vazio quando a API informa que as
+     * tramitações não mudaram desde a última leitura (GET condicional).
+     */
+    public Optional<List<ProcedimentoMateria>> buscarESalvarTramitacoesAlteradas(Long codigoMateria) {
+        try {
+            Optional<List<ProcedimentoMateria>> procedimentos =
+                    senadoService.buscarProcedimentosAlterados(codigoMateria);
+
+            procedimentos.ifPresent(lista -> {
+                log.info("Salvos {} procedimentos para matéria {}", lista.size(), codigoMateria);
+                lista.forEach(this::publicarTramitacao);
+            });
+
+            return procedimentos;
+
+        } catch (Exception e) {
+            log.error("Erro ao buscar procedimentos da matéria {}: {}",
+                    codigoMateria, e.getMessage(), e);
+            throw new ApiExternaException(
+                    "Falha ao buscar procedimentos da matéria: " + codigoMateria, e);
+        }
+    }
+
     @Transactional(readOnly = true)
     public Optional<ProcedimentoMateria> buscarPorMateria(Long codigoMateria) {
         return procedimentoRepository.findByCodigoMateria(codigoMateria);
@@ -0,0 +1,304 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.config.OllamaConfig;
+import br.gov.md.parla_md_backend.config.OllamaInstanciasProperties;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Distribui as chamadas ao Ollama entre as instâncias configuradas.
+ *
+ * Cada requisição vai para a instância com menos requisições pendentes em relação ao
+ * seu peso, entre as que servem o modelo pedido. A afinidade por modelo mantém as
+ * chamadas na instância que já tem o modelo carregado enquanto a diferença de carga
+ * estiver dentro da folga configurada. Instâncias com falhas consecutivas são ejetadas
+ * por um período e readmitidas pela sondagem ou por uma chamada bem-sucedida ao fim dele.
+ */
+@Slf4j
+@Service
+public class RoteadorOllamaService {
+
+    private final MeterRegistry meterRegistry;
+    private final List<InstanciaOllama> instancias;
+    private final Map<String, InstanciaOllama> afinidade = new ConcurrentHashMap<>();
+
+    private final int falhasParaEjetar;
+    private final long ejecaoMs;
+    private final double folgaAfinidade;
+
+    public RoteadorOllamaService(RestClient.Builder restClientBuilder,
+                                 @Qualifier("ollamaHttpClient") HttpClient httpClient,
+                                 OllamaConfig ollamaConfig,
+                                 OllamaInstanciasProperties propriedades,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ollama.roteamento.falhas-para-ejetar:3}") int falhasParaEjetar,
+                                 @Value("${ollama.roteamento.ejecao-ms:30000}") long ejecaoMs,
+                                 @Value("${ollama.roteamento.folga-afinidade:1}") double folgaAfinidade,
+                                 @Value("${ollama.roteamento.timeout-sondagem-ms:3000}") long timeoutSondagemMs) {
+        this.meterRegistry = meterRegistry;
+        this.falhasParaEjetar = falhasParaEjetar;
+        this.ejecaoMs = ejecaoMs;
+        this.folgaAfinidade = folgaAfinidade;
+
+        List<OllamaInstanciasProperties.Instancia> configuradas = propriedades.getInstancias();
+        if (configuradas.isEmpty()) {
+            OllamaInstanciasProperties.Instancia unica = new OllamaInstanciasProperties.Instancia();
+            unica.setUrl(ollamaConfig.getOllamaUrl());
+            configuradas = List.of(unica);
+        }
+
+        List<InstanciaOllama> criadas = new ArrayList<>();
+        for (OllamaInstanciasProperties.Instancia configurada : configuradas) {
+            String url = configurada.getUrl();
+            InstanciaOllama instancia = new InstanciaOllama(
+                    url,
+                    Math.max(1, configurada.getPeso()),
+                    Set.copyOf(configurada.getModelos()),
+                    criarCliente(restClientBuilder, url, httpClient, ollamaConfig.getTimeout()),
+                    criarCliente(restClientBuilder, url, httpClient, ollamaConfig.getStreamTimeout()),
+                    // Timeout curto: a sondagem não pode prender a thread do agendamento
+                    criarCliente(restClientBuilder, url, httpClient, Duration.ofMillis(timeoutSondagemMs))
+            );
+            criadas.add(instancia);
+
+            Gauge.builder("llama.instancia.pendentes", instancia, i -> i.pendentes.get())
+                    .tag("instancia", instancia.url)
+                    .register(meterRegistry);
+            Gauge.builder("llama.instancia.ativa", instancia, i -> i.isEjetada(System.currentTimeMillis()) ? 0 : 1)
+                    .tag("instancia", instancia.url)
+                    .register(meterRegistry);
+        }
+        this.instancias = Collections.unmodifiableList(criadas);
+
+        log.info("Roteamento Ollama com {} instância(s): {}", instancias.size(),
+                instancias.stream().map(i -> i.url + " (peso " + i.peso + ")").collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Executa a chamada com o cliente da instância escolhida para o modelo. Erros de
+     * conexão e respostas 5xx contam como falha da instância.
+     */
+    public <T> T executar(String modelo, Function<RestClient, T> chamada) {
+        return executar(modelo, chamada, false);
+    }
+
+    /**
+     * Como {@link #executar(String, Function)}, com o cliente cujo timeout comporta o
+     * início de uma resposta em streaming.
+     */
+    public <T> T executarStream(String modelo, Function<RestClient, T> chamada) {
+        return executar(modelo, chamada, true);
+    }
+
+    private <T> T executar(String modelo, Function<RestClient, T> chamada, boolean stream) {
+        InstanciaOllama instancia = selecionar(modelo);
+
+        try {
+            T resultado = chamada.apply(stream ? instancia.clienteStream : instancia.cliente);
+            registrarSucesso(instancia);
+            return resultado;
+
+        } catch (RuntimeException e) {
+            if (indicaFalhaDaInstancia(e)) {
+                registrarFalha(instancia, e);
+            }
+            throw e;
+
+        } finally {
+            instancia.pendentes.decrementAndGet();
+        }
+    }
+
+    /**
+     * Sonda {@code /api/tags} em cada instância, readmitindo as que responderem.
+     *
+     * @return verdadeiro se ao menos uma instância respondeu
+     */
+    public boolean sondarInstancias() {
+        boolean algumaDisponivel = false;
+
+        for (InstanciaOllama instancia : instancias) {
+            try {
+                boolean ok = instancia.clienteSondagem.get()
+                        .uri("/api/tags")
+                        .retrieve()
+                        .toBodilessEntity()
+                        .getStatusCode()
+                        .is2xxSuccessful();
+                if (ok) {
+                    registrarSucesso(instancia);
+                    algumaDisponivel = true;
+                } else {
+                    registrarFalha(instancia, null);
+                }
+            } catch (Exception e) {
+                log.warn("Sondagem da instância Ollama {} falhou: {}", instancia.url, e.getMessage());
+                registrarFalha(instancia, e);
+            }
+        }
+
+        return algumaDisponivel;
+    }
+
+    /**
+     * URLs das instâncias que servem o modelo e não estão ejetadas.
+     */
+    public List<String> instanciasDisponiveis(String modelo) {
+        long agora = System.currentTimeMillis();
+        return instancias.stream()
+                .filter(i -> i.atende(modelo) && !i.isEjetada(agora))
+                .map(i -> i.url)
+                .toList();
+    }
+
+    /**
+     * Executa a chamada numa instância específica, fora do balanceamento; usado por
+     * rotinas que precisam alcançar cada instância, como o aquecimento de modelos.
+     */
+    public <T> T executarEm(String url, Function<RestClient, T> chamada) {
+        InstanciaOllama instancia = instancias.stream()
+                .filter(i -> i.url.equals(url))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Instância Ollama desconhecida: " + url));
+        return chamada.apply(instancia.cliente);
+    }
+
+    synchronized InstanciaOllama selecionar(String modelo) {
+        long agora = System.currentTimeMillis();
+
+        InstanciaOllama melhor = null;
+        for (InstanciaOllama instancia : instancias) {
+            if (!instancia.atende(modelo) || instancia.isEjetada(agora)) {
+                continue;
+            }
+            if (melhor == null
+                    || instancia.carga() < melhor.carga()
+                    || (instancia.carga() == melhor.carga() && instancia.peso > melhor.peso)) {
+                melhor = instancia;
+            }
+        }
+
+        if (melhor == null) {
+            meterRegistry.counter("llama.roteamento.sem.instancia", "modelo", modelo).increment();
+            throw LlamaIndisponivelException.semInstanciaDisponivel(modelo);
+        }
+
+        InstanciaOllama escolhida = melhor;
+        InstanciaOllama preferida = afinidade.get(modelo);
+        if (preferida != null && preferida != melhor
+                && preferida.atende(modelo) && !preferida.isEjetada(agora)
+                && preferida.carga() - melhor.carga() <= folgaAfinidade) {
+            escolhida = preferida;
+        } else if (preferida == null || preferida.isEjetada(agora)) {
+            afinidade.put(modelo, melhor);
+        }
+
+        escolhida.pendentes.incrementAndGet();
+        return escolhida;
+    }
+
+    private synchronized void registrarSucesso(InstanciaOllama instancia) {
+        if (instancia.falhasConsecutivas >= falhasParaEjetar) {
+            log.info("Instância Ollama {} readmitida", instancia.url);
+        }
+        instancia.falhasConsecutivas = 0;
+        instancia.ejetadaAteMs = 0;
+    }
+
+    private synchronized void registrarFalha(InstanciaOllama instancia, Exception causa) {
+        instancia.falhasConsecutivas++;
+        if (instancia.falhasConsecutivas >= falhasParaEjetar) {
+            boolean novaEjecao = !instancia.isEjetada(System.currentTimeMillis());
+            instancia.ejetadaAteMs = System.currentTimeMillis() + ejecaoMs;
+            if (novaEjecao) {
+                meterRegistry.counter("llama.instancia.ejecoes", "instancia", instancia.url).increment();
+                log.warn("Instância Ollama {} ejetada por {}ms após {} falhas consecutivas: {}",
+                        instancia.url, ejecaoMs, instancia.falhasConsecutivas,
+                        causa != null ? causa.getMessage() : "status de erro");
+            }
+        }
+    }
+
+    private static boolean indicaFalhaDaInstancia(RuntimeException e) {
+        if (e instanceof RestClientResponseException resposta) {
+            return resposta.getStatusCode().is5xxServerError();
+        }
+        return e instanceof RestClientException;
+    }
+
+    private static RestClient criarCliente(RestClient.Builder restClientBuilder, String url,
+                                           HttpClient httpClient, Duration timeoutLeitura) {
+        return restClientBuilder.clone()
+                .baseUrl(url)
+                .defaultHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .requestFactory(OllamaConfig.criarFabricaRequisicoes(httpClient, timeoutLeitura))
+                .build();
+    }
+
+    static final class InstanciaOllama {
+
+        private final String url;
+        private final int peso;
+        private final Set<String> modelos;
+        private final RestClient cliente;
+        private final RestClient clienteStream;
+        private final RestClient clienteSondagem;
+        private final AtomicInteger pendentes = new AtomicInteger();
+
+        private int falhasConsecutivas;
+        private volatile long ejetadaAteMs;
+
+        private InstanciaOllama(String url, int peso, Set<String> modelos,
+                                RestClient cliente, RestClient clienteStream, RestClient clienteSondagem) {
+            this.url = url;
+            this.peso = peso;
+            this.modelos = modelos;
+            this.cliente = cliente;
+            this.clienteStream = clienteStream;
+            this.clienteSondagem = clienteSondagem;
+        }
+
+        String getUrl() {
+            return url;
+        }
+
+        double carga() {
+            return (double) pendentes.get() / peso;
+        }
+
+        // Ao fim do período de ejeção a instância volta a receber chamadas; a primeira falha a ejeta de novo
+        boolean isEjetada(long agora) {
+            return agora < ejetadaAteMs;
+        }
+
+        // "llama3.2" atende a "llama3.2:3b"; "llama3.2:3b" só atende à própria tag
+        boolean atende(String modelo) {
+            if (modelos.isEmpty() || modelos.contains(modelo)) {
+                return true;
+            }
+            int separador = modelo.indexOf(':');
+            return separador > 0 && modelos.contains(modelo.substring(0, separador));
+        }
+    }
+}
@@ -1,20 +1,22 @@
 package br.gov.md.parla_md_backend.service;
 
 import br.gov.md.parla_md_backend.domain.Materia;
+import br.gov.md.parla_md_backend.util.ApiClient;
+import br.gov.md.parla_md_backend.util.LeitorXmlStreaming;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SenadoAPIService {
 
-    private final RestTemplate restTemplate;
+    private final ApiClient apiClient;
 
     @Value("${senado.api.url:https://legis.senado.leg.br/dadosabertos}")
     private String apiUrl;
@@ -25,10 +27,15 @@ public class SenadoAPIService {
 
             log.info("Buscando matéria {} na API do Senado", codigoMateria);
 
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            AtomicReference<Map<String, String>> dados = new AtomicReference<>();
+            apiClient.lerStream(url, corpo -> LeitorXmlStreaming.lerRegistros(corpo, "Materia", campos -> {
+                if (dados.get() == null) {
+                    dados.set(campos);
+                }
+            }));
 
-            if (response != null) {
-                return mapearMateria(response);
+            if (dados.get() != null) {
+                return mapearMateria(dados.get());
             }
 
             log.warn("Matéria {} não encontrada", codigoMateria);
@@ -40,21 +47,21 @@ public class SenadoAPIService {
         }
     }
 
-    private Materia mapearMateria(Map<String, Object> dados) {
+    private Materia mapearMateria(Map<String, String> dados) {
         Materia materia = new Materia();
 
-        materia.setCodigoMateria(Long.valueOf((String) dados.get("CodigoMateria")));
-        materia.setSiglaSubtipoMateria((String) dados.get("SiglaSubtipoMateria"));
+        materia.setCodigoMateria(Long.valueOf(dados.get("CodigoMateria")));
+        materia.setSiglaSubtipoMateria(dados.get("SiglaSubtipoMateria"));
 
         if (dados.get("NumeroMateria") != null) {
-            materia.setNumero(String.valueOf(dados.get("NumeroMateria")));
+            materia.setNumero(dados.get("NumeroMateria"));
         }
 
         if (dados.get("AnoMateria") != null) {
-            materia.setAnoMateria(String.valueOf(((Number) dados.get("AnoMateria")).intValue()));
+            materia.setAnoMateria(dados.get("AnoMateria"));
         }
 
-        materia.setEmentaMateria((String) dados.get("EmentaMateria"));
+        materia.setEmentaMateria(dados.get("EmentaMateria"));
 
         return materia;
     }
@@ -62,7 +69,8 @@ public class SenadoAPIService {
     public boolean verificarDisponibilidade() {
         try {
             String url = apiUrl + "/materia/pesquisa/lista?sigla=PL";
-            restTemplate.getForObject(url, Map.class);
+            apiClient.lerStream(url, corpo -> LeitorXmlStreaming.lerRegistros(corpo, "Materia", campos -> {
+            }));
             return true;
         } catch (Exception e) {
             log.error("API do Senado indisponível", e);
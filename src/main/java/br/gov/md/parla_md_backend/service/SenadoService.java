@@ -12,7 +12,11 @@ import br.gov.md.parla_md_backend.messaging.RabbitMQProducer;
 import br.gov.md.parla_md_backend.repository.IMateriaRepository;
 import br.gov.md.parla_md_backend.repository.IProcedimentoMateriaRepository;
 import br.gov.md.parla_md_backend.repository.ISenadorRepository;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.GravadorEmLote;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.RegraUpsert;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.ResultadoUpsert;
 import br.gov.md.parla_md_backend.util.ApiClient;
+import br.gov.md.parla_md_backend.util.LeitorXmlStreaming;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,21 +27,23 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.StringReader;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -49,8 +55,16 @@ public class SenadoService {
     private static final String MATERIA_ROUTING_KEY = "materia.nova";
     private static final String PROCEDIMENTO_EXCHANGE = "procedimento.exchange";
     private static final String PROCEDIMENTO_ROUTING_KEY = "procedimento.novo";
+    private static final String FONTE = "senado";
+    private static final String RECURSO_MATERIAS = "materias";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final DateTimeFormatter DATA_API_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // Triagem e datas de captura pertencem à aplicação: a API não os sobrescreve
+    private static final RegraUpsert<Materia> REGRA_UPSERT = RegraUpsert.de(Materia.class,
+            "codigoMateria", "dataUltimaAtualizacao",
+            "statusTriagem", "dataCaptura", "aprovada");
 
     @Value("${senado.api.base-url:https://legis.senado.leg.br/dadosabertos/}")
     private String senadoApiBaseUrl;
@@ -68,10 +82,9 @@ public class SenadoService {
     private final IProcedimentoMateriaRepository procedimentoRepository;
     private final ISenadorRepository senadorRepository;
     private final RabbitMQProducer rabbitMQProducer;
-
-    // ==================== ESTADO ====================
-
-    private LocalDateTime ultimaAtualizacaoSucesso;
+    private final BuscaSemanticaService buscaSemanticaService;
+    private final UpsertEmLoteService upsertEmLoteService;
+    private final EstadoSincronizacaoService estadoSincronizacaoService;
 
     // ==================== MÉTODOS PÚBLICOS - MATÉRIAS ====================
 
@@ -205,14 +218,39 @@ public class SenadoService {
         log.info("Iniciando sincronização agendada de matérias do Senado");
 
         try {
-            List<MateriaDTO> materias = buscarESalvarMaterias(anoDefault, itensDefault);
+            List<MateriaDTO> materias = sincronizarAlteracoes();
             log.info("Sincronização concluída. {} matérias processadas", materias.size());
-            atualizarUltimaSincronizacao();
         } catch (Exception e) {
             log.error("Erro na sincronização agendada de matérias", e);
         }
     }
 
+    /**
+     * Sincroniza as matérias atualizadas desde a marca d'água, pela lista de matérias
+     * atualizadas da API e o detalhe de cada uma. Sem marca (primeira execução), carrega
+     * as matérias do ano default. A marca só avança para o início desta execução depois
+     * que tudo foi gravado.
+     *
+     * @return Lista de DTOs das matérias salvas
+     */
+    @Transactional
+    @CacheEvict(value = {"materias", "materias-ano"}, allEntries = true)
+    public List<MateriaDTO> sincronizarAlteracoes() {
+        LocalDateTime inicio = LocalDateTime.now();
+        Optional<LocalDateTime> marca = estadoSincronizacaoService.obterMarcaDagua(FONTE, RECURSO_MATERIAS);
+
+        try {
+            List<MateriaDTO> materias = marca.isPresent()
+                    ? gravarMaterias(destino -> lerMateriasAtualizadas(marca.get().toLocalDate(), destino))
+                    : gravarMaterias(construirEndpointLista(anoDefault, itensDefault));
+            estadoSincronizacaoService.avancarMarcaDagua(FONTE, RECURSO_MATERIAS, inicio, materias.size());
+            return materias;
+        } catch (RuntimeException e) {
+            estadoSincronizacaoService.registrarFalha(FONTE, RECURSO_MATERIAS, e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * Busca matérias na API do Senado e salva no banco.
      *
@@ -224,24 +262,7 @@ public class SenadoService {
     @CacheEvict(value = {"materias", "materias-ano"}, allEntries = true)
     public List<MateriaDTO> buscarESalvarMaterias(int ano, int itens) {
         log.info("Buscando matérias do Senado - ano: {}, itens: {}", ano, itens);
-
-        try {
-            String xmlData = buscarMateriasXml(ano, itens);
-            List<Materia> materias = parsearMateriasXml(xmlData);
-            List<Materia> salvas = salvarMaterias(materias);
-
-            // Publicar eventos para cada matéria nova
-            salvas.forEach(this::publicarEventoMateria);
-
-            log.info("{} matérias salvas com sucesso", salvas.size());
-            return salvas.stream()
-                    .map(MateriaDTO::fromEntity)
-                    .collect(Collectors.toList());
-
-        } catch (Exception e) {
-            log.error("Erro ao buscar e salvar matérias do Senado", e);
-            throw new ApiExternaException("Falha ao sincronizar matérias do Senado: " + e.getMessage(), e);
-        }
+        return gravarMaterias(construirEndpointLista(ano, itens));
     }
 
     /**
@@ -306,8 +327,7 @@ public class SenadoService {
         log.debug("Buscando procedimentos da matéria: {}", codigoMateria);
 
         try {
-            String xmlData = buscarProcedimentosXml(codigoMateria);
-            List<ProcedimentoMateria> procedimentos = parsearProcedimentosXml(xmlData, codigoMateria);
+            List<ProcedimentoMateria> procedimentos = lerProcedimentos(codigoMateria);
 
             // Salvar e publicar
             procedimentos = procedimentoRepository.saveAll(procedimentos);
@@ -322,6 +342,30 @@ public class SenadoService {
         }
     }
 
+    /**
+     * Como {@link #buscarProcedimentos}, mas por GET condicional: vazio, sem gravar nem
+     * publicar nada, se as tramitações não mudaram desde a última leitura bem-sucedida.
+     * A gravação acontece dentro da leitura, para que o validador da resposta só seja
+     * guardado depois que os procedimentos foram salvos.
+     */
+    public Optional<List<ProcedimentoMateria>> buscarProcedimentosAlterados(Long codigoMateria) {
+        log.debug("Buscando procedimentos alterados da matéria: {}", codigoMateria);
+
+        try {
+            return apiClient.lerStreamSeAlterado(construirEndpointProcedimentos(codigoMateria), corpo -> {
+                List<ProcedimentoMateria> procedimentos = procedimentoRepository.saveAll(
+                        lerProcedimentos(corpo, codigoMateria));
+                procedimentos.forEach(this::publicarEventoProcedimento);
+                return procedimentos;
+            });
+
+        } catch (Exception e) {
+            log.error("Erro ao buscar procedimentos da matéria {}", codigoMateria, e);
+            throw new ApiExternaException(
+                    "Falha ao buscar procedimentos da matéria: " + codigoMateria, e);
+        }
+    }
+
     // ==================== MÉTODOS DE SENADORES ====================
 
     /**
@@ -354,9 +398,9 @@ public class SenadoService {
      * @return String com data/hora ou mensagem informativa
      */
     public String obterHorarioUltimaAtualizacao() {
-        return ultimaAtualizacaoSucesso != null
-                ? ultimaAtualizacaoSucesso.format(DATE_TIME_FORMATTER)
-                : "Nenhuma sincronização realizada";
+        return estadoSincronizacaoService.obterMarcaDagua(FONTE, RECURSO_MATERIAS)
+                .map(marca -> marca.format(DATE_TIME_FORMATTER))
+                .orElse("Nenhuma sincronização realizada");
     }
 
     /**
@@ -379,101 +423,188 @@ public class SenadoService {
 
     // ==================== MÉTODOS PRIVADOS - API ====================
 
-    private String buscarMateriasXml(int ano, int itens) {
-        String endpoint = String.format("%smateria/pesquisa/lista?ano=%d&itens=%d",
-                senadoApiBaseUrl, ano, itens);
+    private List<MateriaDTO> gravarMaterias(String endpoint) {
+        return gravarMaterias(destino -> lerMaterias(endpoint, destino));
+    }
 
+    private List<MateriaDTO> gravarMaterias(Consumer<Consumer<Materia>> leitura) {
+        try {
+            // Cada matéria segue para o gravador assim que seu elemento é lido
+            GravadorEmLote<Materia> gravador = upsertEmLoteService.abrirGravador(REGRA_UPSERT, alteradas -> {
+                alteradas.forEach(this::publicarEventoMateria);
+                buscaSemanticaService.enfileirar(alteradas);
+            });
+            leitura.accept(gravador::adicionar);
+            ResultadoUpsert<Materia> gravacao = gravador.concluir();
+
+            log.info("{} matérias salvas com sucesso: {} nova(s), {} atualizada(s), {} inalterada(s)",
+                    gravacao.itens().size(), gravacao.inseridos(), gravacao.atualizados(), gravacao.inalterados());
+            return gravacao.itens().stream()
+                    .map(MateriaDTO::fromEntity)
+                    .collect(Collectors.toList());
+
+        } catch (Exception e) {
+            log.error("Erro ao buscar e salvar matérias do Senado", e);
+            throw new ApiExternaException("Falha ao sincronizar matérias do Senado: " + e.getMessage(), e);
+        }
+    }
+
+    private String construirEndpointLista(int ano, int itens) {
+        return String.format("%smateria/pesquisa/lista?ano=%d&itens=%d", senadoApiBaseUrl, ano, itens);
+    }
+
+    private String construirEndpointAtualizadas(LocalDate desde) {
+        return String.format("%smateria/atualizadas?data=%s", senadoApiBaseUrl, desde.format(DATA_API_FORMATTER));
+    }
+
+    private void lerMaterias(String endpoint, Consumer<Materia> destino) {
         log.debug("Chamando API do Senado: {}", endpoint);
 
         try {
-            return apiClient.get(endpoint);
+            int lidas = apiClient.lerStream(endpoint, corpo ->
+                    LeitorXmlStreaming.lerRegistros(corpo, "Materia", campos -> {
+                        try {
+                            destino.accept(criarMateria(campos));
+                        } catch (NumberFormatException e) {
+                            log.warn("Matéria ignorada por dado inválido: {}", e.getMessage());
+                        }
+                    }));
+            log.debug("Lidas {} matérias do XML", lidas);
         } catch (Exception e) {
             throw new ApiExternaException("Erro ao chamar API do Senado: " + endpoint, e);
         }
     }
 
-    private String buscarProcedimentosXml(Long codigoMateria) {
-        String endpoint = String.format("%smateria/%d/tramitacoes",
-                senadoApiBaseUrl, codigoMateria);
+    /**
+     * A lista de atualizadas traz só a identificação e as atualizações de cada matéria;
+     * ementa, autoria e apresentação vêm do detalhe, buscado em paralelo nos limites do
+     * {@link ApiClient} e entregue na ordem da lista.
+     */
+    private void lerMateriasAtualizadas(LocalDate desde, Consumer<Materia> destino) {
+        List<Long> codigos = lerCodigosAtualizados(construirEndpointAtualizadas(desde));
+        log.info("{} matéria(s) do Senado atualizada(s) desde {}", codigos.size(), desde);
+
+        List<CompletableFuture<Optional<Materia>>> detalhes = codigos.stream()
+                .map(this::lerDetalheMateria)
+                .toList();
+        try {
+            for (CompletableFuture<Optional<Materia>> detalhe : detalhes) {
+                detalhe.join().ifPresent(destino);
+            }
+        } finally {
+            detalhes.forEach(detalhe -> detalhe.cancel(true));
+        }
+    }
+
+    private List<Long> lerCodigosAtualizados(String endpoint) {
+        log.debug("Chamando API do Senado: {}", endpoint);
 
-        log.debug("Buscando procedimentos: {}", endpoint);
-        return apiClient.get(endpoint);
+        try {
+            return apiClient.lerStream(endpoint, corpo -> {
+                Set<Long> codigos = new LinkedHashSet<>();
+                LeitorXmlStreaming.lerRegistros(corpo, "Materia", campos -> {
+                    String codigo = campos.get("CodigoMateria");
+                    if (codigo != null && !codigo.isEmpty()) {
+                        codigos.add(Long.parseLong(codigo));
+                    }
+                });
+                return new ArrayList<>(codigos);
+            });
+        } catch (Exception e) {
+            throw new ApiExternaException("Erro ao chamar API do Senado: " + endpoint, e);
+        }
     }
 
-    // ==================== MÉTODOS PRIVADOS - PARSING ====================
+    private CompletableFuture<Optional<Materia>> lerDetalheMateria(Long codigoMateria) {
+        String endpoint = construirEndpointDetalhe(codigoMateria);
 
-    private List<Materia> parsearMateriasXml(String xmlData) {
-        List<Materia> materias = new ArrayList<>();
+        return apiClient.lerStreamAsync(endpoint, corpo -> {
+                    List<Materia> lidas = new ArrayList<>(1);
+                    LeitorXmlStreaming.lerRegistros(corpo, "Materia", campos -> lidas.add(criarMateria(campos)));
+                    return lidas.stream().findFirst();
+                })
+                .exceptionally(erro -> {
+                    Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                            ? erro.getCause() : erro;
+                    // Matéria removida depois de listada como atualizada: não há o que gravar
+                    if (causa instanceof ApiExternaException api && Integer.valueOf(404).equals(api.getStatusCode())) {
+                        log.warn("Detalhe da matéria {} não encontrado; ignorada", codigoMateria);
+                        return Optional.empty();
+                    }
+                    throw new ApiExternaException("Erro ao chamar API do Senado: " + endpoint, causa);
+                });
+    }
 
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            // Desabilitar DTD para segurança
-            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+    private String construirEndpointDetalhe(Long codigoMateria) {
+        return String.format("%smateria/%d", senadoApiBaseUrl, codigoMateria);
+    }
 
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(new InputSource(new StringReader(xmlData)));
+    private String construirEndpointProcedimentos(Long codigoMateria) {
+        return String.format("%smateria/%d/tramitacoes", senadoApiBaseUrl, codigoMateria);
+    }
 
-            NodeList materiaNodes = doc.getElementsByTagName("Materia");
-            log.debug("Encontradas {} matérias no XML", materiaNodes.getLength());
+    private List<ProcedimentoMateria> lerProcedimentos(Long codigoMateria) {
+        String endpoint = construirEndpointProcedimentos(codigoMateria);
 
-            for (int i = 0; i < materiaNodes.getLength(); i++) {
-                Element materiaElement = (Element) materiaNodes.item(i);
-                Materia materia = criarMateriaDeElemento(materiaElement);
-                materias.add(materia);
-            }
+        log.debug("Buscando procedimentos: {}", endpoint);
 
-        } catch (Exception e) {
-            log.error("Erro ao parsear XML de matérias", e);
-            throw new ApiExternaException("Erro ao processar resposta do Senado", e);
-        }
+        return apiClient.lerStream(endpoint, corpo -> lerProcedimentos(corpo, codigoMateria));
+    }
 
-        return materias;
+    private List<ProcedimentoMateria> lerProcedimentos(InputStream corpo, Long codigoMateria)
+            throws XMLStreamException {
+        List<ProcedimentoMateria> procedimentos = new ArrayList<>();
+        LeitorXmlStreaming.lerRegistros(corpo, "Tramitacao",
+                campos -> procedimentos.add(criarProcedimento(campos, codigoMateria)));
+        return procedimentos;
     }
 
-    private Materia criarMateriaDeElemento(Element element) {
+    // ==================== MÉTODOS PRIVADOS - PARSING ====================
+
+    private Materia criarMateria(Map<String, String> campos) {
         Materia materia = new Materia();
 
         // Dados básicos
-        String codigo = obterTextoElemento(element, "CodigoMateria");
+        String codigo = campos.get("CodigoMateria");
         if (codigo != null && !codigo.isEmpty()) {
             materia.setCodigoMateria(Long.parseLong(codigo));
         }
 
-        materia.setSiglaSubtipoMateria(obterTextoElemento(element, "SiglaSubtipoMateria"));
-        materia.setDescricaoSubtipoMateria(obterTextoElemento(element, "DescricaoSubtipoMateria"));
+        materia.setSiglaSubtipoMateria(campos.get("SiglaSubtipoMateria"));
+        materia.setDescricaoSubtipoMateria(campos.get("DescricaoSubtipoMateria"));
 
-        String numero = obterTextoElemento(element, "NumeroMateria");
+        String numero = campos.get("NumeroMateria");
         if (numero != null && !numero.isEmpty()) {
             materia.setNumero(numero);
         }
 
-        String ano = obterTextoElemento(element, "AnoMateria");
+        String ano = campos.get("AnoMateria");
         if (ano != null && !ano.isEmpty()) {
             materia.setAno(Integer.parseInt(ano));
         }
 
-        materia.setEmenta(obterTextoElemento(element, "EmentaMateria"));
-        materia.setDescricaoIdentificacaoMateria(obterTextoElemento(element, "DescricaoIdentificacaoMateria"));
-        materia.setIndicadorTramitando(obterTextoElemento(element, "IndicadorTramitando"));
+        materia.setEmenta(campos.get("EmentaMateria"));
+        materia.setDescricaoIdentificacaoMateria(campos.get("DescricaoIdentificacaoMateria"));
+        materia.setIndicadorTramitando(campos.get("IndicadorTramitando"));
 
         // Autor
-        materia.setNomeParlamentarAutor(obterTextoElemento(element, "NomeAutor"));
-        String codAutor = obterTextoElemento(element, "CodigoParlamentarAutor");
+        materia.setNomeParlamentarAutor(campos.get("NomeAutor"));
+        String codAutor = campos.get("CodigoParlamentarAutor");
         if (codAutor != null && !codAutor.isEmpty()) {
             materia.setCodigoParlamentarAutor(Long.parseLong(codAutor));
         }
-        materia.setSiglaPartidoParlamentar(obterTextoElemento(element, "SiglaPartidoParlamentar"));
-        materia.setSiglaUFParlamentar(obterTextoElemento(element, "SiglaUfParlamentar"));
+        materia.setSiglaPartidoParlamentar(campos.get("SiglaPartidoParlamentar"));
+        materia.setSiglaUFParlamentar(campos.get("SiglaUfParlamentar"));
 
         // Outros campos
-        materia.setDescricaoNatureza(obterTextoElemento(element, "DescricaoNatureza"));
-        materia.setSiglaOrgaoOrigem(obterTextoElemento(element, "SiglaOrgaoOrigem"));
-        materia.setAssuntoEspecifico(obterTextoElemento(element, "AssuntoEspecifico"));
-        materia.setAssuntoGeral(obterTextoElemento(element, "AssuntoGeral"));
-        materia.setIndexacao(obterTextoElemento(element, "Indexacao"));
+        materia.setDescricaoNatureza(campos.get("DescricaoNatureza"));
+        materia.setSiglaOrgaoOrigem(campos.get("SiglaOrgaoOrigem"));
+        materia.setAssuntoEspecifico(campos.get("AssuntoEspecifico"));
+        materia.setAssuntoGeral(campos.get("AssuntoGeral"));
+        materia.setIndexacao(campos.get("Indexacao"));
 
         // Data de apresentação
-        String dataApres = obterTextoElemento(element, "DataApresentacao");
+        String dataApres = campos.get("DataApresentacao");
         if (dataApres != null && !dataApres.isEmpty()) {
             try {
                 materia.setDataApresentacao(LocalDate.parse(dataApres, DATE_FORMATTER));
@@ -493,42 +624,15 @@ public class SenadoService {
         return materia;
     }
 
-    private List<ProcedimentoMateria> parsearProcedimentosXml(String xmlData, Long codigoMateria) {
-        List<ProcedimentoMateria> procedimentos = new ArrayList<>();
-
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(new InputSource(new StringReader(xmlData)));
-
-            NodeList tramitacaoNodes = doc.getElementsByTagName("Tramitacao");
-
-            for (int i = 0; i < tramitacaoNodes.getLength(); i++) {
-                Element tramitacaoElement = (Element) tramitacaoNodes.item(i);
-                ProcedimentoMateria procedimento = criarProcedimentoDeElemento(
-                        tramitacaoElement, codigoMateria);
-                procedimentos.add(procedimento);
-            }
-
-        } catch (Exception e) {
-            log.error("Erro ao parsear XML de procedimentos", e);
-            throw new ApiExternaException("Erro ao processar procedimentos", e);
-        }
-
-        return procedimentos;
-    }
-
-    private ProcedimentoMateria criarProcedimentoDeElemento(Element element, Long codigoMateria) {
+    private ProcedimentoMateria criarProcedimento(Map<String, String> campos, Long codigoMateria) {
         ProcedimentoMateria procedimento = new ProcedimentoMateria();
 
         procedimento.setCodigoMateria(codigoMateria);
-        procedimento.setDescricaoTramitacao(obterTextoElemento(element, "DescricaoTramitacao"));
-        procedimento.setSituacaoDescricao(obterTextoElemento(element, "SituacaoDescricaoSituacao"));
-        procedimento.setLocalTramitacao(obterTextoElemento(element, "NomeLocal"));
+        procedimento.setDescricaoTramitacao(campos.get("DescricaoTramitacao"));
+        procedimento.setSituacaoDescricao(campos.get("SituacaoDescricaoSituacao"));
+        procedimento.setLocalTramitacao(campos.get("NomeLocal"));
 
-        String dataTram = obterTextoElemento(element, "DataTramitacao");
+        String dataTram = campos.get("DataTramitacao");
         if (dataTram != null && !dataTram.isEmpty()) {
             try {
                 procedimento.setDataTramitacao(LocalDateTime.parse(dataTram, DATE_TIME_FORMATTER));
@@ -546,14 +650,6 @@ public class SenadoService {
         return procedimento;
     }
 
-    private String obterTextoElemento(Element parent, String tagName) {
-        NodeList nodeList = parent.getElementsByTagName(tagName);
-        if (nodeList != null && nodeList.getLength() > 0) {
-            return nodeList.item(0).getTextContent().trim();
-        }
-        return null;
-    }
-
     private void determinarTipoMateria(Materia materia) {
         String sigla = materia.getSiglaSubtipoMateria();
         if (sigla == null) return;
@@ -567,37 +663,6 @@ public class SenadoService {
 
     // ==================== MÉTODOS PRIVADOS - PERSISTÊNCIA ====================
 
-    private List<Materia> salvarMaterias(List<Materia> materias) {
-        List<Materia> salvas = new ArrayList<>();
-
-        for (Materia materia : materias) {
-            try {
-                // Verificar se já existe
-                if (materia.getCodigoMateria() != null) {
-                    materiaRepository.findByCodigoMateria(materia.getCodigoMateria())
-                            .ifPresentOrElse(
-                                    existente -> {
-                                        // Atualizar existente
-                                        atualizarCamposMateria(existente, MateriaDTO.fromEntity(materia));
-                                        existente.setDataUltimaAtualizacao(LocalDateTime.now());
-                                        salvas.add(materiaRepository.save(existente));
-                                    },
-                                    () -> {
-                                        // Salvar nova
-                                        salvas.add(materiaRepository.save(materia));
-                                    }
-                            );
-                } else {
-                    salvas.add(materiaRepository.save(materia));
-                }
-            } catch (Exception e) {
-                log.error("Erro ao salvar matéria: {}", materia.getCodigoMateria(), e);
-            }
-        }
-
-        return salvas;
-    }
-
     private void atualizarCamposMateria(Materia existente, MateriaDTO dto) {
         if (dto.getEmenta() != null) {
             existente.setEmenta(dto.getEmenta());
@@ -635,8 +700,4 @@ public class SenadoService {
             log.error("Erro ao publicar evento de procedimento", e);
         }
     }
-
-    private void atualizarUltimaSincronizacao() {
-        this.ultimaAtualizacaoSucesso = LocalDateTime.now();
-    }
 }
\ No newline at end of file
@@ -3,13 +3,18 @@ package br.gov.md.parla_md_backend.service;
 import br.gov.md.parla_md_backend.domain.ItemLegislativo;
 import br.gov.md.parla_md_backend.domain.Sumario;
 import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoResumoTrechoIA;
 import br.gov.md.parla_md_backend.domain.dto.ResultadoSumarizacaoIA;
 import br.gov.md.parla_md_backend.domain.dto.SolicitarSumarioDTO;
 import br.gov.md.parla_md_backend.domain.dto.SumarioDTO;
+import br.gov.md.parla_md_backend.domain.enums.PrioridadeLlama;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
 import br.gov.md.parla_md_backend.exception.RecursoNaoEncontradoException;
 import br.gov.md.parla_md_backend.exception.SumarizacaoException;
 import br.gov.md.parla_md_backend.repository.IItemLegislativoRepository;
 import br.gov.md.parla_md_backend.repository.ISumarioRepository;
+import br.gov.md.parla_md_backend.util.DivisorTextoLegislativo;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
@@ -19,26 +24,54 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class SumarizacaoService extends BaseIAService<Sumario, SumarioDTO, ResultadoSumarizacaoIA, ISumarioRepository> {
 
+    // Tipo usado no cache de respostas do LLM para os resumos de trecho
+    private static final String TIPO_CACHE_TRECHO = "sumarios-trechos";
+
     private final IItemLegislativoRepository itemLegislativoRepository;
+    private final AgendadorLlamaService agendador;
+
+    private final ExecutorService executorTrechos = Executors.newVirtualThreadPerTaskExecutor();
 
     @Value("${sumario.texto.minimo:100}")
     private int textoMinimoCaracteres;
 
+    @Value("${ai.sumarizacao.texto-maximo-caracteres:2000000}")
+    private int textoMaximoCaracteres;
+
+    @Value("${ai.sumarizacao.trecho.tokens-maximo:3000}")
+    private int tokensMaximoTrecho;
+
+    @Value("${ai.sumarizacao.trecho.paralelismo-maximo:4}")
+    private int paralelismoMaximoTrechos;
+
     public SumarizacaoService(
             LlamaService llamaService,
             ISumarioRepository sumarioRepository,
-            IItemLegislativoRepository itemLegislativoRepository) {
+            IItemLegislativoRepository itemLegislativoRepository,
+            AgendadorLlamaService agendador) {
         super(llamaService, sumarioRepository);
         this.itemLegislativoRepository = itemLegislativoRepository;
+        this.agendador = agendador;
     }
 
     @Override
@@ -61,15 +94,37 @@ public class SumarizacaoService extends BaseIAService<Sumario, SumarioDTO, Resul
         return SumarioDTO.from(entidade);
     }
 
+    /**
+     * Etapa de reduce: textos acima do limite de um trecho são substituídos pelos resumos
+     * sequenciais de suas seções antes da montagem do prompt. O marcador na quarta posição
+     * indica ao prompt que o texto já foi condensado.
+     */
+    @Override
+    protected Object[] prepararParametros(Object... parametros) {
+        String texto = (String) parametros[0];
+
+        if (DivisorTextoLegislativo.estimarTokens(texto) <= tokensMaximoTrecho) {
+            return parametros;
+        }
+        return new Object[]{condensar(texto), parametros[1], parametros[2], Boolean.TRUE};
+    }
+
     @Override
     protected String construirPrompt(Object... parametros) {
         String texto = (String) parametros[0];
         SolicitarSumarioDTO request = (SolicitarSumarioDTO) parametros[1];
+        boolean condensado = parametros.length > 3 && Boolean.TRUE.equals(parametros[3]);
 
         StringBuilder prompt = new StringBuilder();
 
-        prompt.append("Crie um sumário executivo do seguinte texto legislativo:\n\n");
-        prompt.append(texto);
+        if (condensado) {
+            prompt.append("Crie um sumário executivo do texto legislativo a seguir, ");
+            prompt.append("apresentado como resumos sequenciais de suas seções:\n\n");
+            prompt.append(texto);
+        } else {
+            prompt.append("Crie um sumário executivo do seguinte texto legislativo:\n\n");
+            prompt.append(texto);
+        }
         prompt.append("\n\nResponda APENAS com um JSON no formato:\n");
         prompt.append("{\n");
         prompt.append("  \"sumarioExecutivo\": \"<sumário em 3-5 frases>\",\n");
@@ -173,6 +228,44 @@ public class SumarizacaoService extends BaseIAService<Sumario, SumarioDTO, Resul
                 .findFirst();
     }
 
+    @Override
+    protected String construirChaveCoalescencia(Object... parametros) {
+        String texto = (String) parametros[0];
+        SolicitarSumarioDTO request = (SolicitarSumarioDTO) parametros[1];
+        ItemLegislativo item = (ItemLegislativo) parametros[2];
+
+        // O texto pode ter sido informado na requisição: o mesmo item com outro texto é outro sumário
+        return item.getId() + ":" + request.getTipoSumario() + ":" + hash(texto);
+    }
+
+    @Override
+    protected Optional<Reaproveitamento<Sumario>> getReaproveitamento(Object... parametros) {
+        SolicitarSumarioDTO request = (SolicitarSumarioDTO) parametros[1];
+
+        // Texto informado pelo usuário não é o texto indexado do item
+        if (request.getTexto() != null && !request.getTexto().isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Reaproveitamento<>(2, this::derivar));
+    }
+
+    private Optional<Sumario> derivar(Sumario origem, ItemLegislativo destino, double similaridade) {
+        int tamanhoTexto = textoDoItem(destino).map(String::length).orElse(0);
+
+        Sumario sumario = origem.toBuilder()
+                .id(null)
+                .itemLegislativo(destino)
+                .dataCriacao(LocalDateTime.now())
+                .tempoProcessamentoMs(0L)
+                .tamanhoTextoOriginal(tamanhoTexto)
+                .dataExpiracao(calcularDataExpiracaoDerivada(origem))
+                .derivadaDe(origem.getId())
+                .similaridadeOrigem(similaridade)
+                .build();
+        sumario.setTaxaCompressao(sumario.calcularTaxaCompressao());
+        return Optional.of(sumario);
+    }
+
     @Transactional
     public SumarioDTO sumarizar(SolicitarSumarioDTO request) {
         ItemLegislativo item = buscarItemLegislativo(request.getItemLegislativoId());
@@ -302,11 +395,22 @@ public class SumarizacaoService extends BaseIAService<Sumario, SumarioDTO, Resul
             return request.getTexto();
         }
 
-        if (item.getEmenta() != null && !item.getEmenta().isBlank()) {
-            return item.getEmenta();
-        }
+        return textoDoItem(item)
+                .orElseThrow(() -> new SumarizacaoException("Nenhum texto disponível para sumarização"));
+    }
 
-        throw new SumarizacaoException("Nenhum texto disponível para sumarização");
+    /**
+     * Texto armazenado do item: a ementa seguida da ementa detalhada, quando houver. Textos
+     * longos seguem pelo mesmo fluxo em trechos do texto informado na requisição.
+     */
+    private static Optional<String> textoDoItem(ItemLegislativo item) {
+        String texto = Stream.of(item.getEmenta(), item.getEmentaDetalhada())
+                .filter(parte -> parte != null && !parte.isBlank())
+                .map(String::strip)
+                .distinct()
+                .collect(Collectors.joining("\n\n"));
+
+        return texto.isEmpty() ? Optional.empty() : Optional.of(texto);
     }
 
     private void validarTexto(String texto) {
@@ -318,6 +422,119 @@ public class SumarizacaoService extends BaseIAService<Sumario, SumarioDTO, Resul
             throw new SumarizacaoException(
                     String.format("Texto muito curto para sumarização. Mínimo: %d caracteres", textoMinimoCaracteres));
         }
+
+        if (texto.length() > textoMaximoCaracteres) {
+            throw new SumarizacaoException(
+                    String.format("Texto muito longo para sumarização. Máximo: %d caracteres", textoMaximoCaracteres));
+        }
+    }
+
+    /**
+     * Etapa de map: reduz o texto a resumos de trecho até que caiba em um único prompt.
+     * Textos muito longos podem exigir mais de uma rodada (resumos de resumos).
+     */
+    private String condensar(String texto) {
+        String atual = texto;
+        int rodada = 0;
+
+        while (DivisorTextoLegislativo.estimarTokens(atual) > tokensMaximoTrecho) {
+            List<String> trechos = DivisorTextoLegislativo.dividir(atual, tokensMaximoTrecho);
+            rodada++;
+
+            log.info("Sumarização em trechos, rodada {}: {} trecho(s), ~{} tokens",
+                    rodada, trechos.size(), DivisorTextoLegislativo.estimarTokens(atual));
+
+            String condensado = String.join("\n\n", resumirTrechos(trechos));
+
+            if (condensado.length() >= atual.length()) {
+                throw new SumarizacaoException("Resumos de trecho não reduziram o tamanho do texto");
+            }
+            atual = condensado;
+        }
+
+        return atual;
+    }
+
+    private List<String> resumirTrechos(List<String> trechos) {
+        // Acima da concorrência do agendador os trechos só ocupariam a fila global do LLM
+        Semaphore permissoes = new Semaphore(Math.max(1,
+                Math.min(paralelismoMaximoTrechos, agendador.getConcorrenciaMaxima())));
+        PrioridadeLlama prioridade = AgendadorLlamaService.prioridadeAtual();
+
+        List<Future<String>> resumos = new ArrayList<>();
+        for (String trecho : trechos) {
+            resumos.add(executorTrechos.submit(() -> {
+                permissoes.acquire();
+                try {
+                    return AgendadorLlamaService.comPrioridade(prioridade, () -> resumirTrecho(trecho));
+                } finally {
+                    permissoes.release();
+                }
+            }));
+        }
+
+        List<String> resultado = new ArrayList<>();
+        try {
+            for (Future<String> resumo : resumos) {
+                resultado.add(resumo.get());
+            }
+        } catch (InterruptedException e) {
+            resumos.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw SumarizacaoException.erroProcessamento("sumarização em trechos interrompida", e);
+        } catch (ExecutionException e) {
+            resumos.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof LlamaIndisponivelException indisponivel) {
+                throw indisponivel;
+            }
+            throw SumarizacaoException.erroProcessamento(e.getCause().getMessage(), e.getCause());
+        }
+
+        return resultado;
     }
 
-}
\ No newline at end of file
+    /**
+     * O prompt depende apenas do conteúdo do trecho (sem posição ou total de trechos), de
+     * modo que o cache de respostas do LLM, endereçado por conteúdo, reaproveita os trechos
+     * que não mudaram entre versões do texto.
+     */
+    private String resumirTrecho(String trecho) {
+        String prompt = """
+            Resuma o trecho de texto legislativo abaixo, preservando dispositivos, prazos,
+            valores, órgãos e obrigações mencionados.
+            
+            TRECHO:
+            %s
+            
+            Responda APENAS com um JSON no formato:
+            {
+              "resumo": "<resumo objetivo do trecho>"
+            }
+            """.formatted(trecho);
+
+        RespostaLlamaDTO resposta = llamaService.enviarRequisicao(
+                prompt, construirPromptSistema(), ResultadoResumoTrechoIA.class, TIPO_CACHE_TRECHO, false);
+
+        ResultadoResumoTrechoIA resultado = llamaService.extrairJson(resposta, ResultadoResumoTrechoIA.class);
+
+        if (resultado == null || resultado.resumo() == null || resultado.resumo().isBlank()) {
+            throw new SumarizacaoException("Resumo de trecho vazio");
+        }
+
+        return resultado.resumo().strip();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorTrechos.shutdownNow();
+    }
+
+    private String hash(String texto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
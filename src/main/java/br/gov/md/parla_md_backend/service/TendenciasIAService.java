@@ -141,6 +141,11 @@ public class TendenciasIAService extends BaseIAService<TendenciasIA, TendenciasI
                 .filter(this::isCacheValido);
     }
 
+    @Override
+    protected String construirChaveCoalescencia(Object... parametros) {
+        return "atual";
+    }
+
     @Transactional
     @Cacheable(value = "tendencias-ia", key = "'atual'")
     public TendenciasIADTO analisarTendencias(Map<String, Object> dadosContexto) {
@@ -0,0 +1,301 @@
+package br.gov.md.parla_md_backend.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Grava em lote os dados capturados das APIs legislativas, identificando cada documento
+ * pela chave natural da fonte (idCamara, codigoMateria, id do parlamentar).
+ *
+ * <p>Cada lote custa duas idas ao banco: uma consulta pelas chaves e uma única operação
+ * {@code bulkWrite} não ordenada. Documentos novos são inseridos por upsert; documentos
+ * existentes recebem {@code $set} apenas dos campos que mudaram, de modo que campos nulos
+ * na captura e campos mantidos pela aplicação (triagem, tema...) são preservados.
+ * Documentos sem diferença não geram escrita.</p>
+ */
+@Slf4j
+@Service
+public class UpsertEmLoteService {
+
+    private static final String CAMPO_ID = "_id";
+
+    private final MongoTemplate mongoTemplate;
+    private final int tamanhoLote;
+
+    public UpsertEmLoteService(MongoTemplate mongoTemplate,
+                               @Value("${sincronizacao.upsert.tamanho-lote:500}") int tamanhoLote) {
+        this.mongoTemplate = mongoTemplate;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+    }
+
+    /**
+     * @param classe             tipo persistido; define a coleção
+     * @param campoChave         propriedade com a chave natural
+     * @param somenteNaInsercao  propriedades gravadas só quando o documento é criado
+     * @param campoAtualizacao   propriedade de data de atualização, gravada só quando
+     *                           algum outro campo mudou; pode ser nulo
+     */
+    public record RegraUpsert<T>(Class<T> classe, String campoChave, Set<String> somenteNaInsercao,
+                                 String campoAtualizacao) {
+
+        public static <T> RegraUpsert<T> de(Class<T> classe, String campoChave, String campoAtualizacao,
+                                            String... somenteNaInsercao) {
+            return new RegraUpsert<>(classe, campoChave, Set.of(somenteNaInsercao), campoAtualizacao);
+        }
+    }
+
+    /**
+     * @param itens     documentos gravados ou confirmados, já com os dados persistidos
+     * @param alterados subconjunto de {@code itens} inserido ou atualizado nesta chamada
+     */
+    public record ResultadoUpsert<T>(List<T> itens, List<T> alterados, int inseridos, int atualizados,
+                                     int inalterados, int falhas) {
+    }
+
+    public <T> ResultadoUpsert<T> upsert(RegraUpsert<T> regra, List<? extends T> entidades) {
+        GravadorEmLote<T> gravador = abrirGravador(regra, alterados -> {
+        });
+        entidades.forEach(gravador::adicionar);
+        return gravador.concluir();
+    }
+
+    /**
+     * Gravador para itens que chegam um a um, à medida que a resposta da API é lida.
+     *
+     * @param aoAlterar recebe, a cada lote gravado, os itens inseridos ou atualizados nele
+     */
+    public <T> GravadorEmLote<T> abrirGravador(RegraUpsert<T> regra, Consumer<List<T>> aoAlterar) {
+        return new GravadorEmLote<>(regra, aoAlterar);
+    }
+
+    /**
+     * Acumula os itens recebidos e grava a cada lote completo; {@link #concluir()} grava
+     * o restante e devolve o total.
+     */
+    public final class GravadorEmLote<T> {
+
+        private final RegraUpsert<T> regra;
+        private final Consumer<List<T>> aoAlterar;
+        private final List<T> pendentes = new ArrayList<>();
+        private final Acumulado<T> acumulado = new Acumulado<>();
+        private int recebidos;
+
+        private GravadorEmLote(RegraUpsert<T> regra, Consumer<List<T>> aoAlterar) {
+            this.regra = regra;
+            this.aoAlterar = aoAlterar;
+        }
+
+        public void adicionar(T item) {
+            pendentes.add(item);
+            recebidos++;
+            if (pendentes.size() >= tamanhoLote) {
+                gravarPendentes();
+            }
+        }
+
+        public ResultadoUpsert<T> concluir() {
+            gravarPendentes();
+
+            ResultadoUpsert<T> resultado = new ResultadoUpsert<>(acumulado.itens, acumulado.alterados,
+                    acumulado.inseridos, acumulado.atualizados, acumulado.inalterados, acumulado.falhas);
+
+            log.debug("Upsert em lote de {} {}: {} inserido(s), {} atualizado(s), {} inalterado(s), {} falha(s)",
+                    recebidos, regra.classe().getSimpleName(), resultado.inseridos(), resultado.atualizados(),
+                    resultado.inalterados(), resultado.falhas());
+            return resultado;
+        }
+
+        private void gravarPendentes() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+
+            int alteradosAntes = acumulado.alterados.size();
+            gravarLote(regra, pendentes, acumulado);
+            pendentes.clear();
+
+            if (acumulado.alterados.size() > alteradosAntes) {
+                aoAlterar.accept(List.copyOf(acumulado.alterados.subList(alteradosAntes, acumulado.alterados.size())));
+            }
+        }
+    }
+
+    private <T> void gravarLote(RegraUpsert<T> regra, List<? extends T> lote, Acumulado<T> acumulado) {
+        MongoConverter conversor = mongoTemplate.getConverter();
+        MongoPersistentEntity<?> persistente = conversor.getMappingContext()
+                .getRequiredPersistentEntity(regra.classe());
+        String colecao = persistente.getCollection();
+        String campoChave = persistente.getRequiredPersistentProperty(regra.campoChave()).getFieldName();
+        Set<String> somenteNaInsercao = nomesNoBanco(persistente, regra.somenteNaInsercao());
+        String campoAtualizacao = regra.campoAtualizacao() != null
+                ? persistente.getRequiredPersistentProperty(regra.campoAtualizacao()).getFieldName()
+                : null;
+
+        List<Document> documentos = new ArrayList<>(lote.size());
+        for (T entidade : lote) {
+            Document documento = new Document();
+            conversor.write(entidade, documento);
+            documentos.add(documento);
+        }
+
+        Map<Object, Document> existentes = buscarExistentes(colecao, campoChave, documentos);
+        BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, colecao);
+
+        // Resultado de cada documento do lote e, para os que geram escrita, a operação correspondente
+        List<Document> gravados = new ArrayList<>(documentos.size());
+        List<Boolean> alterados = new ArrayList<>(documentos.size());
+        List<Integer> documentoPorOperacao = new ArrayList<>();
+
+        for (int i = 0; i < documentos.size(); i++) {
+            Document documento = documentos.get(i);
+            Object chave = documento.get(campoChave);
+            Document existente = chave != null ? existentes.get(chave) : null;
+
+            if (existente == null) {
+                documento.putIfAbsent(CAMPO_ID, new ObjectId());
+                if (chave == null) {
+                    operacoes.insert(documento);
+                } else {
+                    Update update = new Update();
+                    documento.forEach((campo, valor) -> {
+                        if (!campo.equals(campoChave)) {
+                            update.setOnInsert(campo, valor);
+                        }
+                    });
+                    operacoes.upsert(Query.query(Criteria.where(campoChave).is(chave)), update);
+                }
+                documentoPorOperacao.add(i);
+                gravados.add(documento);
+                alterados.add(true);
+                continue;
+            }
+
+            Document alteracoes = new Document();
+            documento.forEach((campo, valor) -> {
+                boolean ignorado = campo.equals(CAMPO_ID) || campo.equals(campoChave)
+                        || campo.equals(campoAtualizacao) || somenteNaInsercao.contains(campo);
+                if (!ignorado && !Objects.equals(valor, existente.get(campo))) {
+                    alteracoes.put(campo, valor);
+                }
+            });
+
+            Document mesclado = new Document(existente);
+            if (alteracoes.isEmpty()) {
+                gravados.add(mesclado);
+                alterados.add(false);
+                continue;
+            }
+
+            if (campoAtualizacao != null && documento.get(campoAtualizacao) != null) {
+                alteracoes.put(campoAtualizacao, documento.get(campoAtualizacao));
+            }
+            Update update = new Update();
+            alteracoes.forEach(update::set);
+            operacoes.updateOne(Query.query(Criteria.where(CAMPO_ID).is(existente.get(CAMPO_ID))), update);
+
+            mesclado.putAll(alteracoes);
+            documentoPorOperacao.add(i);
+            gravados.add(mesclado);
+            alterados.add(true);
+        }
+
+        Set<Integer> documentosComFalha = new HashSet<>();
+        if (!documentoPorOperacao.isEmpty()) {
+            BulkWriteResult resultado;
+            try {
+                resultado = operacoes.execute();
+            } catch (BulkOperationException e) {
+                resultado = e.getResult();
+                for (BulkWriteError erro : e.getErrors()) {
+                    documentosComFalha.add(documentoPorOperacao.get(erro.getIndex()));
+                    log.warn("Falha no upsert de {} {}: {}", regra.classe().getSimpleName(),
+                            documentos.get(documentoPorOperacao.get(erro.getIndex())).get(campoChave),
+                            erro.getMessage());
+                }
+            }
+
+            int inseridos = resultado.getInsertedCount() + resultado.getUpserts().size();
+            acumulado.inseridos += inseridos;
+            acumulado.atualizados += resultado.getModifiedCount();
+            // Upserts que encontraram um documento criado por outra execução contam como inalterados
+            acumulado.inalterados += documentoPorOperacao.size() - documentosComFalha.size()
+                    - inseridos - resultado.getModifiedCount();
+        }
+
+        for (int i = 0; i < gravados.size(); i++) {
+            if (documentosComFalha.contains(i)) {
+                continue;
+            }
+            T item = conversor.read(regra.classe(), gravados.get(i));
+            acumulado.itens.add(item);
+            if (alterados.get(i)) {
+                acumulado.alterados.add(item);
+            } else {
+                acumulado.inalterados++;
+            }
+        }
+        acumulado.falhas += documentosComFalha.size();
+    }
+
+    private Map<Object, Document> buscarExistentes(String colecao, String campoChave, List<Document> documentos) {
+        Set<Object> chaves = new HashSet<>();
+        for (Document documento : documentos) {
+            Object chave = documento.get(campoChave);
+            if (chave != null) {
+                chaves.add(chave);
+            }
+        }
+
+        Map<Object, Document> existentes = new HashMap<>();
+        if (!chaves.isEmpty()) {
+            Query query = Query.query(Criteria.where(campoChave).in(chaves));
+            for (Document existente : mongoTemplate.find(query, Document.class, colecao)) {
+                // Duplicatas antigas da mesma chave: atualiza só a primeira encontrada
+                existentes.putIfAbsent(existente.get(campoChave), existente);
+            }
+        }
+        return existentes;
+    }
+
+    private Set<String> nomesNoBanco(MongoPersistentEntity<?> persistente, Set<String> propriedades) {
+        Set<String> nomes = new HashSet<>();
+        for (String propriedade : propriedades) {
+            // Propriedades de subclasses (ex.: gabinetes de Deputado) não constam da classe base
+            MongoPersistentProperty mapeada = persistente.getPersistentProperty(propriedade);
+            nomes.add(mapeada != null ? mapeada.getFieldName() : propriedade);
+        }
+        return nomes;
+    }
+
+    private static final class Acumulado<T> {
+        private final List<T> itens = new ArrayList<>();
+        private final List<T> alterados = new ArrayList<>();
+        private int inseridos;
+        private int atualizados;
+        private int inalterados;
+        private int falhas;
+    }
+}
@@ -1,36 +1,419 @@
 package br.gov.md.parla_md_backend.util;
 
+import br.gov.md.parla_md_backend.config.ApiExternaProperties;
+import br.gov.md.parla_md_backend.exception.ApiExternaException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
+/**
+ * Cliente HTTP único das APIs legislativas (Câmara e Senado).
+ *
+ * <p>Usa HTTP/2 quando o servidor aceita e pede as respostas comprimidas (gzip ou deflate),
+ * descomprimindo-as na leitura. Cada host tem um limite de conexões simultâneas e um balde
+ * de fichas de requisições por segundo, compartilhados por todos os serviços. Respostas
+ * 429 e 5xx e falhas de rede são repetidas com espera exponencial aleatorizada, ou pelo
+ * tempo pedido em {@code Retry-After}; os demais status geram {@link ApiExternaException}
+ * com o código e a URL.</p>
+ *
+ * <p>{@link #lerStreamSeAlterado} faz GET condicional com o {@code ETag} e o
+ * {@code Last-Modified} da última leitura bem-sucedida da mesma URL, mantidos em memória.
+ * O validador só é guardado depois que o leitor termina sem erro, para que uma resposta
+ * processada pela metade não seja tomada como já vista.</p>
+ *
+ * <p>Métricas: {@code api.externa.requisicoes} (tempo até o cabeçalho da resposta) e
+ * {@code api.externa.bytes} (bytes recebidos, antes da descompressão), por host, endpoint
+ * e status; {@code api.externa.retentativas} por host e motivo.</p>
+ *
+ * <p>Com o {@link ArquivoRespostas} em modo de gravação, cada resposta 2xx lida até o fim
+ * é guardada no arquivo local; em modo de reprodução nenhuma requisição sai, e o leitor
+ * recebe a resposta arquivada para a mesma URL, sem limites de taxa.</p>
+ */
+@Slf4j
 @Component
 public class ApiClient {
 
+    private static final Pattern SEGMENTO_NUMERICO = Pattern.compile("/\\d+(?=/|$)");
+
     private final HttpClient httpClient;
+    private final ApiExternaProperties propriedades;
+    private final MeterRegistry meterRegistry;
+    private final ArquivoRespostas arquivo;
+    private final Map<String, LimiteHost> limitesPorHost = new ConcurrentHashMap<>();
+    private final Map<String, Validador> validadores;
+    private final ExecutorService executorAssincrono = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ApiClient(ApiExternaProperties propriedades, MeterRegistry meterRegistry, ArquivoRespostas arquivo) {
+        this.propriedades = propriedades;
+        this.meterRegistry = meterRegistry;
+        this.arquivo = arquivo;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(propriedades.getTimeoutConexao())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
 
-    public ApiClient() {
-        this.httpClient = HttpClient.newHttpClient();
+        int maximo = Math.max(1, propriedades.getValidadoresMaximo());
+        this.validadores = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Validador> maisAntigo) {
+                return size() > maximo;
+            }
+        });
+
+        for (ApiExternaProperties.Host host : propriedades.getHosts()) {
+            String chave = chaveHost(host.getUrl());
+            limitesPorHost.put(chave, new LimiteHost(host, chave));
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executorAssincrono.shutdownNow();
     }
 
     public String get(String url) {
+        return lerStream(url, ApiClient::lerTexto);
+    }
+
+    public CompletableFuture<String> getAsync(String url) {
+        return lerStreamAsync(url, ApiClient::lerTexto);
+    }
+
+    /**
+     * Entrega o corpo da resposta como fluxo ao leitor, sem carregá-lo inteiro em memória.
+     * O fluxo é fechado ao fim da leitura. Falhas do leitor não são repetidas.
+     */
+    public <T> T lerStream(String url, LeitorCorpo<T> leitor) {
+        return executar(url, false, leitor).orElse(null);
+    }
+
+    /**
+     * Como {@link #lerStream}, mas vazio se a resposta não mudou desde a última leitura
+     * bem-sucedida desta URL (304 Not Modified); nesse caso o leitor não é chamado.
+     */
+    public <T> Optional<T> lerStreamSeAlterado(String url, LeitorCorpo<T> leitor) {
+        return executar(url, true, leitor);
+    }
+
+    /**
+     * Executa {@link #lerStream} numa thread virtual; limites e tentativas são os mesmos.
+     */
+    public <T> CompletableFuture<T> lerStreamAsync(String url, LeitorCorpo<T> leitor) {
+        return CompletableFuture.supplyAsync(() -> lerStream(url, leitor), executorAssincrono);
+    }
+
+    @FunctionalInterface
+    public interface LeitorCorpo<T> {
+        T ler(InputStream corpo) throws Exception;
+    }
+
+    private <T> Optional<T> executar(String url, boolean condicional, LeitorCorpo<T> leitor) {
+        URI uri = URI.create(url);
+        LimiteHost limite = limitesPorHost.computeIfAbsent(chaveHost(url),
+                host -> new LimiteHost(propriedades.getPadrao(), host));
+        if (arquivo.reproduzindo()) {
+            return Optional.ofNullable(reproduzir(url, leitor, limite));
+        }
+        String endpoint = SEGMENTO_NUMERICO.matcher(uri.getRawPath() != null ? uri.getRawPath() : "")
+                .replaceAll("/{id}");
+        Validador validador = condicional ? validadores.get(url) : null;
+        int tentativas = Math.max(1, propriedades.getTentativas());
+
+        for (int tentativa = 1; ; tentativa++) {
+            boolean permissao = false;
+            try {
+                limite.conexoes.acquire();
+                permissao = true;
+                limite.taxa.adquirir();
+
+                HttpResponse<InputStream> resposta = enviar(uri, limite, validador, endpoint);
+                int status = resposta.statusCode();
+
+                if (status == 304 && validador != null) {
+                    resposta.body().close();
+                    return Optional.empty();
+                }
+
+                if ((status == 429 || status >= 500) && tentativa < tentativas) {
+                    resposta.body().close();
+                    Duration espera = esperaRetentativa(tentativa, resposta);
+                    limite.conexoes.release();
+                    permissao = false;
+                    registrarRetentativa(limite, String.valueOf(status), url, espera);
+                    Thread.sleep(espera.toMillis());
+                    continue;
+                }
+
+                if (status < 200 || status >= 300) {
+                    resposta.body().close();
+                    throw new ApiExternaException("Resposta HTTP " + status, limite.nome, status, url);
+                }
+
+                T lido = ler(resposta, leitor, limite, endpoint, url);
+                if (condicional) {
+                    guardarValidador(url, resposta);
+                }
+                return Optional.ofNullable(lido);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiExternaException("Requisição interrompida", limite.nome, null, url, e);
+            } catch (IOException e) {
+                if (tentativa >= tentativas) {
+                    throw new ApiExternaException("Falha de comunicação: " + e.getMessage(),
+                            limite.nome, null, url, e);
+                }
+                if (permissao) {
+                    limite.conexoes.release();
+                    permissao = false;
+                }
+                Duration espera = esperaExponencial(tentativa);
+                registrarRetentativa(limite, e.getClass().getSimpleName(), url, espera);
+                try {
+                    Thread.sleep(espera.toMillis());
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    throw new ApiExternaException("Requisição interrompida", limite.nome, null, url, interrompido);
+                }
+            } finally {
+                if (permissao) {
+                    limite.conexoes.release();
+                }
+            }
+        }
+    }
+
+    private HttpResponse<InputStream> enviar(URI uri, LimiteHost limite, Validador validador, String endpoint)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(uri)
+                .timeout(limite.timeout)
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET();
+        if (validador != null && validador.etag() != null) {
+            requisicao.header("If-None-Match", validador.etag());
+        }
+        if (validador != null && validador.ultimaModificacao() != null) {
+            requisicao.header("If-Modified-Since", validador.ultimaModificacao());
+        }
+
+        long inicio = System.nanoTime();
+        String status = "erro";
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .build();
+            HttpResponse<InputStream> resposta = httpClient.send(requisicao.build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            status = String.valueOf(resposta.statusCode());
+            return resposta;
+        } finally {
+            Timer.builder("api.externa.requisicoes")
+                    .description("Tempo até o cabeçalho da resposta das APIs legislativas")
+                    .tag("host", uri.getHost())
+                    .tag("endpoint", endpoint)
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    private <T> T ler(HttpResponse<InputStream> resposta, LeitorCorpo<T> leitor, LimiteHost limite,
+                      String endpoint, String url) {
+        ContadorBytes recebido = new ContadorBytes(resposta.body());
+        try (InputStream descomprimido = descomprimir(recebido, resposta)) {
+            if (!arquivo.gravando()) {
+                return leitor.ler(descomprimido);
+            }
 
-            if (response.statusCode() == 200) {
-                return response.body();
-            } else {
-                throw new RuntimeException("HTTP error code: " + response.statusCode());
+            ArquivoRespostas.Gravacao iniciada;
+            try {
+                iniciada = arquivo.iniciarGravacao(url, descomprimido);
+            } catch (IOException e) {
+                log.warn("Resposta de {} não arquivada: {}", url, e.getMessage());
+                return leitor.ler(descomprimido);
             }
+
+            try (ArquivoRespostas.Gravacao gravacao = iniciada) {
+                T lido = leitor.ler(gravacao.corpo());
+                try {
+                    gravacao.concluir();
+                } catch (IOException e) {
+                    // O arquivo é acessório: a leitura já foi processada e vale mesmo sem a cópia
+                    log.warn("Resposta de {} não arquivada: {}", url, e.getMessage());
+                }
+                return lido;
+            }
+        } catch (ApiExternaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiExternaException("Falha ao ler a resposta: " + e.getMessage(),
+                    limite.nome, resposta.statusCode(), url, e);
+        } finally {
+            DistributionSummary.builder("api.externa.bytes")
+                    .description("Bytes recebidos das APIs legislativas, antes da descompressão")
+                    .baseUnit("bytes")
+                    .tag("host", resposta.uri().getHost())
+                    .tag("endpoint", endpoint)
+                    .tag("status", String.valueOf(resposta.statusCode()))
+                    .register(meterRegistry)
+                    .record(recebido.total);
+        }
+    }
+
+    private <T> T reproduzir(String url, LeitorCorpo<T> leitor, LimiteHost limite) {
+        try (InputStream corpo = arquivo.abrir(url).orElseThrow(() ->
+                new ApiExternaException("Resposta não arquivada", limite.nome, 404, url))) {
+            return leitor.ler(corpo);
+        } catch (ApiExternaException e) {
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException("Error fetching data from API", e);
+            throw new ApiExternaException("Falha ao ler a resposta arquivada: " + e.getMessage(),
+                    limite.nome, null, url, e);
+        }
+    }
+
+    private InputStream descomprimir(InputStream corpo, HttpResponse<?> resposta) throws IOException {
+        String codificacao = resposta.headers().firstValue("Content-Encoding").orElse("")
+                .trim().toLowerCase(Locale.ROOT);
+        return switch (codificacao) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(corpo, 16 * 1024);
+            case "deflate" -> new InflaterInputStream(corpo);
+            default -> corpo;
+        };
+    }
+
+    private void guardarValidador(String url, HttpResponse<?> resposta) {
+        String etag = resposta.headers().firstValue("ETag").orElse(null);
+        String ultimaModificacao = resposta.headers().firstValue("Last-Modified").orElse(null);
+        if (etag != null || ultimaModificacao != null) {
+            validadores.put(url, new Validador(etag, ultimaModificacao));
+        } else {
+            validadores.remove(url);
+        }
+    }
+
+    /**
+     * Retry-After em segundos ou como data HTTP; sem ele, espera exponencial.
+     */
+    private Duration esperaRetentativa(int tentativa, HttpResponse<?> resposta) {
+        Optional<String> retryAfter = resposta.headers().firstValue("Retry-After").map(String::trim);
+        if (retryAfter.isEmpty()) {
+            return esperaExponencial(tentativa);
+        }
+
+        Duration pedida;
+        try {
+            pedida = Duration.ofSeconds(Long.parseLong(retryAfter.get()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime quando = ZonedDateTime.parse(retryAfter.get(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                pedida = Duration.between(ZonedDateTime.now(quando.getZone()), quando);
+            } catch (DateTimeParseException ex) {
+                return esperaExponencial(tentativa);
+            }
+        }
+
+        if (pedida.isNegative()) {
+            return Duration.ZERO;
+        }
+        return pedida.compareTo(propriedades.getEsperaMaxima()) > 0 ? propriedades.getEsperaMaxima() : pedida;
+    }
+
+    /**
+     * Espera aleatória entre zero e o dobro da anterior (full jitter), limitada pelo teto,
+     * para que os workers que falharam juntos não voltem todos ao mesmo tempo.
+     */
+    private Duration esperaExponencial(int tentativa) {
+        long teto = Math.min(propriedades.getEsperaMaxima().toMillis(),
+                propriedades.getEsperaInicial().toMillis() << Math.min(tentativa - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(Math.max(1, teto) + 1));
+    }
+
+    private void registrarRetentativa(LimiteHost limite, String motivo, String url, Duration espera) {
+        meterRegistry.counter("api.externa.retentativas", "host", limite.host, "motivo", motivo).increment();
+        log.debug("Nova tentativa em {} ms para {} ({})", espera.toMillis(), url, motivo);
+    }
+
+    private static String lerTexto(InputStream corpo) throws IOException {
+        return new String(corpo.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static String chaveHost(String url) {
+        String host = URI.create(url).getHost();
+        return host != null ? host.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private record Validador(String etag, String ultimaModificacao) {
+    }
+
+    private static final class LimiteHost {
+        private final String host;
+        private final String nome;
+        private final Semaphore conexoes;
+        private final LimitadorTaxa taxa;
+        private final Duration timeout;
+
+        private LimiteHost(ApiExternaProperties.Host configuracao, String host) {
+            this.host = host;
+            this.nome = configuracao.getNome() != null ? configuracao.getNome() : host;
+            this.conexoes = new Semaphore(Math.max(1, configuracao.getConexoes()), true);
+            this.taxa = new LimitadorTaxa(configuracao.getRequisicoesPorSegundo(), configuracao.getRajada());
+            this.timeout = configuracao.getTimeout();
+        }
+    }
+
+    private static final class ContadorBytes extends FilterInputStream {
+        private long total;
+
+        private ContadorBytes(InputStream corpo) {
+            super(corpo);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int lido = super.read();
+            if (lido >= 0) {
+                total++;
+            }
+            return lido;
+        }
+
+        @Override
+        public int read(byte[] destino, int inicio, int tamanho) throws IOException {
+            int lidos = super.read(destino, inicio, tamanho);
+            if (lidos > 0) {
+                total += lidos;
+            }
+            return lidos;
         }
     }
 }
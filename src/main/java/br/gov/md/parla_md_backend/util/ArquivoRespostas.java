@@ -0,0 +1,382 @@
+package br.gov.md.parla_md_backend.util;
+
+import br.gov.md.parla_md_backend.config.ApiExternaProperties;
+import br.gov.md.parla_md_backend.config.ApiExternaProperties.Arquivo.Modo;
+import br.gov.md.parla_md_backend.domain.dto.ResumoArquivoRespostasDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivo local das respostas brutas das APIs legislativas, para reprocessar capturas
+ * sem voltar à rede (api-externa.arquivo).
+ *
+ * <p>Cada resposta é gravada como um membro gzip independente no fim do segmento aberto
+ * ({@code segmento-000001.gz}), e uma linha no índice do segmento ({@code .idx}) registra
+ * o instante da captura, a posição, o tamanho e a URL. Um segmento novo é aberto a cada
+ * inicialização e quando o atual passa do tamanho configurado; segmentos fechados não são
+ * mais alterados. A linha do índice só é escrita depois dos dados, de modo que uma gravação
+ * interrompida deixa no máximo bytes órfãos no fim do segmento, ignorados na leitura.</p>
+ *
+ * <p>Na reprodução, o índice de todos os segmentos fica em memória e cada URL é servida
+ * pela captura mais recente, ou pela mais recente até {@code reproduzir-ate}.</p>
+ */
+@Slf4j
+@Component
+public class ArquivoRespostas {
+
+    private static final Pattern NOME_SEGMENTO = Pattern.compile("segmento-(\\d{6})\\.(gz|idx)");
+    private static final String SEPARADOR = "\t";
+    private static final String PREFIXO_TEMPORARIO = "gravacao-";
+    private static final String SUFIXO_TEMPORARIO = ".tmp";
+
+    private final Modo modo;
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+    private final Instant reproduzirAte;
+    private final Map<String, NavigableMap<Instant, Entrada>> indice = new ConcurrentHashMap<>();
+    private final ReentrantLock trava = new ReentrantLock();
+
+    private int numeroSegmento;
+    private FileChannel segmentoAtual;
+    private BufferedWriter indiceAtual;
+    private long tamanhoAtual;
+
+    /**
+     * @param tamanho        bytes comprimidos no segmento
+     * @param bytesOriginais bytes da resposta descomprimida
+     */
+    private record Entrada(Instant capturadoEm, int segmento, long posicao, int tamanho, long bytesOriginais) {
+    }
+
+    public ArquivoRespostas(ApiExternaProperties propriedades) {
+        ApiExternaProperties.Arquivo configuracao = propriedades.getArquivo();
+        this.modo = configuracao.getModo();
+        this.diretorio = Paths.get(configuracao.getDiretorio());
+        this.tamanhoSegmento = Math.max(1, configuracao.getTamanhoSegmento().toBytes());
+        this.reproduzirAte = configuracao.getReproduzirAte();
+
+        if (modo != Modo.DESLIGADO) {
+            try {
+                carregarIndice();
+            } catch (IOException e) {
+                throw new IllegalStateException("Não foi possível ler o arquivo de respostas em " + diretorio, e);
+            }
+            log.info("Arquivo de respostas em {} no modo {}: {} URL(s) em {} segmento(s)",
+                    diretorio, modo, indice.size(), numeroSegmento);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        trava.lock();
+        try {
+            fecharSegmento();
+        } catch (IOException e) {
+            log.warn("Erro ao fechar o segmento {} do arquivo de respostas: {}", numeroSegmento, e.getMessage());
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public boolean gravando() {
+        return modo == Modo.GRAVAR;
+    }
+
+    public boolean reproduzindo() {
+        return modo == Modo.REPRODUZIR;
+    }
+
+    /**
+     * Corpo descomprimido da captura a reproduzir para a URL, ou vazio se não há captura.
+     */
+    public Optional<InputStream> abrir(String url) throws IOException {
+        NavigableMap<Instant, Entrada> capturas = indice.get(url);
+        if (capturas == null) {
+            return Optional.empty();
+        }
+
+        Map.Entry<Instant, Entrada> captura = reproduzirAte != null
+                ? capturas.floorEntry(reproduzirAte)
+                : capturas.lastEntry();
+        if (captura == null) {
+            return Optional.empty();
+        }
+
+        Entrada entrada = captura.getValue();
+        ByteBuffer comprimido = ByteBuffer.allocate(entrada.tamanho());
+        try (FileChannel canal = FileChannel.open(caminhoSegmento(entrada.segmento(), "gz"), StandardOpenOption.READ)) {
+            while (comprimido.hasRemaining()) {
+                if (canal.read(comprimido, entrada.posicao() + comprimido.position()) < 0) {
+                    throw new EOFException("Segmento " + entrada.segmento() + " truncado");
+                }
+            }
+        }
+        return Optional.of(new GZIPInputStream(new ByteArrayInputStream(comprimido.array()), 16 * 1024));
+    }
+
+    /**
+     * Passa a copiar, comprimido, tudo o que for lido de {@code corpo}. A resposta só entra
+     * no arquivo em {@link Gravacao#concluir()}; uma leitura que falha não deixa registro,
+     * desde que a gravação seja fechada.
+     */
+    public Gravacao iniciarGravacao(String url, InputStream corpo) throws IOException {
+        return new Gravacao(url, corpo);
+    }
+
+    public ResumoArquivoRespostasDTO resumo() {
+        long respostas = 0;
+        long bytesComprimidos = 0;
+        long bytesOriginais = 0;
+        Instant primeira = null;
+        Instant ultima = null;
+
+        for (NavigableMap<Instant, Entrada> capturas : indice.values()) {
+            for (Entrada entrada : capturas.values()) {
+                respostas++;
+                bytesComprimidos += entrada.tamanho();
+                bytesOriginais += entrada.bytesOriginais();
+            }
+            if (primeira == null || capturas.firstKey().isBefore(primeira)) {
+                primeira = capturas.firstKey();
+            }
+            if (ultima == null || capturas.lastKey().isAfter(ultima)) {
+                ultima = capturas.lastKey();
+            }
+        }
+
+        return new ResumoArquivoRespostasDTO(modo.name(), diretorio.toAbsolutePath().toString(), numeroSegmento,
+                indice.size(), respostas, bytesComprimidos, bytesOriginais, horarioLocal(primeira), horarioLocal(ultima));
+    }
+
+    /**
+     * A cópia comprimida vai direto para um arquivo temporário no diretório do arquivo, sem
+     * acumular a resposta em memória; {@link #close()} descarta o temporário.
+     */
+    public final class Gravacao implements Closeable {
+
+        private final String url;
+        private final Instant capturadoEm = Instant.now();
+        private final Path temporario;
+        private final GZIPOutputStream gzip;
+        private final Copia corpo;
+
+        private Gravacao(String url, InputStream origem) throws IOException {
+            this.url = url;
+            Files.createDirectories(diretorio);
+            this.temporario = Files.createTempFile(diretorio, PREFIXO_TEMPORARIO, SUFIXO_TEMPORARIO);
+            OutputStream saida = Files.newOutputStream(temporario, StandardOpenOption.WRITE);
+            try {
+                this.gzip = new GZIPOutputStream(saida, 16 * 1024);
+            } catch (IOException e) {
+                saida.close();
+                Files.deleteIfExists(temporario);
+                throw e;
+            }
+            this.corpo = new Copia(origem, gzip);
+        }
+
+        public InputStream corpo() {
+            return corpo;
+        }
+
+        public void concluir() throws IOException {
+            // Os parsers podem parar antes do fim do fluxo: arquiva a resposta inteira
+            corpo.transferTo(OutputStream.nullOutputStream());
+            gzip.close();
+            anexar(url, capturadoEm, temporario, corpo.total);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                gzip.close();
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+        }
+    }
+
+    private void anexar(String url, Instant capturadoEm, Path comprimido, long bytesOriginais) throws IOException {
+        trava.lock();
+        try (FileChannel origem = FileChannel.open(comprimido, StandardOpenOption.READ)) {
+            if (segmentoAtual == null || tamanhoAtual >= tamanhoSegmento) {
+                abrirNovoSegmento();
+            }
+
+            long posicao = tamanhoAtual;
+            long tamanho = origem.size();
+            long copiados = 0;
+            while (copiados < tamanho) {
+                copiados += segmentoAtual.transferFrom(origem, posicao + copiados, tamanho - copiados);
+            }
+            tamanhoAtual += tamanho;
+
+            // Metadados só depois dos dados no segmento, quando o tamanho comprimido já é conhecido
+            Entrada entrada = new Entrada(capturadoEm, numeroSegmento, posicao, Math.toIntExact(tamanho),
+                    bytesOriginais);
+            indiceAtual.write(String.join(SEPARADOR, capturadoEm.toString(), String.valueOf(posicao),
+                    String.valueOf(tamanho), String.valueOf(bytesOriginais), url));
+            indiceAtual.newLine();
+            indiceAtual.flush();
+
+            registrar(url, entrada);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void abrirNovoSegmento() throws IOException {
+        fecharSegmento();
+        Files.createDirectories(diretorio);
+        numeroSegmento++;
+        segmentoAtual = FileChannel.open(caminhoSegmento(numeroSegmento, "gz"),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        indiceAtual = Files.newBufferedWriter(caminhoSegmento(numeroSegmento, "idx"), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        tamanhoAtual = 0;
+        log.debug("Aberto o segmento {} do arquivo de respostas", numeroSegmento);
+    }
+
+    private void fecharSegmento() throws IOException {
+        if (segmentoAtual != null) {
+            segmentoAtual.close();
+            indiceAtual.close();
+            segmentoAtual = null;
+            indiceAtual = null;
+        }
+    }
+
+    private void carregarIndice() throws IOException {
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+
+        List<Path> arquivos;
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            arquivos = listagem.sorted().toList();
+        }
+
+        for (Path arquivo : arquivos) {
+            String nomeArquivo = arquivo.getFileName().toString();
+            if (modo == Modo.GRAVAR && nomeArquivo.startsWith(PREFIXO_TEMPORARIO)
+                    && nomeArquivo.endsWith(SUFIXO_TEMPORARIO)) {
+                // Sobra de uma gravação interrompida por parada do processo
+                Files.deleteIfExists(arquivo);
+                continue;
+            }
+            Matcher nome = NOME_SEGMENTO.matcher(nomeArquivo);
+            if (!nome.matches()) {
+                continue;
+            }
+            int segmento = Integer.parseInt(nome.group(1));
+            numeroSegmento = Math.max(numeroSegmento, segmento);
+            if (nome.group(2).equals("idx")) {
+                carregarIndiceSegmento(arquivo, segmento);
+            }
+        }
+    }
+
+    private void carregarIndiceSegmento(Path arquivo, int segmento) throws IOException {
+        for (String linha : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+            String[] campos = linha.split(SEPARADOR, 5);
+            if (campos.length < 5) {
+                continue;
+            }
+            try {
+                registrar(campos[4], new Entrada(Instant.parse(campos[0]), segmento, Long.parseLong(campos[1]),
+                        Integer.parseInt(campos[2]), Long.parseLong(campos[3])));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                // Linha cortada por uma parada no meio da escrita
+                log.warn("Linha inválida ignorada no índice {}: {}", arquivo.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private void registrar(String url, Entrada entrada) {
+        indice.computeIfAbsent(url, u -> new ConcurrentSkipListMap<>()).put(entrada.capturadoEm(), entrada);
+    }
+
+    private static LocalDateTime horarioLocal(Instant instante) {
+        return instante != null ? LocalDateTime.ofInstant(instante, ZoneId.systemDefault()) : null;
+    }
+
+    private Path caminhoSegmento(int segmento, String extensao) {
+        return diretorio.resolve(String.format("segmento-%06d.%s", segmento, extensao));
+    }
+
+    private static final class Copia extends FilterInputStream {
+        private final OutputStream destino;
+        private long total;
+
+        private Copia(InputStream origem, OutputStream destino) {
+            super(origem);
+            this.destino = destino;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int lido = super.read();
+            if (lido >= 0) {
+                destino.write(lido);
+                total++;
+            }
+            return lido;
+        }
+
+        @Override
+        public int read(byte[] buffer, int inicio, int tamanho) throws IOException {
+            int lidos = super.read(buffer, inicio, tamanho);
+            if (lidos > 0) {
+                destino.write(buffer, inicio, lidos);
+                total += lidos;
+            }
+            return lidos;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public long skip(long quantidade) throws IOException {
+            // Bytes pulados também precisam ir para a cópia
+            byte[] buffer = new byte[(int) Math.min(quantidade, 8192)];
+            int lidos = read(buffer, 0, buffer.length);
+            return Math.max(lidos, 0);
+        }
+    }
+}
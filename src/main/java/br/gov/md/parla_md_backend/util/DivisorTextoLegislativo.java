@@ -0,0 +1,97 @@
+package br.gov.md.parla_md_backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Divide textos legislativos longos em trechos que cabem na janela de contexto do modelo.
+ *
+ * <p>A divisão respeita, nesta ordem, os limites de artigo, de parágrafo e de frase; só
+ * quando um único segmento excede o limite ele é cortado por palavras. Trechos vizinhos
+ * pequenos são agrupados até o limite, de modo que uma alteração pontual no texto muda
+ * apenas o trecho que a contém.</p>
+ */
+public final class DivisorTextoLegislativo {
+
+    // Estimativa conservadora para português com o tokenizador do Llama
+    private static final double CARACTERES_POR_TOKEN = 3.5;
+
+    private static final Pattern INICIO_ARTIGO = Pattern.compile("(?m)(?=^\\s*Art\\.\\s*\\d)");
+    private static final Pattern PARAGRAFO = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern FRASE = Pattern.compile("(?<=[.;:])\\s+");
+    private static final Pattern PALAVRA = Pattern.compile("\\s+");
+
+    private static final List<Pattern> SEPARADORES = List.of(INICIO_ARTIGO, PARAGRAFO, FRASE, PALAVRA);
+
+    // Artigos e parágrafos são religados por quebra de linha; frases e palavras, por espaço
+    private static final List<String> JUNTORES = List.of("\n", "\n", " ", " ");
+
+    private DivisorTextoLegislativo() {
+    }
+
+    public static int estimarTokens(String texto) {
+        return texto == null ? 0 : (int) Math.ceil(texto.length() / CARACTERES_POR_TOKEN);
+    }
+
+    public static List<String> dividir(String texto, int maximoTokens) {
+        if (maximoTokens <= 0) {
+            throw new IllegalArgumentException("maximoTokens deve ser positivo");
+        }
+
+        List<String> trechos = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return trechos;
+        }
+
+        int maximoCaracteres = (int) (maximoTokens * CARACTERES_POR_TOKEN);
+        StringBuilder atual = new StringBuilder();
+
+        for (Segmento segmento : segmentar(texto.strip(), maximoCaracteres, 0, "\n")) {
+            if (atual.length() > 0 && atual.length() + segmento.texto().length() + 1 > maximoCaracteres) {
+                trechos.add(atual.toString());
+                atual.setLength(0);
+            }
+            if (atual.length() > 0) {
+                atual.append(segmento.juntor());
+            }
+            atual.append(segmento.texto());
+        }
+
+        if (atual.length() > 0) {
+            trechos.add(atual.toString());
+        }
+
+        return trechos;
+    }
+
+    private static List<Segmento> segmentar(String texto, int maximoCaracteres, int nivel, String juntor) {
+        List<Segmento> segmentos = new ArrayList<>();
+
+        if (texto.length() <= maximoCaracteres) {
+            segmentos.add(new Segmento(texto, juntor));
+            return segmentos;
+        }
+
+        if (nivel >= SEPARADORES.size()) {
+            // Sem separador natural: corte rígido
+            for (int inicio = 0; inicio < texto.length(); inicio += maximoCaracteres) {
+                segmentos.add(new Segmento(
+                        texto.substring(inicio, Math.min(inicio + maximoCaracteres, texto.length())), ""));
+            }
+            return segmentos;
+        }
+
+        for (String parte : SEPARADORES.get(nivel).split(texto)) {
+            String limpa = parte.strip();
+            if (!limpa.isEmpty()) {
+                segmentos.addAll(segmentar(limpa, maximoCaracteres, nivel + 1, JUNTORES.get(nivel)));
+            }
+        }
+
+        return segmentos;
+    }
+
+    private record Segmento(String texto, String juntor) {
+    }
+}
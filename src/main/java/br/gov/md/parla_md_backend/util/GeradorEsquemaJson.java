@@ -0,0 +1,148 @@
+package br.gov.md.parla_md_backend.util;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gera o JSON Schema das classes de resultado das análises de IA, usado no campo
+ * {@code format} do Ollama para restringir a geração à estrutura esperada.
+ *
+ * <p>As propriedades são as que o Jackson usaria para desserializar a classe, com os
+ * mesmos nomes; todas são obrigatórias no esquema. Os esquemas são mantidos em cache
+ * por classe e não devem ser alterados por quem os recebe.</p>
+ */
+public final class GeradorEsquemaJson {
+
+    private static final JsonNodeFactory NOS = JsonNodeFactory.instance;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectNode> esquemas = new ConcurrentHashMap<>();
+
+    public GeradorEsquemaJson(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ObjectNode gerar(Class<?> classe) {
+        return esquemas.computeIfAbsent(classe, c -> esquemaDe(objectMapper.constructType(c)));
+    }
+
+    /**
+     * Esquema restrito às propriedades informadas, para pedir ao modelo apenas os campos
+     * que faltaram numa resposta anterior.
+     */
+    public ObjectNode gerarParcial(Class<?> classe, Collection<String> campos) {
+        ObjectNode completo = gerar(classe);
+        ObjectNode propriedades = NOS.objectNode();
+        ArrayNode obrigatorias = NOS.arrayNode();
+
+        for (String campo : campos) {
+            JsonNode propriedade = completo.path("properties").get(campo);
+            if (propriedade != null) {
+                propriedades.set(campo, propriedade);
+                obrigatorias.add(campo);
+            }
+        }
+
+        ObjectNode parcial = NOS.objectNode();
+        parcial.put("type", "object");
+        parcial.set("properties", propriedades);
+        parcial.set("required", obrigatorias);
+        return parcial;
+    }
+
+    /**
+     * Propriedades de primeiro nível da classe ausentes ou nulas no objeto lido.
+     */
+    public List<String> camposAusentes(Class<?> classe, ObjectNode objeto) {
+        List<String> ausentes = new ArrayList<>();
+        gerar(classe).path("properties").fieldNames().forEachRemaining(campo -> {
+            JsonNode valor = objeto.get(campo);
+            if (valor == null || valor.isNull()) {
+                ausentes.add(campo);
+            }
+        });
+        return ausentes;
+    }
+
+    /**
+     * Completa as listas ausentes com listas vazias, para que o resultado possa ser
+     * usado sem verificações de nulo; os demais campos ausentes ficam nulos.
+     */
+    public void preencherPadroes(Class<?> classe, ObjectNode objeto) {
+        gerar(classe).path("properties").fields().forEachRemaining(propriedade -> {
+            JsonNode valor = objeto.get(propriedade.getKey());
+            boolean ausente = valor == null || valor.isNull();
+            if (ausente && "array".equals(propriedade.getValue().path("type").asText())) {
+                objeto.set(propriedade.getKey(), NOS.arrayNode());
+            }
+        });
+    }
+
+    private ObjectNode esquemaDe(JavaType tipo) {
+        ObjectNode esquema = NOS.objectNode();
+        Class<?> classe = tipo.getRawClass();
+
+        if (tipo.isArrayType() || tipo.isCollectionLikeType()) {
+            esquema.put("type", "array");
+            esquema.set("items", esquemaDe(tipo.getContentType()));
+        } else if (tipo.isMapLikeType()) {
+            esquema.put("type", "object");
+        } else if (tipo.isEnumType()) {
+            ArrayNode valores = esquema.put("type", "string").putArray("enum");
+            for (Object constante : classe.getEnumConstants()) {
+                valores.add(((Enum<?>) constante).name());
+            }
+        } else if (CharSequence.class.isAssignableFrom(classe) || Temporal.class.isAssignableFrom(classe)
+                || classe == char.class || classe == Character.class) {
+            esquema.put("type", "string");
+        } else if (classe == boolean.class || classe == Boolean.class) {
+            esquema.put("type", "boolean");
+        } else if (classe == int.class || classe == long.class || classe == short.class || classe == byte.class
+                || classe == Integer.class || classe == Long.class || classe == Short.class || classe == Byte.class
+                || classe == BigInteger.class) {
+            esquema.put("type", "integer");
+        } else if (classe.isPrimitive() || Number.class.isAssignableFrom(classe) || classe == BigDecimal.class) {
+            esquema.put("type", "number");
+        } else {
+            esquemaDeObjeto(tipo, esquema);
+        }
+
+        return esquema;
+    }
+
+    private void esquemaDeObjeto(JavaType tipo, ObjectNode esquema) {
+        BeanDescription descricao = objectMapper.getDeserializationConfig().introspect(tipo);
+
+        // Só propriedades preenchíveis: ignora métodos derivados como isCompleta()
+        Map<String, JavaType> propriedades = new LinkedHashMap<>();
+        for (BeanPropertyDefinition propriedade : descricao.findProperties()) {
+            if (propriedade.hasConstructorParameter() || propriedade.hasSetter() || propriedade.hasField()) {
+                propriedades.put(propriedade.getName(), propriedade.getPrimaryType());
+            }
+        }
+
+        esquema.put("type", "object");
+        ObjectNode nos = esquema.putObject("properties");
+        ArrayNode obrigatorias = esquema.putArray("required");
+        propriedades.forEach((nome, tipoPropriedade) -> {
+            nos.set(nome, esquemaDe(tipoPropriedade));
+            obrigatorias.add(nome);
+        });
+    }
+}
@@ -0,0 +1,502 @@
+package br.gov.md.parla_md_backend.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice HNSW (Hierarchical Navigable Small World) para busca aproximada de vizinhos
+ * mais próximos por similaridade de cosseno.
+ *
+ * <p>Os vetores são normalizados na inserção e guardados num único {@code float[]}
+ * contíguo; as conexões de cada nó ficam em {@code int[]} por camada, com a quantidade
+ * na primeira posição. Atualizar uma chave marca o nó anterior como removido e insere
+ * um novo; os removidos continuam servindo de caminho na navegação e são descartados
+ * por {@link #compactar()}.</p>
+ *
+ * <p>Buscas podem ser concorrentes entre si; inserções e remoções são exclusivas.</p>
+ */
+public final class IndiceHnsw {
+
+    private static final int MAGICO = 0x484E5357;
+    private static final int VERSAO_FORMATO = 1;
+    private static final int NIVEL_MAXIMO_SORTEADO = 16;
+
+    private static final Comparator<Candidato> MAIS_PROXIMO = Comparator.comparingDouble(Candidato::distancia);
+
+    private final int dimensao;
+    private final int m;
+    private final int mBase;
+    private final int efConstrucao;
+    private final double fatorNivel;
+    private final Random aleatorio = new Random(42);
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> posicoes = new HashMap<>();
+    private final BitSet removidos = new BitSet();
+
+    private float[] vetores;
+    private String[] chaves;
+    private int[][][] conexoes;
+    private int total;
+    private int pontoEntrada = -1;
+    private int nivelMaximo = -1;
+
+    public IndiceHnsw(int dimensao, int m, int efConstrucao) {
+        if (dimensao <= 0 || m < 2 || efConstrucao <= 0) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o índice HNSW");
+        }
+        this.dimensao = dimensao;
+        this.m = m;
+        this.mBase = 2 * m;
+        this.efConstrucao = Math.max(efConstrucao, m);
+        this.fatorNivel = 1 / Math.log(m);
+
+        int capacidade = 1024;
+        this.vetores = new float[capacidade * dimensao];
+        this.chaves = new String[capacidade];
+        this.conexoes = new int[capacidade][][];
+    }
+
+    public int getDimensao() {
+        return dimensao;
+    }
+
+    /**
+     * Quantidade de chaves ativas.
+     */
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return posicoes.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fração dos nós do grafo que pertencem a chaves removidas ou substituídas.
+     */
+    public double fracaoRemovidos() {
+        trava.readLock().lock();
+        try {
+            return total == 0 ? 0.0 : (double) removidos.cardinality() / total;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public boolean contem(String chave) {
+        trava.readLock().lock();
+        try {
+            return posicoes.containsKey(chave);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vetor normalizado da chave, se indexada.
+     */
+    public Optional<float[]> vetor(String chave) {
+        trava.readLock().lock();
+        try {
+            Integer no = posicoes.get(chave);
+            if (no == null) {
+                return Optional.empty();
+            }
+            int base = no * dimensao;
+            return Optional.of(Arrays.copyOfRange(vetores, base, base + dimensao));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public void adicionar(String chave, float[] vetor) {
+        if (vetor.length != dimensao) {
+            throw new IllegalArgumentException(String.format(
+                    "Vetor com dimensão %d incompatível com o índice (%d)", vetor.length, dimensao));
+        }
+        float[] normalizado = normalizar(vetor);
+
+        trava.writeLock().lock();
+        try {
+            Integer anterior = posicoes.remove(chave);
+            if (anterior != null) {
+                removidos.set(anterior);
+            }
+
+            garantirCapacidade(total + 1);
+            int no = total++;
+            System.arraycopy(normalizado, 0, vetores, no * dimensao, dimensao);
+            chaves[no] = chave;
+            posicoes.put(chave, no);
+
+            inserir(no);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public boolean remover(String chave) {
+        trava.writeLock().lock();
+        try {
+            Integer no = posicoes.remove(chave);
+            if (no == null) {
+                return false;
+            }
+            removidos.set(no);
+            return true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param ef tamanho da lista de candidatos; valores maiores aumentam a revocação e o custo
+     */
+    public List<Vizinho> buscar(float[] consulta, int k, int ef) {
+        if (consulta.length != dimensao) {
+            throw new IllegalArgumentException("Consulta com dimensão incompatível com o índice");
+        }
+        float[] normalizada = normalizar(consulta);
+
+        trava.readLock().lock();
+        try {
+            if (pontoEntrada < 0 || k <= 0) {
+                return List.of();
+            }
+
+            // Nós removidos ocupam vagas entre os candidatos; a folga compensa sua proporção
+            int efBusca = Math.max(ef, k) + removidos.cardinality() * Math.max(ef, k) / Math.max(1, total);
+
+            BitSet visitados = new BitSet(total);
+            Candidato entrada = new Candidato(pontoEntrada, distancia(normalizada, pontoEntrada));
+            for (int nivel = nivelMaximo; nivel > 0; nivel--) {
+                visitados.clear();
+                entrada = maisProximo(buscarNaCamada(normalizada, List.of(entrada), 1, nivel, visitados));
+            }
+
+            visitados.clear();
+            List<Candidato> encontrados = ordenar(buscarNaCamada(normalizada, List.of(entrada), efBusca, 0, visitados));
+
+            List<Vizinho> vizinhos = new ArrayList<>(k);
+            for (Candidato candidato : encontrados) {
+                if (removidos.get(candidato.no())) {
+                    continue;
+                }
+                vizinhos.add(new Vizinho(chaves[candidato.no()], 1 - candidato.distancia()));
+                if (vizinhos.size() == k) {
+                    break;
+                }
+            }
+            return vizinhos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstrói o índice apenas com as chaves ativas.
+     */
+    public IndiceHnsw compactar() {
+        trava.readLock().lock();
+        try {
+            IndiceHnsw compactado = new IndiceHnsw(dimensao, m, efConstrucao);
+            for (int no = 0; no < total; no++) {
+                if (!removidos.get(no)) {
+                    int base = no * dimensao;
+                    compactado.adicionar(chaves[no], Arrays.copyOfRange(vetores, base, base + dimensao));
+                }
+            }
+            return compactado;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public void salvar(DataOutputStream saida) throws IOException {
+        trava.readLock().lock();
+        try {
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO_FORMATO);
+            saida.writeInt(dimensao);
+            saida.writeInt(m);
+            saida.writeInt(efConstrucao);
+            saida.writeInt(total);
+            saida.writeInt(pontoEntrada);
+            saida.writeInt(nivelMaximo);
+
+            ByteBuffer buffer = ByteBuffer.allocate(dimensao * Float.BYTES);
+            for (int no = 0; no < total; no++) {
+                saida.writeUTF(chaves[no]);
+                saida.writeBoolean(removidos.get(no));
+
+                buffer.clear();
+                buffer.asFloatBuffer().put(vetores, no * dimensao, dimensao);
+                saida.write(buffer.array());
+
+                int[][] camadas = conexoes[no];
+                saida.writeInt(camadas.length);
+                for (int[] camada : camadas) {
+                    saida.writeInt(camada[0]);
+                    for (int i = 1; i <= camada[0]; i++) {
+                        saida.writeInt(camada[i]);
+                    }
+                }
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public static IndiceHnsw carregar(DataInputStream entrada) throws IOException {
+        if (entrada.readInt() != MAGICO || entrada.readInt() != VERSAO_FORMATO) {
+            throw new IOException("Arquivo de índice HNSW inválido ou de versão incompatível");
+        }
+
+        IndiceHnsw indice = new IndiceHnsw(entrada.readInt(), entrada.readInt(), entrada.readInt());
+        int total = entrada.readInt();
+        indice.pontoEntrada = entrada.readInt();
+        indice.nivelMaximo = entrada.readInt();
+        indice.garantirCapacidade(total);
+
+        byte[] bytes = new byte[indice.dimensao * Float.BYTES];
+        for (int no = 0; no < total; no++) {
+            indice.chaves[no] = entrada.readUTF();
+            if (entrada.readBoolean()) {
+                indice.removidos.set(no);
+            } else {
+                indice.posicoes.put(indice.chaves[no], no);
+            }
+
+            entrada.readFully(bytes);
+            ByteBuffer.wrap(bytes).asFloatBuffer().get(indice.vetores, no * indice.dimensao, indice.dimensao);
+
+            int[][] camadas = new int[entrada.readInt()][];
+            for (int nivel = 0; nivel < camadas.length; nivel++) {
+                int[] camada = new int[(nivel == 0 ? indice.mBase : indice.m) + 1];
+                camada[0] = entrada.readInt();
+                for (int i = 1; i <= camada[0]; i++) {
+                    camada[i] = entrada.readInt();
+                }
+                camadas[nivel] = camada;
+            }
+            indice.conexoes[no] = camadas;
+        }
+        indice.total = total;
+
+        return indice;
+    }
+
+    public static float[] normalizar(float[] vetor) {
+        double soma = 0;
+        for (float valor : vetor) {
+            soma += valor * valor;
+        }
+        float[] normalizado = vetor.clone();
+        if (soma > 0) {
+            float inverso = (float) (1 / Math.sqrt(soma));
+            for (int i = 0; i < normalizado.length; i++) {
+                normalizado[i] *= inverso;
+            }
+        }
+        return normalizado;
+    }
+
+    private void inserir(int no) {
+        int nivel = Math.min(NIVEL_MAXIMO_SORTEADO, (int) (-Math.log(1 - aleatorio.nextDouble()) * fatorNivel));
+
+        int[][] camadas = new int[nivel + 1][];
+        for (int l = 0; l <= nivel; l++) {
+            camadas[l] = new int[(l == 0 ? mBase : m) + 1];
+        }
+        conexoes[no] = camadas;
+
+        if (pontoEntrada < 0) {
+            pontoEntrada = no;
+            nivelMaximo = nivel;
+            return;
+        }
+
+        float[] vetor = Arrays.copyOfRange(vetores, no * dimensao, (no + 1) * dimensao);
+        BitSet visitados = new BitSet(total);
+
+        Candidato entrada = new Candidato(pontoEntrada, distancia(vetor, pontoEntrada));
+        for (int l = nivelMaximo; l > nivel; l--) {
+            visitados.clear();
+            entrada = maisProximo(buscarNaCamada(vetor, List.of(entrada), 1, l, visitados));
+        }
+
+        List<Candidato> entradas = List.of(entrada);
+        for (int l = Math.min(nivel, nivelMaximo); l >= 0; l--) {
+            visitados.clear();
+            List<Candidato> encontrados = ordenar(buscarNaCamada(vetor, entradas, efConstrucao, l, visitados));
+
+            for (Candidato vizinho : selecionarVizinhos(encontrados, m)) {
+                conectar(no, vizinho.no(), vizinho.distancia(), l);
+                conectar(vizinho.no(), no, vizinho.distancia(), l);
+            }
+            entradas = encontrados;
+        }
+
+        if (nivel > nivelMaximo) {
+            nivelMaximo = nivel;
+            pontoEntrada = no;
+        }
+    }
+
+    private PriorityQueue<Candidato> buscarNaCamada(float[] consulta, List<Candidato> entradas,
+                                                    int ef, int nivel, BitSet visitados) {
+        PriorityQueue<Candidato> candidatos = new PriorityQueue<>(MAIS_PROXIMO);
+        PriorityQueue<Candidato> resultados = new PriorityQueue<>(MAIS_PROXIMO.reversed());
+
+        for (Candidato entrada : entradas) {
+            if (!visitados.get(entrada.no())) {
+                visitados.set(entrada.no());
+                candidatos.add(entrada);
+                resultados.add(entrada);
+            }
+        }
+        while (resultados.size() > ef) {
+            resultados.poll();
+        }
+
+        while (!candidatos.isEmpty()) {
+            Candidato atual = candidatos.poll();
+            if (resultados.size() >= ef && atual.distancia() > resultados.peek().distancia()) {
+                break;
+            }
+
+            int[] vizinhos = conexoes[atual.no()][nivel];
+            for (int i = 1; i <= vizinhos[0]; i++) {
+                int vizinho = vizinhos[i];
+                if (visitados.get(vizinho)) {
+                    continue;
+                }
+                visitados.set(vizinho);
+
+                float distancia = distancia(consulta, vizinho);
+                if (resultados.size() < ef || distancia < resultados.peek().distancia()) {
+                    Candidato candidato = new Candidato(vizinho, distancia);
+                    candidatos.add(candidato);
+                    resultados.add(candidato);
+                    if (resultados.size() > ef) {
+                        resultados.poll();
+                    }
+                }
+            }
+        }
+
+        return resultados;
+    }
+
+    /**
+     * Heurística do HNSW: prefere vizinhos mais próximos do nó do que dos vizinhos já
+     * escolhidos, o que mantém conexões em direções diversas; completa com os descartados.
+     */
+    private List<Candidato> selecionarVizinhos(List<Candidato> ordenados, int maximo) {
+        List<Candidato> selecionados = new ArrayList<>(maximo);
+        List<Candidato> descartados = new ArrayList<>();
+
+        for (Candidato candidato : ordenados) {
+            if (selecionados.size() >= maximo) {
+                break;
+            }
+            boolean diverso = true;
+            for (Candidato selecionado : selecionados) {
+                if (distanciaEntre(candidato.no(), selecionado.no()) < candidato.distancia()) {
+                    diverso = false;
+                    break;
+                }
+            }
+            (diverso ? selecionados : descartados).add(candidato);
+        }
+
+        for (int i = 0; i < descartados.size() && selecionados.size() < maximo; i++) {
+            selecionados.add(descartados.get(i));
+        }
+
+        return selecionados;
+    }
+
+    private void conectar(int origem, int destino, float distancia, int nivel) {
+        int[] camada = conexoes[origem][nivel];
+        int maximo = camada.length - 1;
+
+        if (camada[0] < maximo) {
+            camada[++camada[0]] = destino;
+            return;
+        }
+
+        List<Candidato> candidatos = new ArrayList<>(maximo + 1);
+        candidatos.add(new Candidato(destino, distancia));
+        for (int i = 1; i <= camada[0]; i++) {
+            candidatos.add(new Candidato(camada[i], distanciaEntre(origem, camada[i])));
+        }
+        candidatos.sort(MAIS_PROXIMO);
+
+        List<Candidato> mantidos = selecionarVizinhos(candidatos, maximo);
+        camada[0] = mantidos.size();
+        for (int i = 0; i < mantidos.size(); i++) {
+            camada[i + 1] = mantidos.get(i).no();
+        }
+    }
+
+    private float distancia(float[] consulta, int no) {
+        int base = no * dimensao;
+        float produto = 0;
+        for (int i = 0; i < dimensao; i++) {
+            produto += consulta[i] * vetores[base + i];
+        }
+        return 1 - produto;
+    }
+
+    private float distanciaEntre(int a, int b) {
+        int baseA = a * dimensao;
+        int baseB = b * dimensao;
+        float produto = 0;
+        for (int i = 0; i < dimensao; i++) {
+            produto += vetores[baseA + i] * vetores[baseB + i];
+        }
+        return 1 - produto;
+    }
+
+    private void garantirCapacidade(int necessaria) {
+        if (necessaria <= chaves.length) {
+            return;
+        }
+        int capacidade = Math.max(necessaria, chaves.length * 2);
+        vetores = Arrays.copyOf(vetores, capacidade * dimensao);
+        chaves = Arrays.copyOf(chaves, capacidade);
+        conexoes = Arrays.copyOf(conexoes, capacidade);
+    }
+
+    private static Candidato maisProximo(PriorityQueue<Candidato> resultados) {
+        return resultados.stream().min(MAIS_PROXIMO).orElseThrow();
+    }
+
+    private static List<Candidato> ordenar(PriorityQueue<Candidato> resultados) {
+        List<Candidato> ordenados = new ArrayList<>(resultados);
+        ordenados.sort(MAIS_PROXIMO);
+        return ordenados;
+    }
+
+    public record Vizinho(String chave, float similaridade) {
+    }
+
+    private record Candidato(int no, float distancia) {
+    }
+}
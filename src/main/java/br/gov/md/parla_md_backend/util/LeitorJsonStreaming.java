@@ -0,0 +1,85 @@
+package br.gov.md.parla_md_backend.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lê as respostas JSON dos Dados Abertos da Câmara em fluxo, com o {@link JsonParser} do
+ * Jackson, sem montar a árvore da resposta inteira.
+ *
+ * <p>Cada elemento de {@code dados} é materializado sozinho e entregue ao consumidor antes
+ * de o próximo ser lido; quando {@code dados} é um objeto (consulta de um único recurso),
+ * ele é entregue uma vez. Os {@code links} de paginação são devolvidos por {@code rel}.
+ * Os demais campos da raiz são pulados.</p>
+ */
+public final class LeitorJsonStreaming {
+
+    private static final ObjectMapper MAPEADOR = new ObjectMapper();
+
+    private LeitorJsonStreaming() {
+    }
+
+    /**
+     * @param registros quantidade de elementos de {@code dados} entregues
+     * @param links     href de cada link da resposta, por rel ("next", "last"...)
+     */
+    public record Pagina(int registros, Map<String, String> links) {
+
+        public String link(String rel) {
+            return links.get(rel);
+        }
+    }
+
+    public static Pagina lerDados(InputStream json, Consumer<JsonNode> consumidor) throws IOException {
+        try (JsonParser parser = MAPEADOR.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Resposta da API não é um objeto JSON");
+            }
+
+            int registros = 0;
+            Map<String, String> links = new HashMap<>();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+
+                if ("dados".equals(campo) && valor == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        consumidor.accept(parser.readValueAsTree());
+                        registros++;
+                    }
+                } else if ("dados".equals(campo) && valor == JsonToken.START_OBJECT) {
+                    consumidor.accept(parser.readValueAsTree());
+                    registros++;
+                } else if ("links".equals(campo) && valor == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        JsonNode link = parser.readValueAsTree();
+                        if (link.hasNonNull("rel") && link.hasNonNull("href")) {
+                            links.put(link.get("rel").asText(), link.get("href").asText());
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            return new Pagina(registros, links);
+        }
+    }
+
+    /**
+     * Texto do campo, ou vazio se ausente ou nulo.
+     */
+    public static String texto(JsonNode no, String campo) {
+        JsonNode valor = no.get(campo);
+        return valor == null || valor.isNull() ? "" : valor.asText();
+    }
+}
@@ -0,0 +1,119 @@
+package br.gov.md.parla_md_backend.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Lê o JSON gerado pelo modelo sem exigir que ele esteja completo.
+ *
+ * <p>O texto é percorrido token a token a partir do primeiro objeto ou array, ignorando
+ * cercas de markdown e texto ao redor. Vírgulas finais, aspas simples e comentários são
+ * aceitos. Se a resposta terminar no meio, por exemplo ao atingir o limite de tokens, os
+ * objetos e arrays abertos são fechados e o valor incompleto em que o texto parou é
+ * descartado; a leitura é então marcada como incompleta.</p>
+ */
+public final class LeitorJsonTolerante {
+
+    private static final JsonFactory FABRICA = JsonFactory.builder()
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS)
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .build();
+
+    private static final JsonNodeFactory NOS = JsonNodeFactory.instance;
+
+    private LeitorJsonTolerante() {
+    }
+
+    /**
+     * @param no      valor lido, ou nulo se o texto não contém nenhum objeto ou array
+     * @param completa falso se algum objeto ou array teve de ser fechado pelo leitor
+     */
+    public record Leitura(JsonNode no, boolean completa) {
+    }
+
+    public static Leitura ler(String texto) {
+        int inicio = inicioJson(texto);
+        if (inicio < 0) {
+            return new Leitura(null, false);
+        }
+
+        Deque<JsonNode> abertos = new ArrayDeque<>();
+        JsonNode raiz = null;
+        String campo = null;
+
+        try (JsonParser parser = FABRICA.createParser(texto.substring(inicio))) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                JsonNode valor;
+                switch (token) {
+                    case FIELD_NAME -> {
+                        campo = parser.currentName();
+                        continue;
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        abertos.pop();
+                        if (abertos.isEmpty()) {
+                            return new Leitura(raiz, true);
+                        }
+                        continue;
+                    }
+                    case START_OBJECT -> valor = NOS.objectNode();
+                    case START_ARRAY -> valor = NOS.arrayNode();
+                    case VALUE_STRING -> valor = NOS.textNode(parser.getText());
+                    case VALUE_NUMBER_INT -> valor = NOS.numberNode(parser.getBigIntegerValue());
+                    case VALUE_NUMBER_FLOAT -> valor = NOS.numberNode(parser.getDoubleValue());
+                    case VALUE_TRUE -> valor = NOS.booleanNode(true);
+                    case VALUE_FALSE -> valor = NOS.booleanNode(false);
+                    case VALUE_NULL -> valor = NOS.nullNode();
+                    default -> {
+                        continue;
+                    }
+                }
+
+                if (abertos.isEmpty()) {
+                    raiz = valor;
+                } else if (abertos.peek() instanceof ObjectNode objeto) {
+                    objeto.set(campo, valor);
+                } else {
+                    ((ArrayNode) abertos.peek()).add(valor);
+                }
+                campo = null;
+
+                if (valor.isContainerNode()) {
+                    abertos.push(valor);
+                }
+            }
+        } catch (IOException e) {
+            // Texto truncado ou malformado: mantém o que foi lido até aqui
+        }
+
+        return new Leitura(raiz, abertos.isEmpty() && raiz != null);
+    }
+
+    private static int inicioJson(String texto) {
+        if (texto == null) {
+            return -1;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '{' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
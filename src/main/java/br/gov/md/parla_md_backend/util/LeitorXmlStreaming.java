@@ -0,0 +1,94 @@
+package br.gov.md.parla_md_backend.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lê os XMLs dos Dados Abertos do Senado em fluxo (StAX), sem montar o documento.
+ *
+ * <p>Cada ocorrência do elemento de registro (por exemplo {@code Materia}) é entregue ao
+ * consumidor assim que se fecha, como um mapa do nome de cada elemento folha para seu
+ * texto sem espaços nas pontas. Se o mesmo nome aparece mais de uma vez no registro,
+ * vale a primeira ocorrência, como em {@code getElementsByTagName(nome).item(0)}.
+ * Elementos ausentes não constam do mapa; elementos vazios têm texto vazio.</p>
+ */
+public final class LeitorXmlStreaming {
+
+    private static final XMLInputFactory FABRICA = criarFabrica();
+
+    private LeitorXmlStreaming() {
+    }
+
+    /**
+     * @return quantidade de registros entregues ao consumidor
+     */
+    public static int lerRegistros(InputStream xml, String elementoRegistro,
+                                   Consumer<Map<String, String>> consumidor) throws XMLStreamException {
+        XMLStreamReader leitor = FABRICA.createXMLStreamReader(xml);
+        try {
+            int registros = 0;
+            Map<String, String> campos = null;
+            int profundidade = 0;
+            boolean folha = false;
+            StringBuilder texto = new StringBuilder();
+
+            while (leitor.hasNext()) {
+                switch (leitor.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        if (campos != null) {
+                            profundidade++;
+                        } else if (elementoRegistro.equals(leitor.getLocalName())) {
+                            campos = new HashMap<>();
+                            profundidade = 0;
+                        }
+                        folha = true;
+                        texto.setLength(0);
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (campos != null && folha) {
+                            texto.append(leitor.getText());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (campos == null) {
+                            continue;
+                        }
+                        if (profundidade == 0) {
+                            consumidor.accept(campos);
+                            registros++;
+                            campos = null;
+                        } else {
+                            if (folha) {
+                                campos.putIfAbsent(leitor.getLocalName(), texto.toString().trim());
+                            }
+                            profundidade--;
+                        }
+                        folha = false;
+                        texto.setLength(0);
+                    }
+                    default -> {
+                        // Comentários, instruções de processamento e espaços entre elementos
+                    }
+                }
+            }
+            return registros;
+        } finally {
+            leitor.close();
+        }
+    }
+
+    private static XMLInputFactory criarFabrica() {
+        XMLInputFactory fabrica = XMLInputFactory.newFactory();
+        // Sem DTD nem entidades externas, como no parser DOM anterior
+        fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        fabrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        fabrica.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return fabrica;
+    }
+}
@@ -0,0 +1,42 @@
+package br.gov.md.parla_md_backend.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Espaça as requisições a um mesmo host para não ultrapassar a taxa configurada,
+ * independentemente de quantas threads estejam buscando dados em paralelo.
+ *
+ * <p>Funciona como um balde de fichas: cada chamada a {@link #adquirir()} reserva o
+ * próximo intervalo livre e dorme até ele, mas até {@code rajada} requisições podem sair
+ * de imediato depois de um período ocioso. Com rajada 1 não há acúmulo.</p>
+ */
+public final class LimitadorTaxa {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong proximaLiberacao = new AtomicLong(System.nanoTime());
+
+    public LimitadorTaxa(double requisicoesPorSegundo) {
+        this(requisicoesPorSegundo, 1);
+    }
+
+    public LimitadorTaxa(double requisicoesPorSegundo, int rajada) {
+        if (requisicoesPorSegundo <= 0) {
+            throw new IllegalArgumentException("Taxa de requisições deve ser positiva");
+        }
+        this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requisicoesPorSegundo);
+        this.toleranciaNanos = intervaloNanos * (Math.max(1, rajada) - 1);
+    }
+
+    public void adquirir() throws InterruptedException {
+        long agora = System.nanoTime();
+        // A reserva nunca recua mais que a rajada: fichas não se acumulam além dela
+        long reservado = proximaLiberacao.getAndUpdate(
+                proxima -> Math.max(proxima, agora - toleranciaNanos) + intervaloNanos);
+        long espera = Math.max(reservado, agora - toleranciaNanos) - agora;
+        if (espera > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package br.gov.md.parla_md_backend.controller;
+
+import br.gov.md.parla_md_backend.domain.AreaImpacto;
+import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.exception.GlobalExceptionHandler;
+import br.gov.md.parla_md_backend.repository.IAnaliseImpactoRepository;
+import br.gov.md.parla_md_backend.repository.IAreaImpactoRepository;
+import br.gov.md.parla_md_backend.repository.IItemLegislativoRepository;
+import br.gov.md.parla_md_backend.service.AgendadorLlamaService;
+import br.gov.md.parla_md_backend.service.AnaliseImpactoService;
+import br.gov.md.parla_md_backend.service.AutenticacaoService;
+import br.gov.md.parla_md_backend.service.JobAnaliseIAService;
+import br.gov.md.parla_md_backend.service.LlamaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnaliseImpactoControllerTest {
+
+    @Mock
+    private LlamaService llamaService;
+    @Mock
+    private IAnaliseImpactoRepository analiseRepository;
+    @Mock
+    private IAreaImpactoRepository areaRepository;
+    @Mock
+    private IItemLegislativoRepository itemLegislativoRepository;
+    @Mock
+    private JobAnaliseIAService jobAnaliseIAService;
+    @Mock
+    private AutenticacaoService autenticacaoService;
+
+    private final CountDownLatch bloqueio = new CountDownLatch(1);
+    private AgendadorLlamaService agendador;
+    private AnaliseImpactoService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // Uma vaga, sem fila: com a vaga ocupada qualquer nova chamada é rejeitada
+        agendador = new AgendadorLlamaService(new SimpleMeterRegistry(), 1, 0, 1000);
+        service = new AnaliseImpactoService(llamaService, analiseRepository, areaRepository,
+                itemLegislativoRepository, agendador);
+        ReflectionTestUtils.setField(service, "paralelismoMaximo", 4);
+        ReflectionTestUtils.setField(service, "timeoutAreaMs", 5_000L);
+        ReflectionTestUtils.setField(service, "cacheTtlSegundos", 3600);
+        ReflectionTestUtils.setField(service, "maximoAreasPorLote", 8);
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new AnaliseImpactoController(service, jobAnaliseIAService, autenticacaoService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bloqueio.countDown();
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve responder 503 com Retry-After quando o agendador do LLM está saturado")
+    void deveResponder503ComAgendadorSaturado() throws Exception {
+        Proposicao item = new Proposicao();
+        item.setId("item-1");
+        when(itemLegislativoRepository.findById("item-1")).thenReturn(Optional.of(item));
+        when(areaRepository.findByAtivaTrue())
+                .thenReturn(List.of(AreaImpacto.builder().id("a1").nome("Defesa").ativa(true).build()));
+        when(llamaService.enviarRequisicao(anyString(), anyString(), any(Class.class), anyString(), anyBoolean()))
+                .thenAnswer(invocacao -> agendador.executar(() -> null));
+
+        Thread.startVirtualThread(() -> agendador.executar(() -> {
+            aguardar(bloqueio);
+            return null;
+        }));
+        aguardarOcupacao();
+
+        mockMvc.perform(post("/api/analise-impacto")
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"itemLegislativoId\":\"item-1\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+
+        // A rejeição por sobrecarga não é registrada como análise com falha
+        verify(analiseRepository, never()).save(any());
+    }
+
+    private void aguardarOcupacao() throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (agendador.getEmExecucao() == 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.gov.md.parla_md_backend.controller;
+
+import br.gov.md.parla_md_backend.exception.BuscaSemanticaException;
+import br.gov.md.parla_md_backend.exception.GlobalExceptionHandler;
+import br.gov.md.parla_md_backend.service.BuscaSemanticaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class BuscaSemanticaControllerTest {
+
+    @Mock
+    private BuscaSemanticaService buscaSemanticaService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new BuscaSemanticaController(buscaSemanticaService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve responder 503 com Retry-After enquanto o índice carrega")
+    void deveResponder503ComIndiceEmCarregamento() throws Exception {
+        when(buscaSemanticaService.buscar(anyString(), anyInt()))
+                .thenThrow(BuscaSemanticaException.indiceEmCarregamento());
+
+        mockMvc.perform(get("/api/busca-semantica").param("consulta", "defesa cibernética"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 503 sem Retry-After com a busca desabilitada")
+    void deveResponder503ComBuscaDesabilitada() throws Exception {
+        when(buscaSemanticaService.buscar(anyString(), anyInt()))
+                .thenThrow(BuscaSemanticaException.desabilitada());
+
+        mockMvc.perform(get("/api/busca-semantica").param("consulta", "defesa cibernética"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("Deve manter 400 para consulta vazia")
+    void deveManter400ParaConsultaVazia() throws Exception {
+        when(buscaSemanticaService.buscar(anyString(), anyInt()))
+                .thenThrow(BuscaSemanticaException.consultaVazia());
+
+        mockMvc.perform(get("/api/busca-semantica").param("consulta", " "))
+                .andExpect(status().isBadRequest());
+    }
+}
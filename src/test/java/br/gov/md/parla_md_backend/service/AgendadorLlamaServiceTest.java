@@ -0,0 +1,118 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.enums.PrioridadeLlama;
+import br.gov.md.parla_md_backend.exception.LlamaSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgendadorLlamaServiceTest {
+
+    @Test
+    @DisplayName("Deve executar diretamente quando há capacidade livre")
+    void deveExecutarDiretamenteComCapacidade() {
+        AgendadorLlamaService agendador = new AgendadorLlamaService(new SimpleMeterRegistry(), 2, 10, 1000);
+
+        String resultado = agendador.executar(() -> "ok");
+
+        assertEquals("ok", resultado);
+        assertEquals(0, agendador.getEmExecucao());
+    }
+
+    @Test
+    @DisplayName("Deve atender requisições interativas antes das de lote")
+    void deveAtenderInterativasAntesDeLote() throws Exception {
+        AgendadorLlamaService agendador = new AgendadorLlamaService(new SimpleMeterRegistry(), 1, 10, 5000);
+        CountDownLatch bloqueio = new CountDownLatch(1);
+        List<String> ordem = new CopyOnWriteArrayList<>();
+
+        Thread ocupante = Thread.startVirtualThread(() -> agendador.executar(() -> {
+            aguardar(bloqueio);
+            return null;
+        }));
+        aguardarAte(() -> agendador.getEmExecucao() == 1);
+
+        Thread lote = Thread.startVirtualThread(() ->
+                agendador.executar(PrioridadeLlama.LOTE, () -> ordem.add("lote")));
+        aguardarAte(() -> agendador.tamanhoFila(PrioridadeLlama.LOTE) == 1);
+
+        Thread interativa = Thread.startVirtualThread(() ->
+                agendador.executar(PrioridadeLlama.INTERATIVA, () -> ordem.add("interativa")));
+        aguardarAte(() -> agendador.tamanhoFila(PrioridadeLlama.INTERATIVA) == 1);
+
+        bloqueio.countDown();
+        ocupante.join();
+        lote.join();
+        interativa.join();
+
+        assertEquals(List.of("interativa", "lote"), ordem);
+        assertEquals(0, agendador.getEmExecucao());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar com retry-after quando a fila está cheia")
+    void deveRejeitarQuandoFilaCheia() throws Exception {
+        AgendadorLlamaService agendador = new AgendadorLlamaService(new SimpleMeterRegistry(), 1, 0, 5000);
+        CountDownLatch bloqueio = new CountDownLatch(1);
+
+        Thread ocupante = Thread.startVirtualThread(() -> agendador.executar(() -> {
+            aguardar(bloqueio);
+            return null;
+        }));
+        aguardarAte(() -> agendador.getEmExecucao() == 1);
+
+        LlamaSobrecarregadoException excecao = assertThrows(LlamaSobrecarregadoException.class,
+                () -> agendador.executar(() -> "nunca"));
+
+        assertTrue(excecao.getRetryAfterSegundos() >= 1);
+
+        bloqueio.countDown();
+        ocupante.join();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quando o tempo máximo de fila é excedido")
+    void deveRejeitarQuandoTempoDeFilaExcedido() throws Exception {
+        AgendadorLlamaService agendador = new AgendadorLlamaService(new SimpleMeterRegistry(), 1, 10, 50);
+        CountDownLatch bloqueio = new CountDownLatch(1);
+
+        Thread ocupante = Thread.startVirtualThread(() -> agendador.executar(() -> {
+            aguardar(bloqueio);
+            return null;
+        }));
+        aguardarAte(() -> agendador.getEmExecucao() == 1);
+
+        assertThrows(LlamaSobrecarregadoException.class, () -> agendador.executar(() -> "atrasada"));
+        assertEquals(0, agendador.tamanhoFila(PrioridadeLlama.INTERATIVA));
+
+        bloqueio.countDown();
+        ocupante.join();
+        assertEquals(0, agendador.getEmExecucao());
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void aguardarAte(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicao.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) {
+                fail("Condição não atingida no tempo esperado");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.AnaliseImpacto;
+import br.gov.md.parla_md_backend.domain.AreaImpacto;
+import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.domain.dto.FalhaAreaImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoAnaliseImpactoIA;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoAnaliseImpactoLoteIA;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoAnalisesImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarAnaliseImpactoDTO;
+import br.gov.md.parla_md_backend.repository.IAnaliseImpactoRepository;
+import br.gov.md.parla_md_backend.repository.IAreaImpactoRepository;
+import br.gov.md.parla_md_backend.repository.IItemLegislativoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnaliseImpactoServiceTest {
+
+    @Mock
+    private LlamaService llamaService;
+    @Mock
+    private IAnaliseImpactoRepository analiseRepository;
+    @Mock
+    private IAreaImpactoRepository areaRepository;
+    @Mock
+    private IItemLegislativoRepository itemLegislativoRepository;
+
+    private AnaliseImpactoService service;
+    private Proposicao item;
+
+    @BeforeEach
+    void setUp() {
+        AgendadorLlamaService agendador = new AgendadorLlamaService(new SimpleMeterRegistry(), 4, 10, 1000);
+        service = new AnaliseImpactoService(llamaService, analiseRepository, areaRepository, itemLegislativoRepository, agendador);
+        ReflectionTestUtils.setField(service, "paralelismoMaximo", 4);
+        ReflectionTestUtils.setField(service, "timeoutAreaMs", 200L);
+        ReflectionTestUtils.setField(service, "cacheTtlSegundos", 3600);
+        ReflectionTestUtils.setField(service, "maximoAreasPorLote", 8);
+
+        item = new Proposicao();
+        item.setId("item-1");
+        lenient().when(itemLegislativoRepository.findById("item-1")).thenReturn(Optional.of(item));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve reportar falhas por área sem descartar as áreas concluídas")
+    void deveReportarFalhasPorArea() {
+        AreaImpacto defesa = area("a1", "Defesa");
+        AreaImpacto orcamento = area("a2", "Orçamento");
+        AreaImpacto pessoal = area("a3", "Pessoal");
+        when(areaRepository.findByAtivaTrue()).thenReturn(List.of(defesa, orcamento, pessoal));
+
+        when(analiseRepository.findByItemLegislativo_IdAndAreaImpacto_Id("item-1", "a1"))
+                .thenReturn(Optional.of(analiseValida(defesa)));
+        when(analiseRepository.findByItemLegislativo_IdAndAreaImpacto_Id("item-1", "a2"))
+                .thenThrow(new IllegalStateException("falha simulada"));
+        when(analiseRepository.findByItemLegislativo_IdAndAreaImpacto_Id("item-1", "a3"))
+                .thenAnswer(invocacao -> {
+                    Thread.sleep(5_000);
+                    return Optional.empty();
+                });
+
+        List<String> eventos = new ArrayList<>();
+        ResultadoAnalisesImpactoDTO resultado = service.analisar(
+                SolicitarAnaliseImpactoDTO.builder().itemLegislativoId("item-1").build(),
+                analise -> eventos.add("analise:" + analise.areaImpactoId()),
+                falha -> eventos.add("falha:" + falha.areaImpactoId()));
+
+        assertEquals(3, resultado.getTotalAreas());
+        assertEquals(1, resultado.getAnalises().size());
+        assertEquals("a1", resultado.getAnalises().get(0).areaImpactoId());
+        assertFalse(resultado.isCompleto());
+        assertEquals(3, eventos.size());
+
+        Map<String, String> motivos = new HashMap<>();
+        resultado.getFalhas().forEach(f -> motivos.put(f.areaImpactoId(), f.motivo()));
+        assertEquals(FalhaAreaImpactoDTO.MOTIVO_ERRO, motivos.get("a2"));
+        assertEquals(FalhaAreaImpactoDTO.MOTIVO_TIMEOUT, motivos.get("a3"));
+    }
+
+    @Test
+    @DisplayName("Deve analisar áreas concorrentemente")
+    void deveAnalisarAreasConcorrentemente() {
+        ReflectionTestUtils.setField(service, "timeoutAreaMs", 5_000L);
+        List<AreaImpacto> areas = List.of(area("a1", "A"), area("a2", "B"), area("a3", "C"), area("a4", "D"));
+        when(areaRepository.findByAtivaTrue()).thenReturn(areas);
+
+        for (AreaImpacto area : areas) {
+            when(analiseRepository.findByItemLegislativo_IdAndAreaImpacto_Id("item-1", area.getId()))
+                    .thenAnswer(invocacao -> {
+                        Thread.sleep(200);
+                        return Optional.of(analiseValida(area));
+                    });
+        }
+
+        ResultadoAnalisesImpactoDTO resultado = service.analisar(
+                SolicitarAnaliseImpactoDTO.builder().itemLegislativoId("item-1").build());
+
+        assertTrue(resultado.isCompleto());
+        assertEquals(4, resultado.getAnalises().size());
+        assertTrue(resultado.getTempoTotalMs() < 600, "tempo total: " + resultado.getTempoTotalMs());
+    }
+
+    @Test
+    @DisplayName("Deve analisar áreas em um único prompt e usar fluxo individual para as ausentes")
+    void deveAnalisarAgrupadoComFallbackPorArea() {
+        List<AreaImpacto> areas = List.of(area("a1", "A"), area("a2", "B"), area("a3", "C"));
+        when(areaRepository.findByAtivaTrue()).thenReturn(areas);
+        when(analiseRepository.findByItemLegislativo_IdAndAreaImpacto_Id(eq("item-1"), anyString()))
+                .thenReturn(Optional.empty());
+        when(analiseRepository.save(any(AnaliseImpacto.class))).thenAnswer(i -> i.getArgument(0));
+
+        RespostaLlamaDTO resposta = RespostaLlamaDTO.builder()
+                .message(RespostaLlamaDTO.Message.builder().role("assistant").content("{}").build())
+                .build();
+        when(llamaService.enviarRequisicao(anyString(), anyString(), any(Class.class), anyString(), eq(false)))
+                .thenReturn(resposta);
+        when(llamaService.extrairJson(resposta, ResultadoAnaliseImpactoLoteIA.class))
+                .thenReturn(new ResultadoAnaliseImpactoLoteIA(List.of(areaAnalisada("A1"), areaAnalisada("a3"))));
+        when(llamaService.extrairJsonCompletando(
+                eq(resposta), eq(ResultadoAnaliseImpactoIA.class), anyString(), anyString(), anyString()))
+                .thenReturn(areaAnalisada("A2").toResultado());
+
+        ResultadoAnalisesImpactoDTO resultado = service.analisar(SolicitarAnaliseImpactoDTO.builder()
+                .itemLegislativoId("item-1")
+                .analiseAgrupada(true)
+                .build());
+
+        assertTrue(resultado.isCompleto());
+        assertEquals(List.of("a1", "a2", "a3"),
+                resultado.getAnalises().stream().map(a -> a.areaImpactoId()).sorted().toList());
+        verify(llamaService, times(2)).enviarRequisicao(anyString(), anyString(), any(Class.class), anyString(), eq(false));
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a análise de um item quase idêntico sem chamar o modelo")
+    void deveReaproveitarAnaliseDeItemSimilar() {
+        AreaImpacto defesa = area("a1", "Defesa");
+        when(areaRepository.findByAtivaTrue()).thenReturn(List.of(defesa));
+
+        Proposicao similar = new Proposicao();
+        similar.setId("item-2");
+        AnaliseImpacto origem = analiseValida(defesa).toBuilder()
+                .itemLegislativo(similar)
+                .dataExpiracao(LocalDateTime.now().plusDays(1))
+                .build();
+
+        BuscaSemanticaService buscaSemantica = mock(BuscaSemanticaService.class);
+        when(buscaSemantica.buscarItensSimilares(item, 0.97, 5))
+                .thenReturn(List.of(new BuscaSemanticaService.ItemSimilar(similar, 0.99)));
+        ReflectionTestUtils.setField(service, "buscaSemanticaService", buscaSemantica);
+        ReflectionTestUtils.setField(service, "reaproveitamentoHabilitado", true);
+        ReflectionTestUtils.setField(service, "similaridadeMinimaReaproveitamento", 0.97);
+        ReflectionTestUtils.setField(service, "maximoCandidatosReaproveitamento", 5);
+        ReflectionTestUtils.setField(service, "ttlDerivadaSegundos", 3600);
+
+        when(analiseRepository.findByItemLegislativo_IdAndAreaImpacto_Id("item-1", "a1")).thenReturn(Optional.empty());
+        when(analiseRepository.findByItemLegislativo_IdAndAreaImpacto_Id("item-2", "a1")).thenReturn(Optional.of(origem));
+        when(analiseRepository.save(any(AnaliseImpacto.class))).thenAnswer(i -> i.getArgument(0));
+
+        ResultadoAnalisesImpactoDTO resultado = service.analisar(
+                SolicitarAnaliseImpactoDTO.builder().itemLegislativoId("item-1").build());
+
+        assertTrue(resultado.isCompleto());
+        assertEquals("item-1", resultado.getAnalises().get(0).itemLegislativoId());
+        assertEquals("analise-a1", resultado.getAnalises().get(0).derivadaDe());
+        assertEquals(0.99, resultado.getAnalises().get(0).similaridadeOrigem());
+        verifyNoInteractions(llamaService);
+    }
+
+    @Test
+    @DisplayName("Deve coalescer requisições concorrentes iguais em uma única chamada ao modelo")
+    void deveCoalescerRequisicoesConcorrentes() throws Exception {
+        ReflectionTestUtils.setField(service, "esperaMaximaCoalescenciaMs", 5_000L);
+        AreaImpacto defesa = area("a1", "Defesa");
+        AtomicReference<AnaliseImpacto> gravada = new AtomicReference<>();
+        when(analiseRepository.findByItemLegislativo_IdAndAreaImpacto_Id("item-1", "a1"))
+                .thenAnswer(i -> Optional.ofNullable(gravada.get()));
+        when(analiseRepository.save(any(AnaliseImpacto.class))).thenAnswer(i -> {
+            AnaliseImpacto analise = i.getArgument(0);
+            gravada.set(analise);
+            return analise;
+        });
+
+        CountDownLatch geracaoIniciada = new CountDownLatch(1);
+        CountDownLatch liberarGeracao = new CountDownLatch(1);
+        RespostaLlamaDTO resposta = RespostaLlamaDTO.builder()
+                .message(RespostaLlamaDTO.Message.builder().role("assistant").content("{}").build())
+                .build();
+        when(llamaService.enviarRequisicao(anyString(), anyString(), any(Class.class), anyString(), eq(false)))
+                .thenAnswer(i -> {
+                    geracaoIniciada.countDown();
+                    assertTrue(liberarGeracao.await(5, TimeUnit.SECONDS));
+                    return resposta;
+                });
+        when(llamaService.extrairJsonCompletando(
+                eq(resposta), eq(ResultadoAnaliseImpactoIA.class), anyString(), anyString(), anyString()))
+                .thenReturn(areaAnalisada("a1").toResultado());
+
+        int chamadores = 8;
+        List<Future<AnaliseImpacto>> resultados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            resultados.add(executor.submit(() -> service.processarComCache(false, item, defesa)));
+            assertTrue(geracaoIniciada.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < chamadores; i++) {
+                resultados.add(executor.submit(() -> service.processarComCache(false, item, defesa)));
+            }
+            Thread.sleep(100);
+            liberarGeracao.countDown();
+
+            for (Future<AnaliseImpacto> resultado : resultados) {
+                AnaliseImpacto analise = resultado.get(5, TimeUnit.SECONDS);
+                assertSame(gravada.get(), analise);
+            }
+        }
+
+        verify(llamaService, times(1)).enviarRequisicao(anyString(), anyString(), any(Class.class), anyString(), eq(false));
+        verify(analiseRepository, times(1)).save(any(AnaliseImpacto.class));
+    }
+
+    private ResultadoAnaliseImpactoLoteIA.AreaAnalisada areaAnalisada(String codigo) {
+        return new ResultadoAnaliseImpactoLoteIA.AreaAnalisada(
+                codigo, "MEDIO", "POSITIVO", 0.5, "análise", List.of(), List.of(), List.of(), List.of(), "recomendação");
+    }
+
+    private AreaImpacto area(String id, String nome) {
+        return AreaImpacto.builder().id(id).nome(nome).ativa(true).build();
+    }
+
+    private AnaliseImpacto analiseValida(AreaImpacto area) {
+        return AnaliseImpacto.builder()
+                .id("analise-" + area.getId())
+                .itemLegislativo(item)
+                .areaImpacto(area)
+                .dataAnalise(LocalDateTime.now())
+                .sucesso(true)
+                .build();
+    }
+}
@@ -0,0 +1,187 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.Materia;
+import br.gov.md.parla_md_backend.domain.ProcedimentoMateria;
+import br.gov.md.parla_md_backend.domain.ProgressoSincronizacao;
+import br.gov.md.parla_md_backend.domain.dto.StatusAtualizacaoTramitacoesDTO;
+import br.gov.md.parla_md_backend.domain.enums.StatusSincronizacao;
+import br.gov.md.parla_md_backend.messaging.RabbitMQProducer;
+import br.gov.md.parla_md_backend.repository.IProgressoSincronizacaoRepository;
+import br.gov.md.parla_md_backend.util.ArquivoRespostas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AtualizacaoTramitacoesServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private IProgressoSincronizacaoRepository progressoRepository;
+    @Mock
+    private ProcedimentoMateriaService procedimentoMateriaService;
+    @Mock
+    private RabbitMQProducer rabbitMQProducer;
+    @Mock
+    private ArquivoRespostas arquivoRespostas;
+
+    private AtualizacaoTramitacoesService service;
+    private final Map<String, ProgressoSincronizacao> progressos = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new AtualizacaoTramitacoesService(mongoTemplate, progressoRepository, procedimentoMateriaService,
+                rabbitMQProducer, arquivoRespostas, new SimpleMeterRegistry(), 2, 2);
+
+        when(progressoRepository.save(any())).thenAnswer(invocacao -> {
+            ProgressoSincronizacao progresso = invocacao.getArgument(0);
+            progressos.put(progresso.getId(), progresso);
+            return progresso;
+        });
+        when(progressoRepository.findById(anyString()))
+                .thenAnswer(invocacao -> Optional.ofNullable(progressos.get(invocacao.<String>getArgument(0))));
+        when(procedimentoMateriaService.buscarESalvarTramitacoesAlteradas(anyLong())).thenAnswer(invocacao -> {
+            long codigo = invocacao.getArgument(0);
+            if (codigo == 3L) {
+                throw new IllegalStateException("API indisponível");
+            }
+            return Optional.of(List.of(
+                    ProcedimentoMateria.builder().codigoMateria(codigo).situacaoDescricao("Em comissão").build()));
+        });
+    }
+
+    @Test
+    @DisplayName("Deve processar as matérias em partições e registrar o checkpoint até a última")
+    void deveProcessarEmParticoes() {
+        simularMaterias(1, 5);
+
+        StatusAtualizacaoTramitacoesDTO status = service.executar();
+
+        assertEquals(StatusSincronizacao.CONCLUIDA, status.progresso().status());
+        assertEquals(3, status.progresso().totalPaginas());
+        assertEquals(3, status.progresso().paginasConcluidas());
+        assertEquals(5, status.itensProcessados());
+        assertEquals(1, status.itensComFalha());
+        assertEquals(4, status.progresso().itensAtualizados());
+        assertEquals(5L, progressos.values().iterator().next().getCursor());
+        verify(rabbitMQProducer, times(4)).sendMessage(anyString(), anyString(), any(Materia.class));
+    }
+
+    @Test
+    @DisplayName("Deve retomar a partir do código registrado no checkpoint")
+    void deveRetomarDoCursor() {
+        ProgressoSincronizacao anterior = ProgressoSincronizacao.builder()
+                .id(ProgressoSincronizacao.chave("senado", "tramitacoes", "tramitando"))
+                .status(StatusSincronizacao.FALHA)
+                .paginasConcluidas(new TreeSet<>(List.of(1)))
+                .itensRecebidos(2)
+                .itensAtualizados(2)
+                .cursor(2L)
+                .build();
+        progressos.put(anterior.getId(), anterior);
+        simularMaterias(3, 5);
+
+        StatusAtualizacaoTramitacoesDTO status = service.executar();
+
+        ArgumentCaptor<Query> consulta = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(consulta.capture(), eq(Materia.class));
+        assertEquals(new Document("$gt", 2L), consulta.getValue().getQueryObject().get("codigoMateria"));
+
+        assertEquals(StatusSincronizacao.CONCLUIDA, status.progresso().status());
+        assertEquals(3, status.progresso().paginasConcluidas());
+        assertEquals(5, status.itensProcessados());
+        assertEquals(4, status.progresso().itensAtualizados());
+        verify(procedimentoMateriaService, never()).buscarESalvarTramitacoesAlteradas(1L);
+    }
+
+    @Test
+    @DisplayName("Na reprodução do arquivo, deve ignorar o checkpoint real e gravar o seu em chave própria")
+    void deveSepararCheckpointDaReproducao() {
+        ProgressoSincronizacao real = ProgressoSincronizacao.builder()
+                .id(ProgressoSincronizacao.chave("senado", "tramitacoes", "tramitando"))
+                .status(StatusSincronizacao.FALHA)
+                .paginasConcluidas(new TreeSet<>(List.of(1)))
+                .cursor(2L)
+                .build();
+        progressos.put(real.getId(), real);
+        when(arquivoRespostas.reproduzindo()).thenReturn(true);
+        simularMaterias(1, 5);
+
+        StatusAtualizacaoTramitacoesDTO status = service.executar();
+
+        ArgumentCaptor<Query> consulta = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(consulta.capture(), eq(Materia.class));
+        assertEquals(new Document("$ne", null), consulta.getValue().getQueryObject().get("codigoMateria"));
+
+        // A matéria 3 falha: na reprodução, isso não pode virar um checkpoint retomável da sincronização real
+        assertEquals(5, status.itensProcessados());
+        assertSame(real, progressos.get(real.getId()));
+        assertEquals(StatusSincronizacao.FALHA, real.getStatus());
+        assertEquals(2L, real.getCursor());
+        assertEquals(5L, progressos.get(
+                ProgressoSincronizacao.chaveReproducao("senado", "tramitacoes", "tramitando")).getCursor());
+    }
+
+    @Test
+    @DisplayName("Deve contar como atualizada a matéria com novos procedimentos na mesma situação")
+    void deveContarProcedimentosSemMudancaDeSituacao() {
+        simularMaterias(4, 5, "Em comissão");
+
+        StatusAtualizacaoTramitacoesDTO status = service.executar();
+
+        assertEquals(StatusSincronizacao.CONCLUIDA, status.progresso().status());
+        assertEquals(2, status.progresso().itensAtualizados());
+    }
+
+    @Test
+    @DisplayName("Não deve contar como atualizada a matéria sem tramitações alteradas")
+    void naoDeveContarMateriaSemAlteracao() {
+        when(procedimentoMateriaService.buscarESalvarTramitacoesAlteradas(anyLong())).thenReturn(Optional.empty());
+        simularMaterias(4, 5);
+
+        StatusAtualizacaoTramitacoesDTO status = service.executar();
+
+        assertEquals(2, status.itensProcessados());
+        assertEquals(0, status.progresso().itensAtualizados());
+    }
+
+    private void simularMaterias(long primeiro, long ultimo) {
+        simularMaterias(primeiro, ultimo, null);
+    }
+
+    private void simularMaterias(long primeiro, long ultimo, String situacaoAtual) {
+        List<Materia> materias = LongStream.rangeClosed(primeiro, ultimo)
+                .mapToObj(codigo -> {
+                    Materia materia = new Materia();
+                    materia.setId("m" + codigo);
+                    materia.setCodigoMateria(codigo);
+                    materia.setIndicadorTramitando("Sim");
+                    materia.setSituacaoAtual(situacaoAtual);
+                    return materia;
+                })
+                .toList();
+
+        when(mongoTemplate.count(any(Query.class), eq(Materia.class))).thenReturn((long) materias.size());
+        when(mongoTemplate.stream(any(Query.class), eq(Materia.class))).thenReturn(materias.stream());
+    }
+}
@@ -0,0 +1,134 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.InteracaoLlama;
+import br.gov.md.parla_md_backend.domain.dto.RequisicaoLlamaDTO;
+import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
+import br.gov.md.parla_md_backend.repository.IInteracaoLlamaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheRespostaLlamaServiceTest {
+
+    @Mock
+    private IInteracaoLlamaRepository interacaoRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheRespostaLlamaService service;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cache.llm.ttl-por-tipo.sumarios", "7200")
+                .withProperty("cache.llm.ttl-por-tipo.efemero", "1");
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CacheRespostaLlamaService(interacaoRepository, environment, meterRegistry, 100);
+        ReflectionTestUtils.setField(service, "ttlPadraoSegundos", 3600);
+        ReflectionTestUtils.setField(service, "habilitado", true);
+    }
+
+    @Test
+    @DisplayName("Deve gerar a mesma chave para o mesmo conteúdo e chaves distintas para qualquer diferença")
+    void deveCalcularChavePorConteudo() {
+        String chave = service.calcularChave(requisicao("sistema", "prompt", 0.1));
+
+        assertEquals(64, chave.length());
+        assertEquals(chave, service.calcularChave(requisicao("sistema", "prompt", 0.1)));
+        assertNotEquals(chave, service.calcularChave(requisicao("sistema", "prompt", 0.2)));
+        assertNotEquals(chave, service.calcularChave(requisicao("sistema", "outro prompt", 0.1)));
+        // O separador impede que o texto migre entre mensagens sem mudar a chave
+        assertNotEquals(service.calcularChave(requisicao("sistemap", "rompt", 0.1)),
+                service.calcularChave(requisicao("sistema", "prompt", 0.1)));
+    }
+
+    @Test
+    @DisplayName("Deve usar o TTL configurado para o tipo de análise e o padrão para os demais")
+    void deveObterTtlPorTipo() {
+        assertEquals(7200, service.obterTtlSegundos("sumarios"));
+        assertEquals(3600, service.obterTtlSegundos("previsoes"));
+        assertEquals(3600, service.obterTtlSegundos(null));
+    }
+
+    @Test
+    @DisplayName("Deve responder da camada quente sem consultar o Mongo")
+    void deveResponderDaMemoria() {
+        RespostaLlamaDTO resposta = resposta("{\"resumo\":\"ok\"}");
+        service.armazenar("chave-1", resposta, "sumarios");
+
+        assertSame(resposta, service.buscar("chave-1").orElseThrow());
+        verifyNoInteractions(interacaoRepository);
+        assertEquals(1.0, meterRegistry.get("llama.cache.acerto").tag("camada", "memoria").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve buscar na camada morna e promover a resposta para a memória")
+    void deveBuscarNoMongoEPromover() {
+        InteracaoLlama interacao = InteracaoLlama.builder()
+                .modelo("llama3")
+                .respostaConteudo("{\"resumo\":\"do mongo\"}")
+                .sucesso(true)
+                .dataExpiracao(LocalDateTime.now().plusHours(1))
+                .build();
+        when(interacaoRepository.findFirstByChaveConteudoAndSucessoTrueAndDataExpiracaoAfterOrderByDataHoraRequisicaoDesc(
+                eq("chave-2"), any())).thenReturn(Optional.of(interacao));
+
+        RespostaLlamaDTO primeira = service.buscar("chave-2").orElseThrow();
+        RespostaLlamaDTO segunda = service.buscar("chave-2").orElseThrow();
+
+        assertEquals("{\"resumo\":\"do mongo\"}", primeira.getMessage().getContent());
+        assertSame(primeira, segunda);
+        verify(interacaoRepository, times(1))
+                .findFirstByChaveConteudoAndSucessoTrueAndDataExpiracaoAfterOrderByDataHoraRequisicaoDesc(
+                        eq("chave-2"), any());
+        assertEquals(1.0, meterRegistry.get("llama.cache.acerto").tag("camada", "mongo").counter().count());
+        assertEquals(1.0, meterRegistry.get("llama.cache.acerto").tag("camada", "memoria").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve expirar a entrada em memória pelo TTL do tipo e recorrer ao Mongo")
+    void deveExpirarPeloTtlDoTipo() throws InterruptedException {
+        when(interacaoRepository.findFirstByChaveConteudoAndSucessoTrueAndDataExpiracaoAfterOrderByDataHoraRequisicaoDesc(
+                eq("chave-3"), any())).thenReturn(Optional.empty());
+        service.armazenar("chave-3", resposta("{}"), "efemero");
+        assertTrue(service.buscar("chave-3").isPresent());
+
+        Thread.sleep(1_100);
+
+        assertTrue(service.buscar("chave-3").isEmpty());
+        assertEquals(1.0, meterRegistry.get("llama.cache.falha").counter().count());
+    }
+
+    private RequisicaoLlamaDTO requisicao(String sistema, String prompt, double temperatura) {
+        return RequisicaoLlamaDTO.builder()
+                .model("llama3")
+                .format("json")
+                .options(RequisicaoLlamaDTO.Options.builder().temperature(temperatura).build())
+                .messages(List.of(
+                        RequisicaoLlamaDTO.Mensagem.builder().role("system").content(sistema).build(),
+                        RequisicaoLlamaDTO.Mensagem.builder().role("user").content(prompt).build()))
+                .build();
+    }
+
+    private RespostaLlamaDTO resposta(String conteudo) {
+        return RespostaLlamaDTO.builder()
+                .model("llama3")
+                .message(RespostaLlamaDTO.Message.builder().role("assistant").content(conteudo).build())
+                .done(true)
+                .build();
+    }
+}
@@ -0,0 +1,243 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.ProgressoSincronizacao;
+import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.domain.dto.ProgressoSincronizacaoDTO;
+import br.gov.md.parla_md_backend.domain.enums.StatusSincronizacao;
+import br.gov.md.parla_md_backend.repository.IProcedimentoProposicaoRepository;
+import br.gov.md.parla_md_backend.repository.IProgressoSincronizacaoRepository;
+import br.gov.md.parla_md_backend.repository.IProposicaoRepository;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.GravadorEmLote;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.ResultadoUpsert;
+import br.gov.md.parla_md_backend.util.ApiClient;
+import br.gov.md.parla_md_backend.util.ArquivoRespostas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CamaraServiceTest {
+
+    private static final String BASE_URL = "https://camara.test/api/v2/";
+    private static final Pattern PAGINA = Pattern.compile("pagina=(\\d+)");
+
+    @Mock
+    private ApiClient apiClient;
+    @Mock
+    private IProposicaoRepository proposicaoRepository;
+    @Mock
+    private IProcedimentoProposicaoRepository procedimentoRepository;
+    @Mock
+    private IProgressoSincronizacaoRepository progressoRepository;
+    @Mock
+    private BuscaSemanticaService buscaSemanticaService;
+    @Mock
+    private UpsertEmLoteService upsertEmLoteService;
+    @Mock
+    private EstadoSincronizacaoService estadoSincronizacaoService;
+    @Mock
+    private ArquivoRespostas arquivoRespostas;
+
+    private CamaraService service;
+    private final List<Integer> paginasBuscadas = new ArrayList<>();
+    private final List<List<Proposicao>> gravacoes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new CamaraService(apiClient, proposicaoRepository, procedimentoRepository,
+                progressoRepository, buscaSemanticaService, upsertEmLoteService, estadoSincronizacaoService,
+                arquivoRespostas, BASE_URL, 100, 3, 1);
+
+        when(apiClient.lerStream(anyString(), any())).thenAnswer(invocacao -> {
+            Matcher matcher = PAGINA.matcher(invocacao.getArgument(0, String.class));
+            assertTrue(matcher.find());
+            int pagina = Integer.parseInt(matcher.group(1));
+            synchronized (paginasBuscadas) {
+                paginasBuscadas.add(pagina);
+            }
+            ApiClient.LeitorCorpo<?> leitor = invocacao.getArgument(1);
+            return leitor.ler(new ByteArrayInputStream(pagina(pagina, 3).getBytes(StandardCharsets.UTF_8)));
+        });
+        when(progressoRepository.save(any())).thenAnswer(invocacao -> invocacao.getArgument(0));
+        when(upsertEmLoteService.<Proposicao>abrirGravador(any(), any())).thenAnswer(invocacao -> gravadorSimulado());
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todas as páginas gravando cada uma em lote")
+    void devePercorrerTodasAsPaginas() {
+        when(progressoRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        ProgressoSincronizacaoDTO progresso = service.sincronizarProposicoesDoAno(2024);
+
+        assertEquals(StatusSincronizacao.CONCLUIDA, progresso.status());
+        assertEquals(3, progresso.totalPaginas());
+        assertEquals(3, progresso.paginasConcluidas());
+        assertEquals(6, progresso.itensRecebidos());
+        assertEquals(5, progresso.itensNovos());
+        assertEquals(1, progresso.itensAtualizados());
+        assertEquals(List.of(1, 2, 3), paginasBuscadas.stream().sorted().toList());
+        assertEquals(3, lotesGravados().size());
+    }
+
+    @Test
+    @DisplayName("Deve retomar apenas as páginas que faltaram na execução anterior")
+    void deveRetomarDoCheckpoint() {
+        ProgressoSincronizacao anterior = ProgressoSincronizacao.builder()
+                .id(ProgressoSincronizacao.chave("camara", "proposicoes", "2024"))
+                .status(StatusSincronizacao.FALHA)
+                .itensPorPagina(100)
+                .totalPaginas(3)
+                .paginasConcluidas(new TreeSet<>(List.of(1, 2)))
+                .itensRecebidos(4)
+                .build();
+
+        when(progressoRepository.findById(anyString())).thenReturn(Optional.of(anterior));
+        ProgressoSincronizacaoDTO progresso = service.sincronizarProposicoesDoAno(2024);
+
+        assertEquals(StatusSincronizacao.CONCLUIDA, progresso.status());
+        assertEquals(6, progresso.itensRecebidos());
+        // A primeira página é relida só para saber o total, sem ser gravada de novo
+        assertEquals(List.of(1, 3), paginasBuscadas);
+
+        assertEquals(List.of(List.of(31L, 32L)), lotesGravados());
+    }
+
+    @Test
+    @DisplayName("Deve buscar só as proposições alteradas desde a marca d'água e avançá-la ao concluir")
+    void deveSincronizarAlteracoesDesdeAMarca() {
+        LocalDateTime marca = LocalDateTime.of(2024, 10, 10, 1, 0);
+        when(estadoSincronizacaoService.obterMarcaDagua("camara", "proposicoes")).thenReturn(Optional.of(marca));
+        when(progressoRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        ProgressoSincronizacaoDTO progresso = service.sincronizarAlteracoes();
+
+        assertEquals(StatusSincronizacao.CONCLUIDA, progresso.status());
+        ArgumentCaptor<String> endpoints = ArgumentCaptor.forClass(String.class);
+        verify(apiClient, times(3)).lerStream(endpoints.capture(), any());
+        assertTrue(endpoints.getAllValues().stream()
+                .allMatch(endpoint -> endpoint.contains("?dataInicio=2024-10-10&dataFim=") && !endpoint.contains("ano=")));
+        verify(estadoSincronizacaoService).avancarMarcaDagua(eq("camara"), eq("proposicoes"),
+                argThat(novaMarca -> novaMarca.isAfter(marca)), eq(6L));
+        verify(estadoSincronizacaoService, never()).registrarFalha(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Na janela de alterações, deve retomar após o último id gravado e reler as páginas seguintes")
+    void deveRetomarJanelaPeloCursor() {
+        LocalDateTime marca = LocalDateTime.of(2024, 10, 10, 1, 0);
+        String janela = "2024-10-10_" + LocalDate.now();
+        ProgressoSincronizacao anterior = ProgressoSincronizacao.builder()
+                .id(ProgressoSincronizacao.chave("camara", "proposicoes", "alteracoes"))
+                .parametro(janela)
+                .status(StatusSincronizacao.FALHA)
+                .itensPorPagina(100)
+                .totalPaginas(3)
+                // A página 3 terminou antes da 2: fora da sequência, não vale para a retomada
+                .paginasConcluidas(new TreeSet<>(List.of(1, 3)))
+                .itensRecebidos(5)
+                .cursor(21L)
+                .build();
+        when(estadoSincronizacaoService.obterMarcaDagua("camara", "proposicoes")).thenReturn(Optional.of(marca));
+        when(progressoRepository.findById(anyString())).thenReturn(Optional.of(anterior));
+
+        ProgressoSincronizacaoDTO progresso = service.sincronizarAlteracoes();
+
+        assertEquals(StatusSincronizacao.CONCLUIDA, progresso.status());
+        assertEquals(List.of(1, 2, 3), paginasBuscadas.stream().sorted().toList());
+        // 21 já estava gravado antes da parada; a página 3 é gravada de novo
+        assertEquals(List.of(List.of(22L), List.of(31L, 32L)), lotesGravados());
+        assertEquals(8, progresso.itensRecebidos());
+        assertEquals(32L, anterior.getCursor());
+        verify(progressoRepository).findById("camara:proposicoes:alteracoes");
+        verify(progressoRepository).deleteByIdRegex(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve sobrescrever o checkpoint de uma janela anterior em vez de retomá-lo")
+    void deveSobrescreverCheckpointDeOutraJanela() {
+        LocalDateTime marca = LocalDateTime.of(2024, 10, 10, 1, 0);
+        ProgressoSincronizacao anterior = ProgressoSincronizacao.builder()
+                .id(ProgressoSincronizacao.chave("camara", "proposicoes", "alteracoes"))
+                .parametro("2024-10-01_2024-10-09")
+                .status(StatusSincronizacao.FALHA)
+                .itensPorPagina(100)
+                .paginasConcluidas(new TreeSet<>(List.of(1, 2)))
+                .cursor(22L)
+                .build();
+        when(estadoSincronizacaoService.obterMarcaDagua("camara", "proposicoes")).thenReturn(Optional.of(marca));
+        when(progressoRepository.findById(anyString())).thenReturn(Optional.of(anterior));
+
+        ProgressoSincronizacaoDTO progresso = service.sincronizarAlteracoes();
+
+        assertEquals(StatusSincronizacao.CONCLUIDA, progresso.status());
+        assertEquals("2024-10-10_" + LocalDate.now(), progresso.parametro());
+        assertEquals(3, lotesGravados().size());
+        ArgumentCaptor<ProgressoSincronizacao> salvos = ArgumentCaptor.forClass(ProgressoSincronizacao.class);
+        verify(progressoRepository, atLeastOnce()).save(salvos.capture());
+        assertTrue(salvos.getAllValues().stream()
+                .allMatch(salvo -> salvo.getId().equals("camara:proposicoes:alteracoes")));
+    }
+
+    /**
+     * Gravador que simula o banco com a proposição 11 já gravada.
+     */
+    @SuppressWarnings("unchecked")
+    private GravadorEmLote<Proposicao> gravadorSimulado() {
+        List<Proposicao> recebidas = new ArrayList<>();
+        GravadorEmLote<Proposicao> gravador = mock(GravadorEmLote.class);
+        lenient().doAnswer(invocacao -> recebidas.add(invocacao.getArgument(0))).when(gravador).adicionar(any());
+        when(gravador.concluir()).thenAnswer(invocacao -> {
+            synchronized (gravacoes) {
+                gravacoes.add(recebidas);
+            }
+            int atualizadas = (int) recebidas.stream().filter(p -> p.getIdCamara() == 11L).count();
+            return new ResultadoUpsert<>(recebidas, recebidas, recebidas.size() - atualizadas, atualizadas, 0, 0);
+        });
+        return gravador;
+    }
+
+    private List<List<Long>> lotesGravados() {
+        return gravacoes.stream()
+                .filter(lote -> !lote.isEmpty())
+                .map(lote -> lote.stream().map(Proposicao::getIdCamara).toList())
+                .sorted(Comparator.comparing(lote -> lote.get(0)))
+                .toList();
+    }
+
+    private static String pagina(int pagina, int ultima) {
+        StringBuilder dados = new StringBuilder();
+        for (int i = 1; i <= 2; i++) {
+            long id = pagina * 10L + i;
+            if (i > 1) {
+                dados.append(',');
+            }
+            dados.append("{\"id\":").append(id)
+                    .append(",\"siglaTipo\":\"PL\",\"numero\":").append(id)
+                    .append(",\"ano\":2024,\"ementa\":\"Ementa ").append(id).append("\"}");
+        }
+
+        String links = "{\"rel\":\"self\",\"href\":\"" + BASE_URL + "proposicoes?pagina=" + pagina + "\"}"
+                + ",{\"rel\":\"last\",\"href\":\"" + BASE_URL + "proposicoes?ano=2024&pagina=" + ultima + "\"}";
+        return "{\"dados\":[" + dados + "],\"links\":[" + links + "]}";
+    }
+}
@@ -0,0 +1,92 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.enums.EstadoCircuitoLlama;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CircuitoLlamaServiceTest {
+
+    private CircuitoLlamaService criarCircuito(long duracaoAbertoMs, long limiteLentaMs) {
+        return new CircuitoLlamaService(new SimpleMeterRegistry(), mock(RoteadorOllamaService.class),
+                true, 4, 4, 50, 80, limiteLentaMs, duracaoAbertoMs, 1, 2);
+    }
+
+    private void falhar(CircuitoLlamaService circuito) {
+        assertThrows(ResourceAccessException.class, () -> circuito.executar(() -> {
+            throw new ResourceAccessException("Connection refused");
+        }));
+    }
+
+    @Test
+    @DisplayName("Deve abrir ao atingir a taxa de falhas e rejeitar sem executar a chamada")
+    void deveAbrirERejeitarImediatamente() {
+        CircuitoLlamaService circuito = criarCircuito(60_000, 60_000);
+
+        circuito.executar(() -> "ok");
+        circuito.executar(() -> "ok");
+        falhar(circuito);
+        assertEquals(EstadoCircuitoLlama.FECHADO, circuito.getEstado());
+
+        falhar(circuito);
+        assertEquals(EstadoCircuitoLlama.ABERTO, circuito.getEstado());
+
+        AtomicInteger executadas = new AtomicInteger();
+        assertThrows(LlamaIndisponivelException.class, circuito::verificarPermissao);
+        assertThrows(LlamaIndisponivelException.class, () -> circuito.executar(executadas::incrementAndGet));
+        assertEquals(0, executadas.get());
+        assertFalse(circuito.isDisponivel());
+    }
+
+    @Test
+    @DisplayName("Deve fechar após chamada de teste bem-sucedida e reabrir se o teste falhar")
+    void deveTestarRecuperacaoNoEstadoSemiAberto() throws InterruptedException {
+        CircuitoLlamaService circuito = criarCircuito(50, 60_000);
+        for (int i = 0; i < 4; i++) {
+            falhar(circuito);
+        }
+        assertEquals(EstadoCircuitoLlama.ABERTO, circuito.getEstado());
+
+        Thread.sleep(80);
+        falhar(circuito);
+        assertEquals(EstadoCircuitoLlama.ABERTO, circuito.getEstado());
+
+        Thread.sleep(80);
+        assertEquals("ok", circuito.executar(() -> "ok"));
+        assertEquals(EstadoCircuitoLlama.FECHADO, circuito.getEstado());
+    }
+
+    @Test
+    @DisplayName("Deve abrir quando a maioria das chamadas é lenta")
+    void deveAbrirPorChamadasLentas() {
+        CircuitoLlamaService circuito = criarCircuito(60_000, 0);
+
+        for (int i = 0; i < 4; i++) {
+            circuito.executar(() -> "lenta");
+        }
+
+        assertEquals(EstadoCircuitoLlama.ABERTO, circuito.getEstado());
+    }
+
+    @Test
+    @DisplayName("Deve abrir por falhas da sondagem e liberar teste quando o Ollama volta")
+    void deveReagirASondagem() {
+        CircuitoLlamaService circuito = criarCircuito(60_000, 60_000);
+
+        circuito.registrarSondagem(false);
+        assertEquals(EstadoCircuitoLlama.FECHADO, circuito.getEstado());
+        circuito.registrarSondagem(false);
+        assertEquals(EstadoCircuitoLlama.ABERTO, circuito.getEstado());
+
+        circuito.registrarSondagem(true);
+        assertEquals(EstadoCircuitoLlama.SEMI_ABERTO, circuito.getEstado());
+        assertTrue(circuito.isDisponivel());
+    }
+}
@@ -0,0 +1,106 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.InteracaoLlama;
+import br.gov.md.parla_md_backend.domain.enums.PoliticaExcessoAuditoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GravadorInteracaoLlamaServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private GravadorInteracaoLlamaService criar(int capacidade, int tamanhoLote, long intervaloMs,
+                                                PoliticaExcessoAuditoria politica) {
+        return new GravadorInteracaoLlamaService(
+                mongoTemplate, meterRegistry, true, capacidade, tamanhoLote, intervaloMs, 5_000, politica);
+    }
+
+    @Test
+    @DisplayName("Deve gravar registros em lote quando o lote enche")
+    void deveGravarEmLote() {
+        GravadorInteracaoLlamaService gravador = criar(100, 5, 60_000, PoliticaExcessoAuditoria.DESCARTAR_NOVO);
+        gravador.iniciar();
+
+        for (int i = 0; i < 5; i++) {
+            gravador.registrar(InteracaoLlama.builder().modelo("m" + i).build());
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<InteracaoLlama>> lote = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate, timeout(2_000)).insert(lote.capture(), eq(InteracaoLlama.class));
+        assertEquals(5, lote.getValue().size());
+
+        gravador.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve gravar o que restou na fila no encerramento")
+    void deveEsvaziarFilaNoEncerramento() {
+        GravadorInteracaoLlamaService gravador = criar(100, 50, 200, PoliticaExcessoAuditoria.DESCARTAR_NOVO);
+        gravador.iniciar();
+
+        for (int i = 0; i < 3; i++) {
+            gravador.registrar(InteracaoLlama.builder().modelo("m" + i).build());
+        }
+        gravador.encerrar();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<InteracaoLlama>> lotes = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate, atLeastOnce()).insert(lotes.capture(), eq(InteracaoLlama.class));
+        assertEquals(3, lotes.getAllValues().stream().mapToInt(Collection::size).sum());
+        assertEquals(0, gravador.getTamanhoFila());
+    }
+
+    @Test
+    @DisplayName("Deve gravar de forma síncrona após o encerramento")
+    void deveGravarSincronoAposEncerramento() {
+        GravadorInteracaoLlamaService gravador = criar(2, 10, 60_000, PoliticaExcessoAuditoria.DESCARTAR_MAIS_ANTIGO);
+        gravador.iniciar();
+        gravador.encerrar();
+
+        gravador.registrar(InteracaoLlama.builder().modelo("tardio").build());
+
+        verify(mongoTemplate).insert(argThat((Collection<InteracaoLlama> c) -> c.size() == 1), eq(InteracaoLlama.class));
+    }
+
+    @Test
+    @DisplayName("Deve descartar o registro mais antigo quando a fila está cheia")
+    void deveDescartarMaisAntigo() throws Exception {
+        doAnswer(invocacao -> {
+            Thread.sleep(500);
+            return List.of();
+        }).when(mongoTemplate).insert(anyCollection(), eq(InteracaoLlama.class));
+
+        GravadorInteracaoLlamaService gravador = criar(2, 1, 60_000, PoliticaExcessoAuditoria.DESCARTAR_MAIS_ANTIGO);
+        gravador.iniciar();
+
+        // O primeiro registro ocupa o gravador; os seguintes enchem a fila
+        gravador.registrar(InteracaoLlama.builder().modelo("0").build());
+        Thread.sleep(100);
+        for (int i = 1; i <= 4; i++) {
+            gravador.registrar(InteracaoLlama.builder().modelo(String.valueOf(i)).build());
+        }
+
+        assertEquals(2, gravador.getTamanhoFila());
+        assertEquals(2.0, meterRegistry.counter("llama.auditoria.descartes", "politica", "DESCARTAR_MAIS_ANTIGO").count());
+
+        gravador.encerrar();
+    }
+}
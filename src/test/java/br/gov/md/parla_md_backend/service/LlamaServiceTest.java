@@ -0,0 +1,160 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.config.OllamaConfig;
+import br.gov.md.parla_md_backend.config.OllamaInstanciasProperties;
+import br.gov.md.parla_md_backend.domain.InteracaoLlama;
+import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
+import br.gov.md.parla_md_backend.domain.enums.EstadoCircuitoLlama;
+import br.gov.md.parla_md_backend.exception.IAException;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import br.gov.md.parla_md_backend.repository.IInteracaoLlamaRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LlamaServiceTest {
+
+    private static final String MODELO = "llama3.2:3b";
+    private static final long ATRASO_PRIMEIRO_TOKEN_MS = 200;
+
+    private HttpServer servidor;
+    private GravadorInteracaoLlamaService gravadorInteracoes;
+    private MetricasLlamaService metricasLlama;
+    private CircuitoLlamaService circuito;
+    private LlamaService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.start();
+
+        OllamaInstanciasProperties.Instancia instancia = new OllamaInstanciasProperties.Instancia();
+        instancia.setUrl("http://127.0.0.1:" + servidor.getAddress().getPort());
+        instancia.setPeso(1);
+        instancia.setModelos(List.of());
+        OllamaInstanciasProperties propriedades = new OllamaInstanciasProperties();
+        propriedades.setInstancias(List.of(instancia));
+
+        OllamaConfig ollamaConfig = new OllamaConfig();
+        ReflectionTestUtils.setField(ollamaConfig, "timeout", 5_000);
+        ReflectionTestUtils.setField(ollamaConfig, "streamTimeout", 5_000);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RoteadorOllamaService roteador = new RoteadorOllamaService(RestClient.builder(), HttpClient.newHttpClient(),
+                ollamaConfig, propriedades, meterRegistry, 2, 60_000, 1, 1000);
+        circuito = new CircuitoLlamaService(meterRegistry, roteador,
+                true, 4, 4, 50, 80, 60_000, 60_000, 1, 2);
+        CacheRespostaLlamaService cacheRespostas = mock(CacheRespostaLlamaService.class);
+        when(cacheRespostas.calcularChave(any())).thenReturn("chave");
+        gravadorInteracoes = mock(GravadorInteracaoLlamaService.class);
+        metricasLlama = mock(MetricasLlamaService.class);
+
+        service = new LlamaService(roteador, Jackson2ObjectMapperBuilder.json().build(),
+                mock(IInteracaoLlamaRepository.class), cacheRespostas,
+                new AgendadorLlamaService(meterRegistry, 2, 10, 5_000),
+                gravadorInteracoes, metricasLlama, circuito);
+        ReflectionTestUtils.setField(service, "modeloPadrao", MODELO);
+        ReflectionTestUtils.setField(service, "temperaturePadrao", 0.7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    @DisplayName("Deve repassar os fragmentos NDJSON, agregar a resposta e medir o tempo até o primeiro token")
+    void deveLerStreamNdjson() {
+        servidor.createContext("/api/chat", troca -> {
+            troca.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+            troca.sendResponseHeaders(200, 0);
+            try (OutputStream saida = troca.getResponseBody()) {
+                // Fragmento sem texto chega antes do primeiro token e não conta para a medição
+                escrever(saida, fragmento(""));
+                pausar(ATRASO_PRIMEIRO_TOKEN_MS);
+                escrever(saida, fragmento("Olá"));
+                escrever(saida, "\n");
+                escrever(saida, fragmento(", mundo"));
+                escrever(saida, "{\"model\":\"" + MODELO + "\",\"message\":{\"role\":\"assistant\",\"content\":\"\"},"
+                        + "\"done\":true,\"done_reason\":\"stop\",\"prompt_eval_count\":12,\"eval_count\":3}\n");
+                // Depois de done=true nada mais é lido
+                escrever(saida, fragmento("ignorado"));
+            }
+        });
+
+        List<String> recebidos = new CopyOnWriteArrayList<>();
+        RespostaLlamaDTO resposta = service.enviarRequisicaoStream("Diga olá", null, false, recebidos::add);
+
+        assertEquals(List.of("Olá", ", mundo"), recebidos);
+        assertEquals("Olá, mundo", resposta.getMessage().getContent());
+        assertTrue(resposta.getDone());
+        assertEquals(12, resposta.getPromptEvalCount());
+        assertEquals(3, resposta.getEvalCount());
+
+        ArgumentCaptor<Long> primeiroToken = ArgumentCaptor.forClass(Long.class);
+        verify(metricasLlama).registrarPrimeiroToken(eq(MODELO), primeiroToken.capture());
+        assertTrue(primeiroToken.getValue() >= ATRASO_PRIMEIRO_TOKEN_MS, "primeiro token: " + primeiroToken.getValue());
+
+        ArgumentCaptor<InteracaoLlama> interacao = ArgumentCaptor.forClass(InteracaoLlama.class);
+        verify(gravadorInteracoes).registrar(interacao.capture());
+        assertEquals(primeiroToken.getValue(), interacao.getValue().getTempoPrimeiroTokenMs());
+        assertEquals("Olá, mundo", interacao.getValue().getRespostaConteudo());
+        assertTrue(interacao.getValue().getSucesso());
+    }
+
+    @Test
+    @DisplayName("Não deve contar respostas 4xx do stream como falha do Ollama no circuito")
+    void naoDeveAbrirCircuitoComErroDoClienteNoStream() {
+        servidor.createContext("/api/chat", troca -> {
+            troca.sendResponseHeaders(400, -1);
+            troca.close();
+        });
+
+        // Se contassem como falhas, a instância seria afastada e o circuito abriria
+        for (int i = 0; i < 4; i++) {
+            IAException erro = assertThrows(IAException.class,
+                    () -> service.enviarRequisicaoStream("Diga olá", null, false, fragmento -> {}));
+            assertFalse(erro instanceof LlamaIndisponivelException, erro.getMessage());
+        }
+
+        assertEquals(0.0, circuito.getTaxaFalha());
+        assertEquals(EstadoCircuitoLlama.FECHADO, circuito.getEstado());
+    }
+
+    private static String fragmento(String texto) {
+        return "{\"model\":\"" + MODELO + "\",\"created_at\":\"2024-05-10T12:00:00Z\","
+                + "\"message\":{\"role\":\"assistant\",\"content\":\"" + texto + "\"},\"done\":false}\n";
+    }
+
+    private static void escrever(OutputStream saida, String linha) throws IOException {
+        saida.write(linha.getBytes(StandardCharsets.UTF_8));
+        saida.flush();
+    }
+
+    private static void pausar(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
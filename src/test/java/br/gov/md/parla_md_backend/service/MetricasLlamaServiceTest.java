@@ -0,0 +1,62 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
+import br.gov.md.parla_md_backend.domain.dto.ResumoMetricasLlamaDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasLlamaServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MetricasLlamaService metricas = new MetricasLlamaService(meterRegistry, 60, 1000);
+
+    @Test
+    @DisplayName("Deve registrar tempos do Ollama e tokens apenas para respostas geradas")
+    void deveRegistrarTemposETokens() {
+        metricas.registrarChamada("llama3", "sumarios", MetricasLlamaService.CACHE_FALHA,
+                MetricasLlamaService.RESULTADO_SUCESSO, 2_000, resposta(100, 50, 1_000_000_000L));
+        metricas.registrarChamada("llama3", "sumarios", MetricasLlamaService.CACHE_ACERTO,
+                MetricasLlamaService.RESULTADO_SUCESSO, 5, resposta(100, 50, 1_000_000_000L));
+
+        assertEquals(2, meterRegistry.find("llama.requisicao.duracao").tag("tipo", "sumarios").timers().stream()
+                .mapToLong(t -> t.count()).sum());
+        assertEquals(1, meterRegistry.get("llama.ollama.duracao.geracao").timer().count());
+        assertEquals(1.0, meterRegistry.get("llama.ollama.duracao.geracao").timer().totalTime(TimeUnit.SECONDS), 0.001);
+        assertEquals(50.0, meterRegistry.get("llama.tokens.resposta").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve resumir chamadas por tipo, ordenadas pelo tempo consumido")
+    void deveResumirPorTipo() {
+        metricas.registrarChamada("llama3", "sumarios", MetricasLlamaService.CACHE_FALHA,
+                MetricasLlamaService.RESULTADO_SUCESSO, 1_000, resposta(10, 40, 2_000_000_000L));
+        metricas.registrarChamada("llama3", "analises-impacto", MetricasLlamaService.CACHE_FALHA,
+                MetricasLlamaService.RESULTADO_SUCESSO, 8_000, resposta(10, 40, 2_000_000_000L));
+        metricas.registrarChamada("llama3", "analises-impacto", MetricasLlamaService.CACHE_FALHA,
+                MetricasLlamaService.RESULTADO_INDISPONIVEL, 30_000, null);
+
+        ResumoMetricasLlamaDTO resumo = metricas.resumir(15);
+
+        assertEquals(3, resumo.getTotalChamadas());
+        assertEquals(2, resumo.getSucessos());
+        assertEquals(30_000, resumo.getDuracaoP99Ms());
+        assertEquals(20.0, resumo.getTokensPorSegundo(), 0.001);
+        assertEquals(List.of("analises-impacto", "sumarios"), List.copyOf(resumo.getPorTipo().keySet()));
+        assertEquals(1, resumo.getPorTipo().get("analises-impacto").falhas());
+    }
+
+    private RespostaLlamaDTO resposta(int tokensPrompt, int tokensResposta, long geracaoNanos) {
+        return RespostaLlamaDTO.builder()
+                .promptEvalCount(tokensPrompt)
+                .evalCount(tokensResposta)
+                .evalDuration(geracaoNanos)
+                .totalDuration(geracaoNanos * 2)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.ItemLegislativo;
+import br.gov.md.parla_md_backend.domain.Materia;
+import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.domain.dto.FalhaAreaImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoAnalisesImpactoDTO;
+import br.gov.md.parla_md_backend.domain.dto.StatusPrecomputacaoIADTO;
+import br.gov.md.parla_md_backend.domain.enums.MotivoFimPrecomputacao;
+import br.gov.md.parla_md_backend.domain.enums.StatusTriagem;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import br.gov.md.parla_md_backend.repository.IMateriaRepository;
+import br.gov.md.parla_md_backend.repository.IProposicaoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrecomputacaoIAServiceTest {
+
+    @Mock
+    private IProposicaoRepository proposicaoRepository;
+    @Mock
+    private IMateriaRepository materiaRepository;
+    @Mock
+    private ParlamentarService parlamentarService;
+    @Mock
+    private SumarizacaoService sumarizacaoService;
+    @Mock
+    private AnaliseImpactoService analiseImpactoService;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        when(parlamentarService.getSearchTerms()).thenReturn(List.of("Defesa", "Forças Armadas", " "));
+    }
+
+    @Test
+    @DisplayName("Deve ordenar os itens por triagem de interesse e termos de busca")
+    void deveOrdenarPorRelevancia() {
+        Proposicao semTermos = proposicao("p1", "Dispõe sobre o calendário escolar", StatusTriagem.NAO_AVALIADO);
+        Proposicao comTermo = proposicao("p2", "Altera a política de defesa cibernética", StatusTriagem.NAO_AVALIADO);
+        Materia interesse = new Materia();
+        interesse.setId("m1");
+        interesse.setEmenta("Institui o programa nacional de alimentação");
+        interesse.setStatusTriagem(StatusTriagem.INTERESSE);
+
+        when(proposicaoRepository.buscarCandidatosPrecomputacao(any())).thenReturn(List.of(semTermos, comTermo));
+        when(materiaRepository.buscarCandidatosPrecomputacao(any())).thenReturn(List.of(interesse));
+
+        List<String> ids = criarServico(1_000_000).selecionarItens(LocalDateTime.now().minusDays(2)).stream()
+                .map(ItemLegislativo::getId)
+                .toList();
+
+        assertEquals(List.of("m1", "p2", "p1"), ids);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar sem chamar o modelo quando o orçamento de tokens estiver esgotado")
+    void deveRespeitarOrcamentoDeTokens() {
+        when(proposicaoRepository.buscarCandidatosPrecomputacao(any()))
+                .thenReturn(List.of(proposicao("p1", "Forças Armadas", StatusTriagem.INTERESSE)));
+        when(materiaRepository.buscarCandidatosPrecomputacao(any())).thenReturn(List.of());
+
+        PrecomputacaoIAService service = criarServico(0);
+        service.executar();
+
+        StatusPrecomputacaoIADTO status = service.obterStatus();
+        assertEquals(MotivoFimPrecomputacao.ORCAMENTO_ESGOTADO, status.motivoFim());
+        assertEquals(1, status.itensPlanejados());
+        assertEquals(0, status.itensProcessados());
+        verifyNoInteractions(sumarizacaoService, analiseImpactoService);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar a execução no primeiro item quando o LLM estiver indisponível")
+    void deveEncerrarComLlamaIndisponivel() {
+        when(proposicaoRepository.buscarCandidatosPrecomputacao(any())).thenReturn(List.of(
+                proposicao("p1", "Forças Armadas", StatusTriagem.INTERESSE),
+                proposicao("p2", "Defesa cibernética", StatusTriagem.INTERESSE),
+                proposicao("p3", "Calendário escolar", StatusTriagem.NAO_AVALIADO)));
+        when(materiaRepository.buscarCandidatosPrecomputacao(any())).thenReturn(List.of());
+        when(sumarizacaoService.sumarizar(any())).thenThrow(LlamaIndisponivelException.circuitoAberto(30));
+
+        PrecomputacaoIAService service = criarServico(1_000_000, 1);
+        service.executar();
+
+        StatusPrecomputacaoIADTO status = service.obterStatus();
+        assertEquals(MotivoFimPrecomputacao.LLAMA_INDISPONIVEL, status.motivoFim());
+        assertEquals(0, status.itensProcessados());
+        assertEquals(0, status.falhas());
+        verify(sumarizacaoService, times(1)).sumarizar(any());
+        verifyNoInteractions(analiseImpactoService);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar a execução quando uma área de impacto for rejeitada pelo LLM")
+    void deveEncerrarComAreaIndisponivel() {
+        when(proposicaoRepository.buscarCandidatosPrecomputacao(any())).thenReturn(List.of(
+                proposicao("p1", "Forças Armadas", StatusTriagem.INTERESSE),
+                proposicao("p2", "Defesa cibernética", StatusTriagem.INTERESSE)));
+        when(materiaRepository.buscarCandidatosPrecomputacao(any())).thenReturn(List.of());
+        when(analiseImpactoService.analisar(any())).thenReturn(ResultadoAnalisesImpactoDTO.builder()
+                .itemLegislativoId("p1")
+                .totalAreas(2)
+                .analises(List.of())
+                .falhas(List.of(new FalhaAreaImpactoDTO("a1", "Defesa", FalhaAreaImpactoDTO.MOTIVO_INDISPONIVEL,
+                        "Fila do LLM cheia", 5L)))
+                .build());
+
+        PrecomputacaoIAService service = criarServico(1_000_000, 1);
+        service.executar();
+
+        StatusPrecomputacaoIADTO status = service.obterStatus();
+        assertEquals(MotivoFimPrecomputacao.LLAMA_INDISPONIVEL, status.motivoFim());
+        assertEquals(0, status.falhas());
+        verify(analiseImpactoService, times(1)).analisar(any());
+    }
+
+    private PrecomputacaoIAService criarServico(long orcamentoTokens) {
+        return criarServico(orcamentoTokens, 2);
+    }
+
+    private PrecomputacaoIAService criarServico(long orcamentoTokens, int paralelismo) {
+        return new PrecomputacaoIAService(proposicaoRepository, materiaRepository, parlamentarService,
+                sumarizacaoService, analiseImpactoService, new MetricasLlamaService(registry, 60, 1000), registry,
+                true, 2, 240, orcamentoTokens, paralelismo, 500, true, true);
+    }
+
+    private Proposicao proposicao(String id, String ementa, StatusTriagem status) {
+        Proposicao proposicao = new Proposicao();
+        proposicao.setId(id);
+        proposicao.setEmenta(ementa);
+        proposicao.setStatusTriagem(status);
+        return proposicao;
+    }
+}
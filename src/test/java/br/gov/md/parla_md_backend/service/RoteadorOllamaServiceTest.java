@@ -0,0 +1,97 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.config.OllamaConfig;
+import br.gov.md.parla_md_backend.config.OllamaInstanciasProperties;
+import br.gov.md.parla_md_backend.exception.LlamaIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoteadorOllamaServiceTest {
+
+    private static final String MODELO = "llama3.2:3b";
+
+    private RoteadorOllamaService criarRoteador(OllamaInstanciasProperties.Instancia... instancias) {
+        OllamaInstanciasProperties propriedades = new OllamaInstanciasProperties();
+        propriedades.setInstancias(List.of(instancias));
+        return new RoteadorOllamaService(RestClient.builder(), HttpClient.newHttpClient(), new OllamaConfig(), propriedades,
+                new SimpleMeterRegistry(), 2, 60_000, 1, 1000);
+    }
+
+    private OllamaInstanciasProperties.Instancia instancia(String url, int peso, String... modelos) {
+        OllamaInstanciasProperties.Instancia instancia = new OllamaInstanciasProperties.Instancia();
+        instancia.setUrl(url);
+        instancia.setPeso(peso);
+        instancia.setModelos(List.of(modelos));
+        return instancia;
+    }
+
+    @Test
+    @DisplayName("Deve escolher a instância com menos requisições pendentes em relação ao peso")
+    void deveEscolherMenorCargaPonderada() {
+        RoteadorOllamaService roteador = criarRoteador(
+                instancia("http://a:11434", 1),
+                instancia("http://b:11434", 3));
+
+        // Modelos distintos para isolar o balanceamento da afinidade; b tem peso 3
+        List<String> escolhidas = IntStream.range(0, 4)
+                .mapToObj(i -> roteador.selecionar("modelo-" + i).getUrl())
+                .toList();
+
+        assertEquals(3, escolhidas.stream().filter("http://b:11434"::equals).count());
+        assertEquals(1, escolhidas.stream().filter("http://a:11434"::equals).count());
+    }
+
+    @Test
+    @DisplayName("Deve rotear apenas para instâncias que servem o modelo")
+    void deveRespeitarModelosDaInstancia() {
+        RoteadorOllamaService roteador = criarRoteador(
+                instancia("http://a:11434", 5, "mistral"),
+                instancia("http://b:11434", 1, "llama3.2"));
+
+        assertEquals("http://b:11434", roteador.selecionar(MODELO).getUrl());
+        assertThrows(LlamaIndisponivelException.class, () -> roteador.selecionar("qwen2"));
+    }
+
+    @Test
+    @DisplayName("Deve manter o modelo na instância de afinidade dentro da folga de carga")
+    void deveManterAfinidadePorModelo() {
+        RoteadorOllamaService roteador = criarRoteador(
+                instancia("http://a:11434", 1),
+                instancia("http://b:11434", 1));
+
+        String primeira = roteador.selecionar(MODELO).getUrl();
+        String segunda = roteador.selecionar(MODELO).getUrl();
+        String terceira = roteador.selecionar(MODELO).getUrl();
+
+        assertEquals(primeira, segunda);
+        assertNotEquals(primeira, terceira);
+    }
+
+    @Test
+    @DisplayName("Deve ejetar a instância após falhas consecutivas")
+    void deveEjetarInstanciaComFalhas() {
+        RoteadorOllamaService roteador = criarRoteador(
+                instancia("http://a:11434", 1),
+                instancia("http://b:11434", 1));
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> roteador.executar(MODELO, cliente -> {
+                throw new ResourceAccessException("Connection refused");
+            }));
+        }
+
+        String saudavel = roteador.selecionar(MODELO).getUrl();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(saudavel, roteador.selecionar(MODELO).getUrl());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.Materia;
+import br.gov.md.parla_md_backend.domain.dto.MateriaDTO;
+import br.gov.md.parla_md_backend.exception.ApiExternaException;
+import br.gov.md.parla_md_backend.messaging.RabbitMQProducer;
+import br.gov.md.parla_md_backend.repository.IMateriaRepository;
+import br.gov.md.parla_md_backend.repository.IProcedimentoMateriaRepository;
+import br.gov.md.parla_md_backend.repository.ISenadorRepository;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.GravadorEmLote;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.ResultadoUpsert;
+import br.gov.md.parla_md_backend.util.ApiClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SenadoServiceTest {
+
+    private static final String BASE_URL = "https://senado.test/dadosabertos/";
+
+    @Mock
+    private ApiClient apiClient;
+    @Mock
+    private IMateriaRepository materiaRepository;
+    @Mock
+    private IProcedimentoMateriaRepository procedimentoRepository;
+    @Mock
+    private ISenadorRepository senadorRepository;
+    @Mock
+    private RabbitMQProducer rabbitMQProducer;
+    @Mock
+    private BuscaSemanticaService buscaSemanticaService;
+    @Mock
+    private UpsertEmLoteService upsertEmLoteService;
+    @Mock
+    private EstadoSincronizacaoService estadoSincronizacaoService;
+
+    private SenadoService service;
+    private final List<Materia> gravadas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new SenadoService(apiClient, materiaRepository, procedimentoRepository, senadorRepository,
+                rabbitMQProducer, buscaSemanticaService, upsertEmLoteService, estadoSincronizacaoService);
+        ReflectionTestUtils.setField(service, "senadoApiBaseUrl", BASE_URL);
+
+        when(upsertEmLoteService.<Materia>abrirGravador(any(), any())).thenAnswer(invocacao -> gravadorSimulado());
+    }
+
+    @Test
+    @DisplayName("Deve gravar as matérias atualizadas com os dados do detalhe, não só a identificação da lista")
+    void deveBuscarDetalheDasAtualizadas() {
+        LocalDateTime marca = LocalDateTime.of(2024, 5, 10, 2, 0);
+        when(estadoSincronizacaoService.obterMarcaDagua("senado", "materias")).thenReturn(Optional.of(marca));
+        responder(BASE_URL + "materia/atualizadas?data=20240510", """
+                <ListaMateriasAtualizadas><Materias>
+                  <Materia><IdentificacaoMateria><CodigoMateria>101</CodigoMateria>
+                    <NumeroMateria>1</NumeroMateria></IdentificacaoMateria>
+                    <Atualizacoes><Atualizacao><DataUltimaAtualizacao>2024-05-11</DataUltimaAtualizacao></Atualizacao></Atualizacoes>
+                  </Materia>
+                  <Materia><IdentificacaoMateria><CodigoMateria>102</CodigoMateria></IdentificacaoMateria></Materia>
+                </Materias></ListaMateriasAtualizadas>
+                """);
+        when(apiClient.lerStreamAsync(eq(BASE_URL + "materia/101"), any())).thenAnswer(invocacao ->
+                ler(invocacao.getArgument(1), detalhe(101, "Dispõe sobre a defesa cibernética")));
+        when(apiClient.lerStreamAsync(eq(BASE_URL + "materia/102"), any())).thenReturn(CompletableFuture.failedFuture(
+                new ApiExternaException("Não encontrado", "senado", 404, BASE_URL + "materia/102")));
+
+        List<MateriaDTO> materias = service.sincronizarAlteracoes();
+
+        assertEquals(1, materias.size());
+        assertEquals(1, gravadas.size());
+        Materia materia = gravadas.get(0);
+        assertEquals(101L, materia.getCodigoMateria());
+        assertEquals("Dispõe sobre a defesa cibernética", materia.getEmenta());
+        assertEquals("PL", materia.getSiglaSubtipoMateria());
+        assertEquals(2024, materia.getAno());
+        verify(estadoSincronizacaoService).avancarMarcaDagua(eq("senado"), eq("materias"), any(), eq(1L));
+    }
+
+    @Test
+    @DisplayName("Não deve avançar a marca d'água se o detalhe de uma matéria falhar")
+    void naoDeveAvancarMarcaSeDetalheFalhar() {
+        when(estadoSincronizacaoService.obterMarcaDagua("senado", "materias"))
+                .thenReturn(Optional.of(LocalDateTime.of(2024, 5, 10, 2, 0)));
+        responder(BASE_URL + "materia/atualizadas?data=20240510", """
+                <ListaMateriasAtualizadas><Materias>
+                  <Materia><IdentificacaoMateria><CodigoMateria>101</CodigoMateria></IdentificacaoMateria></Materia>
+                </Materias></ListaMateriasAtualizadas>
+                """);
+        when(apiClient.lerStreamAsync(eq(BASE_URL + "materia/101"), any())).thenReturn(CompletableFuture.failedFuture(
+                new ApiExternaException("Indisponível", "senado", 503, BASE_URL + "materia/101")));
+
+        assertThrows(ApiExternaException.class, () -> service.sincronizarAlteracoes());
+
+        verify(estadoSincronizacaoService, never()).avancarMarcaDagua(any(), any(), any(), anyLong());
+        verify(estadoSincronizacaoService).registrarFalha(eq("senado"), eq("materias"), anyString());
+    }
+
+    private void responder(String url, String xml) {
+        when(apiClient.lerStream(eq(url), any())).thenAnswer(invocacao -> {
+            ApiClient.LeitorCorpo<?> leitor = invocacao.getArgument(1);
+            return leitor.ler(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        });
+    }
+
+    private static <T> CompletableFuture<T> ler(ApiClient.LeitorCorpo<T> leitor, String xml) throws Exception {
+        return CompletableFuture.completedFuture(
+                leitor.ler(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static String detalhe(long codigo, String ementa) {
+        return """
+                <DetalheMateria><Materia>
+                  <IdentificacaoMateria>
+                    <CodigoMateria>%d</CodigoMateria>
+                    <SiglaSubtipoMateria>PL</SiglaSubtipoMateria>
+                    <NumeroMateria>1</NumeroMateria>
+                    <AnoMateria>2024</AnoMateria>
+                    <IndicadorTramitando>Sim</IndicadorTramitando>
+                  </IdentificacaoMateria>
+                  <DadosBasicosMateria>
+                    <EmentaMateria>%s</EmentaMateria>
+                    <DataApresentacao>2024-03-01</DataApresentacao>
+                  </DadosBasicosMateria>
+                </Materia></DetalheMateria>
+                """.formatted(codigo, ementa);
+    }
+
+    @SuppressWarnings("unchecked")
+    private GravadorEmLote<Materia> gravadorSimulado() {
+        GravadorEmLote<Materia> gravador = mock(GravadorEmLote.class);
+        lenient().doAnswer(invocacao -> gravadas.add(invocacao.getArgument(0))).when(gravador).adicionar(any());
+        lenient().when(gravador.concluir()).thenAnswer(invocacao ->
+                new ResultadoUpsert<>(gravadas, gravadas, gravadas.size(), 0, 0, 0));
+        return gravador;
+    }
+}
@@ -0,0 +1,128 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.domain.Sumario;
+import br.gov.md.parla_md_backend.domain.dto.RespostaLlamaDTO;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoResumoTrechoIA;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoSumarizacaoIA;
+import br.gov.md.parla_md_backend.domain.dto.SolicitarSumarioDTO;
+import br.gov.md.parla_md_backend.repository.IItemLegislativoRepository;
+import br.gov.md.parla_md_backend.repository.ISumarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SumarizacaoServiceTest {
+
+    private static final String EMENTA =
+            "Dispõe sobre a modernização dos meios de defesa aeroespacial e dá outras providências "
+                    + "relativas à aquisição de sistemas.";
+
+    @Mock
+    private LlamaService llamaService;
+    @Mock
+    private ISumarioRepository sumarioRepository;
+    @Mock
+    private IItemLegislativoRepository itemLegislativoRepository;
+
+    private SumarizacaoService service;
+    private Proposicao item;
+
+    @BeforeEach
+    void setUp() {
+        service = new SumarizacaoService(llamaService, sumarioRepository, itemLegislativoRepository,
+                new AgendadorLlamaService(new SimpleMeterRegistry(), 2, 10, 5_000));
+        ReflectionTestUtils.setField(service, "textoMinimoCaracteres", 100);
+        ReflectionTestUtils.setField(service, "textoMaximoCaracteres", 2_000_000);
+        ReflectionTestUtils.setField(service, "tokensMaximoTrecho", 60);
+        ReflectionTestUtils.setField(service, "paralelismoMaximoTrechos", 2);
+        ReflectionTestUtils.setField(service, "cacheTtlSegundos", 3600);
+
+        item = new Proposicao();
+        item.setId("item-1");
+        item.setEmenta(EMENTA);
+        when(itemLegislativoRepository.findById("item-1")).thenReturn(Optional.of(item));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve resumir em trechos o texto armazenado do item quando excede o limite")
+    void deveResumirEmTrechosTextoDoItem() {
+        item.setEmentaDetalhada(String.join(" ",
+                "Art. 1º Fica autorizada a aquisição de radares de vigilância de longo alcance.",
+                "Art. 2º O Comando da Aeronáutica coordenará a integração dos sistemas adquiridos.",
+                "Art. 3º As despesas correrão à conta de dotações orçamentárias próprias do Ministério.",
+                "Art. 4º O Poder Executivo regulamentará esta Lei no prazo de cento e oitenta dias.",
+                "Art. 5º Esta Lei entra em vigor na data de sua publicação oficial."));
+        when(sumarioRepository.findByItemLegislativo(item)).thenReturn(List.of());
+        when(sumarioRepository.save(any(Sumario.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        RespostaLlamaDTO respostaTrecho = resposta("{\"resumo\":\"Trecho resumido.\"}");
+        RespostaLlamaDTO respostaSumario = resposta("{\"sumarioExecutivo\":\"Sumário.\"}");
+        when(llamaService.enviarRequisicao(anyString(), anyString(), eq(ResultadoResumoTrechoIA.class),
+                eq("sumarios-trechos"), eq(false))).thenReturn(respostaTrecho);
+        when(llamaService.extrairJson(respostaTrecho, ResultadoResumoTrechoIA.class))
+                .thenReturn(new ResultadoResumoTrechoIA("Trecho resumido."));
+        when(llamaService.enviarRequisicao(anyString(), anyString(), eq(ResultadoSumarizacaoIA.class),
+                eq("sumarios"), anyBoolean())).thenReturn(respostaSumario);
+        when(llamaService.extrairJsonCompletando(eq(respostaSumario), eq(ResultadoSumarizacaoIA.class),
+                anyString(), anyString(), anyString()))
+                .thenReturn(new ResultadoSumarizacaoIA("Sumário.", List.of(), List.of(), List.of(), null, null, null));
+
+        service.sumarizar(SolicitarSumarioDTO.builder().itemLegislativoId("item-1").build());
+
+        verify(llamaService, atLeast(2)).enviarRequisicao(anyString(), anyString(),
+                eq(ResultadoResumoTrechoIA.class), eq("sumarios-trechos"), eq(false));
+
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(llamaService).enviarRequisicao(prompt.capture(), anyString(), eq(ResultadoSumarizacaoIA.class),
+                eq("sumarios"), anyBoolean());
+        assertThat(prompt.getValue())
+                .contains("resumos sequenciais", "Trecho resumido.")
+                .doesNotContain("radares de vigilância");
+    }
+
+    @Test
+    @DisplayName("Não deve chamar o LLM para trechos quando o sumário vem do cache")
+    void naoDeveResumirTrechosComSumarioEmCache() {
+        item.setEmentaDetalhada("Texto detalhado. ".repeat(40));
+        Sumario emCache = Sumario.builder()
+                .id("s1")
+                .itemLegislativo(item)
+                .sucesso(true)
+                .dataCriacao(LocalDateTime.now())
+                .dataExpiracao(LocalDateTime.now().plusHours(1))
+                .build();
+        when(sumarioRepository.findByItemLegislativo(item)).thenReturn(List.of(emCache));
+
+        service.sumarizar(SolicitarSumarioDTO.builder().itemLegislativoId("item-1").build());
+
+        verifyNoInteractions(llamaService);
+    }
+
+    private static RespostaLlamaDTO resposta(String conteudo) {
+        return RespostaLlamaDTO.builder()
+                .message(RespostaLlamaDTO.Message.builder().role("assistant").content(conteudo).build())
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package br.gov.md.parla_md_backend.service;
+
+import br.gov.md.parla_md_backend.domain.Proposicao;
+import br.gov.md.parla_md_backend.domain.enums.StatusTriagem;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.RegraUpsert;
+import br.gov.md.parla_md_backend.service.UpsertEmLoteService.ResultadoUpsert;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UpsertEmLoteServiceTest {
+
+    private static final RegraUpsert<Proposicao> REGRA = RegraUpsert.de(Proposicao.class,
+            "idCamara", "dataUltimaAtualizacao", "statusTriagem", "dataCaptura");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations operacoes;
+    @Mock
+    private BulkWriteResult resultadoBulk;
+
+    private MappingMongoConverter conversor;
+    private UpsertEmLoteService service;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversoes = new MongoCustomConversions(List.of());
+        MongoMappingContext contexto = new MongoMappingContext();
+        contexto.setSimpleTypeHolder(conversoes.getSimpleTypeHolder());
+        conversor = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, contexto);
+        conversor.setCustomConversions(conversoes);
+        conversor.afterPropertiesSet();
+
+        when(mongoTemplate.getConverter()).thenReturn(conversor);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "proposicoes")).thenReturn(operacoes);
+        service = new UpsertEmLoteService(mongoTemplate, 500);
+    }
+
+    @Test
+    @DisplayName("Deve inserir novas, atualizar só os campos alterados e ignorar as inalteradas")
+    void deveMesclarPorChaveNatural() {
+        LocalDateTime ontem = LocalDateTime.now().minusDays(1).withNano(0);
+        Document alterada = documento(proposicao(11L, "Ementa antiga", StatusTriagem.INTERESSE, ontem));
+        Document inalterada = documento(proposicao(13L, "Ementa igual", StatusTriagem.INTERESSE, ontem));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("proposicoes")))
+                .thenReturn(List.of(alterada, inalterada));
+
+        when(operacoes.execute()).thenReturn(resultadoBulk);
+        when(resultadoBulk.getUpserts()).thenReturn(List.of(new BulkWriteUpsert(1, new BsonObjectId())));
+        when(resultadoBulk.getModifiedCount()).thenReturn(1);
+
+        LocalDateTime agora = LocalDateTime.now().withNano(0);
+        ResultadoUpsert<Proposicao> resultado = service.upsert(REGRA, List.of(
+                proposicao(11L, "Ementa nova", StatusTriagem.NAO_AVALIADO, agora),
+                proposicao(12L, "Ementa nova", StatusTriagem.NAO_AVALIADO, agora),
+                proposicao(13L, "Ementa igual", StatusTriagem.NAO_AVALIADO, agora)));
+
+        assertEquals(1, resultado.inseridos());
+        assertEquals(1, resultado.atualizados());
+        assertEquals(1, resultado.inalterados());
+        assertEquals(List.of(11L, 12L), resultado.alterados().stream().map(Proposicao::getIdCamara).toList());
+
+        ArgumentCaptor<Update> atualizacao = ArgumentCaptor.forClass(Update.class);
+        verify(operacoes).updateOne(any(Query.class), atualizacao.capture());
+        Document campos = atualizacao.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(Set.of("ementa", "dataUltimaAtualizacao"), campos.keySet());
+        verify(operacoes).upsert(any(Query.class), any(Update.class));
+
+        // A triagem feita na aplicação não é sobrescrita pela captura
+        Proposicao mesclada = resultado.itens().get(0);
+        assertEquals("Ementa nova", mesclada.getEmenta());
+        assertEquals(StatusTriagem.INTERESSE, mesclada.getStatusTriagem());
+        assertEquals(alterada.get("_id").toString(), mesclada.getId());
+    }
+
+    @Test
+    @DisplayName("Não deve executar escrita quando nada mudou")
+    void naoDeveEscreverSemAlteracoes() {
+        LocalDateTime ontem = LocalDateTime.now().minusDays(1).withNano(0);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("proposicoes")))
+                .thenReturn(List.of(documento(proposicao(11L, "Ementa", StatusTriagem.INTERESSE, ontem))));
+
+        ResultadoUpsert<Proposicao> resultado = service.upsert(REGRA,
+                List.of(proposicao(11L, "Ementa", StatusTriagem.NAO_AVALIADO, LocalDateTime.now())));
+
+        assertEquals(1, resultado.inalterados());
+        assertTrue(resultado.alterados().isEmpty());
+        verify(operacoes, never()).execute();
+    }
+
+    private Document documento(Proposicao proposicao) {
+        proposicao.setId(new ObjectId().toHexString());
+        Document documento = new Document();
+        conversor.write(proposicao, documento);
+        return documento;
+    }
+
+    private static Proposicao proposicao(long idCamara, String ementa, StatusTriagem status, LocalDateTime data) {
+        Proposicao proposicao = new Proposicao();
+        proposicao.setIdCamara(idCamara);
+        proposicao.setSiglaTipo("PL");
+        proposicao.setEmenta(ementa);
+        proposicao.setStatusTriagem(status);
+        proposicao.setDataCaptura(data);
+        proposicao.setDataUltimaAtualizacao(data);
+        return proposicao;
+    }
+}
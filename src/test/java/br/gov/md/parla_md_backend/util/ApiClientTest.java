@@ -0,0 +1,143 @@
+package br.gov.md.parla_md_backend.util;
+
+import br.gov.md.parla_md_backend.config.ApiExternaProperties;
+import br.gov.md.parla_md_backend.exception.ApiExternaException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiClientTest {
+
+    private HttpServer servidor;
+    private String baseUrl;
+    private SimpleMeterRegistry meterRegistry;
+    private ApiClient apiClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.start();
+        baseUrl = "http://127.0.0.1:" + servidor.getAddress().getPort();
+
+        ApiExternaProperties propriedades = new ApiExternaProperties();
+        propriedades.setEsperaInicial(Duration.ofMillis(1));
+        propriedades.getPadrao().setRequisicoesPorSegundo(1_000);
+        propriedades.getPadrao().setTimeout(Duration.ofSeconds(5));
+        meterRegistry = new SimpleMeterRegistry();
+        apiClient = new ApiClient(propriedades, meterRegistry, new ArquivoRespostas(propriedades));
+    }
+
+    @AfterEach
+    void tearDown() {
+        apiClient.encerrar();
+        servidor.stop(0);
+    }
+
+    @Test
+    @DisplayName("Deve repetir 503 conforme o Retry-After e descomprimir a resposta gzip")
+    void deveRepetirEDescomprimir() {
+        AtomicInteger chamadas = new AtomicInteger();
+        List<String> codificacoesAceitas = new CopyOnWriteArrayList<>();
+        servidor.createContext("/materia/123/tramitacoes", troca -> {
+            codificacoesAceitas.add(troca.getRequestHeaders().getFirst("Accept-Encoding"));
+            if (chamadas.incrementAndGet() == 1) {
+                troca.getResponseHeaders().add("Retry-After", "0");
+                responder(troca, 503, new byte[0]);
+                return;
+            }
+            troca.getResponseHeaders().add("Content-Encoding", "gzip");
+            responder(troca, 200, gzip("<Tramitacoes/>"));
+        });
+
+        String corpo = apiClient.get(baseUrl + "/materia/123/tramitacoes");
+
+        assertEquals("<Tramitacoes/>", corpo);
+        assertEquals(2, chamadas.get());
+        assertEquals("gzip, deflate", codificacoesAceitas.get(0));
+        assertEquals(1.0, meterRegistry.get("api.externa.retentativas").tag("motivo", "503").counter().count());
+        assertEquals(1, meterRegistry.get("api.externa.requisicoes")
+                .tag("endpoint", "/materia/{id}/tramitacoes").tag("status", "200").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve enviar o ETag da última leitura e não chamar o leitor em 304")
+    void deveFazerGetCondicional() {
+        List<String> validadoresRecebidos = new CopyOnWriteArrayList<>();
+        servidor.createContext("/senador/lista/atual", troca -> {
+            String etag = troca.getRequestHeaders().getFirst("If-None-Match");
+            validadoresRecebidos.add(String.valueOf(etag));
+            if ("\"v1\"".equals(etag)) {
+                responder(troca, 304, null);
+                return;
+            }
+            troca.getResponseHeaders().add("ETag", "\"v1\"");
+            responder(troca, 200, "lista".getBytes(StandardCharsets.UTF_8));
+        });
+        String url = baseUrl + "/senador/lista/atual";
+
+        // Leitor que falha: o validador não pode ser guardado
+        assertThrows(ApiExternaException.class, () -> apiClient.lerStreamSeAlterado(url, corpo -> {
+            throw new IOException("falha ao gravar");
+        }));
+        Optional<String> primeira = apiClient.lerStreamSeAlterado(url, corpo -> new String(corpo.readAllBytes()));
+        Optional<String> segunda = apiClient.lerStreamSeAlterado(url, corpo -> fail("não deveria ler o corpo"));
+
+        assertEquals(Optional.of("lista"), primeira);
+        assertTrue(segunda.isEmpty());
+        assertEquals(List.of("null", "null", "\"v1\""), validadoresRecebidos);
+    }
+
+    @Test
+    @DisplayName("Deve lançar ApiExternaException com o status sem repetir erros 4xx")
+    void deveFalharSemRepetirEm404() {
+        AtomicInteger chamadas = new AtomicInteger();
+        servidor.createContext("/proposicoes/9", troca -> {
+            chamadas.incrementAndGet();
+            responder(troca, 404, new byte[0]);
+        });
+
+        ApiExternaException erro = assertThrows(ApiExternaException.class,
+                () -> apiClient.get(baseUrl + "/proposicoes/9"));
+
+        assertEquals(404, erro.getStatusCode());
+        assertEquals(1, chamadas.get());
+    }
+
+    private static void responder(HttpExchange troca, int status, byte[] corpo) throws IOException {
+        troca.sendResponseHeaders(status, corpo == null || corpo.length == 0 ? -1 : corpo.length);
+        if (corpo != null && corpo.length > 0) {
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        }
+        troca.close();
+    }
+
+    private static byte[] gzip(String texto) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream saida = new GZIPOutputStream(bytes)) {
+            saida.write(texto.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,123 @@
+package br.gov.md.parla_md_backend.util;
+
+import br.gov.md.parla_md_backend.config.ApiExternaProperties;
+import br.gov.md.parla_md_backend.config.ApiExternaProperties.Arquivo.Modo;
+import br.gov.md.parla_md_backend.exception.ApiExternaException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArquivoRespostasTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    @DisplayName("Deve arquivar as respostas lidas e reproduzi-las sem rede, inclusive as lidas pela metade")
+    void deveGravarEReproduzir() throws IOException {
+        AtomicInteger versao = new AtomicInteger();
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/proposicoes", troca -> {
+            byte[] corpo = ("{\"dados\":[{\"id\":" + versao.incrementAndGet() + "}],\"links\":[]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        });
+        servidor.start();
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/proposicoes?ano=2024&pagina=1";
+
+        ArquivoRespostas gravacao = new ArquivoRespostas(propriedades(Modo.GRAVAR));
+        ApiClient clienteGravando = new ApiClient(propriedades(Modo.GRAVAR), new SimpleMeterRegistry(), gravacao);
+        try {
+            // O leitor lê só o primeiro byte: a resposta ainda deve ser arquivada inteira
+            clienteGravando.lerStream(url, corpo -> corpo.read());
+            clienteGravando.get(url);
+        } finally {
+            clienteGravando.encerrar();
+            gravacao.encerrar();
+            servidor.stop(0);
+        }
+        assertEquals(2, gravacao.resumo().segmentos());
+        assertEquals(0, temporarios());
+
+        ArquivoRespostas reproducao = new ArquivoRespostas(propriedades(Modo.REPRODUZIR));
+        ApiClient clienteReproduzindo = new ApiClient(propriedades(Modo.REPRODUZIR), new SimpleMeterRegistry(),
+                reproducao);
+        try {
+            assertEquals("{\"dados\":[{\"id\":2}],\"links\":[]}", clienteReproduzindo.get(url));
+            assertEquals(1, reproducao.resumo().urls());
+            assertEquals(2, reproducao.resumo().respostas());
+
+            ApiExternaException erro = assertThrows(ApiExternaException.class,
+                    () -> clienteReproduzindo.get(url.replace("pagina=1", "pagina=2")));
+            assertEquals(404, erro.getStatusCode());
+        } finally {
+            clienteReproduzindo.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve arquivar nem deixar temporários quando a leitura da resposta falha")
+    void naoDeveArquivarLeituraComFalha() throws IOException {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/materias", troca -> {
+            byte[] corpo = "{\"dados\":[]}".getBytes(StandardCharsets.UTF_8);
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        });
+        servidor.start();
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/materias";
+
+        ArquivoRespostas gravacao = new ArquivoRespostas(propriedades(Modo.GRAVAR));
+        ApiClient cliente = new ApiClient(propriedades(Modo.GRAVAR), new SimpleMeterRegistry(), gravacao);
+        try {
+            assertThrows(ApiExternaException.class, () -> cliente.lerStream(url, corpo -> {
+                corpo.read();
+                throw new IOException("JSON inválido");
+            }));
+        } finally {
+            cliente.encerrar();
+            gravacao.encerrar();
+            servidor.stop(0);
+        }
+
+        assertEquals(0, gravacao.resumo().respostas());
+        assertEquals(0, temporarios());
+    }
+
+    private long temporarios() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(".tmp")).count();
+        }
+    }
+
+    private ApiExternaProperties propriedades(Modo modo) {
+        ApiExternaProperties propriedades = new ApiExternaProperties();
+        propriedades.getPadrao().setRequisicoesPorSegundo(1_000);
+        propriedades.getPadrao().setTimeout(Duration.ofSeconds(5));
+        propriedades.getArquivo().setModo(modo);
+        propriedades.getArquivo().setDiretorio(diretorio.toString());
+        // Um byte: cada resposta abre um segmento novo
+        propriedades.getArquivo().setTamanhoSegmento(DataSize.ofBytes(1));
+        return propriedades;
+    }
+}
@@ -0,0 +1,64 @@
+package br.gov.md.parla_md_backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DivisorTextoLegislativoTest {
+
+    @Test
+    @DisplayName("Deve manter texto curto em um único trecho")
+    void deveManterTextoCurto() {
+        List<String> trechos = DivisorTextoLegislativo.dividir("Art. 1º Esta lei entra em vigor na data de sua publicação.", 100);
+
+        assertEquals(1, trechos.size());
+    }
+
+    @Test
+    @DisplayName("Deve dividir nos limites de artigo sem exceder o tamanho máximo")
+    void deveDividirPorArtigo() {
+        String texto = IntStream.rangeClosed(1, 40)
+                .mapToObj(i -> "Art. " + i + "º " + "Fica estabelecido o dispositivo número " + i + " desta lei. ".repeat(3))
+                .collect(Collectors.joining("\n"));
+
+        List<String> trechos = DivisorTextoLegislativo.dividir(texto, 200);
+
+        assertTrue(trechos.size() > 1);
+        trechos.forEach(t -> {
+            assertTrue(DivisorTextoLegislativo.estimarTokens(t) <= 200, "trecho excede o limite");
+            assertTrue(t.startsWith("Art. "), "trecho não começa em artigo: " + t.substring(0, 20));
+        });
+    }
+
+    @Test
+    @DisplayName("Alteração em um artigo deve mudar apenas o trecho que o contém")
+    void alteracaoDeveAfetarApenasUmTrecho() {
+        List<String> artigos = IntStream.rangeClosed(1, 30)
+                .mapToObj(i -> "Art. " + i + "º Texto do artigo " + i + " com conteúdo de tamanho razoável para o teste.")
+                .collect(Collectors.toList());
+        String original = String.join("\n", artigos);
+        artigos.set(29, artigos.get(29).replace("razoável", "alterado"));
+        String alterado = String.join("\n", artigos);
+
+        List<String> antes = DivisorTextoLegislativo.dividir(original, 100);
+        List<String> depois = DivisorTextoLegislativo.dividir(alterado, 100);
+
+        assertEquals(antes.size(), depois.size());
+        long diferentes = IntStream.range(0, antes.size()).filter(i -> !antes.get(i).equals(depois.get(i))).count();
+        assertEquals(1, diferentes);
+    }
+
+    @Test
+    @DisplayName("Deve cortar segmento sem separadores naturais")
+    void deveCortarSegmentoSemSeparadores() {
+        List<String> trechos = DivisorTextoLegislativo.dividir("x".repeat(1000), 50);
+
+        assertTrue(trechos.size() > 1);
+        assertEquals(1000, trechos.stream().mapToInt(String::length).sum());
+    }
+}
@@ -0,0 +1,50 @@
+package br.gov.md.parla_md_backend.util;
+
+import br.gov.md.parla_md_backend.domain.dto.ResultadoAnaliseImpactoLoteIA;
+import br.gov.md.parla_md_backend.domain.dto.ResultadoSumarizacaoIA;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeradorEsquemaJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GeradorEsquemaJson gerador = new GeradorEsquemaJson(objectMapper);
+
+    @Test
+    @DisplayName("Deve gerar esquema com as propriedades do record, sem métodos derivados")
+    void deveGerarEsquemaDeRecord() {
+        ObjectNode esquema = gerador.gerar(ResultadoAnaliseImpactoLoteIA.class);
+        ObjectNode area = (ObjectNode) esquema.at("/properties/analises/items");
+
+        assertEquals("array", esquema.at("/properties/analises/type").asText());
+        assertEquals("number", area.at("/properties/percentualImpacto/type").asText());
+        assertEquals("string", area.at("/properties/consequencias/items/type").asText());
+        assertFalse(area.path("properties").has("completa"));
+        assertEquals(10, area.path("required").size());
+    }
+
+    @Test
+    @DisplayName("Deve apontar campos ausentes e preencher listas com padrão")
+    void deveApontarCamposAusentes() throws Exception {
+        ObjectNode parcial = (ObjectNode) objectMapper.readTree("""
+                {"sumarioExecutivo": "resumo", "pontosPrincipais": ["a"], "temasPrincipais": null}""");
+
+        List<String> ausentes = gerador.camposAusentes(ResultadoSumarizacaoIA.class, parcial);
+        assertEquals(List.of("entidadesRelevantes", "palavrasChave", "temasPrincipais",
+                "sentimentoGeral", "impactoEstimado"), ausentes);
+
+        ObjectNode esquemaParcial = gerador.gerarParcial(ResultadoSumarizacaoIA.class, ausentes);
+        assertEquals(5, esquemaParcial.path("required").size());
+
+        gerador.preencherPadroes(ResultadoSumarizacaoIA.class, parcial);
+        ResultadoSumarizacaoIA resultado = objectMapper.treeToValue(parcial, ResultadoSumarizacaoIA.class);
+        assertEquals(List.of(), resultado.entidadesRelevantes());
+        assertNull(resultado.sentimentoGeral());
+    }
+}
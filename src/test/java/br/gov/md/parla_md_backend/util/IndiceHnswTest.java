@@ -0,0 +1,108 @@
+package br.gov.md.parla_md_backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceHnswTest {
+
+    private static final int DIMENSAO = 32;
+
+    private float[][] gerarVetores(int quantidade, long semente) {
+        Random aleatorio = new Random(semente);
+        float[][] vetores = new float[quantidade][DIMENSAO];
+        for (float[] vetor : vetores) {
+            for (int i = 0; i < DIMENSAO; i++) {
+                vetor[i] = (float) aleatorio.nextGaussian();
+            }
+        }
+        return vetores;
+    }
+
+    private Set<String> vizinhosExatos(float[][] vetores, float[] consulta, int k) {
+        float[] q = IndiceHnsw.normalizar(consulta);
+        return IntStream.range(0, vetores.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> -produto(q, IndiceHnsw.normalizar(vetores[i]))))
+                .limit(k)
+                .map(i -> "item-" + i)
+                .collect(Collectors.toSet());
+    }
+
+    private static double produto(float[] a, float[] b) {
+        double soma = 0;
+        for (int i = 0; i < a.length; i++) {
+            soma += a[i] * b[i];
+        }
+        return soma;
+    }
+
+    @Test
+    @DisplayName("Deve encontrar a maior parte dos vizinhos exatos")
+    void deveTerRevocacaoAlta() {
+        float[][] vetores = gerarVetores(2000, 1);
+        IndiceHnsw indice = new IndiceHnsw(DIMENSAO, 16, 100);
+        for (int i = 0; i < vetores.length; i++) {
+            indice.adicionar("item-" + i, vetores[i]);
+        }
+
+        float[][] consultas = gerarVetores(50, 2);
+        int acertos = 0;
+        for (float[] consulta : consultas) {
+            Set<String> exatos = vizinhosExatos(vetores, consulta, 10);
+            acertos += (int) indice.buscar(consulta, 10, 64).stream()
+                    .filter(v -> exatos.contains(v.chave()))
+                    .count();
+        }
+
+        assertTrue(acertos / (50.0 * 10) > 0.9, "Revocação abaixo do esperado: " + acertos);
+    }
+
+    @Test
+    @DisplayName("Deve substituir o vetor de uma chave atualizada e ignorar removidas")
+    void deveAtualizarERemover() {
+        IndiceHnsw indice = new IndiceHnsw(3, 4, 16);
+        indice.adicionar("a", new float[]{1, 0, 0});
+        indice.adicionar("b", new float[]{0, 1, 0});
+        indice.adicionar("a", new float[]{0, 0, 1});
+
+        assertEquals(2, indice.tamanho());
+        assertEquals("a", indice.buscar(new float[]{0, 0, 2}, 1, 10).get(0).chave());
+
+        indice.remover("a");
+        List<IndiceHnsw.Vizinho> restantes = indice.buscar(new float[]{0, 0, 1}, 5, 10);
+        assertEquals(List.of("b"), restantes.stream().map(IndiceHnsw.Vizinho::chave).toList());
+        assertEquals(1, indice.compactar().tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve restaurar o índice persistido com os mesmos resultados")
+    void deveSalvarECarregar() throws Exception {
+        float[][] vetores = gerarVetores(300, 3);
+        IndiceHnsw indice = new IndiceHnsw(DIMENSAO, 8, 50);
+        for (int i = 0; i < vetores.length; i++) {
+            indice.adicionar("item-" + i, vetores[i]);
+        }
+        indice.remover("item-0");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        indice.salvar(new DataOutputStream(bytes));
+        IndiceHnsw carregado = IndiceHnsw.carregar(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        float[] consulta = gerarVetores(1, 4)[0];
+        assertEquals(indice.buscar(consulta, 10, 50), carregado.buscar(consulta, 10, 50));
+        assertEquals(299, carregado.tamanho());
+        assertFalse(carregado.contem("item-0"));
+    }
+}
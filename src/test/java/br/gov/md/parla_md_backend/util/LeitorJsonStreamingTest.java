@@ -0,0 +1,64 @@
+package br.gov.md.parla_md_backend.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorJsonStreamingTest {
+
+    @Test
+    @DisplayName("Deve entregar cada elemento de dados e devolver os links por rel")
+    void deveLerDadosELinks() throws IOException {
+        String json = """
+                {
+                  "dados": [
+                    {"id": 2401, "siglaTipo": "PL", "ementa": null, "statusProposicao": {"regime": "Urgência"}},
+                    {"id": 2402, "siglaTipo": "PEC"}
+                  ],
+                  "extra": {"ignorado": [1, 2, {"a": "b"}]},
+                  "links": [
+                    {"rel": "self", "href": "https://camara.test/proposicoes?pagina=1"},
+                    {"rel": "next", "href": "https://camara.test/proposicoes?pagina=2"},
+                    {"rel": "last"}
+                  ]
+                }
+                """;
+        List<JsonNode> dados = new ArrayList<>();
+
+        LeitorJsonStreaming.Pagina pagina = LeitorJsonStreaming.lerDados(fluxo(json), dados::add);
+
+        assertEquals(2, pagina.registros());
+        assertEquals(2401L, dados.get(0).path("id").asLong());
+        assertEquals("", LeitorJsonStreaming.texto(dados.get(0), "ementa"));
+        assertEquals("Urgência", dados.get(0).path("statusProposicao").path("regime").asText());
+        assertEquals("PEC", LeitorJsonStreaming.texto(dados.get(1), "siglaTipo"));
+        assertEquals("https://camara.test/proposicoes?pagina=2", pagina.link("next"));
+        assertNull(pagina.link("last"));
+    }
+
+    @Test
+    @DisplayName("Deve entregar dados de recurso único e recusar resposta que não é objeto")
+    void deveLerRecursoUnico() throws IOException {
+        List<JsonNode> dados = new ArrayList<>();
+
+        LeitorJsonStreaming.Pagina pagina = LeitorJsonStreaming.lerDados(
+                fluxo("{\"links\": [], \"dados\": {\"id\": 7}}"), dados::add);
+
+        assertEquals(1, pagina.registros());
+        assertEquals(7, dados.get(0).path("id").asInt());
+        assertThrows(IOException.class, () -> LeitorJsonStreaming.lerDados(fluxo("[1, 2]"), no -> { }));
+    }
+
+    private static InputStream fluxo(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
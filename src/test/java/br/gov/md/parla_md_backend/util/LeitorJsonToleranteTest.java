@@ -0,0 +1,40 @@
+package br.gov.md.parla_md_backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorJsonToleranteTest {
+
+    @Test
+    @DisplayName("Deve ignorar cercas de markdown e vírgulas finais")
+    void deveLerJsonComMarkdown() {
+        LeitorJsonTolerante.Leitura leitura = LeitorJsonTolerante.ler("""
+                ```json
+                {"resumo": "texto", "itens": [1, 2,],}
+                ```""");
+
+        assertTrue(leitura.completa());
+        assertEquals("texto", leitura.no().get("resumo").asText());
+        assertEquals(2, leitura.no().get("itens").size());
+    }
+
+    @Test
+    @DisplayName("Deve fechar estruturas abertas e descartar o valor truncado")
+    void deveFecharJsonTruncado() {
+        LeitorJsonTolerante.Leitura leitura = LeitorJsonTolerante.ler(
+                "{\"probabilidade\": 0.7, \"fatores\": [\"prazo\", \"custo\"], \"justificativa\": \"A proposta tra");
+
+        assertFalse(leitura.completa());
+        assertEquals(0.7, leitura.no().get("probabilidade").asDouble());
+        assertEquals(2, leitura.no().get("fatores").size());
+        assertFalse(leitura.no().has("justificativa"));
+    }
+
+    @Test
+    @DisplayName("Deve indicar ausência de JSON")
+    void deveIndicarAusenciaDeJson() {
+        assertNull(LeitorJsonTolerante.ler("Não foi possível analisar.").no());
+    }
+}
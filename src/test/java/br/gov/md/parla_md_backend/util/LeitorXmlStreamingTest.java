@@ -0,0 +1,68 @@
+package br.gov.md.parla_md_backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorXmlStreamingTest {
+
+    private static final String XML = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <PesquisaBasicaMateria>
+              <Materias>
+                <Materia>
+                  <IdentificacaoMateria>
+                    <CodigoMateria>157131</CodigoMateria>
+                    <SiglaSubtipoMateria>PL</SiglaSubtipoMateria>
+                  </IdentificacaoMateria>
+                  <DadosBasicosMateria>
+                    <EmentaMateria>  Altera a Lei de Defesa &amp; Segurança  </EmentaMateria>
+                    <Indexacao/>
+                  </DadosBasicosMateria>
+                  <Relatoria><CodigoMateria>999</CodigoMateria></Relatoria>
+                </Materia>
+                <Materia>
+                  <IdentificacaoMateria><CodigoMateria>157132</CodigoMateria></IdentificacaoMateria>
+                </Materia>
+              </Materias>
+            </PesquisaBasicaMateria>
+            """;
+
+    @Test
+    @DisplayName("Deve entregar cada registro com os textos das folhas, mantendo a primeira ocorrência")
+    void deveLerRegistros() throws XMLStreamException {
+        List<Map<String, String>> registros = new ArrayList<>();
+
+        int lidos = LeitorXmlStreaming.lerRegistros(
+                new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)), "Materia", registros::add);
+
+        assertEquals(2, lidos);
+        Map<String, String> primeira = registros.get(0);
+        assertEquals("157131", primeira.get("CodigoMateria"));
+        assertEquals("PL", primeira.get("SiglaSubtipoMateria"));
+        assertEquals("Altera a Lei de Defesa & Segurança", primeira.get("EmentaMateria"));
+        assertEquals("", primeira.get("Indexacao"));
+        assertFalse(primeira.containsKey("IdentificacaoMateria"));
+
+        assertEquals("157132", registros.get(1).get("CodigoMateria"));
+        assertNull(registros.get(1).get("EmentaMateria"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar DTD")
+    void deveRecusarDtd() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE x [<!ENTITY e SYSTEM \"file:///etc/passwd\">]>"
+                + "<Materias><Materia><EmentaMateria>&e;</EmentaMateria></Materia></Materias>";
+
+        assertThrows(XMLStreamException.class, () -> LeitorXmlStreaming.lerRegistros(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "Materia", campos -> { }));
+    }
+}